@@ -0,0 +1,193 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.NullProgressCallback;
+import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the stages of the generator pipeline on synthetic schemas of
+ * 10, 100 and 1000 wide tables. Nothing is written: the generated files are
+ * only rendered, and the XML merge reads existing files from a temporary
+ * directory that is created in the setup.
+ *
+ * <p>Run with <code>mvn -Pbenchmark test-compile exec:exec</code>. JMH options
+ * can be passed with <code>-Djmh.args="..."</code>, for example
+ * <code>-Djmh.args="GeneratorBenchmark.generate -p tables=100"</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int tables;
+
+    private File targetDirectory;
+
+    private MyBatisGenerator myBatisGenerator;
+
+    private Context context;
+
+    private List<GeneratedJavaFile> generatedJavaFiles;
+
+    private List<GeneratedXmlFile> generatedXmlFiles;
+
+    private List<File> existingXmlFiles;
+
+    @Setup
+    public void setUp() throws Exception {
+        SyntheticSchema.create(tables);
+
+        targetDirectory = File.createTempFile("mbg-benchmark", "");
+        targetDirectory.delete();
+        targetDirectory.mkdirs();
+
+        Configuration configuration = SyntheticSchema.getConfiguration(tables,
+                targetDirectory.getAbsolutePath());
+        myBatisGenerator = new MyBatisGenerator(configuration, new DefaultShellCallback(true),
+                new ArrayList<String>());
+        myBatisGenerator.generate(null, null, null, false);
+        context = configuration.getContexts().get(0);
+        generatedJavaFiles = new ArrayList<GeneratedJavaFile>(myBatisGenerator.getGeneratedJavaFiles());
+        generatedXmlFiles = new ArrayList<GeneratedXmlFile>(myBatisGenerator.getGeneratedXmlFiles());
+
+        // the existing mappers have a custom statement that the merge must keep
+        existingXmlFiles = new ArrayList<File>();
+        for (GeneratedXmlFile generatedXmlFile : generatedXmlFiles) {
+            String source = generatedXmlFile.getFormattedContent();
+            int index = source.lastIndexOf("</mapper>");
+            source = source.substring(0, index)
+                    + "  <select id=\"selectCustom\" resultType=\"int\">\n    select 1\n  </select>\n"
+                    + source.substring(index);
+            File file = new File(targetDirectory, existingXmlFiles.size() + ".xml");
+            writeFile(file, source);
+            existingXmlFiles.add(file);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (File file : existingXmlFiles) {
+            file.delete();
+        }
+        targetDirectory.delete();
+    }
+
+    /**
+     * Reads the tables and columns of the schema from the database metadata.
+     */
+    @Benchmark
+    public void introspectTables(Blackhole blackhole) throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        context.introspectTables(new NullProgressCallback(), warnings, null);
+        blackhole.consume(warnings);
+    }
+
+    /**
+     * Builds the Java and XML DOMs of the introspected tables, including the
+     * plugin calls.
+     */
+    @Benchmark
+    public void generateFiles(Blackhole blackhole) throws Exception {
+        List<GeneratedJavaFile> javaFiles = new ArrayList<GeneratedJavaFile>();
+        List<GeneratedXmlFile> xmlFiles = new ArrayList<GeneratedXmlFile>();
+        context.generateFiles(new NullProgressCallback(), javaFiles, xmlFiles, new ArrayList<String>());
+        blackhole.consume(javaFiles);
+        blackhole.consume(xmlFiles);
+    }
+
+    /**
+     * Renders the generated Java files.
+     */
+    @Benchmark
+    public void formatJavaFiles(Blackhole blackhole) {
+        for (GeneratedJavaFile generatedJavaFile : generatedJavaFiles) {
+            blackhole.consume(generatedJavaFile.getFormattedContent());
+        }
+    }
+
+    /**
+     * Renders the generated XML files.
+     */
+    @Benchmark
+    public void formatXmlFiles(Blackhole blackhole) {
+        for (GeneratedXmlFile generatedXmlFile : generatedXmlFiles) {
+            blackhole.consume(generatedXmlFile.getFormattedContent());
+        }
+    }
+
+    /**
+     * Merges the generated XML files with the existing files.
+     */
+    @Benchmark
+    public void mergeXmlFiles(Blackhole blackhole) throws ShellException {
+        for (int i = 0; i < generatedXmlFiles.size(); i++) {
+            blackhole.consume(XmlFileMergerJaxp.getMergedSource(generatedXmlFiles.get(i),
+                    existingXmlFiles.get(i)));
+        }
+    }
+
+    /**
+     * Runs the whole generator without writing the files.
+     */
+    @Benchmark
+    public void generate(Blackhole blackhole) throws Exception {
+        myBatisGenerator.generate(null, null, null, false);
+        blackhole.consume(myBatisGenerator.getGeneratedJavaFiles());
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmark;
+
+import java.io.ByteArrayInputStream;
+
+import org.mybatis.generator.SqlScriptRunner;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JDBCConnectionConfiguration;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.config.TableConfiguration;
+
+/**
+ * Creates an in memory HSQLDB schema of synthetic tables for the benchmarks,
+ * and a configuration that generates all of them. The tables start with the
+ * columns of t_table1 in xsili-hsqldb-test.sql, followed by enough columns of
+ * mixed types to make them wide.
+ */
+public class SyntheticSchema {
+
+    public static final String DRIVER = "org.hsqldb.jdbcDriver";
+
+    public static final int COLUMNS = 40;
+
+    private static final String[] COLUMN_TYPES = {
+            "varchar(100)", "integer", "decimal(12,2)", "date", "bigint", "varchar(1000)", "timestamp", "bit(1)" };
+
+    private static final String[] PLUGINS = {
+            "org.mybatis.generator.plugins.SerializablePlugin",
+            "org.mybatis.generator.plugins.ToStringPlugin",
+            "org.mybatis.generator.plugins.EqualsHashCodePlugin" };
+
+    private SyntheticSchema() {
+    }
+
+    public static String getUrl(int tables) {
+        return "jdbc:hsqldb:mem:benchmark" + tables;
+    }
+
+    public static String getTableName(int table) {
+        return "t_bench_" + table;
+    }
+
+    /**
+     * Creates the tables in the database of the size, replacing the tables
+     * of an earlier call.
+     *
+     * @param tables
+     *            the number of tables
+     * @throws Exception
+     *             if the script fails
+     */
+    public static void create(int tables) throws Exception {
+        SqlScriptRunner scriptRunner = new SqlScriptRunner(
+                new ByteArrayInputStream(getScript(tables).getBytes("UTF-8")),
+                DRIVER, getUrl(tables), "sa", "");
+        scriptRunner.executeScript();
+    }
+
+    public static String getScript(int tables) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tables; i++) {
+            String tableName = getTableName(i);
+            sb.append("drop table ").append(tableName).append(" if exists;\n");
+            sb.append("create table ").append(tableName).append(" (\n");
+            sb.append("  id bigint not null,\n");
+            sb.append("  gmt_create datetime not null,\n");
+            sb.append("  gmt_modified datetime default null,\n");
+            sb.append("  is_deleted bit(1),\n");
+            sb.append("  audit_status varchar(20),\n");
+            sb.append("  user_id bigint,\n");
+            sb.append("  title varchar(20) not null,\n");
+            sb.append("  description varchar(1000),\n");
+            for (int c = 8; c < COLUMNS; c++) {
+                sb.append("  column_").append(c).append(' ')
+                        .append(COLUMN_TYPES[c % COLUMN_TYPES.length]).append(",\n");
+            }
+            sb.append("  primary key (id)\n");
+            sb.append(");\n");
+            sb.append("comment on table ").append(tableName)
+                    .append(" is 'benchmark table ").append(i).append("';\n");
+            sb.append("comment on column ").append(tableName)
+                    .append(".audit_status is 'audit status {enum: UNAUDITED, AUDIT_PASS, AUDIT_NOT_PASS}';\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a MyBatis3 configuration that generates every table of the
+     * database of the size.
+     *
+     * @param tables
+     *            the number of tables
+     * @param targetProject
+     *            the directory the files are written to
+     * @return the configuration
+     */
+    public static Configuration getConfiguration(int tables, String targetProject) {
+        Context context = new Context(ModelType.FLAT);
+        context.setId("benchmark");
+        context.setTargetRuntime("MyBatis3");
+
+        JDBCConnectionConfiguration jdbcConnectionConfiguration = new JDBCConnectionConfiguration();
+        jdbcConnectionConfiguration.setDriverClass(DRIVER);
+        jdbcConnectionConfiguration.setConnectionURL(getUrl(tables));
+        jdbcConnectionConfiguration.setUserId("sa");
+        jdbcConnectionConfiguration.setPassword("");
+        context.setJdbcConnectionConfiguration(jdbcConnectionConfiguration);
+
+        JavaModelGeneratorConfiguration javaModelGeneratorConfiguration = new JavaModelGeneratorConfiguration();
+        javaModelGeneratorConfiguration.setTargetPackage("benchmark.model");
+        javaModelGeneratorConfiguration.setTargetProject(targetProject);
+        context.setJavaModelGeneratorConfiguration(javaModelGeneratorConfiguration);
+
+        SqlMapGeneratorConfiguration sqlMapGeneratorConfiguration = new SqlMapGeneratorConfiguration();
+        sqlMapGeneratorConfiguration.setTargetPackage("benchmark.mapper");
+        sqlMapGeneratorConfiguration.setTargetProject(targetProject);
+        context.setSqlMapGeneratorConfiguration(sqlMapGeneratorConfiguration);
+
+        JavaClientGeneratorConfiguration javaClientGeneratorConfiguration = new JavaClientGeneratorConfiguration();
+        javaClientGeneratorConfiguration.setConfigurationType("XMLMAPPER");
+        javaClientGeneratorConfiguration.setTargetPackage("benchmark.mapper");
+        javaClientGeneratorConfiguration.setTargetProject(targetProject);
+        context.setJavaClientGeneratorConfiguration(javaClientGeneratorConfiguration);
+
+        for (String plugin : PLUGINS) {
+            PluginConfiguration pluginConfiguration = new PluginConfiguration();
+            pluginConfiguration.setConfigurationType(plugin);
+            context.addPluginConfiguration(pluginConfiguration);
+        }
+
+        for (int i = 0; i < tables; i++) {
+            TableConfiguration tableConfiguration = new TableConfiguration(context);
+            tableConfiguration.setTableName(getTableName(i));
+            context.addTableConfiguration(tableConfiguration);
+        }
+
+        Configuration configuration = new Configuration();
+        configuration.addContext(context);
+        return configuration;
+    }
+}
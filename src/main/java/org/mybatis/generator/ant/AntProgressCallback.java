@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.ant;
 
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
 import org.mybatis.generator.internal.NullProgressCallback;
@@ -55,4 +57,13 @@ public class AntProgressCallback extends NullProgressCallback {
             task.log(subTaskName, Project.MSG_VERBOSE);
         }
     }
+
+    @Override
+    public void saveCompleted(int writtenFiles, int skippedFiles) {
+        if (verbose) {
+            task.log(getString("Progress.19", //$NON-NLS-1$
+                    Integer.toString(writtenFiles), Integer.toString(skippedFiles)),
+                    Project.MSG_VERBOSE);
+        }
+    }
 }
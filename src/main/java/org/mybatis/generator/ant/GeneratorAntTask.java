@@ -32,12 +32,14 @@ import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
 import org.apache.tools.ant.types.PropertySet;
+import org.mybatis.generator.api.GenerationStatistics;
 import org.mybatis.generator.api.MyBatisGenerator;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.XMLParserException;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.JavaParserShellCallback;
 
 /**
  * This is an Ant task that will run the generator. The following is a sample
@@ -67,11 +69,18 @@ import org.mybatis.generator.internal.DefaultShellCallback;
  * <li>"overwrite" - if true, then existing Java files will be overwritten. if
  * false (default), then existing Java files will be untouched and the generator
  * will write new Java files with a unique name</li>
+ * <li>"mergeJava" - if true, then existing Java files will be merged: generated
+ * members are replaced and other members are kept. Requires javaparser-core in
+ * the classpath. Default is false</li>
  * <li>"verbose" - if true, then the generator will log progress messages to the
  * Ant log. Default is false</li>
+ * <li>"timings" - if true, then the time spent in each phase and in each plugin
+ * method is logged at the end of the run. Default is false</li>
  * <li>"contextIds" - a comma delimited list of contaxtIds to use for this run</li>
  * <li>"fullyQualifiedTableNames" - a comma delimited list of fully qualified
  * table names to use for this run</li>
+ * <li>"writeThreads" - the number of threads used to write the generated
+ * files. Default is 1</li>
  * </ul>
  * 
  * 
@@ -81,10 +90,13 @@ public class GeneratorAntTask extends Task {
 
     private String configfile;
     private boolean overwrite;
+    private boolean mergeJava;
     private PropertySet propertyset;
     private boolean verbose;
+    private boolean timings;
     private String contextIds;
     private String fullyQualifiedTableNames;
+    private int writeThreads = 1;
 
     public GeneratorAntTask() {
         super();
@@ -139,13 +151,27 @@ public class GeneratorAntTask extends Task {
             ConfigurationParser cp = new ConfigurationParser(p, warnings);
             Configuration config = cp.parseConfiguration(configurationFile);
 
-            DefaultShellCallback callback = new DefaultShellCallback(overwrite);
+            DefaultShellCallback callback = mergeJava ? new JavaParserShellCallback(overwrite)
+                    : new DefaultShellCallback(overwrite);
 
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, callback, warnings);
+            myBatisGenerator.setWriteThreads(writeThreads);
+
+            GenerationStatistics statistics = null;
+            if (timings) {
+                statistics = new GenerationStatistics();
+                myBatisGenerator.setStatistics(statistics);
+            }
 
             myBatisGenerator.generate(new AntProgressCallback(this, verbose), contexts,
                     fullyqualifiedTables);
 
+            if (statistics != null) {
+                for (String line : statistics.getReport()) {
+                    log(line, Project.MSG_INFO);
+                }
+            }
+
         } catch (XMLParserException e) {
             for (String error : e.getErrors()) {
                 log(error, Project.MSG_ERR);
@@ -220,6 +246,14 @@ public class GeneratorAntTask extends Task {
         this.verbose = verbose;
     }
 
+    public boolean isTimings() {
+        return timings;
+    }
+
+    public void setTimings(boolean timings) {
+        this.timings = timings;
+    }
+
     public String getContextIds() {
         return contextIds;
     }
@@ -235,4 +269,20 @@ public class GeneratorAntTask extends Task {
     public void setFullyQualifiedTableNames(String fullyQualifiedTableNames) {
         this.fullyQualifiedTableNames = fullyQualifiedTableNames;
     }
+
+    public boolean isMergeJava() {
+        return mergeJava;
+    }
+
+    public void setMergeJava(boolean mergeJava) {
+        this.mergeJava = mergeJava;
+    }
+
+    public int getWriteThreads() {
+        return writeThreads;
+    }
+
+    public void setWriteThreads(int writeThreads) {
+        this.writeThreads = writeThreads;
+    }
 }
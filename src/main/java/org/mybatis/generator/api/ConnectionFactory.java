@@ -23,7 +23,10 @@ public interface ConnectionFactory {
 
     /**
      * Should return a connection to the database in use for this context.
-     * The generator will call this method only one time for each context.
+     * The generator will call this method only one time for each context,
+     * unless the context property "introspectionThreads" is greater than one.
+     * In that case it is called once for every introspection thread, and the
+     * connections are used concurrently.
      * The generator will close the connection.
      * 
      * @return the connection
@@ -22,11 +22,9 @@ import static org.mybatis.generator.internal.util.JavaBeansUtil.getCamelCaseStri
 import static org.mybatis.generator.internal.util.StringUtility.composeFullyQualifiedTableName;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.DomainObjectRenamingRule;
+import org.mybatis.generator.internal.util.RenamingRule;
 
 /**
  * The Class FullyQualifiedTable.
@@ -47,7 +45,7 @@ public class FullyQualifiedTable {
     private boolean ignoreQualifiersAtRuntime;
     private String beginningDelimiter;
     private String endingDelimiter;
-    private DomainObjectRenamingRule domainObjectRenamingRule;
+    private RenamingRule domainObjectRenamingRule;
 
     /**
      * This object is used to hold information related to the table itself, not the columns in the
@@ -108,7 +106,13 @@ public class FullyQualifiedTable {
         this.runtimeCatalog = runtimeCatalog;
         this.runtimeSchema = runtimeSchema;
         this.runtimeTableName = runtimeTableName;
-        this.domainObjectRenamingRule = domainObjectRenamingRule;
+        if (domainObjectRenamingRule != null) {
+            this.domainObjectRenamingRule = context == null
+                    ? RenamingRule.compile(domainObjectRenamingRule.getSearchString(),
+                            domainObjectRenamingRule.getReplaceString())
+                    : context.getRenamingRule(domainObjectRenamingRule.getSearchString(),
+                            domainObjectRenamingRule.getReplaceString());
+        }
 
         if (stringHasValue(domainObjectName)) {
             int index = domainObjectName.lastIndexOf('.');
@@ -258,11 +262,7 @@ public class FullyQualifiedTable {
         }
 
         if (domainObjectRenamingRule != null) {
-            Pattern pattern = Pattern.compile(domainObjectRenamingRule.getSearchString());
-            String replaceString = domainObjectRenamingRule.getReplaceString();
-            replaceString = replaceString == null ? "" : replaceString;
-            Matcher matcher = pattern.matcher(finalDomainObjectName);
-            finalDomainObjectName = matcher.replaceAll(replaceString);
+            finalDomainObjectName = domainObjectRenamingRule.rename(finalDomainObjectName);
         }
         return finalDomainObjectName;
     }
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 /**
  * Abstract class that holds information common to all generated files.
  * 
@@ -47,6 +49,21 @@ public abstract class GeneratedFile {
      */
     public abstract String getFormattedContent();
 
+    /**
+     * Writes the entire contents of the generated file to an Appendable, such
+     * as the writer of the output file. The written content is the same as
+     * the result of getFormattedContent. Subclasses override this method if
+     * they can write the content without building it as a String first.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public void writeFormattedContent(Appendable out) throws IOException {
+        out.append(getFormattedContent());
+    }
+
     /**
      * Get the file name (without any path). Clients should use this method to
      * determine how to save the results.
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 
 /**
@@ -79,6 +81,14 @@ public class GeneratedJavaFile extends GeneratedFile {
         return javaFormatter.getFormattedContent(compilationUnit);
     }
 
+    /* (non-Javadoc)
+     * @see org.mybatis.generator.api.GeneratedFile#writeFormattedContent(java.lang.Appendable)
+     */
+    @Override
+    public void writeFormattedContent(Appendable out) throws IOException {
+        javaFormatter.writeFormattedContent(compilationUnit, out);
+    }
+
     /* (non-Javadoc)
      * @see org.mybatis.generator.api.GeneratedFile#getFileName()
      */
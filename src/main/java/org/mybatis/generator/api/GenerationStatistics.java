@@ -0,0 +1,185 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects the time spent in the phases of a generator run, and the number of
+ * calls and the time spent in each method of each plugin. An instance is
+ * passed to {@link MyBatisGenerator#setStatistics(GenerationStatistics)};
+ * nothing is measured unless statistics are set.
+ *
+ * <p>The statistics are accumulated over every call to generate, and may be
+ * updated by more than one thread at a time.
+ */
+public class GenerationStatistics {
+
+    /**
+     * The phases of a generator run.
+     */
+    public enum Phase {
+        /** Wall time spent introspecting the tables. */
+        INTROSPECTION,
+        /** Wall time spent generating the files, including the plugin calls. */
+        GENERATION,
+        /** Time spent merging the existing files, summed over the writer threads. */
+        MERGE,
+        /** Wall time spent saving the files, including the merges. */
+        WRITE
+    }
+
+    private final AtomicLongArray phaseTimes = new AtomicLongArray(Phase.values().length);
+
+    private final ConcurrentMap<String, PluginMethodStatistics> pluginStatistics =
+            new ConcurrentHashMap<String, PluginMethodStatistics>();
+
+    public GenerationStatistics() {
+        super();
+    }
+
+    public void addPhaseTime(Phase phase, long nanos) {
+        phaseTimes.addAndGet(phase.ordinal(), nanos);
+    }
+
+    /**
+     * Returns the time spent in a phase.
+     *
+     * @param phase
+     *            the phase
+     * @return the time in nanoseconds
+     */
+    public long getPhaseTime(Phase phase) {
+        return phaseTimes.get(phase.ordinal());
+    }
+
+    public void addPluginCall(String plugin, String method, long nanos) {
+        String key = plugin + '#' + method;
+        PluginMethodStatistics statistics = pluginStatistics.get(key);
+        if (statistics == null) {
+            statistics = new PluginMethodStatistics(plugin, method);
+            PluginMethodStatistics existing = pluginStatistics.putIfAbsent(key, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        statistics.calls.incrementAndGet();
+        statistics.time.addAndGet(nanos);
+    }
+
+    /**
+     * Returns the statistics of the plugin methods that were called, the most
+     * expensive first.
+     *
+     * @return the plugin method statistics
+     */
+    public List<PluginMethodStatistics> getPluginStatistics() {
+        List<PluginMethodStatistics> answer =
+                new ArrayList<PluginMethodStatistics>(pluginStatistics.values());
+        Collections.sort(answer, new Comparator<PluginMethodStatistics>() {
+            @Override
+            public int compare(PluginMethodStatistics o1, PluginMethodStatistics o2) {
+                long t1 = o1.getTime();
+                long t2 = o2.getTime();
+                return t1 < t2 ? 1 : (t1 == t2 ? 0 : -1);
+            }
+        });
+        return answer;
+    }
+
+    /**
+     * Returns the lines of a human readable report of the statistics.
+     *
+     * @return the report lines
+     */
+    public List<String> getReport() {
+        List<String> answer = new ArrayList<String>();
+        answer.add(getString("Timing.0")); //$NON-NLS-1$
+        for (Phase phase : Phase.values()) {
+            answer.add(getString("Timing.1", //$NON-NLS-1$
+                    phase.name().toLowerCase(), toMillis(getPhaseTime(phase))));
+        }
+
+        List<PluginMethodStatistics> plugins = getPluginStatistics();
+        if (!plugins.isEmpty()) {
+            answer.add(getString("Timing.2")); //$NON-NLS-1$
+            for (PluginMethodStatistics statistics : plugins) {
+                answer.add(getString("Timing.3", //$NON-NLS-1$
+                        statistics.getPlugin(), statistics.getMethod(),
+                        Long.toString(statistics.getCalls()), toMillis(statistics.getTime())));
+            }
+        }
+
+        return answer;
+    }
+
+    private static String toMillis(long nanos) {
+        return Long.toString(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * The number of calls and the time spent in one method of one plugin.
+     */
+    public static class PluginMethodStatistics {
+        private final String plugin;
+        private final String method;
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong time = new AtomicLong();
+
+        private PluginMethodStatistics(String plugin, String method) {
+            this.plugin = plugin;
+            this.method = method;
+        }
+
+        /**
+         * @return the class name of the plugin
+         */
+        public String getPlugin() {
+            return plugin;
+        }
+
+        /**
+         * @return the name of the method
+         */
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * @return the number of calls
+         */
+        public long getCalls() {
+            return calls.get();
+        }
+
+        /**
+         * @return the time spent in the method, in nanoseconds
+         */
+        public long getTime() {
+            return time.get();
+        }
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.config.Context;
 
@@ -34,4 +36,23 @@ public interface JavaFormatter {
     void setContext(Context context);
 
     String getFormattedContent(CompilationUnit compilationUnit);
+
+    /**
+     * Writes the formatted compilation unit to an Appendable, typically the
+     * writer of the output file. The written content must be the same as the
+     * result of getFormattedContent. The default implementation appends that
+     * result; formatters that can render directly to the output should
+     * override it.
+     *
+     * @param compilationUnit
+     *            the compilation unit
+     * @param out
+     *            the Appendable to write to
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    default void writeFormattedContent(CompilationUnit compilationUnit, Appendable out)
+            throws IOException {
+        out.append(getFormattedContent(compilationUnit));
+    }
 }
@@ -20,14 +20,29 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.mybatis.generator.codegen.RootClassInfo;
 import org.mybatis.generator.config.Configuration;
@@ -38,6 +53,7 @@ import org.mybatis.generator.exception.ShellException;
 import org.mybatis.generator.internal.DefaultShellCallback;
 import org.mybatis.generator.internal.NullProgressCallback;
 import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.SynchronizedProgressCallback;
 import org.mybatis.generator.internal.XmlFileMergerJaxp;
 
 /**
@@ -73,6 +89,21 @@ public class MyBatisGenerator {
     /** The projects. */
     private Set<String> projects;
 
+    /** The number of files written by the last call to generate. */
+    private int writtenFiles;
+
+    /** The number of unchanged files that were not written by the last call to generate. */
+    private int skippedFiles;
+
+    /** The number of threads used to write the generated files. */
+    private int writeThreads = 1;
+
+    /** The locks of the target files, by absolute file. */
+    private ConcurrentMap<File, Object> fileLocks = new ConcurrentHashMap<File, Object>();
+
+    /** The statistics the phase and plugin timings are added to, or null. */
+    private GenerationStatistics statistics;
+
     /**
      * Constructs a MyBatisGenerator object.
      * 
@@ -224,6 +255,9 @@ public class MyBatisGenerator {
 
         generatedJavaFiles.clear();
         generatedXmlFiles.clear();
+        writtenFiles = 0;
+        skippedFiles = 0;
+        fileLocks.clear();
         ObjectFactory.reset();
         RootClassInfo.reset();
 
@@ -253,10 +287,12 @@ public class MyBatisGenerator {
         }
         callback.introspectionStarted(totalSteps);
 
+        long start = System.nanoTime();
         for (Context context : contextsToRun) {
             context.introspectTables(callback, warnings,
                     fullyQualifiedTableNames);
         }
+        addPhaseTime(GenerationStatistics.Phase.INTROSPECTION, start);
 
         // now run the generates
         totalSteps = 0;
@@ -265,110 +301,319 @@ public class MyBatisGenerator {
         }
         callback.generationStarted(totalSteps);
 
+        // tables that did not change since their files were last written are
+        // only skipped if the files are written
+        start = System.nanoTime();
         for (Context context : contextsToRun) {
+            context.setGenerationStatistics(statistics);
             context.generateFiles(callback, generatedJavaFiles,
-                    generatedXmlFiles, warnings);
+                    generatedXmlFiles, warnings, writeFiles);
         }
+        addPhaseTime(GenerationStatistics.Phase.GENERATION, start);
 
         // now save the files
         if (writeFiles) {
             callback.saveStarted(generatedXmlFiles.size()
                     + generatedJavaFiles.size());
 
+            start = System.nanoTime();
+
+            List<FileWrite> fileWrites = new ArrayList<FileWrite>();
             for (GeneratedXmlFile gxf : generatedXmlFiles) {
                 projects.add(gxf.getTargetProject());
-                writeGeneratedXmlFile(gxf, callback);
+                fileWrites.add(new FileWrite(gxf));
             }
 
             for (GeneratedJavaFile gjf : generatedJavaFiles) {
                 projects.add(gjf.getTargetProject());
-                writeGeneratedJavaFile(gjf, callback);
+                fileWrites.add(new FileWrite(gjf));
+            }
+
+            if (writeThreads > 1 && fileWrites.size() > 1) {
+                writeFilesConcurrently(fileWrites, callback);
+            } else {
+                for (FileWrite fileWrite : fileWrites) {
+                    writeGeneratedFile(fileWrite, callback);
+                    addResult(fileWrite);
+                }
             }
 
             for (String project : projects) {
                 shellCallback.refreshProject(project);
             }
+
+            // a table whose files could not all be written keeps its old
+            // hash, so that it is generated again by the next run
+            Map<GeneratedFile, File> targetFiles = new IdentityHashMap<GeneratedFile, File>();
+            for (FileWrite fileWrite : fileWrites) {
+                if (fileWrite.written || fileWrite.skipped) {
+                    targetFiles.put(fileWrite.generatedFile, fileWrite.targetFile);
+                }
+            }
+            for (Context context : contextsToRun) {
+                context.saveGenerationManifest(targetFiles, warnings);
+            }
+            addPhaseTime(GenerationStatistics.Phase.WRITE, start);
+
+            callback.saveCompleted(writtenFiles, skippedFiles);
         }
 
         callback.done();
     }
 
-    private void writeGeneratedJavaFile(GeneratedJavaFile gjf, ProgressCallback callback)
+    /**
+     * Renders and writes the files on a pool of writeThreads threads. Files
+     * with the same target are written one after the other by the same
+     * thread, in the order in which they were generated, so that merging
+     * and unique file names work as if the files were written serially.
+     * The results are collected in the original order of the files.
+     *
+     * @param fileWrites
+     *            the files to write
+     * @param callback
+     *            the progress callback
+     * @throws InterruptedException
+     *             if the method is canceled through the ProgressCallback
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeFilesConcurrently(List<FileWrite> fileWrites, ProgressCallback callback)
             throws InterruptedException, IOException {
-        File targetFile;
-        String source;
+        final ProgressCallback synchronizedCallback = new SynchronizedProgressCallback(callback);
+
+        Map<String, List<FileWrite>> fileWritesByTarget = new LinkedHashMap<String, List<FileWrite>>();
+        for (FileWrite fileWrite : fileWrites) {
+            GeneratedFile generatedFile = fileWrite.generatedFile;
+            String target = generatedFile.getTargetProject() + '|'
+                    + generatedFile.getTargetPackage() + '|'
+                    + generatedFile.getFileName();
+            List<FileWrite> targetWrites = fileWritesByTarget.get(target);
+            if (targetWrites == null) {
+                targetWrites = new ArrayList<FileWrite>();
+                fileWritesByTarget.put(target, targetWrites);
+            }
+            targetWrites.add(fileWrite);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(writeThreads, fileWritesByTarget.size()));
         try {
-            File directory = shellCallback.getDirectory(gjf
-                    .getTargetProject(), gjf.getTargetPackage());
-            targetFile = new File(directory, gjf.getFileName());
-            if (targetFile.exists()) {
-                if (shellCallback.isMergeSupported()) {
-                    source = shellCallback.mergeJavaFile(gjf
-                            .getFormattedContent(), targetFile,
-                            MergeConstants.OLD_ELEMENT_TAGS,
-                            gjf.getFileEncoding());
-                } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gjf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
-                } else {
-                    source = gjf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gjf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+            for (final List<FileWrite> targetWrites : fileWritesByTarget.values()) {
+                Future<Void> result = executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (FileWrite fileWrite : targetWrites) {
+                            writeGeneratedFile(fileWrite, synchronizedCallback);
+                        }
+                        return null;
+                    }
+                });
+                for (FileWrite fileWrite : targetWrites) {
+                    fileWrite.result = result;
                 }
+            }
+
+            for (FileWrite fileWrite : fileWrites) {
+                getWriteResult(fileWrite.result);
+                addResult(fileWrite);
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void addPhaseTime(GenerationStatistics.Phase phase, long start) {
+        if (statistics != null) {
+            statistics.addPhaseTime(phase, System.nanoTime() - start);
+        }
+    }
+
+    private void getWriteResult(Future<Void> result) throws InterruptedException, IOException {
+        try {
+            result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
             } else {
-                source = gjf.getFormattedContent();
+                throw new RuntimeException(cause);
             }
+        }
+    }
 
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, gjf.getFileEncoding());
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
+    private void addResult(FileWrite fileWrite) {
+        warnings.addAll(fileWrite.warnings);
+        if (fileWrite.written) {
+            writtenFiles++;
+        } else if (fileWrite.skipped) {
+            skippedFiles++;
         }
     }
 
-    private void writeGeneratedXmlFile(GeneratedXmlFile gxf, ProgressCallback callback)
+    private void writeGeneratedFile(FileWrite fileWrite, ProgressCallback callback)
             throws InterruptedException, IOException {
-        File targetFile;
-        String source;
+        if (fileWrite.generatedFile instanceof GeneratedJavaFile) {
+            writeGeneratedJavaFile((GeneratedJavaFile) fileWrite.generatedFile, callback, fileWrite);
+        } else {
+            writeGeneratedXmlFile((GeneratedXmlFile) fileWrite.generatedFile, callback, fileWrite);
+        }
+    }
+
+    private void writeGeneratedJavaFile(GeneratedJavaFile gjf, ProgressCallback callback,
+            FileWrite fileWrite) throws InterruptedException, IOException {
         try {
-            File directory = shellCallback.getDirectory(gxf
-                    .getTargetProject(), gxf.getTargetPackage());
-            targetFile = new File(directory, gxf.getFileName());
-            if (targetFile.exists()) {
-                if (gxf.isMergeable()) {
-                    source = XmlFileMergerJaxp.getMergedSource(gxf,
-                            targetFile);
-                } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gxf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
-                } else {
-                    source = gxf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gxf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+            File directory = getDirectory(gjf);
+            File targetFile = new File(directory, gjf.getFileName());
+            fileWrite.targetFile = targetFile;
+            synchronized (getFileLock(targetFile)) {
+                writeGeneratedJavaFile(gjf, directory, targetFile, callback, fileWrite);
+            }
+        } catch (ShellException e) {
+            fileWrite.warnings.add(e.getMessage());
+        }
+    }
+
+    private void writeGeneratedJavaFile(GeneratedJavaFile gjf, File directory, File targetFile,
+            ProgressCallback callback, FileWrite fileWrite)
+            throws InterruptedException, IOException, ShellException {
+        String source;
+        if (targetFile.exists()) {
+            if (shellCallback.isMergeSupported()) {
+                long start = System.nanoTime();
+                source = shellCallback.mergeJavaFile(gjf.getFormattedContent(), targetFile,
+                        MergeConstants.OLD_ELEMENT_TAGS,
+                        gjf.getFileEncoding());
+                addPhaseTime(GenerationStatistics.Phase.MERGE, start);
+            } else if (shellCallback.isOverwriteEnabled()) {
+                source = gjf.getFormattedContent();
+                fileWrite.warnings.add(getString("Warning.11", //$NON-NLS-1$
+                        targetFile.getAbsolutePath()));
+            } else {
+                source = gjf.getFormattedContent();
+                if (hasCopyWithContent(directory, gjf.getFileName(),
+                        getBytes(source, gjf.getFileEncoding()))) {
+                    fileWrite.skipped = true;
+                    return;
                 }
+                targetFile = getUniqueFileName(directory, gjf
+                        .getFileName());
+                fileWrite.warnings.add(getString(
+                        "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+            }
+        } else {
+            // a new file is rendered directly into the file
+            source = null;
+        }
+
+        callback.checkCancel();
+        callback.startTask(getString(
+                "Progress.15", targetFile.getName())); //$NON-NLS-1$
+        if (source == null) {
+            writeFile(targetFile, gjf, gjf.getFileEncoding(), fileWrite);
+        } else {
+            writeFile(targetFile, source, gjf.getFileEncoding(), fileWrite);
+        }
+    }
+
+    private void writeGeneratedXmlFile(GeneratedXmlFile gxf, ProgressCallback callback,
+            FileWrite fileWrite) throws InterruptedException, IOException {
+        try {
+            File directory = getDirectory(gxf);
+            File targetFile = new File(directory, gxf.getFileName());
+            fileWrite.targetFile = targetFile;
+            synchronized (getFileLock(targetFile)) {
+                writeGeneratedXmlFile(gxf, directory, targetFile, callback, fileWrite);
+            }
+        } catch (ShellException e) {
+            fileWrite.warnings.add(e.getMessage());
+        }
+    }
+
+    private void writeGeneratedXmlFile(GeneratedXmlFile gxf, File directory, File targetFile,
+            ProgressCallback callback, FileWrite fileWrite)
+            throws InterruptedException, IOException, ShellException {
+        String source;
+        if (targetFile.exists()) {
+            if (gxf.isMergeable()) {
+                long start = System.nanoTime();
+                source = XmlFileMergerJaxp.getMergedSource(gxf,
+                        targetFile);
+                addPhaseTime(GenerationStatistics.Phase.MERGE, start);
+            } else if (shellCallback.isOverwriteEnabled()) {
+                source = gxf.getFormattedContent();
+                fileWrite.warnings.add(getString("Warning.11", //$NON-NLS-1$
+                        targetFile.getAbsolutePath()));
             } else {
                 source = gxf.getFormattedContent();
+                if (hasCopyWithContent(directory, gxf.getFileName(),
+                        getBytes(source, "UTF-8"))) { //$NON-NLS-1$
+                    fileWrite.skipped = true;
+                    return;
+                }
+                targetFile = getUniqueFileName(directory, gxf
+                        .getFileName());
+                fileWrite.warnings.add(getString(
+                        "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
             }
+        } else {
+            // a new file is rendered directly into the file
+            source = null;
+        }
 
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, "UTF-8"); //$NON-NLS-1$
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
+        callback.checkCancel();
+        callback.startTask(getString(
+                "Progress.15", targetFile.getName())); //$NON-NLS-1$
+        if (source == null) {
+            writeFile(targetFile, gxf, "UTF-8", fileWrite); //$NON-NLS-1$
+        } else {
+            writeFile(targetFile, source, "UTF-8", fileWrite); //$NON-NLS-1$
+        }
+    }
+
+    private File getDirectory(GeneratedFile generatedFile) throws ShellException {
+        // resolving a directory is cheap, so the shell callback need not be
+        // thread safe for it
+        synchronized (shellCallback) {
+            return shellCallback.getDirectory(generatedFile.getTargetProject(),
+                    generatedFile.getTargetPackage());
         }
     }
 
     /**
-     * Writes, or overwrites, the contents of the specified file.
+     * Returns the lock of a target file. The files of different targets are
+     * written, and merged, in parallel. Files whose targets resolve to the
+     * same file, for example through two spellings of a target project, are
+     * still written one after the other, so that merging and unique file
+     * names see the result of the previous write.
+     *
+     * @param targetFile
+     *            the target file
+     * @return the lock
+     */
+    private Object getFileLock(File targetFile) {
+        File key = targetFile.getAbsoluteFile();
+        Object lock = fileLocks.get(key);
+        if (lock == null) {
+            lock = new Object();
+            Object existing = fileLocks.putIfAbsent(key, lock);
+            if (existing != null) {
+                lock = existing;
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Writes, or overwrites, the contents of the specified file. The file is
+     * not written if it already has the same content, so that its timestamp
+     * does not change.
      *
      * @param file
      *            the file
@@ -376,21 +621,151 @@ public class MyBatisGenerator {
      *            the content
      * @param fileEncoding
      *            the file encoding
+     * @param fileWrite
+     *            records whether the file was written or skipped
      * @throws IOException
      *             Signals that an I/O exception has occurred.
      */
-    private void writeFile(File file, String content, String fileEncoding) throws IOException {
+    private void writeFile(File file, String content, String fileEncoding,
+            FileWrite fileWrite) throws IOException {
+        byte[] bytes = getBytes(content, fileEncoding);
+        if (hasContent(file, bytes)) {
+            fileWrite.skipped = true;
+            return;
+        }
+
         FileOutputStream fos = new FileOutputStream(file, false);
-        OutputStreamWriter osw;
+        try {
+            fos.write(bytes);
+        } finally {
+            fos.close();
+        }
+        fileWrite.written = true;
+    }
+
+    /**
+     * Writes a new file by streaming the formatted content of the generated
+     * file into it. The file is deleted if the content cannot be written
+     * completely.
+     *
+     * @param file
+     *            the file
+     * @param generatedFile
+     *            the generated file
+     * @param fileEncoding
+     *            the file encoding
+     * @param fileWrite
+     *            records that the file was written
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void writeFile(File file, GeneratedFile generatedFile, String fileEncoding,
+            FileWrite fileWrite) throws IOException {
+        OutputStream os = new FileOutputStream(file, false);
+        boolean completed = false;
+        try {
+            Writer writer;
+            if (fileEncoding == null) {
+                writer = new OutputStreamWriter(os);
+            } else {
+                writer = new OutputStreamWriter(os, fileEncoding);
+            }
+            writer = new BufferedWriter(writer);
+            generatedFile.writeFormattedContent(writer);
+            writer.flush();
+            completed = true;
+        } finally {
+            os.close();
+            if (!completed) {
+                file.delete();
+            }
+        }
+        fileWrite.written = true;
+    }
+
+    private byte[] getBytes(String content, String fileEncoding) throws IOException {
         if (fileEncoding == null) {
-            osw = new OutputStreamWriter(fos);
+            return content.getBytes();
         } else {
-            osw = new OutputStreamWriter(fos, fileEncoding);
+            return content.getBytes(fileEncoding);
+        }
+    }
+
+    /**
+     * Returns true if an existing file, or one of the numbered copies that
+     * getUniqueFileName created for it because overwriting is disabled,
+     * already has the specified content. A file that did not change since the
+     * last run then does not get yet another copy.
+     *
+     * @param directory
+     *            the directory
+     * @param fileName
+     *            the file name
+     * @param content
+     *            the content
+     * @return true if the file or one of its copies has the content
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private boolean hasCopyWithContent(File directory, String fileName, byte[] content)
+            throws IOException {
+        if (hasContent(new File(directory, fileName), content)) {
+            return true;
+        }
+
+        for (int i = 1; i < 1000; i++) {
+            File copy = new File(directory, fileName + '.' + i);
+            if (!copy.exists()) {
+                break;
+            }
+            if (hasContent(copy, content)) {
+                return true;
+            }
         }
 
-        BufferedWriter bw = new BufferedWriter(osw);
-        bw.write(content);
-        bw.close();
+        return false;
+    }
+
+    /**
+     * Returns true if the file has exactly the specified content. The sizes are
+     * compared first, so a changed file is usually not read at all. Otherwise
+     * the file is compared block by block, and reading stops at the first
+     * difference.
+     *
+     * @param file
+     *            the file
+     * @param content
+     *            the content
+     * @return true if the file has the content
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private boolean hasContent(File file, byte[] content) throws IOException {
+        if (!file.isFile() || file.length() != content.length) {
+            return false;
+        }
+
+        InputStream is = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int offset = 0;
+            int count;
+            while ((count = is.read(buffer)) != -1) {
+                if (offset + count > content.length) {
+                    return false;
+                }
+                for (int i = 0; i < count; i++) {
+                    if (buffer[i] != content[offset + i]) {
+                        return false;
+                    }
+                }
+                offset += count;
+            }
+
+            return offset == content.length;
+        } finally {
+            is.close();
+        }
     }
 
     /**
@@ -449,4 +824,55 @@ public class MyBatisGenerator {
     public List<GeneratedXmlFile> getGeneratedXmlFiles() {
         return generatedXmlFiles;
     }
+
+    /**
+     * Sets the number of threads used to render and write the generated files. If the value is greater than one,
+     * then the files are written concurrently, which helps when the file system is slow (for example a network
+     * drive). The warnings are reported in the same order as if the files were written one after the other. The
+     * formatters of the contexts and the progress callback methods startTask and checkCancel are called by the
+     * writer threads. The shell callback method mergeJavaFile is called concurrently for different files, so a shell
+     * callback that supports merging must merge thread safely. Its other methods are never called by more than one
+     * thread at a time.
+     *
+     * <p>The default value is 1.
+     *
+     * @param writeThreads
+     *            the number of threads used to write the generated files
+     */
+    public void setWriteThreads(int writeThreads) {
+        this.writeThreads = writeThreads;
+    }
+
+    /**
+     * Sets the statistics that the time spent in the phases of the following calls to generate, and the number of
+     * calls and the time spent in each plugin method, are added to. Nothing is measured if no statistics are set,
+     * and the plugins are only wrapped to be measured while statistics are set.
+     *
+     * @param statistics
+     *            the statistics, or <code>null</code> to stop measuring
+     */
+    public void setStatistics(GenerationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    public GenerationStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Holds the result of writing a single generated file.
+     */
+    private static class FileWrite {
+        private final GeneratedFile generatedFile;
+        private final List<String> warnings = new ArrayList<String>();
+        /** the file that the generated file belongs to, before a unique name is chosen. */
+        private File targetFile;
+        private boolean written;
+        private boolean skipped;
+        private Future<Void> result;
+
+        FileWrite(GeneratedFile generatedFile) {
+            this.generatedFile = generatedFile;
+        }
+    }
 }
@@ -81,6 +81,18 @@ public interface ProgressCallback {
      */
     void startTask(String taskName);
 
+    /**
+     * Called when all generated files have been saved, to note how many files
+     * were written. Files whose content did not change are not written again.
+     * 
+     * @param writtenFiles
+     *            the number of files that were written
+     * @param skippedFiles
+     *            the number of files that were not written because their
+     *            content did not change
+     */
+    void saveCompleted(int writtenFiles, int skippedFiles);
+
     /**
      * This method is called when all generated files have been saved.
      */
@@ -82,7 +82,9 @@ public interface ShellCallback {
      * </ol>
      * 
      * <p>This method is called only if you return <code>true</code> from
-     * <code>isMergeSupported()</code>.
+     * <code>isMergeSupported()</code>. If the generator writes files with more
+     * than one thread, then this method is called concurrently for different
+     * files, but never for the same file.
      * 
      * @param newFileSource
      *            the source of the newly generated Java file
@@ -33,6 +33,7 @@ import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.XMLParserException;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.JavaParserShellCallback;
 import org.mybatis.generator.logging.LogFactory;
 
 /**
@@ -43,10 +44,13 @@ import org.mybatis.generator.logging.LogFactory;
 public class ShellRunner {
     private static final String CONFIG_FILE = "-configfile"; //$NON-NLS-1$
     private static final String OVERWRITE = "-overwrite"; //$NON-NLS-1$
+    private static final String MERGE_JAVA = "-mergeJava"; //$NON-NLS-1$
     private static final String CONTEXT_IDS = "-contextids"; //$NON-NLS-1$
     private static final String TABLES = "-tables"; //$NON-NLS-1$
     private static final String VERBOSE = "-verbose"; //$NON-NLS-1$
+    private static final String TIMINGS = "-timings"; //$NON-NLS-1$
     private static final String FORCE_JAVA_LOGGING = "-forceJavaLogging"; //$NON-NLS-1$
+    private static final String WRITE_THREADS = "-writeThreads"; //$NON-NLS-1$
     private static final String HELP_1 = "-?"; //$NON-NLS-1$
     private static final String HELP_2 = "-h"; //$NON-NLS-1$
 
@@ -106,16 +110,37 @@ public class ShellRunner {
             ConfigurationParser cp = new ConfigurationParser(warnings);
             Configuration config = cp.parseConfiguration(configurationFile);
 
-            DefaultShellCallback shellCallback = new DefaultShellCallback(
-                    arguments.containsKey(OVERWRITE));
+            DefaultShellCallback shellCallback;
+            if (arguments.containsKey(MERGE_JAVA)) {
+                shellCallback = new JavaParserShellCallback(
+                        arguments.containsKey(OVERWRITE));
+            } else {
+                shellCallback = new DefaultShellCallback(
+                        arguments.containsKey(OVERWRITE));
+            }
 
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, shellCallback, warnings);
+            if (arguments.containsKey(WRITE_THREADS)) {
+                myBatisGenerator.setWriteThreads(Integer.parseInt(arguments.get(WRITE_THREADS)));
+            }
 
             ProgressCallback progressCallback = arguments.containsKey(VERBOSE) ? new VerboseProgressCallback()
                     : null;
 
+            GenerationStatistics statistics = null;
+            if (arguments.containsKey(TIMINGS)) {
+                statistics = new GenerationStatistics();
+                myBatisGenerator.setStatistics(statistics);
+            }
+
             myBatisGenerator.generate(progressCallback, contexts, fullyqualifiedTables);
 
+            if (statistics != null) {
+                for (String line : statistics.getReport()) {
+                    writeLine(line);
+                }
+            }
+
         } catch (XMLParserException e) {
             writeLine(getString("Progress.3")); //$NON-NLS-1$
             writeLine();
@@ -184,8 +209,12 @@ public class ShellRunner {
                 i++;
             } else if (OVERWRITE.equalsIgnoreCase(args[i])) {
                 arguments.put(OVERWRITE, "Y"); //$NON-NLS-1$
+            } else if (MERGE_JAVA.equalsIgnoreCase(args[i])) {
+                arguments.put(MERGE_JAVA, "Y"); //$NON-NLS-1$
             } else if (VERBOSE.equalsIgnoreCase(args[i])) {
                 arguments.put(VERBOSE, "Y"); //$NON-NLS-1$
+            } else if (TIMINGS.equalsIgnoreCase(args[i])) {
+                arguments.put(TIMINGS, "Y"); //$NON-NLS-1$
             } else if (HELP_1.equalsIgnoreCase(args[i])) {
                 arguments.put(HELP_1, "Y"); //$NON-NLS-1$
             } else if (HELP_2.equalsIgnoreCase(args[i])) {
@@ -209,6 +238,18 @@ public class ShellRunner {
                     errors.add(getString("RuntimeError.19", TABLES)); //$NON-NLS-1$
                 }
                 i++;
+            } else if (WRITE_THREADS.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    if (isPositiveInteger(args[i + 1])) {
+                        arguments.put(WRITE_THREADS, args[i + 1]);
+                    } else {
+                        errors.add(getString("RuntimeError.24", //$NON-NLS-1$
+                                WRITE_THREADS, args[i + 1]));
+                    }
+                } else {
+                    errors.add(getString("RuntimeError.19", WRITE_THREADS)); //$NON-NLS-1$
+                }
+                i++;
             } else {
                 errors.add(getString("RuntimeError.20", args[i])); //$NON-NLS-1$
             }
@@ -224,4 +265,12 @@ public class ShellRunner {
 
         return arguments;
     }
+
+    private static boolean isPositiveInteger(String s) {
+        try {
+            return Integer.parseInt(s) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,30 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+/**
+ * Marks a plugin that may be called by several threads at the same time.
+ * 
+ * <p>If the <code>generationThreads</code> property of a context is greater
+ * than one, the tables of the context are generated concurrently. Plugins that
+ * implement this interface are then called without any synchronization, so
+ * they must not change their own state in any method other than
+ * <code>setContext</code>, <code>setProperties</code> and
+ * <code>validate</code>. The methods of all other plugins are called by one
+ * thread at a time.
+ */
+public interface ThreadSafePlugin extends Plugin {
+}
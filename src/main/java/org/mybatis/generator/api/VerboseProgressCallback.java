@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
 import org.mybatis.generator.internal.NullProgressCallback;
 
 /**
@@ -33,4 +35,10 @@ public class VerboseProgressCallback extends NullProgressCallback {
     public void startTask(String taskName) {
         System.out.println(taskName);
     }
+
+    @Override
+    public void saveCompleted(int writtenFiles, int skippedFiles) {
+        System.out.println(getString("Progress.19", //$NON-NLS-1$
+                Integer.toString(writtenFiles), Integer.toString(skippedFiles)));
+    }
 }
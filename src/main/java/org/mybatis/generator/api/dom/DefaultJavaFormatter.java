@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.JavaFormatter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.config.Context;
@@ -34,6 +36,12 @@ public class DefaultJavaFormatter implements JavaFormatter {
         return compilationUnit.getFormattedContent();
     }
 
+    @Override
+    public void writeFormattedContent(CompilationUnit compilationUnit, Appendable out)
+            throws IOException {
+        compilationUnit.write(out);
+    }
+
     @Override
     public void setContext(Context context) {
         this.context = context;
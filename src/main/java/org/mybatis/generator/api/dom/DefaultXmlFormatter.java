@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.XmlFormatter;
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.config.Context;
@@ -34,6 +36,11 @@ public class DefaultXmlFormatter implements XmlFormatter {
         return document.getFormattedContent();
     }
 
+    @Override
+    public void writeFormattedContent(Document document, Appendable out) throws IOException {
+        document.write(out);
+    }
+
     @Override
     public void setContext(Context context) {
         this.context = context;
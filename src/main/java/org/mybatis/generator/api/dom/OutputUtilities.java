@@ -15,10 +15,12 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
 import java.util.Set;
 import java.util.TreeSet;
 
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.ImportRegistry;
 
 /**
  * The Class OutputUtilities.
@@ -60,6 +62,23 @@ public class OutputUtilities {
         }
     }
 
+    /**
+     * Utility method that indents the output by the default amount for Java
+     * (four spaces per indent level).
+     * 
+     * @param out
+     *            an Appendable to append to
+     * @param indentLevel
+     *            the required indent level
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public static void javaIndent(Appendable out, int indentLevel) throws IOException {
+        for (int i = 0; i < indentLevel; i++) {
+            out.append("    "); //$NON-NLS-1$
+        }
+    }
+
     /**
      * Utility method that indents the buffer by the default amount for XML (two
      * spaces per indent level).
@@ -75,6 +94,35 @@ public class OutputUtilities {
         }
     }
 
+    /**
+     * Utility method that indents the output by the default amount for XML
+     * (two spaces per indent level).
+     * 
+     * @param out
+     *            an Appendable to append to
+     * @param indentLevel
+     *            the required indent level
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public static void xmlIndent(Appendable out, int indentLevel) throws IOException {
+        for (int i = 0; i < indentLevel; i++) {
+            out.append("  "); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Utility method. Adds a newline character to an Appendable.
+     * 
+     * @param out
+     *            the Appendable to be appended to
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public static void newLine(Appendable out) throws IOException {
+        out.append(lineSeparator);
+    }
+
     /**
      * Utility method. Adds a newline character to a StringBuilder.
      * 
@@ -94,6 +142,10 @@ public class OutputUtilities {
      */
     public static Set<String> calculateImports(
             Set<FullyQualifiedJavaType> importedTypes) {
+        if (importedTypes instanceof ImportRegistry) {
+            return ((ImportRegistry) importedTypes).getImportStrings();
+        }
+
         StringBuilder sb = new StringBuilder();
         Set<String> importStrings = new TreeSet<String>();
         for (FullyQualifiedJavaType fqjt : importedTypes) {
@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api.dom.java;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
@@ -28,6 +29,20 @@ public interface CompilationUnit {
 
     String getFormattedContent();
 
+    /**
+     * Writes the formatted content to an Appendable, for example the writer of
+     * the output file. The written content must be the same as the result of
+     * getFormattedContent. The default implementation appends that result.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    default void write(Appendable out) throws IOException {
+        out.append(getFormattedContent());
+    }
+
     Set<FullyQualifiedJavaType> getImportedTypes();
 
     Set<String> getStaticImports();
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom.java;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.OutputUtilities;
 
 public class Field extends JavaElement {
@@ -69,41 +71,63 @@ public class Field extends JavaElement {
     public String getFormattedContent(int indentLevel, CompilationUnit compilationUnit) {
         StringBuilder sb = new StringBuilder();
 
-        addFormattedJavadoc(sb, indentLevel);
-        addFormattedAnnotations(sb, indentLevel);
+        try {
+            write(sb, indentLevel, compilationUnit);
+        } catch (IOException e) {
+            // cannot happen with a StringBuilder
+            throw new RuntimeException(e);
+        }
 
-        OutputUtilities.javaIndent(sb, indentLevel);
-        sb.append(getVisibility().getValue());
+        return sb.toString();
+    }
+
+    /**
+     * Writes the formatted content of this field to an Appendable, without
+     * building it as a String first.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @param compilationUnit
+     *            the compilation unit
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public void write(Appendable out, int indentLevel, CompilationUnit compilationUnit) throws IOException {
+        addFormattedJavadoc(out, indentLevel);
+        addFormattedAnnotations(out, indentLevel);
+
+        OutputUtilities.javaIndent(out, indentLevel);
+        out.append(getVisibility().getValue());
 
         if (isStatic()) {
-            sb.append("static "); //$NON-NLS-1$
+            out.append("static "); //$NON-NLS-1$
         }
 
         if (isFinal()) {
-            sb.append("final "); //$NON-NLS-1$
+            out.append("final "); //$NON-NLS-1$
         }
 
         if (isTransient()) {
-            sb.append("transient "); //$NON-NLS-1$
+            out.append("transient "); //$NON-NLS-1$
         }
 
         if (isVolatile()) {
-            sb.append("volatile "); //$NON-NLS-1$
+            out.append("volatile "); //$NON-NLS-1$
         }
 
-        sb.append(JavaDomUtils.calculateTypeName(compilationUnit, type));
+        out.append(JavaDomUtils.calculateTypeName(compilationUnit, type));
 
-        sb.append(' ');
-        sb.append(name);
+        out.append(' ');
+        out.append(name);
 
         if (initializationString != null && initializationString.length() > 0) {
-            sb.append(" = "); //$NON-NLS-1$
-            sb.append(initializationString);
+            out.append(" = "); //$NON-NLS-1$
+            out.append(initializationString);
         }
 
-        sb.append(';');
-
-        return sb.toString();
+        out.append(';');
     }
 
     public boolean isTransient() {
@@ -19,8 +19,11 @@ import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The Class FullyQualifiedJavaType.
@@ -32,19 +35,9 @@ public class FullyQualifiedJavaType implements
     
     private static final String JAVA_LANG = "java.lang"; //$NON-NLS-1$
 
-    private static FullyQualifiedJavaType intInstance = null;
-
-    private static FullyQualifiedJavaType stringInstance = null;
-
-    private static FullyQualifiedJavaType booleanPrimitiveInstance = null;
-
-    private static FullyQualifiedJavaType objectInstance = null;
-
-    private static FullyQualifiedJavaType dateInstance = null;
-
-    private static FullyQualifiedJavaType criteriaInstance = null;
-
-    private static FullyQualifiedJavaType generatedCriteriaInstance = null;
+    /** The shared instances returned by the of method, by type specification. */
+    private static final ConcurrentMap<String, FullyQualifiedJavaType> sharedInstances =
+            new ConcurrentHashMap<String, FullyQualifiedJavaType>();
 
     /** The short name without any generic arguments. */
     private String baseShortName;
@@ -71,6 +64,16 @@ public class FullyQualifiedJavaType implements
 
     private boolean extendsBoundedWildcard;
 
+    /** True if this is a shared instance, which cannot be changed. */
+    private boolean shared;
+
+    // the following values are calculated once for shared instances
+    private String fullyQualifiedName;
+
+    private String shortName;
+
+    private List<String> importList;
+
     /**
      * Use this constructor to construct a generic type with the specified type parameters.
      *
@@ -78,9 +81,46 @@ public class FullyQualifiedJavaType implements
      *            the full type specification
      */
     public FullyQualifiedJavaType(String fullTypeSpecification) {
+        this(fullTypeSpecification, false);
+    }
+
+    private FullyQualifiedJavaType(String fullTypeSpecification, boolean shared) {
         super();
+        this.shared = shared;
         typeArguments = new ArrayList<FullyQualifiedJavaType>();
         parse(fullTypeSpecification);
+
+        if (shared) {
+            typeArguments = Collections.unmodifiableList(typeArguments);
+            fullyQualifiedName = calculateFullyQualifiedName();
+            shortName = calculateShortName();
+            importList = Collections.unmodifiableList(calculateImportList());
+        }
+    }
+
+    /**
+     * Returns a shared instance of the specified type. The instances are cached, so the
+     * type specification is parsed only once, and the names of the type are calculated
+     * only once. Shared instances cannot be changed - use the constructor for types that
+     * will have type arguments added later.
+     *
+     * @param fullTypeSpecification
+     *            the full type specification
+     * @return the shared instance
+     */
+    public static FullyQualifiedJavaType of(String fullTypeSpecification) {
+        FullyQualifiedJavaType answer = sharedInstances.get(fullTypeSpecification);
+        if (answer == null) {
+            // the type arguments are shared instances too, so this cannot be
+            // done in computeIfAbsent
+            answer = new FullyQualifiedJavaType(fullTypeSpecification, true);
+            FullyQualifiedJavaType existing = sharedInstances.putIfAbsent(fullTypeSpecification, answer);
+            if (existing != null) {
+                answer = existing;
+            }
+        }
+
+        return answer;
     }
 
     public boolean isExplicitlyImported() {
@@ -93,6 +133,14 @@ public class FullyQualifiedJavaType implements
      * @return Returns the fullyQualifiedName.
      */
     public String getFullyQualifiedName() {
+        if (fullyQualifiedName != null) {
+            return fullyQualifiedName;
+        }
+
+        return calculateFullyQualifiedName();
+    }
+
+    private String calculateFullyQualifiedName() {
         StringBuilder sb = new StringBuilder();
         if (wildcardType) {
             sb.append('?');
@@ -138,6 +186,14 @@ public class FullyQualifiedJavaType implements
      * @return the import list
      */
     public List<String> getImportList() {
+        if (importList != null) {
+            return importList;
+        }
+
+        return calculateImportList();
+    }
+
+    private List<String> calculateImportList() {
         List<String> answer = new ArrayList<String>();
         if (isExplicitlyImported()) {
             int index = baseShortName.indexOf('.');
@@ -182,6 +238,14 @@ public class FullyQualifiedJavaType implements
      * @return Returns the shortName - including any type arguments.
      */
     public String getShortName() {
+        if (shortName != null) {
+            return shortName;
+        }
+
+        return calculateShortName();
+    }
+
+    private String calculateShortName() {
         StringBuilder sb = new StringBuilder();
         if (wildcardType) {
             sb.append('?');
@@ -259,11 +323,7 @@ public class FullyQualifiedJavaType implements
     }
 
     public static final FullyQualifiedJavaType getIntInstance() {
-        if (intInstance == null) {
-            intInstance = new FullyQualifiedJavaType("int"); //$NON-NLS-1$
-        }
-
-        return intInstance;
+        return of("int"); //$NON-NLS-1$
     }
 
     public static final FullyQualifiedJavaType getNewMapInstance() {
@@ -292,52 +352,27 @@ public class FullyQualifiedJavaType implements
     }
 
     public static final FullyQualifiedJavaType getStringInstance() {
-        if (stringInstance == null) {
-            stringInstance = new FullyQualifiedJavaType("java.lang.String"); //$NON-NLS-1$
-        }
-
-        return stringInstance;
+        return of("java.lang.String"); //$NON-NLS-1$
     }
 
     public static final FullyQualifiedJavaType getBooleanPrimitiveInstance() {
-        if (booleanPrimitiveInstance == null) {
-            booleanPrimitiveInstance = new FullyQualifiedJavaType("boolean"); //$NON-NLS-1$
-        }
-
-        return booleanPrimitiveInstance;
+        return of("boolean"); //$NON-NLS-1$
     }
 
     public static final FullyQualifiedJavaType getObjectInstance() {
-        if (objectInstance == null) {
-            objectInstance = new FullyQualifiedJavaType("java.lang.Object"); //$NON-NLS-1$
-        }
-
-        return objectInstance;
+        return of("java.lang.Object"); //$NON-NLS-1$
     }
 
     public static final FullyQualifiedJavaType getDateInstance() {
-        if (dateInstance == null) {
-            dateInstance = new FullyQualifiedJavaType("java.util.Date"); //$NON-NLS-1$
-        }
-
-        return dateInstance;
+        return of("java.util.Date"); //$NON-NLS-1$
     }
 
     public static final FullyQualifiedJavaType getCriteriaInstance() {
-        if (criteriaInstance == null) {
-            criteriaInstance = new FullyQualifiedJavaType("Criteria"); //$NON-NLS-1$
-        }
-
-        return criteriaInstance;
+        return of("Criteria"); //$NON-NLS-1$
     }
 
     public static final FullyQualifiedJavaType getGeneratedCriteriaInstance() {
-        if (generatedCriteriaInstance == null) {
-            generatedCriteriaInstance = new FullyQualifiedJavaType(
-                    "GeneratedCriteria"); //$NON-NLS-1$
-        }
-
-        return generatedCriteriaInstance;
+        return of("GeneratedCriteria"); //$NON-NLS-1$
     }
 
     @Override
@@ -346,6 +381,11 @@ public class FullyQualifiedJavaType implements
     }
 
     public void addTypeArgument(FullyQualifiedJavaType type) {
+        if (shared) {
+            throw new UnsupportedOperationException(getString(
+                    "RuntimeError.25", getFullyQualifiedName())); //$NON-NLS-1$
+        }
+
         typeArguments.add(type);
     }
 
@@ -466,8 +506,7 @@ public class FullyQualifiedJavaType implements
                 openCount--;
             } else if (",".equals(token)) { //$NON-NLS-1$
                 if (openCount == 0) {
-                    typeArguments
-                            .add(new FullyQualifiedJavaType(sb.toString()));
+                    typeArguments.add(newTypeArgument(sb.toString()));
                     sb.setLength(0);
                 } else {
                     sb.append(token);
@@ -484,7 +523,15 @@ public class FullyQualifiedJavaType implements
 
         String finalType = sb.toString();
         if (stringHasValue(finalType)) {
-            typeArguments.add(new FullyQualifiedJavaType(finalType));
+            typeArguments.add(newTypeArgument(finalType));
+        }
+    }
+
+    private FullyQualifiedJavaType newTypeArgument(String typeSpecification) {
+        if (shared) {
+            return of(typeSpecification.trim());
+        } else {
+            return new FullyQualifiedJavaType(typeSpecification);
         }
     }
 
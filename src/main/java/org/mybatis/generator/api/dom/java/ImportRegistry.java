@@ -0,0 +1,168 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api.dom.java;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The set of types imported by a compilation unit.
+ * 
+ * <p>Types are indexed by their fully qualified name when they are added, and
+ * the sorted "import xxx;" lines are maintained as types are added - so
+ * lookups are hash lookups and the import block can be written in a single
+ * pass without being recalculated.
+ * 
+ * <p>Short name collisions are resolved when a type is added: the first
+ * import of a short name wins. A type whose own short name is already
+ * imported from another package is not added, so it is rendered with its
+ * fully qualified name. Type arguments whose short name collides are not
+ * imported either, for the same reason.
+ */
+public class ImportRegistry extends AbstractSet<FullyQualifiedJavaType> {
+
+    /** The imported types, keyed by fully qualified name. */
+    private Map<String, FullyQualifiedJavaType> importedTypes;
+
+    /** The imports, keyed by short name. */
+    private Map<String, String> importsByShortName;
+
+    /** The "import xxx;" lines, in the order they are written. */
+    private Set<String> importStrings;
+
+    public ImportRegistry() {
+        super();
+        importedTypes = new LinkedHashMap<String, FullyQualifiedJavaType>();
+        importsByShortName = new HashMap<String, String>();
+        importStrings = new TreeSet<String>();
+    }
+
+    @Override
+    public boolean add(FullyQualifiedJavaType type) {
+        String key = type.getFullyQualifiedName();
+        if (importedTypes.containsKey(key)) {
+            return false;
+        }
+
+        List<String> importList = type.getImportList();
+        if (type.isExplicitlyImported() && isCollision(importList.get(0))) {
+            return false;
+        }
+
+        importedTypes.put(key, type);
+        for (String importName : importList) {
+            if (!isCollision(importName)) {
+                register(importName);
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof FullyQualifiedJavaType
+                && importedTypes.containsKey(((FullyQualifiedJavaType) o).getFullyQualifiedName());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) {
+            return false;
+        }
+
+        importedTypes.remove(((FullyQualifiedJavaType) o).getFullyQualifiedName());
+        reindex();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        importedTypes.clear();
+        importsByShortName.clear();
+        importStrings.clear();
+    }
+
+    @Override
+    public Iterator<FullyQualifiedJavaType> iterator() {
+        final Iterator<FullyQualifiedJavaType> iterator = importedTypes.values().iterator();
+        return new Iterator<FullyQualifiedJavaType>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public FullyQualifiedJavaType next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                reindex();
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return importedTypes.size();
+    }
+
+    /**
+     * Returns the sorted "import xxx;" lines for the imported types.
+     *
+     * @return the import strings
+     */
+    public Set<String> getImportStrings() {
+        return Collections.unmodifiableSet(importStrings);
+    }
+
+    private boolean isCollision(String importName) {
+        String current = importsByShortName.get(shortName(importName));
+        return current != null && !current.equals(importName);
+    }
+
+    private void register(String importName) {
+        if (importsByShortName.put(shortName(importName), importName) == null) {
+            importStrings.add("import " + importName + ';'); //$NON-NLS-1$
+        }
+    }
+
+    private void reindex() {
+        importsByShortName.clear();
+        importStrings.clear();
+        for (FullyQualifiedJavaType type : importedTypes.values()) {
+            for (String importName : type.getImportList()) {
+                if (!isCollision(importName)) {
+                    register(importName);
+                }
+            }
+        }
+    }
+
+    private static String shortName(String importName) {
+        return importName.substring(importName.lastIndexOf('.') + 1);
+    }
+}
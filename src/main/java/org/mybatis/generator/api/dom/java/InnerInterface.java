@@ -18,6 +18,7 @@ package org.mybatis.generator.api.dom.java;
 import static org.mybatis.generator.api.dom.OutputUtilities.javaIndent;
 import static org.mybatis.generator.api.dom.OutputUtilities.newLine;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -91,81 +92,103 @@ public class InnerInterface extends JavaElement {
     public String getFormattedContent(int indentLevel, CompilationUnit compilationUnit) {
         StringBuilder sb = new StringBuilder();
 
-        addFormattedJavadoc(sb, indentLevel);
-        addFormattedAnnotations(sb, indentLevel);
+        try {
+            write(sb, indentLevel, compilationUnit);
+        } catch (IOException e) {
+            // cannot happen with a StringBuilder
+            throw new RuntimeException(e);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes the formatted content of this interface to an Appendable, without
+     * building it as a String first.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @param compilationUnit
+     *            the compilation unit
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public void write(Appendable out, int indentLevel, CompilationUnit compilationUnit) throws IOException {
+        addFormattedJavadoc(out, indentLevel);
+        addFormattedAnnotations(out, indentLevel);
 
-        javaIndent(sb, indentLevel);
-        sb.append(getVisibility().getValue());
+        javaIndent(out, indentLevel);
+        out.append(getVisibility().getValue());
 
         if (isStatic()) {
-            sb.append("static "); //$NON-NLS-1$
+            out.append("static "); //$NON-NLS-1$
         }
 
         if (isFinal()) {
-            sb.append("final "); //$NON-NLS-1$
+            out.append("final "); //$NON-NLS-1$
         }
 
-        sb.append("interface "); //$NON-NLS-1$
-        sb.append(getType().getShortName());
+        out.append("interface "); //$NON-NLS-1$
+        out.append(getType().getShortName());
 
         if (getSuperInterfaceTypes().size() > 0) {
-            sb.append(" extends "); //$NON-NLS-1$
+            out.append(" extends "); //$NON-NLS-1$
 
             boolean comma = false;
             for (FullyQualifiedJavaType fqjt : getSuperInterfaceTypes()) {
                 if (comma) {
-                    sb.append(", "); //$NON-NLS-1$
+                    out.append(", "); //$NON-NLS-1$
                 } else {
                     comma = true;
                 }
 
-                sb.append(JavaDomUtils.calculateTypeName(compilationUnit, fqjt));
+                out.append(JavaDomUtils.calculateTypeName(compilationUnit, fqjt));
             }
         }
 
-        sb.append(" {"); //$NON-NLS-1$
+        out.append(" {"); //$NON-NLS-1$
         indentLevel++;
 
         Iterator<Field> fldIter = fields.iterator();
         while (fldIter.hasNext()) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
             Field field = fldIter.next();
-            sb.append(field.getFormattedContent(indentLevel, compilationUnit));
+            field.write(out, indentLevel, compilationUnit);
         }
 
         if (fields.size() > 0 && methods.size() > 0) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
         }
 
         Iterator<Method> mtdIter = getMethods().iterator();
         while (mtdIter.hasNext()) {
-            newLine(sb);
+            newLine(out);
             Method method = mtdIter.next();
-            sb.append(method.getFormattedContent(indentLevel, true, compilationUnit));
+            method.write(out, indentLevel, true, compilationUnit);
             if (mtdIter.hasNext()) {
-                newLine(sb);
+                newLine(out);
             }
         }
 
         if (innerInterfaces.size() > 0) {
-            newLine(sb);
+            newLine(out);
         }
         Iterator<InnerInterface> iiIter = innerInterfaces.iterator();
         while (iiIter.hasNext()) {
-            newLine(sb);
+            newLine(out);
             InnerInterface innerInterface = iiIter.next();
-            sb.append(innerInterface.getFormattedContent(indentLevel, compilationUnit));
+            innerInterface.write(out, indentLevel, compilationUnit);
             if (iiIter.hasNext()) {
-                newLine(sb);
+                newLine(out);
             }
         }
 
         indentLevel--;
-        newLine(sb);
-        javaIndent(sb, indentLevel);
-        sb.append('}');
-
-        return sb.toString();
+        newLine(out);
+        javaIndent(out, indentLevel);
+        out.append('}');
     }
 
     /**
@@ -15,10 +15,10 @@
  */
 package org.mybatis.generator.api.dom.java;
 
-import static org.mybatis.generator.api.dom.OutputUtilities.calculateImports;
 import static org.mybatis.generator.api.dom.OutputUtilities.newLine;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -31,7 +31,7 @@ import java.util.TreeSet;
  */
 public class Interface extends InnerInterface implements CompilationUnit {
     
-    private Set<FullyQualifiedJavaType> importedTypes;
+    private ImportRegistry importedTypes;
 
     private Set<String> staticImports;
 
@@ -39,7 +39,7 @@ public class Interface extends InnerInterface implements CompilationUnit {
 
     public Interface(FullyQualifiedJavaType type) {
         super(type);
-        importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes = new ImportRegistry();
         fileCommentLines = new ArrayList<String>();
         staticImports = new TreeSet<String>();
     }
@@ -68,46 +68,60 @@ public class Interface extends InnerInterface implements CompilationUnit {
     }
 
     @Override
-    public String getFormattedContent(int indentLevel, CompilationUnit compilationUnit) {
-        StringBuilder sb = new StringBuilder();
+    public void write(Appendable out) throws IOException {
+        write(out, 0, this);
+    }
 
+    /**
+     * Writes the formatted content of this interface to an Appendable, without
+     * building it as a String first.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @param compilationUnit
+     *            the compilation unit
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    @Override
+    public void write(Appendable out, int indentLevel, CompilationUnit compilationUnit) throws IOException {
         for (String commentLine : fileCommentLines) {
-            sb.append(commentLine);
-            newLine(sb);
+            out.append(commentLine);
+            newLine(out);
         }
 
         if (stringHasValue(getType().getPackageName())) {
-            sb.append("package "); //$NON-NLS-1$
-            sb.append(getType().getPackageName());
-            sb.append(';');
-            newLine(sb);
-            newLine(sb);
+            out.append("package "); //$NON-NLS-1$
+            out.append(getType().getPackageName());
+            out.append(';');
+            newLine(out);
+            newLine(out);
         }
 
         for (String staticImport : staticImports) {
-            sb.append("import static "); //$NON-NLS-1$
-            sb.append(staticImport);
-            sb.append(';');
-            newLine(sb);
+            out.append("import static "); //$NON-NLS-1$
+            out.append(staticImport);
+            out.append(';');
+            newLine(out);
         }
 
         if (staticImports.size() > 0) {
-            newLine(sb);
+            newLine(out);
         }
 
-        Set<String> importStrings = calculateImports(importedTypes);
+        Set<String> importStrings = importedTypes.getImportStrings();
         for (String importString : importStrings) {
-            sb.append(importString);
-            newLine(sb);
+            out.append(importString);
+            newLine(out);
         }
 
         if (importStrings.size() > 0) {
-            newLine(sb);
+            newLine(out);
         }
 
-        sb.append(super.getFormattedContent(0, this));
-
-        return sb.toString();
+        super.write(out, 0, this);
     }
 
     @Override
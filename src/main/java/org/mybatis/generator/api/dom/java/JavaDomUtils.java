@@ -44,7 +44,7 @@ public class JavaDomUtils {
     private static String calculateParameterizedTypeName(CompilationUnit compilationUnit,
             FullyQualifiedJavaType fqjt) {
         String baseTypeName = calculateTypeName(compilationUnit,
-                new FullyQualifiedJavaType(fqjt.getFullyQualifiedNameWithoutTypeParameters()));
+                FullyQualifiedJavaType.of(fqjt.getFullyQualifiedNameWithoutTypeParameters()));
 
         StringBuilder sb = new StringBuilder();
         sb.append(baseTypeName);
@@ -79,7 +79,7 @@ public class JavaDomUtils {
     private static boolean typeIsAlreadyImported(CompilationUnit compilationUnit,
             FullyQualifiedJavaType fullyQualifiedJavaType) {
         FullyQualifiedJavaType nonGenericType =
-                new FullyQualifiedJavaType(fullyQualifiedJavaType.getFullyQualifiedNameWithoutTypeParameters());
+                FullyQualifiedJavaType.of(fullyQualifiedJavaType.getFullyQualifiedNameWithoutTypeParameters());
         return compilationUnit.getImportedTypes().contains(nonGenericType);
     }
 }
@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api.dom.java;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -146,6 +147,24 @@ public abstract class JavaElement {
         }
     }
 
+    /**
+     * Writes the formatted javadoc to an Appendable.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public void addFormattedJavadoc(Appendable out, int indentLevel) throws IOException {
+        for (String javaDocLine : javaDocLines) {
+            OutputUtilities.javaIndent(out, indentLevel);
+            out.append(javaDocLine);
+            OutputUtilities.newLine(out);
+        }
+    }
+
     /**
      * Adds the formatted annotations.
      *
@@ -162,6 +181,24 @@ public abstract class JavaElement {
         }
     }
 
+    /**
+     * Writes the formatted annotations to an Appendable.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public void addFormattedAnnotations(Appendable out, int indentLevel) throws IOException {
+        for (String annotation : annotations) {
+            OutputUtilities.javaIndent(out, indentLevel);
+            out.append(annotation);
+            OutputUtilities.newLine(out);
+        }
+    }
+
     /**
      * Checks if is final.
      *
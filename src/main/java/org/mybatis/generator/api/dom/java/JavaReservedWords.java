@@ -15,8 +15,7 @@
  */
 package org.mybatis.generator.api.dom.java;
 
-import java.util.HashSet;
-import java.util.Set;
+import org.mybatis.generator.internal.util.WordSet;
 
 /**
  * This class contains a list of Java reserved words.
@@ -26,7 +25,7 @@ import java.util.Set;
  */
 public class JavaReservedWords {
 
-    private static Set<String> RESERVED_WORDS;
+    private static WordSet RESERVED_WORDS;
 
     static {
         String[] words = { "abstract", //$NON-NLS-1$
@@ -81,11 +80,7 @@ public class JavaReservedWords {
                 "while" //$NON-NLS-1$
         };
 
-        RESERVED_WORDS = new HashSet<String>(words.length);
-
-        for (String word : words) {
-            RESERVED_WORDS.add(word);
-        }
+        RESERVED_WORDS = new WordSet(false, words);
     }
 
     public static boolean containsWord(String word) {
@@ -15,10 +15,10 @@
  */
 package org.mybatis.generator.api.dom.java;
 
-import static org.mybatis.generator.api.dom.OutputUtilities.calculateImports;
 import static org.mybatis.generator.api.dom.OutputUtilities.newLine;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -31,7 +31,7 @@ import java.util.TreeSet;
  */
 public class TopLevelClass extends InnerClass implements CompilationUnit {
 
-    private Set<FullyQualifiedJavaType> importedTypes;
+    private ImportRegistry importedTypes;
 
     private Set<String> staticImports;
 
@@ -39,7 +39,7 @@ public class TopLevelClass extends InnerClass implements CompilationUnit {
 
     public TopLevelClass(FullyQualifiedJavaType type) {
         super(type);
-        importedTypes = new TreeSet<FullyQualifiedJavaType>();
+        importedTypes = new ImportRegistry();
         fileCommentLines = new ArrayList<String>();
         staticImports = new TreeSet<String>();
     }
@@ -54,7 +54,7 @@ public class TopLevelClass extends InnerClass implements CompilationUnit {
     }
 
     public void addImportedType(String importedType) {
-        addImportedType(new FullyQualifiedJavaType(importedType));
+        addImportedType(FullyQualifiedJavaType.of(importedType));
     }
 
     @Override
@@ -72,43 +72,62 @@ public class TopLevelClass extends InnerClass implements CompilationUnit {
     public String getFormattedContent() {
         StringBuilder sb = new StringBuilder();
 
+        try {
+            write(sb);
+        } catch (IOException e) {
+            // cannot happen with a StringBuilder
+            throw new RuntimeException(e);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes the formatted content of this class to an Appendable, without
+     * building it as a String first.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    @Override
+    public void write(Appendable out) throws IOException {
         for (String fileCommentLine : fileCommentLines) {
-            sb.append(fileCommentLine);
-            newLine(sb);
+            out.append(fileCommentLine);
+            newLine(out);
         }
 
         if (stringHasValue(getType().getPackageName())) {
-            sb.append("package "); //$NON-NLS-1$
-            sb.append(getType().getPackageName());
-            sb.append(';');
-            newLine(sb);
-            newLine(sb);
+            out.append("package "); //$NON-NLS-1$
+            out.append(getType().getPackageName());
+            out.append(';');
+            newLine(out);
+            newLine(out);
         }
 
         for (String staticImport : staticImports) {
-            sb.append("import static "); //$NON-NLS-1$
-            sb.append(staticImport);
-            sb.append(';');
-            newLine(sb);
+            out.append("import static "); //$NON-NLS-1$
+            out.append(staticImport);
+            out.append(';');
+            newLine(out);
         }
 
         if (staticImports.size() > 0) {
-            newLine(sb);
+            newLine(out);
         }
 
-        Set<String> importStrings = calculateImports(importedTypes);
+        Set<String> importStrings = importedTypes.getImportStrings();
         for (String importString : importStrings) {
-            sb.append(importString);
-            newLine(sb);
+            out.append(importString);
+            newLine(out);
         }
 
         if (importStrings.size() > 0) {
-            newLine(sb);
+            newLine(out);
         }
 
-        sb.append(super.getFormattedContent(0, this));
-
-        return sb.toString();
+        super.write(out, 0, this);
     }
 
     @Override
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom.xml;
 
+import java.io.IOException;
+
 /**
  * The Class Attribute.
  *
@@ -75,6 +77,21 @@ public class Attribute implements Comparable<Attribute> {
         return sb.toString();
     }
 
+    /**
+     * Writes the formatted content to an Appendable.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public void write(Appendable out) throws IOException {
+        out.append(name);
+        out.append("=\""); //$NON-NLS-1$
+        out.append(value);
+        out.append('\"');
+    }
+
     @Override
     public int compareTo(Attribute o) {
         if (this.name == null) {
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom.xml;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.OutputUtilities;
 
 /**
@@ -99,22 +101,41 @@ public class Document {
     public String getFormattedContent() {
         StringBuilder sb = new StringBuilder();
 
-        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
+        try {
+            write(sb);
+        } catch (IOException e) {
+            // cannot happen with a StringBuilder
+            throw new RuntimeException(e);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes the formatted content to an Appendable, for example the writer of
+     * the output file. The elements are written as they are rendered, without
+     * building the whole document in memory first.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public void write(Appendable out) throws IOException {
+        out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
 
         if (publicId != null && systemId != null) {
-            OutputUtilities.newLine(sb);
-            sb.append("<!DOCTYPE "); //$NON-NLS-1$
-            sb.append(rootElement.getName());
-            sb.append(" PUBLIC \""); //$NON-NLS-1$
-            sb.append(publicId);
-            sb.append("\" \""); //$NON-NLS-1$
-            sb.append(systemId);
-            sb.append("\">"); //$NON-NLS-1$
+            OutputUtilities.newLine(out);
+            out.append("<!DOCTYPE "); //$NON-NLS-1$
+            out.append(rootElement.getName());
+            out.append(" PUBLIC \""); //$NON-NLS-1$
+            out.append(publicId);
+            out.append("\" \""); //$NON-NLS-1$
+            out.append(systemId);
+            out.append("\">"); //$NON-NLS-1$
         }
 
-        OutputUtilities.newLine(sb);
-        sb.append(rootElement.getFormattedContent(0));
-
-        return sb.toString();
+        OutputUtilities.newLine(out);
+        rootElement.write(out, 0);
     }
 }
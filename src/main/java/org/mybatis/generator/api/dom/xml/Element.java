@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom.xml;
 
+import java.io.IOException;
+
 public abstract class Element {
 
     public Element() {
@@ -22,4 +24,23 @@ public abstract class Element {
     }
 
     public abstract String getFormattedContent(int indentLevel);
+
+    /**
+     * Writes the formatted content of this element to an Appendable. The child
+     * elements of an XmlElement are written through this method, so a large
+     * document is rendered without copying the content of every nested element.
+     * 
+     * <p>The default implementation appends the result of getFormattedContent.
+     * Subclasses should override both methods.
+     *
+     * @param out
+     *            the Appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @throws IOException
+     *             if the Appendable throws it
+     */
+    public void write(Appendable out, int indentLevel) throws IOException {
+        out.append(getFormattedContent(indentLevel));
+    }
 }
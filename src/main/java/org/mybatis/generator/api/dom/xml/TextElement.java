@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom.xml;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.OutputUtilities;
 
 /**
@@ -49,6 +51,15 @@ public class TextElement extends Element {
         return sb.toString();
     }
 
+    /* (non-Javadoc)
+     * @see org.mybatis.generator.api.dom.xml.Element#write(java.lang.Appendable, int)
+     */
+    @Override
+    public void write(Appendable out, int indentLevel) throws IOException {
+        OutputUtilities.xmlIndent(out, indentLevel);
+        out.append(content);
+    }
+
     /**
      * Gets the content.
      *
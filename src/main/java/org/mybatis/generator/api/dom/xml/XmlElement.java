@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api.dom.xml;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -131,33 +132,59 @@ public class XmlElement extends Element {
     public String getFormattedContent(int indentLevel) {
         StringBuilder sb = new StringBuilder();
 
-        OutputUtilities.xmlIndent(sb, indentLevel);
-        sb.append('<');
-        sb.append(name);
+        try {
+            write(sb, indentLevel);
+        } catch (IOException e) {
+            // cannot happen with a StringBuilder
+            throw new RuntimeException(e);
+        }
+
+        return sb.toString();
+    }
+
+    /* (non-Javadoc)
+     * @see org.mybatis.generator.api.dom.xml.Element#write(java.lang.Appendable, int)
+     */
+    @Override
+    public void write(Appendable out, int indentLevel) throws IOException {
+        OutputUtilities.xmlIndent(out, indentLevel);
+        out.append('<');
+        out.append(name);
 
-        Collections.sort(attributes);
+        sortAttributes();
         for (Attribute att : attributes) {
-            sb.append(' ');
-            sb.append(att.getFormattedContent());
+            out.append(' ');
+            att.write(out);
         }
 
         if (elements.size() > 0) {
-            sb.append(">"); //$NON-NLS-1$
+            out.append(">"); //$NON-NLS-1$
             for (Element element : elements) {
-                OutputUtilities.newLine(sb);
-                sb.append(element.getFormattedContent(indentLevel + 1));
+                OutputUtilities.newLine(out);
+                element.write(out, indentLevel + 1);
             }
-            OutputUtilities.newLine(sb);
-            OutputUtilities.xmlIndent(sb, indentLevel);
-            sb.append("</"); //$NON-NLS-1$
-            sb.append(name);
-            sb.append('>');
+            OutputUtilities.newLine(out);
+            OutputUtilities.xmlIndent(out, indentLevel);
+            out.append("</"); //$NON-NLS-1$
+            out.append(name);
+            out.append('>');
 
         } else {
-            sb.append(" />"); //$NON-NLS-1$
+            out.append(" />"); //$NON-NLS-1$
         }
+    }
 
-        return sb.toString();
+    /**
+     * Sorts the attributes by name, unless they are sorted already. They
+     * usually are after the first rendering of the element.
+     */
+    private void sortAttributes() {
+        for (int i = 1; i < attributes.size(); i++) {
+            if (attributes.get(i - 1).compareTo(attributes.get(i)) > 0) {
+                Collections.sort(attributes);
+                return;
+            }
+        }
     }
 
     /**
@@ -43,14 +43,32 @@ public class RootClassInfo {
                 .synchronizedMap(new HashMap<String, RootClassInfo>());
     }
 
+    /**
+     * Returns the information about a root class. A class is only loaded
+     * once, even if the tables are generated concurrently, so the warning
+     * that it cannot be loaded is only reported once. The warnings about
+     * the properties of the class are added to the list of the caller.
+     *
+     * @param className
+     *            the name of the root class
+     * @param warnings
+     *            the warnings of the caller
+     * @return the information about the root class
+     */
     public static RootClassInfo getInstance(String className,
             List<String> warnings) {
-        RootClassInfo classInfo = rootClassInfoMap.get(className);
-        if (classInfo == null) {
-            classInfo = new RootClassInfo(className, warnings);
-            rootClassInfoMap.put(className, classInfo);
+        RootClassInfo classInfo;
+        synchronized (rootClassInfoMap) {
+            classInfo = rootClassInfoMap.get(className);
+            if (classInfo == null) {
+                classInfo = new RootClassInfo(className, warnings);
+                rootClassInfoMap.put(className, classInfo);
+            }
         }
 
+        if (classInfo.warnings != warnings) {
+            classInfo = new RootClassInfo(classInfo, warnings);
+        }
         return classInfo;
     }
 
@@ -70,6 +88,14 @@ public class RootClassInfo {
     private List<String> warnings;
     private boolean genericMode = false;
 
+    private RootClassInfo(RootClassInfo classInfo, List<String> warnings) {
+        super();
+        this.className = classInfo.className;
+        this.warnings = warnings;
+        this.propertyDescriptors = classInfo.propertyDescriptors;
+        this.genericMode = classInfo.genericMode;
+    }
+
     private RootClassInfo(String className, List<String> warnings) {
         super();
         this.className = className;
@@ -79,7 +105,7 @@ public class RootClassInfo {
             return;
         }
 
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(className);
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.of(className);
         String nameWithoutGenerics = fqjt.getFullyQualifiedNameWithoutTypeParameters();
         if (!nameWithoutGenerics.equals(className)) {
             genericMode = true;
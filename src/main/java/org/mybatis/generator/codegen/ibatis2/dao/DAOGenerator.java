@@ -105,9 +105,9 @@ public class DAOGenerator extends AbstractJavaClientGenerator {
     }
 
     protected TopLevelClass getTopLevelClassShell() {
-        FullyQualifiedJavaType interfaceType = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType interfaceType = FullyQualifiedJavaType.of(
                 introspectedTable.getDAOInterfaceType());
-        FullyQualifiedJavaType implementationType = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType implementationType = FullyQualifiedJavaType.of(
                 introspectedTable.getDAOImplementationType());
 
 
@@ -146,7 +146,7 @@ public class DAOGenerator extends AbstractJavaClientGenerator {
     }
 
     protected Interface getInterfaceShell() {
-        Interface answer = new Interface(new FullyQualifiedJavaType(
+        Interface answer = new Interface(FullyQualifiedJavaType.of(
                 introspectedTable.getDAOInterfaceType()));
         answer.setVisibility(JavaVisibility.PUBLIC);
 
@@ -158,7 +158,7 @@ public class DAOGenerator extends AbstractJavaClientGenerator {
         }
 
         if (stringHasValue(rootInterface)) {
-            FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(
+            FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.of(
                     rootInterface);
             answer.addSuperInterface(fqjt);
             answer.addImportedType(fqjt);
@@ -57,7 +57,7 @@ public class DeleteByPrimaryKeyMethodGenerator extends
         if (!introspectedTable.getRules().generatePrimaryKeyClass()) {
             // no primary key class, but primary key is enabled. Primary
             // key columns must be in the base class.
-            FullyQualifiedJavaType keyType = new FullyQualifiedJavaType(
+            FullyQualifiedJavaType keyType = FullyQualifiedJavaType.of(
                     introspectedTable.getBaseRecordType());
             topLevelClass.addImportedType(keyType);
 
@@ -116,7 +116,7 @@ public class DeleteByPrimaryKeyMethodGenerator extends
                 .getDeleteByPrimaryKeyMethodName(introspectedTable));
 
         if (introspectedTable.getRules().generatePrimaryKeyClass()) {
-            FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+            FullyQualifiedJavaType type = FullyQualifiedJavaType.of(
                     introspectedTable.getPrimaryKeyType());
             importedTypes.add(type);
             method.addParameter(new Parameter(type, "_key")); //$NON-NLS-1$
@@ -39,10 +39,10 @@ public class UpdateByExampleParmsInnerclassGenerator extends
 
     @Override
     public void addImplementationElements(TopLevelClass topLevelClass) {
-        topLevelClass.addImportedType(new FullyQualifiedJavaType(
+        topLevelClass.addImportedType(FullyQualifiedJavaType.of(
                 introspectedTable.getExampleType()));
 
-        InnerClass innerClass = new InnerClass(new FullyQualifiedJavaType(
+        InnerClass innerClass = new InnerClass(FullyQualifiedJavaType.of(
                 "UpdateByExampleParms")); //$NON-NLS-1$
         innerClass.setVisibility(JavaVisibility.PROTECTED);
         innerClass.setStatic(true);
@@ -56,7 +56,7 @@ public class UpdateByExampleParmsInnerclassGenerator extends
         method.setName(innerClass.getType().getShortName());
         method.addParameter(new Parameter(FullyQualifiedJavaType
                 .getObjectInstance(), "record")); //$NON-NLS-1$
-        method.addParameter(new Parameter(new FullyQualifiedJavaType(
+        method.addParameter(new Parameter(FullyQualifiedJavaType.of(
                 introspectedTable.getExampleType()), "example")); //$NON-NLS-1$
         method.addBodyLine("super(example);"); //$NON-NLS-1$
         method.addBodyLine("this.record = record;"); //$NON-NLS-1$
@@ -80,7 +80,7 @@ public class UpdateByPrimaryKeyWithoutBLOBsMethodGenerator extends
     }
 
     private Method getMethodShell(Set<FullyQualifiedJavaType> importedTypes) {
-        FullyQualifiedJavaType parameterType = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType parameterType = FullyQualifiedJavaType.of(
                 introspectedTable.getBaseRecordType());
         importedTypes.add(parameterType);
 
@@ -27,7 +27,7 @@ import org.mybatis.generator.api.dom.java.Parameter;
  */
 public class IbatisDAOTemplate extends AbstractDAOTemplate {
 
-    private FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(
+    private FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.of(
             "com.ibatis.dao.client.DaoManager"); //$NON-NLS-1$
 
     public IbatisDAOTemplate() {
@@ -71,7 +71,7 @@ public class IbatisDAOTemplate extends AbstractDAOTemplate {
 
     @Override
     protected void configureSuperClass() {
-        setSuperClass(new FullyQualifiedJavaType(
+        setSuperClass(FullyQualifiedJavaType.of(
                 "com.ibatis.dao.client.template.SqlMapDaoTemplate")); //$NON-NLS-1$
     }
 
@@ -124,12 +124,12 @@ public class BaseRecordGenerator extends AbstractJavaGenerator {
     private FullyQualifiedJavaType getSuperClass() {
         FullyQualifiedJavaType superClass;
         if (introspectedTable.getRules().generatePrimaryKeyClass()) {
-            superClass = new FullyQualifiedJavaType(introspectedTable
+            superClass = FullyQualifiedJavaType.of(introspectedTable
                     .getPrimaryKeyType());
         } else {
             String rootClass = getRootClass();
             if (rootClass != null) {
-                superClass = new FullyQualifiedJavaType(rootClass);
+                superClass = FullyQualifiedJavaType.of(rootClass);
             } else {
                 superClass = null;
             }
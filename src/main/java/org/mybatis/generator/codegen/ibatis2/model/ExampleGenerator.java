@@ -61,7 +61,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
                 "Progress.6", table.toString())); //$NON-NLS-1$
         CommentGenerator commentGenerator = context.getCommentGenerator();
 
-        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType type = FullyQualifiedJavaType.of(
                 introspectedTable.getExampleType());
         TopLevelClass topLevelClass = new TopLevelClass(type);
         topLevelClass.setVisibility(JavaVisibility.PUBLIC);
@@ -157,9 +157,9 @@ public class ExampleGenerator extends AbstractJavaGenerator {
 
         FullyQualifiedJavaType fqjt;
         if (generateForJava5) {
-            fqjt = new FullyQualifiedJavaType("java.util.List<Criteria>"); //$NON-NLS-1$
+            fqjt = FullyQualifiedJavaType.of("java.util.List<Criteria>"); //$NON-NLS-1$
         } else {
-            fqjt = new FullyQualifiedJavaType("java.util.List"); //$NON-NLS-1$
+            fqjt = FullyQualifiedJavaType.of("java.util.List"); //$NON-NLS-1$
         }
 
         field.setType(fqjt);
@@ -349,10 +349,10 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         field.setVisibility(JavaVisibility.PROTECTED);
         FullyQualifiedJavaType listOfStrings;
         if (generateForJava5) {
-            listOfStrings = new FullyQualifiedJavaType(
+            listOfStrings = FullyQualifiedJavaType.of(
                     "java.util.List<java.lang.String>"); //$NON-NLS-1$
         } else {
-            listOfStrings = new FullyQualifiedJavaType("java.util.List"); //$NON-NLS-1$
+            listOfStrings = FullyQualifiedJavaType.of("java.util.List"); //$NON-NLS-1$
         }
         field.setType(listOfStrings);
         field.setName("criteriaWithoutValue"); //$NON-NLS-1$
@@ -368,10 +368,10 @@ public class ExampleGenerator extends AbstractJavaGenerator {
 
         FullyQualifiedJavaType listOfMaps;
         if (generateForJava5) {
-            listOfMaps = new FullyQualifiedJavaType(
+            listOfMaps = FullyQualifiedJavaType.of(
                     "java.util.List<java.util.Map<java.lang.String, java.lang.Object>>"); //$NON-NLS-1$
         } else {
-            listOfMaps = new FullyQualifiedJavaType("java.util.List"); //$NON-NLS-1$
+            listOfMaps = FullyQualifiedJavaType.of("java.util.List"); //$NON-NLS-1$
         }
 
         field = new Field();
@@ -455,9 +455,9 @@ public class ExampleGenerator extends AbstractJavaGenerator {
 
         FullyQualifiedJavaType listOfObjects;
         if (generateForJava5) {
-            listOfObjects = new FullyQualifiedJavaType("java.util.List<? extends java.lang.Object>"); //$NON-NLS-1$
+            listOfObjects = FullyQualifiedJavaType.of("java.util.List<? extends java.lang.Object>"); //$NON-NLS-1$
         } else {
-            listOfObjects = new FullyQualifiedJavaType("java.util.List"); //$NON-NLS-1$
+            listOfObjects = FullyQualifiedJavaType.of("java.util.List"); //$NON-NLS-1$
         }
 
         method = new Method();
@@ -512,9 +512,9 @@ public class ExampleGenerator extends AbstractJavaGenerator {
 
         FullyQualifiedJavaType listOfDates;
         if (generateForJava5) {
-            listOfDates = new FullyQualifiedJavaType("java.util.List<java.util.Date>"); //$NON-NLS-1$
+            listOfDates = FullyQualifiedJavaType.of("java.util.List<java.util.Date>"); //$NON-NLS-1$
         } else {
-            listOfDates = new FullyQualifiedJavaType("java.util.List"); //$NON-NLS-1$
+            listOfDates = FullyQualifiedJavaType.of("java.util.List"); //$NON-NLS-1$
         }
 
         if (introspectedTable.hasJDBCDateColumns()) {
@@ -691,10 +691,10 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         // add new private fields and public accessors in the class
         FullyQualifiedJavaType listOfMaps;
         if (generateForJava5) {
-            listOfMaps = new FullyQualifiedJavaType(
+            listOfMaps = FullyQualifiedJavaType.of(
                     "java.util.List<java.util.Map<java.lang.String, java.lang.Object>>"); //$NON-NLS-1$
         } else {
-            listOfMaps = new FullyQualifiedJavaType("java.util.List"); //$NON-NLS-1$
+            listOfMaps = FullyQualifiedJavaType.of("java.util.List"); //$NON-NLS-1$
         }
 
         List<String> answer = new ArrayList<String>();
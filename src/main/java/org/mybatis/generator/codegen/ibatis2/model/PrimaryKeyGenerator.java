@@ -62,7 +62,7 @@ public class PrimaryKeyGenerator extends AbstractJavaGenerator {
 
         String rootClass = getRootClass();
         if (rootClass != null) {
-            topLevelClass.setSuperClass(new FullyQualifiedJavaType(rootClass));
+            topLevelClass.setSuperClass(FullyQualifiedJavaType.of(rootClass));
             topLevelClass.addImportedType(topLevelClass.getSuperClass());
         }
 
@@ -43,8 +43,8 @@ import org.mybatis.generator.xsili.GenHelper;
  */
 public class RepositoryGenerator extends AbstractJavaClientGenerator {
 
-    private FullyQualifiedJavaType annotationModifyingType = new FullyQualifiedJavaType("org.springframework.data.jpa.repository.Modifying");
-    private FullyQualifiedJavaType annotationQueryType = new FullyQualifiedJavaType("org.springframework.data.jpa.repository.Query");
+    private FullyQualifiedJavaType annotationModifyingType = FullyQualifiedJavaType.of("org.springframework.data.jpa.repository.Modifying");
+    private FullyQualifiedJavaType annotationQueryType = FullyQualifiedJavaType.of("org.springframework.data.jpa.repository.Query");
     
     public RepositoryGenerator() {
         super(false);
@@ -55,7 +55,7 @@ public class RepositoryGenerator extends AbstractJavaClientGenerator {
         progressCallback.startTask(getString("Progress.17", introspectedTable.getFullyQualifiedTable().toString()));
         CommentGenerator commentGenerator = context.getCommentGenerator();
 
-        FullyQualifiedJavaType type = new FullyQualifiedJavaType(introspectedTable.getMyBatis3JavaMapperType());
+        FullyQualifiedJavaType type = FullyQualifiedJavaType.of(introspectedTable.getMyBatis3JavaMapperType());
         Interface interfaze = new Interface(type);
         interfaze.setVisibility(JavaVisibility.PUBLIC);
         commentGenerator.addJavaFileComment(interfaze);
@@ -66,7 +66,7 @@ public class RepositoryGenerator extends AbstractJavaClientGenerator {
         }
 
         if (stringHasValue(rootInterface)) {
-            FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(rootInterface);
+            FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.of(rootInterface);
             interfaze.addSuperInterface(fqjt);
             interfaze.addImportedType(fqjt);
         }
@@ -77,7 +77,7 @@ public class RepositoryGenerator extends AbstractJavaClientGenerator {
         // baseRepository
         FullyQualifiedJavaType baseRepositoryType = GenHelper.getBaseDaoType(getContext());
         baseRepositoryType.addTypeArgument(modelType);
-        interfaze.addSuperInterface(new FullyQualifiedJavaType(baseRepositoryType.getShortName()));
+        interfaze.addSuperInterface(FullyQualifiedJavaType.of(baseRepositoryType.getShortName()));
         interfaze.addImportedType(baseRepositoryType);
 
         // jpaRepositoryType
@@ -48,7 +48,7 @@ public class InsertMethodGenerator extends AbstractJavaMapperMethodGenerator {
 
         FullyQualifiedJavaType parameterType;
         if (isSimple) {
-            parameterType = new FullyQualifiedJavaType(
+            parameterType = FullyQualifiedJavaType.of(
                     introspectedTable.getBaseRecordType());
         } else {
             parameterType = introspectedTable.getRules()
@@ -41,7 +41,7 @@ public class SelectByExampleWithoutBLOBsMethodGenerator extends
     @Override
     public void addInterfaceElements(Interface interfaze) {
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
-        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType type = FullyQualifiedJavaType.of(
                 introspectedTable.getExampleType());
         importedTypes.add(type);
         importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
@@ -53,10 +53,10 @@ public class SelectByExampleWithoutBLOBsMethodGenerator extends
                 .getNewListInstance();
         FullyQualifiedJavaType listType;
         if (introspectedTable.getRules().generateBaseRecordClass()) {
-            listType = new FullyQualifiedJavaType(introspectedTable
+            listType = FullyQualifiedJavaType.of(introspectedTable
                     .getBaseRecordType());
         } else if (introspectedTable.getRules().generatePrimaryKeyClass()) {
-            listType = new FullyQualifiedJavaType(introspectedTable
+            listType = FullyQualifiedJavaType.of(introspectedTable
                     .getPrimaryKeyType());
         } else {
             throw new RuntimeException(getString("RuntimeError.12")); //$NON-NLS-1$
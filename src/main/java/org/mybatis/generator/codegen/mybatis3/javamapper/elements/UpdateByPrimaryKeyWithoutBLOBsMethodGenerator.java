@@ -39,7 +39,7 @@ public class UpdateByPrimaryKeyWithoutBLOBsMethodGenerator extends
     @Override
     public void addInterfaceElements(Interface interfaze) {
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<FullyQualifiedJavaType>();
-        FullyQualifiedJavaType parameterType = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType parameterType = FullyQualifiedJavaType.of(
                 introspectedTable.getBaseRecordType());
         importedTypes.add(parameterType);
 
@@ -50,7 +50,7 @@ public class ProviderDeleteByExampleMethodGenerator extends AbstractJavaProvider
             importedTypes.add(NEW_BUILDER_IMPORT);
         }
 
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.of(introspectedTable.getExampleType());
         importedTypes.add(fqjt);
 
         Method method = new Method(
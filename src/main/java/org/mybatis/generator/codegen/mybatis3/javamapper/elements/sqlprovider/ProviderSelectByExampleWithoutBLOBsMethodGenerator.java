@@ -56,7 +56,7 @@ public class ProviderSelectByExampleWithoutBLOBsMethodGenerator extends Abstract
             importedTypes.add(NEW_BUILDER_IMPORT);
         }
 
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.of(introspectedTable.getExampleType());
         importedTypes.add(fqjt);
 
         Method method = new Method(getMethodName());
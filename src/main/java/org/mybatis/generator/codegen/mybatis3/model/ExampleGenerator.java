@@ -57,7 +57,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
                 "Progress.6", table.toString())); //$NON-NLS-1$
         CommentGenerator commentGenerator = context.getCommentGenerator();
 
-        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType type = FullyQualifiedJavaType.of(
                 introspectedTable.getExampleType());
         TopLevelClass topLevelClass = new TopLevelClass(type);
         topLevelClass.setVisibility(JavaVisibility.PUBLIC);
@@ -128,7 +128,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         field = new Field();
         field.setVisibility(JavaVisibility.PROTECTED);
 
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.of(
                 "java.util.List<Criteria>"); //$NON-NLS-1$
         field.setType(fqjt);
         field.setName("oredCriteria"); //$NON-NLS-1$
@@ -209,7 +209,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
     }
 
     private InnerClass getCriterionInnerClass() {
-        InnerClass answer = new InnerClass(new FullyQualifiedJavaType(
+        InnerClass answer = new InnerClass(FullyQualifiedJavaType.of(
                 "Criterion")); //$NON-NLS-1$
         answer.setVisibility(JavaVisibility.PUBLIC);
         answer.setStatic(true);
@@ -440,7 +440,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         if (criteriaLists.size() > 1) {
             field = new Field();
             field.setName("allCriteria"); //$NON-NLS-1$
-            field.setType(new FullyQualifiedJavaType("List<Criterion>")); //$NON-NLS-1$
+            field.setType(FullyQualifiedJavaType.of("List<Criterion>")); //$NON-NLS-1$
             field.setVisibility(JavaVisibility.PROTECTED);
             answer.addField(field);
         }
@@ -448,7 +448,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         method = new Method();
         method.setVisibility(JavaVisibility.PUBLIC);
         method.setName("getAllCriteria"); //$NON-NLS-1$
-        method.setReturnType(new FullyQualifiedJavaType("List<Criterion>")); //$NON-NLS-1$
+        method.setReturnType(FullyQualifiedJavaType.of("List<Criterion>")); //$NON-NLS-1$
         if (criteriaLists.size() < 2) {
             method.addBodyLine("return criteria;"); //$NON-NLS-1$
         } else {
@@ -474,7 +474,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
 
         field = new Field();
         field.setVisibility(JavaVisibility.PROTECTED);
-        FullyQualifiedJavaType listOfCriterion = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType listOfCriterion = FullyQualifiedJavaType.of(
                 "java.util.List<Criterion>"); //$NON-NLS-1$
         field.setType(listOfCriterion);
         field.setName("criteria"); //$NON-NLS-1$
@@ -545,7 +545,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         }
         answer.addMethod(method);
 
-        FullyQualifiedJavaType listOfDates = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType listOfDates = FullyQualifiedJavaType.of(
                 "java.util.List<java.util.Date>"); //$NON-NLS-1$
 
         if (introspectedTable.hasJDBCDateColumns()) {
@@ -972,7 +972,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
 
         Field field = new Field();
         field.setVisibility(JavaVisibility.PROTECTED);
-        field.setType(new FullyQualifiedJavaType("java.util.List<Criterion>")); //$NON-NLS-1$
+        field.setType(FullyQualifiedJavaType.of("java.util.List<Criterion>")); //$NON-NLS-1$
         field.setName(answer);
         innerClass.addField(field);
 
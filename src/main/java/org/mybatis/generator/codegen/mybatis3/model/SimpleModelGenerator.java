@@ -55,7 +55,7 @@ public class SimpleModelGenerator extends AbstractJavaGenerator {
         Plugin plugins = context.getPlugins();
         CommentGenerator commentGenerator = context.getCommentGenerator();
 
-        FullyQualifiedJavaType type = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType type = FullyQualifiedJavaType.of(
                 introspectedTable.getBaseRecordType());
         TopLevelClass topLevelClass = new TopLevelClass(type);
         topLevelClass.setVisibility(JavaVisibility.PUBLIC);
@@ -123,7 +123,7 @@ public class SimpleModelGenerator extends AbstractJavaGenerator {
         FullyQualifiedJavaType superClass;
         String rootClass = getRootClass();
         if (rootClass != null) {
-            superClass = new FullyQualifiedJavaType(rootClass);
+            superClass = FullyQualifiedJavaType.of(rootClass);
         } else {
             superClass = null;
         }
@@ -51,7 +51,7 @@ public class InsertElementGenerator extends AbstractXmlElementGenerator {
 
         FullyQualifiedJavaType parameterType;
         if (isSimple) {
-            parameterType = new FullyQualifiedJavaType(
+            parameterType = FullyQualifiedJavaType.of(
                     introspectedTable.getBaseRecordType());
         } else {
             parameterType = introspectedTable.getRules()
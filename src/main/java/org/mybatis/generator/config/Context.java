@@ -20,30 +20,63 @@ import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.ConnectionFactory;
+import org.mybatis.generator.api.GeneratedFile;
 import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.GenerationStatistics;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.JavaFormatter;
 import org.mybatis.generator.api.JavaTypeResolver;
 import org.mybatis.generator.api.Plugin;
 import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.api.ThreadSafePlugin;
 import org.mybatis.generator.api.XmlFormatter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.internal.GenerationManifest;
 import org.mybatis.generator.internal.JDBCConnectionFactory;
 import org.mybatis.generator.internal.ObjectFactory;
 import org.mybatis.generator.internal.PluginAggregator;
+import org.mybatis.generator.internal.SynchronizedPlugin;
+import org.mybatis.generator.internal.SynchronizedProgressCallback;
+import org.mybatis.generator.internal.TimedPlugin;
 import org.mybatis.generator.internal.db.DatabaseIntrospector;
+import org.mybatis.generator.internal.db.DdlTableMetadataProvider;
+import org.mybatis.generator.internal.db.IntrospectionSnapshot;
+import org.mybatis.generator.internal.db.SchemaMetadataCache;
+import org.mybatis.generator.internal.util.RenamingRule;
 
 /**
  * The Class Context.
@@ -92,6 +125,12 @@ public class Context extends PropertyHolder {
 
     private XmlFormatter xmlFormatter;
 
+    /** The compiled renaming rules of the tables, by search and replace string. */
+    private final ConcurrentMap<String, RenamingRule> renamingRules = new ConcurrentHashMap<String, RenamingRule>();
+
+    /** The rule of the tables that have no renaming rule. */
+    private final RenamingRule identityRenamingRule = RenamingRule.compile(null, null);
+
     public Context(ModelType defaultModelType) {
         super();
 
@@ -134,6 +173,10 @@ public class Context extends PropertyHolder {
         pluginConfigurations.add(pluginConfiguration);
     }
 
+    public List<PluginConfiguration> getPluginConfigurations() {
+        return pluginConfigurations;
+    }
+
     /**
      * This method does a simple validate, it makes sure that all required fields have been filled in. It does not do
      * any more complex operations such as validating that database tables exist or validating that named columns exist
@@ -147,8 +190,10 @@ public class Context extends PropertyHolder {
         }
 
         if (jdbcConnectionConfiguration == null && connectionFactoryConfiguration == null) {
-            // must specify one
-            errors.add(getString("ValidationError.10", id)); //$NON-NLS-1$
+            // must specify one, unless the tables are read from a DDL script
+            if (!stringHasValue(getProperty(PropertyRegistry.CONTEXT_DDL_SCRIPT))) {
+                errors.add(getString("ValidationError.10", id)); //$NON-NLS-1$
+            }
         } else if (jdbcConnectionConfiguration != null && connectionFactoryConfiguration != null) {
             // must not specify both
             errors.add(getString("ValidationError.10", id)); //$NON-NLS-1$
@@ -395,6 +440,13 @@ public class Context extends PropertyHolder {
 
     private List<IntrospectedTable> introspectedTables;
 
+    private GenerationManifest generationManifest;
+
+    /** the new hash and the files of every table generated by the last call to generateFiles. */
+    private Map<IntrospectedTable, ManifestEntry> manifestEntries;
+
+    private GenerationStatistics statistics;
+
     public int getIntrospectionSteps() {
         int steps = 0;
 
@@ -438,48 +490,363 @@ public class Context extends PropertyHolder {
             throws SQLException, InterruptedException {
 
         introspectedTables = new ArrayList<IntrospectedTable>();
-        JavaTypeResolver javaTypeResolver = ObjectFactory
-                .createJavaTypeResolver(this, warnings);
 
-        Connection connection = null;
+        String ddlScript = getProperty(PropertyRegistry.CONTEXT_DDL_SCRIPT);
+        if (stringHasValue(ddlScript)) {
+            introspectTables(callback, warnings, fullyQualifiedTableNames,
+                    new DatabaseIntrospector(this, readDdlScripts(ddlScript),
+                            ObjectFactory.createJavaTypeResolver(this, warnings), warnings));
+            return;
+        }
 
+        IntrospectionSnapshot introspectionSnapshot = null;
+        String snapshotFile = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT);
+        if (stringHasValue(snapshotFile)
+                && !stringHasValue(getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_FINGERPRINT_QUERY))) {
+            // without a query nothing tells a stale snapshot from a current one
+            warnings.add(getString("Warning.35", id)); //$NON-NLS-1$
+            snapshotFile = null;
+        }
+        if (stringHasValue(snapshotFile)) {
+            IntrospectionSnapshot previousSnapshot = readIntrospectionSnapshot(
+                    new File(snapshotFile), warnings);
+            String fingerprint = calculateSchemaFingerprint(callback);
+
+            if (previousSnapshot != null
+                    && fingerprint.equals(previousSnapshot.getFingerprint())) {
+                if (containsAllTables(previousSnapshot, fullyQualifiedTableNames)) {
+                    introspectTables(callback, warnings, fullyQualifiedTableNames,
+                            new DatabaseIntrospector(this, previousSnapshot,
+                                    ObjectFactory.createJavaTypeResolver(this, warnings), warnings));
+                    return;
+                }
+
+                introspectionSnapshot = new IntrospectionSnapshot(fingerprint);
+                introspectionSnapshot.putAbsent(previousSnapshot);
+            } else {
+                introspectionSnapshot = new IntrospectionSnapshot(fingerprint);
+            }
+        }
+
+        SchemaMetadataCache schemaMetadataCache = null;
+        if (isTrue(getProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION))) {
+            schemaMetadataCache = new SchemaMetadataCache();
+        }
+
+        int introspectionThreads = getThreads(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS, warnings);
+        if (introspectionThreads > 1) {
+            introspectTablesConcurrently(callback, warnings,
+                    fullyQualifiedTableNames, introspectionThreads,
+                    schemaMetadataCache, introspectionSnapshot);
+        } else {
+            Connection connection = null;
+
+            try {
+                callback.startTask(getString("Progress.0")); //$NON-NLS-1$
+                connection = getConnection();
+
+                DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
+                        this, connection.getMetaData(),
+                        ObjectFactory.createJavaTypeResolver(this, warnings), warnings,
+                        schemaMetadataCache);
+                databaseIntrospector.setIntrospectionSnapshot(introspectionSnapshot);
+
+                introspectTables(callback, warnings, fullyQualifiedTableNames,
+                        databaseIntrospector);
+            } finally {
+                closeConnection(connection);
+            }
+        }
+
+        if (introspectionSnapshot != null) {
+            try {
+                introspectionSnapshot.write(new File(snapshotFile));
+            } catch (IOException e) {
+                warnings.add(getString("Warning.31", snapshotFile, e.getMessage())); //$NON-NLS-1$
+            }
+        }
+    }
+
+    private void introspectTables(ProgressCallback callback,
+            List<String> warnings, Set<String> fullyQualifiedTableNames,
+            DatabaseIntrospector databaseIntrospector)
+            throws SQLException, InterruptedException {
+        for (TableConfiguration tc : tableConfigurations) {
+            String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                            .getSchema(), tc.getTableName(), '.');
+
+            if (fullyQualifiedTableNames != null
+                    && fullyQualifiedTableNames.size() > 0
+                    && !fullyQualifiedTableNames.contains(tableName)) {
+                continue;
+            }
+
+            if (!tc.areAnyStatementsEnabled()) {
+                warnings.add(getString("Warning.0", tableName)); //$NON-NLS-1$
+                continue;
+            }
+
+            callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
+            List<IntrospectedTable> tables = databaseIntrospector
+                    .introspectTables(tc);
+
+            if (tables != null) {
+                introspectedTables.addAll(tables);
+            }
+
+            callback.checkCancel();
+        }
+    }
+
+    /**
+     * Reads a comma separated list of DDL scripts. Each script is a file, or a resource on the classpath if there is
+     * no such file.
+     */
+    private DdlTableMetadataProvider readDdlScripts(String ddlScripts) throws SQLException {
+        DdlTableMetadataProvider answer = new DdlTableMetadataProvider();
+        StringTokenizer st = new StringTokenizer(ddlScripts, ","); //$NON-NLS-1$
+        while (st.hasMoreTokens()) {
+            String ddlScript = st.nextToken().trim();
+            Reader reader = null;
+            try {
+                File file = new File(ddlScript);
+                InputStream inputStream;
+                if (file.isFile()) {
+                    inputStream = new FileInputStream(file);
+                } else {
+                    URL url = ObjectFactory.getResource(ddlScript);
+                    if (url == null) {
+                        throw new FileNotFoundException(ddlScript);
+                    }
+                    inputStream = url.openStream();
+                }
+
+                reader = new InputStreamReader(inputStream, "UTF-8"); //$NON-NLS-1$
+                answer.parse(reader);
+            } catch (IOException e) {
+                throw new SQLException(getString("RuntimeError.23", ddlScript, e.getMessage()), e); //$NON-NLS-1$
+            } finally {
+                if (reader != null) {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+            }
+        }
+
+        return answer;
+    }
+
+    private IntrospectionSnapshot readIntrospectionSnapshot(File file, List<String> warnings) {
+        try {
+            return IntrospectionSnapshot.read(file);
+        } catch (IOException e) {
+            warnings.add(getString("Warning.30", file.getPath(), e.getMessage())); //$NON-NLS-1$
+            return null;
+        }
+    }
+
+    /**
+     * The fingerprint covers the connection URL and the result of the fingerprint query.
+     */
+    private String calculateSchemaFingerprint(ProgressCallback callback) throws SQLException {
+        String source;
+        if (jdbcConnectionConfiguration != null) {
+            source = jdbcConnectionConfiguration.getConnectionURL();
+        } else {
+            source = connectionFactoryConfiguration.getConfigurationType() + '|'
+                    + connectionFactoryConfiguration.getProperties().getProperty("connectionURL"); //$NON-NLS-1$
+        }
+
+        String query = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_FINGERPRINT_QUERY);
+        Connection connection = null;
         try {
             callback.startTask(getString("Progress.0")); //$NON-NLS-1$
             connection = getConnection();
+            return IntrospectionSnapshot.calculateFingerprint(source, connection, query);
+        } finally {
+            closeConnection(connection);
+        }
+    }
+
+    private boolean containsAllTables(IntrospectionSnapshot introspectionSnapshot,
+            Set<String> fullyQualifiedTableNames) {
+        for (TableConfiguration tc : tableConfigurations) {
+            String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                            .getSchema(), tc.getTableName(), '.');
 
-            DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
-                    this, connection.getMetaData(), javaTypeResolver, warnings);
+            if (fullyQualifiedTableNames != null
+                    && fullyQualifiedTableNames.size() > 0
+                    && !fullyQualifiedTableNames.contains(tableName)) {
+                continue;
+            }
 
-            for (TableConfiguration tc : tableConfigurations) {
-                String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
-                                .getSchema(), tc.getTableName(), '.');
+            if (tc.areAnyStatementsEnabled() && !introspectionSnapshot.containsTables(tc)) {
+                return false;
+            }
+        }
 
-                if (fullyQualifiedTableNames != null
-                        && fullyQualifiedTableNames.size() > 0
-                        && !fullyQualifiedTableNames.contains(tableName)) {
-                    continue;
-                }
+        return true;
+    }
+
+    /**
+     * Introspects the tables over a small pool of connections. Each table is introspected in a separate task with its
+     * own type resolver and warning list, and the results are merged in configuration order so that the outcome is
+     * the same as a sequential run.
+     */
+    private void introspectTablesConcurrently(ProgressCallback callback,
+            List<String> warnings, Set<String> fullyQualifiedTableNames,
+            int introspectionThreads, final SchemaMetadataCache schemaMetadataCache,
+            final IntrospectionSnapshot introspectionSnapshot)
+            throws SQLException, InterruptedException {
+
+        List<TableIntrospection> tasks = new ArrayList<TableIntrospection>();
+        int enabledTables = 0;
+        for (TableConfiguration tc : tableConfigurations) {
+            String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                            .getSchema(), tc.getTableName(), '.');
+
+            if (fullyQualifiedTableNames != null
+                    && fullyQualifiedTableNames.size() > 0
+                    && !fullyQualifiedTableNames.contains(tableName)) {
+                continue;
+            }
+
+            TableIntrospection task = new TableIntrospection(tc, tableName);
+            if (tc.areAnyStatementsEnabled()) {
+                enabledTables++;
+            } else {
+                task.warnings.add(getString("Warning.0", tableName)); //$NON-NLS-1$
+            }
+            tasks.add(task);
+        }
+
+        int poolSize = Math.max(1, Math.min(introspectionThreads, enabledTables));
+        final BlockingQueue<Connection> connections = new ArrayBlockingQueue<Connection>(poolSize);
+        ExecutorService executor = null;
+
+        try {
+            callback.startTask(getString("Progress.0")); //$NON-NLS-1$
+            ConnectionFactory connectionFactory = getConnectionFactory();
+            for (int i = 0; i < poolSize; i++) {
+                connections.add(connectionFactory.getConnection());
+            }
 
-                if (!tc.areAnyStatementsEnabled()) {
-                    warnings.add(getString("Warning.0", tableName)); //$NON-NLS-1$
+            executor = Executors.newFixedThreadPool(poolSize);
+            for (final TableIntrospection task : tasks) {
+                if (!task.tableConfiguration.areAnyStatementsEnabled()) {
                     continue;
                 }
 
-                callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
-                List<IntrospectedTable> tables = databaseIntrospector
-                        .introspectTables(tc);
+                task.result = executor.submit(new Callable<List<IntrospectedTable>>() {
+                    @Override
+                    public List<IntrospectedTable> call() throws Exception {
+                        Connection connection = connections.take();
+                        try {
+                            JavaTypeResolver javaTypeResolver = ObjectFactory
+                                    .createJavaTypeResolver(Context.this, task.warnings);
+                            DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
+                                    Context.this, connection.getMetaData(), javaTypeResolver,
+                                    task.warnings, schemaMetadataCache);
+                            databaseIntrospector.setIntrospectionSnapshot(introspectionSnapshot);
+                            return databaseIntrospector.introspectTables(task.tableConfiguration);
+                        } finally {
+                            connections.add(connection);
+                        }
+                    }
+                });
+            }
 
-                if (tables != null) {
-                    introspectedTables.addAll(tables);
-                }
+            for (TableIntrospection task : tasks) {
+                if (task.result != null) {
+                    callback.startTask(getString("Progress.1", task.tableName)); //$NON-NLS-1$
+                    List<IntrospectedTable> tables = getIntrospectionResult(task.result);
+                    warnings.addAll(task.warnings);
 
-                callback.checkCancel();
+                    if (tables != null) {
+                        introspectedTables.addAll(tables);
+                    }
+
+                    callback.checkCancel();
+                } else {
+                    warnings.addAll(task.warnings);
+                }
             }
         } finally {
-            closeConnection(connection);
+            try {
+                if (executor != null) {
+                    // connections may only be closed once every task has let go of them
+                    executor.shutdownNow();
+                    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                }
+            } finally {
+                for (Connection connection : connections) {
+                    closeConnection(connection);
+                }
+            }
+        }
+    }
+
+    private List<IntrospectedTable> getIntrospectionResult(
+            Future<List<IntrospectedTable>> result) throws SQLException,
+            InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    private int getThreads(String property, List<String> warnings) {
+        String value = getProperty(property);
+        if (!stringHasValue(value)) {
+            return 1;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            warnings.add(getString("Warning.29", property, value, id)); //$NON-NLS-1$
+            return 1;
         }
     }
 
+    /**
+     * Holds the state of a single table configuration while it is introspected concurrently.
+     */
+    private static class TableIntrospection {
+        private final TableConfiguration tableConfiguration;
+        private final String tableName;
+        private final List<String> warnings = new ArrayList<String>();
+        private Future<List<IntrospectedTable>> result;
+
+        TableIntrospection(TableConfiguration tableConfiguration, String tableName) {
+            this.tableConfiguration = tableConfiguration;
+            this.tableName = tableName;
+        }
+    }
+
+    /**
+     * Returns the tables that were introspected by the last call to introspectTables, in the order of the table
+     * configurations.
+     *
+     * @return the introspected tables, or null if the tables were not introspected yet
+     */
+    public List<IntrospectedTable> getIntrospectedTables() {
+        return introspectedTables;
+    }
+
     public int getGenerationSteps() {
         int steps = 0;
 
@@ -496,12 +863,71 @@ public class Context extends PropertyHolder {
             List<GeneratedJavaFile> generatedJavaFiles,
             List<GeneratedXmlFile> generatedXmlFiles, List<String> warnings)
             throws InterruptedException {
+        generateFiles(callback, generatedJavaFiles, generatedXmlFiles, warnings, false);
+    }
+
+    /**
+     * Generates the files of the introspected tables.
+     *
+     * @param callback
+     *            the progress callback
+     * @param generatedJavaFiles
+     *            the generated Java files are added to this list
+     * @param generatedXmlFiles
+     *            the generated XML files are added to this list
+     * @param warnings
+     *            warnings are added to this list
+     * @param incremental
+     *            if true and the context has a generation manifest, then the tables whose inputs did not change
+     *            since the manifest was saved are not generated. The files of a context that are not related to a
+     *            single table are only generated if every table is generated.
+     * @throws InterruptedException
+     *             if the generation is canceled through the progress callback
+     */
+    public void generateFiles(ProgressCallback callback,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles, List<String> warnings,
+            boolean incremental) throws InterruptedException {
+
+        List<IntrospectedTable> tablesToGenerate = introspectedTables;
+        generationManifest = null;
+        manifestEntries = null;
+        String manifestFile = getProperty(PropertyRegistry.CONTEXT_GENERATION_MANIFEST);
+        if (stringHasValue(manifestFile) && introspectedTables != null) {
+            generationManifest = readGenerationManifest(new File(manifestFile), warnings);
+            String contextHash = GenerationManifest.calculateContextHash(this);
+            tablesToGenerate = new ArrayList<IntrospectedTable>();
+            manifestEntries = new HashMap<IntrospectedTable, ManifestEntry>();
+            for (IntrospectedTable introspectedTable : introspectedTables) {
+                String hash = GenerationManifest.calculateTableHash(contextHash, introspectedTable);
+                if (incremental && generationManifest.isUnchanged(introspectedTable, hash)) {
+                    callback.startTask(getString("Progress.20", //$NON-NLS-1$
+                            introspectedTable.getFullyQualifiedTable().toString()));
+                } else {
+                    manifestEntries.put(introspectedTable, new ManifestEntry(hash));
+                    tablesToGenerate.add(introspectedTable);
+                }
+            }
+        }
+        boolean allTablesGenerated = tablesToGenerate == introspectedTables
+                || tablesToGenerate.size() == introspectedTables.size();
 
+        int generationThreads = getThreads(PropertyRegistry.CONTEXT_GENERATION_THREADS, warnings);
+        boolean concurrent = generationThreads > 1 && tablesToGenerate != null
+                && tablesToGenerate.size() > 1;
+
+        Object pluginLock = new Object();
         pluginAggregator = new PluginAggregator();
         for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
             Plugin plugin = ObjectFactory.createPlugin(this,
                     pluginConfiguration);
             if (plugin.validate(warnings)) {
+                if (statistics != null) {
+                    plugin = TimedPlugin.wrap(plugin, statistics);
+                }
+                if (concurrent && !(plugin instanceof ThreadSafePlugin)) {
+                    plugin = SynchronizedPlugin.wrap(plugin, pluginLock);
+                }
                 pluginAggregator.addPlugin(plugin);
             } else {
                 warnings.add(getString("Warning.24", //$NON-NLS-1$
@@ -509,41 +935,249 @@ public class Context extends PropertyHolder {
             }
         }
 
-        if (introspectedTables != null) {
-            for (IntrospectedTable introspectedTable : introspectedTables) {
+        if (concurrent) {
+            generateFilesConcurrently(tablesToGenerate, callback, generatedJavaFiles,
+                    generatedXmlFiles, warnings, generationThreads);
+        } else if (tablesToGenerate != null) {
+            for (IntrospectedTable introspectedTable : tablesToGenerate) {
                 callback.checkCancel();
 
-                introspectedTable.initialize();
-                introspectedTable.calculateGenerators(warnings, callback);
-                
-                List<GeneratedJavaFile> files = introspectedTable.getGeneratedJavaFiles();
-                generatedJavaFiles.addAll(files);
-                List<GeneratedXmlFile> xmls = introspectedTable.getGeneratedXmlFiles();
-                generatedXmlFiles.addAll(xmls);
-                
-                // @modifier yepeng, add at 20171215
-                List<TopLevelClass> modelClasses = new ArrayList<>();
-                for (GeneratedJavaFile generatedJavaFile : files) {
-                    CompilationUnit compilationUnit = generatedJavaFile.getCompilationUnit();
-                    if(compilationUnit instanceof TopLevelClass) {
-                        if(compilationUnit.getType().equals(introspectedTable.getRules().calculateAllFieldsClass())) {
-                            modelClasses.add((TopLevelClass) compilationUnit);
-                        }
-                    }
+                generateFiles(introspectedTable, callback, generatedJavaFiles,
+                        generatedXmlFiles, warnings);
+            }
+        }
+
+        // plugins may collect information about every table for these files
+        if (allTablesGenerated) {
+            generatedJavaFiles.addAll(pluginAggregator
+                    .contextGenerateAdditionalJavaFiles());
+            generatedXmlFiles.addAll(pluginAggregator
+                    .contextGenerateAdditionalXmlFiles());
+        }
+    }
+
+    /**
+     * Sets the statistics that the calls to the plugins are added to by the next calls to generateFiles.
+     *
+     * @param statistics
+     *            the statistics, or <code>null</code> if the plugin calls should not be measured
+     */
+    public void setGenerationStatistics(GenerationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the compiled form of a column or domain object renaming rule. The rules are compiled once, and shared
+     * by all the tables of the context that have the same search and replace strings.
+     *
+     * @param searchString
+     *            the search string of the rule, or <code>null</code> if the table has no rule
+     * @param replaceString
+     *            the replace string of the rule
+     * @return the compiled rule
+     */
+    public RenamingRule getRenamingRule(String searchString, String replaceString) {
+        if (searchString == null) {
+            return identityRenamingRule;
+        }
+
+        String key = searchString + '\n' + (replaceString == null ? "" : replaceString); //$NON-NLS-1$
+        RenamingRule answer = renamingRules.get(key);
+        if (answer == null) {
+            answer = RenamingRule.compile(searchString, replaceString);
+            RenamingRule existing = renamingRules.putIfAbsent(key, answer);
+            if (existing != null) {
+                answer = existing;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Saves the generation manifest of the last call to generateFiles, if the context has one. This should only be
+     * called after the generated files were written.
+     *
+     * @param targetFiles
+     *            the files that the generated files were successfully written to, or that already had the generated
+     *            content. A table is only added to the manifest if all its generated files are in this map.
+     * @param warnings
+     *            warnings are added to this list
+     */
+    public void saveGenerationManifest(Map<GeneratedFile, File> targetFiles, List<String> warnings) {
+        if (generationManifest == null) {
+            return;
+        }
+
+        for (Map.Entry<IntrospectedTable, ManifestEntry> entry : manifestEntries.entrySet()) {
+            List<File> tableFiles = new ArrayList<File>();
+            for (GeneratedFile generatedFile : entry.getValue().generatedFiles) {
+                File targetFile = targetFiles.get(generatedFile);
+                if (targetFile == null) {
+                    tableFiles = null;
+                    break;
+                }
+                tableFiles.add(targetFile);
+            }
+            if (tableFiles != null) {
+                generationManifest.putTable(entry.getKey(), entry.getValue().hash, tableFiles);
+            }
+        }
+
+        String manifestFile = getProperty(PropertyRegistry.CONTEXT_GENERATION_MANIFEST);
+        try {
+            generationManifest.write(new File(manifestFile));
+        } catch (IOException e) {
+            warnings.add(getString("Warning.33", manifestFile, e.getMessage())); //$NON-NLS-1$
+        }
+    }
+
+    private GenerationManifest readGenerationManifest(File file, List<String> warnings) {
+        try {
+            return GenerationManifest.read(file);
+        } catch (IOException e) {
+            warnings.add(getString("Warning.32", file.getPath(), e.getMessage())); //$NON-NLS-1$
+            return new GenerationManifest();
+        }
+    }
+
+    private void generateFiles(IntrospectedTable introspectedTable,
+            ProgressCallback callback,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles, List<String> warnings)
+            throws InterruptedException {
+        introspectedTable.initialize();
+        introspectedTable.calculateGenerators(warnings, callback);
+        
+        List<GeneratedJavaFile> files = introspectedTable.getGeneratedJavaFiles();
+        generatedJavaFiles.addAll(files);
+        List<GeneratedXmlFile> xmls = introspectedTable.getGeneratedXmlFiles();
+        generatedXmlFiles.addAll(xmls);
+        
+        // @modifier yepeng, add at 20171215
+        List<TopLevelClass> modelClasses = new ArrayList<>();
+        for (GeneratedJavaFile generatedJavaFile : files) {
+            CompilationUnit compilationUnit = generatedJavaFile.getCompilationUnit();
+            if(compilationUnit instanceof TopLevelClass) {
+                if(compilationUnit.getType().equals(introspectedTable.getRules().calculateAllFieldsClass())) {
+                    modelClasses.add((TopLevelClass) compilationUnit);
                 }
-                
-                generatedJavaFiles.addAll(pluginAggregator.contextGenerateAdditionalJavaFiles(introspectedTable, modelClasses));
-                generatedXmlFiles.addAll(pluginAggregator.contextGenerateAdditionalXmlFiles(introspectedTable));
             }
         }
+        
+        List<GeneratedJavaFile> additionalJavaFiles = pluginAggregator.contextGenerateAdditionalJavaFiles(
+                introspectedTable, modelClasses);
+        generatedJavaFiles.addAll(additionalJavaFiles);
+        List<GeneratedXmlFile> additionalXmlFiles = pluginAggregator.contextGenerateAdditionalXmlFiles(
+                introspectedTable);
+        generatedXmlFiles.addAll(additionalXmlFiles);
+
+        // the entries are created before the tables are generated, each
+        // table only changes its own entry
+        ManifestEntry manifestEntry = manifestEntries == null ? null : manifestEntries.get(introspectedTable);
+        if (manifestEntry != null) {
+            manifestEntry.generatedFiles.addAll(files);
+            manifestEntry.generatedFiles.addAll(xmls);
+            manifestEntry.generatedFiles.addAll(additionalJavaFiles);
+            manifestEntry.generatedFiles.addAll(additionalXmlFiles);
+        }
+    }
+
+    /**
+     * Generates the files of every table on a fork-join pool. The files and warnings of each table are collected
+     * separately, and are added in the order of the tables, so the result is the same as if the tables were
+     * generated one after the other.
+     */
+    private void generateFilesConcurrently(List<IntrospectedTable> tablesToGenerate,
+            ProgressCallback callback,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles, List<String> warnings,
+            int generationThreads) throws InterruptedException {
+
+        // the comment generator is created lazily, it must exist before the
+        // tables are generated so that every table uses the same one
+        getCommentGenerator();
+
+        final ProgressCallback synchronizedCallback = new SynchronizedProgressCallback(callback);
+        List<TableGeneration> tasks = new ArrayList<TableGeneration>();
+        ForkJoinPool pool = new ForkJoinPool(Math.min(generationThreads, tablesToGenerate.size()));
+
+        try {
+            for (IntrospectedTable introspectedTable : tablesToGenerate) {
+                final TableGeneration task = new TableGeneration(introspectedTable);
+                task.result = pool.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        generateFiles(task.introspectedTable, synchronizedCallback,
+                                task.generatedJavaFiles, task.generatedXmlFiles, task.warnings);
+                        return null;
+                    }
+                });
+                tasks.add(task);
+            }
+
+            for (TableGeneration task : tasks) {
+                synchronizedCallback.checkCancel();
+
+                getGenerationResult(task.result);
+                generatedJavaFiles.addAll(task.generatedJavaFiles);
+                generatedXmlFiles.addAll(task.generatedXmlFiles);
+                warnings.addAll(task.warnings);
+            }
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void getGenerationResult(Future<Void> result) throws InterruptedException {
+        try {
+            result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /**
+     * Holds the generated files of a single table while the tables are generated concurrently.
+     */
+    private static class TableGeneration {
+        private final IntrospectedTable introspectedTable;
+        private final List<GeneratedJavaFile> generatedJavaFiles = new ArrayList<GeneratedJavaFile>();
+        private final List<GeneratedXmlFile> generatedXmlFiles = new ArrayList<GeneratedXmlFile>();
+        private final List<String> warnings = new ArrayList<String>();
+        private Future<Void> result;
+
+        TableGeneration(IntrospectedTable introspectedTable) {
+            this.introspectedTable = introspectedTable;
+        }
+    }
+
+    /**
+     * Holds the new hash and the generated files of a table until the files are written.
+     */
+    private static class ManifestEntry {
+        private final String hash;
+        private final List<GeneratedFile> generatedFiles = new ArrayList<GeneratedFile>();
 
-        generatedJavaFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalJavaFiles());
-        generatedXmlFiles.addAll(pluginAggregator
-                .contextGenerateAdditionalXmlFiles());
+        ManifestEntry(String hash) {
+            this.hash = hash;
+        }
     }
 
     private Connection getConnection() throws SQLException {
+        return getConnectionFactory().getConnection();
+    }
+
+    private ConnectionFactory getConnectionFactory() {
         ConnectionFactory connectionFactory;
         if (jdbcConnectionConfiguration != null) {
             connectionFactory = new JDBCConnectionFactory(jdbcConnectionConfiguration);
@@ -551,7 +1185,7 @@ public class Context extends PropertyHolder {
             connectionFactory = ObjectFactory.createConnectionFactory(this);
         }
 
-        return connectionFactory.getConnection();
+        return connectionFactory;
     }
 
     private void closeConnection(Connection connection) {
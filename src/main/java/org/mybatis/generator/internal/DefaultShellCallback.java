@@ -19,6 +19,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.io.File;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.mybatis.generator.api.ShellCallback;
 import org.mybatis.generator.exception.ShellException;
@@ -33,6 +35,9 @@ public class DefaultShellCallback implements ShellCallback {
     /** The overwrite. */
     private boolean overwrite;
 
+    /** The directories already resolved, by target project and package. */
+    private ConcurrentMap<String, File> directories = new ConcurrentHashMap<String, File>();
+
     /**
      * Instantiates a new default shell callback.
      *
@@ -57,6 +62,23 @@ public class DefaultShellCallback implements ShellCallback {
         // created
         // if it does not already exist
 
+        // the directory of a package is created once, and then reused for
+        // every file generated into that package
+        String key = targetProject + '|' + targetPackage;
+        File directory = directories.get(key);
+        if (directory == null) {
+            directory = createDirectory(targetProject, targetPackage);
+            File existing = directories.putIfAbsent(key, directory);
+            if (existing != null) {
+                directory = existing;
+            }
+        }
+
+        return directory;
+    }
+
+    private File createDirectory(String targetProject, String targetPackage)
+            throws ShellException {
         File project = new File(targetProject);
         if (!project.isDirectory()) {
             throw new ShellException(getString("Warning.9", //$NON-NLS-1$
@@ -73,7 +95,8 @@ public class DefaultShellCallback implements ShellCallback {
         File directory = new File(project, sb.toString());
         if (!directory.isDirectory()) {
             boolean rc = directory.mkdirs();
-            if (!rc) {
+            // another thread may have created the directory in the meantime
+            if (!rc && !directory.isDirectory()) {
                 throw new ShellException(getString("Warning.10", //$NON-NLS-1$
                         directory.getAbsolutePath()));
             }
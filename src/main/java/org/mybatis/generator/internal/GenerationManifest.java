@@ -0,0 +1,408 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.StringUtility.composeFullyQualifiedTableName;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.CodeSource;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+
+/**
+ * This class records a hash of the inputs of every table generated by a
+ * context: the configuration of the context and its plugins, the table
+ * configuration, the introspected columns and the generator version. A table
+ * whose hash did not change since the manifest was saved would generate the
+ * same files again, so it can be skipped. The manifest also records the target
+ * files of every table, and a table is generated again if one of them no
+ * longer exists.
+ * 
+ * <p>Context properties that only change how the generator runs, such as the
+ * thread counts, are not part of the hash. The generator, plugin, comment
+ * generator and type resolver classes are covered by their implementation
+ * version and the modification time of their jar, or of their class file if
+ * they are not in a jar. Other inputs outside of the configuration, such as
+ * root classes or classes used by a plugin, are not covered. Delete the
+ * manifest file to force the generation of every table.
+ */
+public class GenerationManifest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+    /** increment if the hashed inputs change. */
+    private static final String FORMAT_VERSION = "3"; //$NON-NLS-1$
+
+    /** suffix of the keys of the target files of a table. */
+    private static final String FILES_SUFFIX = "|files"; //$NON-NLS-1$
+
+    /** context properties that do not change the generated files. */
+    private static final Set<String> RUN_PROPERTIES = new HashSet<String>(Arrays.asList(
+            PropertyRegistry.CONTEXT_INTROSPECTION_THREADS,
+            PropertyRegistry.CONTEXT_GENERATION_THREADS,
+            PropertyRegistry.CONTEXT_BULK_INTROSPECTION,
+            PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT,
+            PropertyRegistry.CONTEXT_INTROSPECTION_FINGERPRINT_QUERY,
+            PropertyRegistry.CONTEXT_GENERATION_MANIFEST));
+
+    /** context elements whose type attribute names a class that generates code. */
+    private static final Set<String> TYPED_ELEMENTS = new HashSet<String>(Arrays.asList(
+            "plugin", //$NON-NLS-1$
+            "commentGenerator", //$NON-NLS-1$
+            "javaTypeResolver")); //$NON-NLS-1$
+
+    /** table key to hash. */
+    private Map<String, String> hashes;
+
+    /** table key to the paths of the target files, separated by the path separator. */
+    private Map<String, String> files;
+
+    public GenerationManifest() {
+        super();
+        hashes = new HashMap<String, String>();
+        files = new HashMap<String, String>();
+    }
+
+    /**
+     * Reads a manifest file.
+     *
+     * @param file
+     *            the file
+     * @return the manifest, or an empty manifest if the file does not exist
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public static GenerationManifest read(File file) throws IOException {
+        GenerationManifest answer = new GenerationManifest();
+        if (!file.isFile()) {
+            return answer;
+        }
+
+        Properties properties = new Properties();
+        InputStream is = new FileInputStream(file);
+        try {
+            properties.load(is);
+        } finally {
+            is.close();
+        }
+
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(FILES_SUFFIX)) {
+                answer.files.put(key.substring(0, key.length() - FILES_SUFFIX.length()),
+                        properties.getProperty(key));
+            } else {
+                answer.hashes.put(key, properties.getProperty(key));
+            }
+        }
+
+        return answer;
+    }
+
+    /**
+     * Writes the manifest.
+     *
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        Properties properties = new Properties();
+        properties.putAll(hashes);
+        for (Map.Entry<String, String> entry : files.entrySet()) {
+            properties.put(entry.getKey() + FILES_SUFFIX, entry.getValue());
+        }
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory()) {
+            directory.mkdirs();
+        }
+
+        OutputStream os = new FileOutputStream(file);
+        try {
+            properties.store(os, "MyBatis Generator generation manifest"); //$NON-NLS-1$
+        } finally {
+            os.close();
+        }
+    }
+
+    /**
+     * Returns true if the table has the same hash as when its files were
+     * written, and all these files still exist.
+     *
+     * @param introspectedTable
+     *            the table
+     * @param hash
+     *            the current hash of the table
+     * @return true if the table does not have to be generated
+     */
+    public boolean isUnchanged(IntrospectedTable introspectedTable, String hash) {
+        String key = getKey(introspectedTable);
+        String tableFiles = files.get(key);
+        if (!hash.equals(hashes.get(key)) || tableFiles == null) {
+            return false;
+        }
+
+        StringTokenizer st = new StringTokenizer(tableFiles, File.pathSeparator);
+        while (st.hasMoreTokens()) {
+            if (!new File(st.nextToken()).isFile()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Records the hash of a table and the files that were written for it.
+     *
+     * @param introspectedTable
+     *            the table
+     * @param hash
+     *            the hash of the table
+     * @param targetFiles
+     *            the target files of the table
+     */
+    public void putTable(IntrospectedTable introspectedTable, String hash, List<File> targetFiles) {
+        StringBuilder sb = new StringBuilder();
+        for (File targetFile : targetFiles) {
+            if (sb.length() > 0) {
+                sb.append(File.pathSeparator);
+            }
+            sb.append(targetFile.getPath());
+        }
+
+        String key = getKey(introspectedTable);
+        hashes.put(key, hash);
+        files.put(key, sb.toString());
+    }
+
+    private String getKey(IntrospectedTable introspectedTable) {
+        FullyQualifiedTable table = introspectedTable.getFullyQualifiedTable();
+        return introspectedTable.getTableConfiguration().getTableName() + '|'
+                + composeFullyQualifiedTableName(table.getIntrospectedCatalog(),
+                        table.getIntrospectedSchema(), table.getIntrospectedTableName(), '.');
+    }
+
+    /**
+     * Calculates the hash of the configuration of a context, without its tables. The hash covers the plugin
+     * configurations and the versions of the generator and plugin classes.
+     *
+     * @param context
+     *            the context
+     * @return the hash
+     */
+    public static String calculateContextHash(Context context) {
+        MessageDigest digest = createDigest();
+        update(digest, FORMAT_VERSION);
+        updateClassVersion(digest, MyBatisGenerator.class);
+
+        XmlElement contextElement = context.toXmlElement();
+        for (Attribute attribute : contextElement.getAttributes()) {
+            update(digest, attribute.getName());
+            update(digest, attribute.getValue());
+        }
+        for (Element element : contextElement.getElements()) {
+            // the tables are part of the table hashes
+            if (element instanceof XmlElement && "table".equals(((XmlElement) element).getName())) { //$NON-NLS-1$
+                continue;
+            }
+            if (element instanceof XmlElement && isRunProperty((XmlElement) element)) {
+                continue;
+            }
+            update(digest, element.getFormattedContent(0));
+            if (element instanceof XmlElement && TYPED_ELEMENTS.contains(((XmlElement) element).getName())) {
+                String type = getAttribute((XmlElement) element, "type"); //$NON-NLS-1$
+                if (type != null) {
+                    try {
+                        updateClassVersion(digest, ObjectFactory.internalClassForName(type));
+                    } catch (ClassNotFoundException e) {
+                        // the context fails anyway when the class is created
+                        update(digest, (String) null);
+                    }
+                }
+            }
+        }
+
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Adds the version of a class to the hash: its implementation version, and
+     * the modification time of its jar, or of its class file if it is not in a
+     * jar. The implementation version is only known for released jars, the
+     * modification time also catches classes that are built with the project.
+     */
+    private static void updateClassVersion(MessageDigest digest, Class<?> type) {
+        update(digest, type.getName());
+        Package p = type.getPackage();
+        update(digest, p == null ? null : p.getImplementationVersion());
+        update(digest, Long.toString(getLastModified(type)));
+    }
+
+    private static long getLastModified(Class<?> type) {
+        String name = type.getName();
+        URL url = type.getResource(name.substring(name.lastIndexOf('.') + 1) + ".class"); //$NON-NLS-1$
+        if (url == null || !"file".equals(url.getProtocol())) { //$NON-NLS-1$
+            CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            url = codeSource == null ? null : codeSource.getLocation();
+        }
+        if (url == null || !"file".equals(url.getProtocol())) { //$NON-NLS-1$
+            return 0L;
+        }
+
+        try {
+            return new File(url.toURI()).lastModified();
+        } catch (URISyntaxException e) {
+            return 0L;
+        } catch (IllegalArgumentException e) {
+            return 0L;
+        }
+    }
+
+    private static String getAttribute(XmlElement element, String name) {
+        for (Attribute attribute : element.getAttributes()) {
+            if (name.equals(attribute.getName())) {
+                return attribute.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns true if the element is a context property that only changes how
+     * the generator runs, like the number of threads, but not the generated
+     * files. Changing such a property must not regenerate every table.
+     */
+    private static boolean isRunProperty(XmlElement element) {
+        if (!"property".equals(element.getName())) { //$NON-NLS-1$
+            return false;
+        }
+
+        return RUN_PROPERTIES.contains(getAttribute(element, "name")); //$NON-NLS-1$
+    }
+
+    /**
+     * Calculates the hash of the inputs of a table.
+     *
+     * @param contextHash
+     *            the hash of the context configuration
+     * @param introspectedTable
+     *            the introspected table
+     * @return the hash
+     */
+    public static String calculateTableHash(String contextHash, IntrospectedTable introspectedTable) {
+        MessageDigest digest = createDigest();
+        update(digest, contextHash);
+        update(digest, introspectedTable.getTableConfiguration().toXmlElement().getFormattedContent(0));
+        update(digest, introspectedTable.getFullyQualifiedTable().toString());
+        update(digest, introspectedTable.getRemarks());
+        update(digest, introspectedTable.getTableType());
+
+        update(digest, "primaryKey"); //$NON-NLS-1$
+        for (IntrospectedColumn column : introspectedTable.getPrimaryKeyColumns()) {
+            update(digest, column);
+        }
+        update(digest, "base"); //$NON-NLS-1$
+        for (IntrospectedColumn column : introspectedTable.getBaseColumns()) {
+            update(digest, column);
+        }
+        update(digest, "blob"); //$NON-NLS-1$
+        for (IntrospectedColumn column : introspectedTable.getBLOBColumns()) {
+            update(digest, column);
+        }
+
+        return toHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, IntrospectedColumn column) {
+        update(digest, column.getActualColumnName());
+        update(digest, Integer.toString(column.getJdbcType()));
+        update(digest, column.getJdbcTypeName());
+        update(digest, column.getFullyQualifiedJavaType() == null ? null
+                : column.getFullyQualifiedJavaType().getFullyQualifiedName());
+        update(digest, column.getJavaProperty());
+        update(digest, column.getTypeHandler());
+        update(digest, Integer.toString(column.getLength()));
+        update(digest, Integer.toString(column.getScale()));
+        update(digest, column.getDefaultValue());
+        update(digest, column.getRemarks());
+        update(digest, String.valueOf(column.isNullable()));
+        update(digest, String.valueOf(column.isIdentity()));
+        update(digest, String.valueOf(column.isSequenceColumn()));
+        update(digest, String.valueOf(column.isAutoIncrement()));
+        update(digest, String.valueOf(column.isGeneratedColumn()));
+        update(digest, String.valueOf(column.isGeneratedAlways()));
+        update(digest, String.valueOf(column.isColumnNameDelimited()));
+        update(digest, new TreeMap<Object, Object>(column.getProperties()).toString());
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        if (s == null) {
+            digest.update((byte) 0);
+        } else {
+            digest.update((byte) 1);
+            digest.update(s.getBytes(UTF8));
+            digest.update((byte) 0);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,619 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mybatis.generator.exception.ShellException;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseException;
+import com.github.javaparser.TokenMgrError;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+
+/**
+ * This class merges a newly generated Java file into an existing Java file
+ * with JavaParser.
+ * 
+ * <p>The merged file is the new file, with these additions from the existing
+ * file:
+ * <ul>
+ * <li>imports that are not in the new file</li>
+ * <li>annotations of a type that are not in the new file</li>
+ * <li>super interfaces of a type that are not in the new file</li>
+ * <li>members of a type that do not have one of the generated JavaDoc tags,
+ * and members marked do_not_delete_during_merge. If the new file has a member
+ * with the same signature, the existing member is kept instead</li>
+ * </ul>
+ * 
+ * <p>Members are copied as they are written in the existing file, so
+ * hand-written code keeps its formatting. The merged source is parsed before
+ * it is returned, and the parsed compilation units are cached by source - the
+ * merged source of one run is the existing source of the next run. A new
+ * merger is created for every run, so the cache is shared by all the mergers
+ * of the JVM, and is bounded to the most recently used sources. The merges
+ * only read the cached compilation units.
+ */
+public class JavaFileMergerJavaParser {
+
+    private static final String DO_NOT_DELETE = "do_not_delete_during_merge"; //$NON-NLS-1$
+
+    private static final int CACHE_SIZE = 64;
+
+    /** parsed sources, in access order, shared by every merger. */
+    private static final Map<String, CompilationUnit> compilationUnits =
+            new LinkedHashMap<String, CompilationUnit>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompilationUnit> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    public JavaFileMergerJavaParser() {
+        super();
+    }
+
+    /**
+     * Merges the new file into the existing file.
+     *
+     * @param newFileSource
+     *            the source of the newly generated file
+     * @param existingFileSource
+     *            the source of the existing file
+     * @param javadocTags
+     *            the JavaDoc tags of generated members
+     * @param existingFileName
+     *            the name of the existing file, used in messages
+     * @return the merged source
+     * @throws ShellException
+     *             if one of the sources, or the merged source, cannot be
+     *             parsed
+     */
+    public String getMergedSource(String newFileSource, String existingFileSource,
+            String[] javadocTags, String existingFileName) throws ShellException {
+        CompilationUnit newCompilationUnit = parse(newFileSource, existingFileName);
+        CompilationUnit existingCompilationUnit = parse(existingFileSource, existingFileName);
+
+        Merge merge = new Merge(new Source(newFileSource), new Source(existingFileSource),
+                javadocTags);
+        merge.mergeImports(newCompilationUnit, existingCompilationUnit);
+        for (TypeDeclaration newType : newCompilationUnit.getTypes()) {
+            TypeDeclaration existingType = findType(existingCompilationUnit, newType.getName());
+            if (existingType != null) {
+                merge.mergeType(newType, existingType);
+            }
+        }
+
+        String mergedSource = merge.apply();
+
+        // never write a file that cannot be parsed
+        parse(mergedSource, existingFileName);
+        return mergedSource;
+    }
+
+    /**
+     * Returns true if the compilation unit of the source is cached.
+     */
+    static boolean isCached(String source) {
+        synchronized (compilationUnits) {
+            return compilationUnits.containsKey(source);
+        }
+    }
+
+    private CompilationUnit parse(String source, String fileName) throws ShellException {
+        synchronized (compilationUnits) {
+            CompilationUnit compilationUnit = compilationUnits.get(source);
+            if (compilationUnit != null) {
+                return compilationUnit;
+            }
+        }
+
+        CompilationUnit compilationUnit;
+        try {
+            compilationUnit = JavaParser.parse(new StringReader(source), true);
+        } catch (ParseException e) {
+            throw new ShellException(getString("Warning.34", //$NON-NLS-1$
+                    fileName, e.getMessage()), e);
+        } catch (TokenMgrError e) {
+            throw new ShellException(getString("Warning.34", //$NON-NLS-1$
+                    fileName, e.getMessage()), e);
+        }
+
+        synchronized (compilationUnits) {
+            compilationUnits.put(source, compilationUnit);
+        }
+        return compilationUnit;
+    }
+
+    private static TypeDeclaration findType(CompilationUnit compilationUnit, String name) {
+        if (compilationUnit.getTypes() != null) {
+            for (TypeDeclaration type : compilationUnit.getTypes()) {
+                if (type.getName().equals(name)) {
+                    return type;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * The edits of one merge. All edits are made to the new source - the
+     * existing source is only read.
+     */
+    private static class Merge {
+        private Source newSource;
+        private Source existingSource;
+        private String[] javadocTags;
+        private List<Edit> edits = new ArrayList<Edit>();
+
+        Merge(Source newSource, Source existingSource, String[] javadocTags) {
+            this.newSource = newSource;
+            this.existingSource = existingSource;
+            this.javadocTags = javadocTags;
+        }
+
+        void mergeImports(CompilationUnit newCompilationUnit,
+                CompilationUnit existingCompilationUnit) {
+            List<ImportDeclaration> newImports = nullToEmpty(newCompilationUnit.getImports());
+            Set<String> imports = new HashSet<String>();
+            for (ImportDeclaration importDeclaration : newImports) {
+                imports.add(importString(importDeclaration));
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (ImportDeclaration importDeclaration
+                    : nullToEmpty(existingCompilationUnit.getImports())) {
+                String importString = importString(importDeclaration);
+                if (imports.add(importString)) {
+                    sb.append(importString);
+                    sb.append(newSource.lineSeparator);
+                }
+            }
+
+            if (sb.length() == 0) {
+                return;
+            }
+
+            if (!newImports.isEmpty()) {
+                int line = newImports.get(newImports.size() - 1).getEndLine();
+                insert(newSource.lineEnd(line), sb.toString());
+            } else if (newCompilationUnit.getPackage() != null) {
+                int line = newCompilationUnit.getPackage().getEndLine();
+                insert(newSource.lineEnd(line), newSource.lineSeparator + sb);
+            } else {
+                insert(0, sb.append(newSource.lineSeparator).toString());
+            }
+        }
+
+        void mergeType(TypeDeclaration newType, TypeDeclaration existingType) {
+            mergeAnnotations(newType, existingType);
+            if (newType instanceof ClassOrInterfaceDeclaration
+                    && existingType instanceof ClassOrInterfaceDeclaration) {
+                mergeSuperInterfaces((ClassOrInterfaceDeclaration) newType,
+                        (ClassOrInterfaceDeclaration) existingType);
+            }
+
+            List<BodyDeclaration> newMembers = nullToEmpty(newType.getMembers());
+            Map<String, BodyDeclaration> newMembersByKey = new HashMap<String, BodyDeclaration>();
+            for (BodyDeclaration member : newMembers) {
+                for (String key : memberKeys(member)) {
+                    newMembersByKey.put(key, member);
+                }
+            }
+
+            List<BodyDeclaration> existingMembers = nullToEmpty(existingType.getMembers());
+            Set<BodyDeclaration> replacedMembers = new HashSet<BodyDeclaration>();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < existingMembers.size(); i++) {
+                BodyDeclaration member = existingMembers.get(i);
+                String comment = member.getComment() == null ? null
+                        : member.getComment().getContent();
+                if (isGenerated(comment) && !comment.contains(DO_NOT_DELETE)) {
+                    continue;
+                }
+
+                for (String key : memberKeys(member)) {
+                    BodyDeclaration newMember = newMembersByKey.get(key);
+                    if (newMember != null && replacedMembers.add(newMember)) {
+                        deleteMember(newMember);
+                    }
+                }
+
+                sb.append(newSource.lineSeparator);
+                sb.append(memberSource(existingType, existingMembers, i));
+            }
+
+            if (sb.length() > 0) {
+                insertBeforeClosingBrace(newType, sb.toString());
+            }
+        }
+
+        private void mergeAnnotations(TypeDeclaration newType, TypeDeclaration existingType) {
+            Set<String> annotations = new HashSet<String>();
+            for (AnnotationExpr annotation : nullToEmpty(newType.getAnnotations())) {
+                annotations.add(annotation.getName().toString());
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (AnnotationExpr annotation : nullToEmpty(existingType.getAnnotations())) {
+                if (annotations.add(annotation.getName().toString())) {
+                    sb.append(annotation.toString());
+                    sb.append(newSource.lineSeparator);
+                }
+            }
+
+            if (sb.length() > 0) {
+                insert(newSource.lineStart(newType.getBeginLine()), sb.toString());
+            }
+        }
+
+        private void mergeSuperInterfaces(ClassOrInterfaceDeclaration newType,
+                ClassOrInterfaceDeclaration existingType) {
+            if (newType.isInterface() != existingType.isInterface()) {
+                return;
+            }
+
+            // an interface extends its super interfaces, a class implements them
+            List<ClassOrInterfaceType> newInterfaces = nullToEmpty(newType.isInterface()
+                    ? newType.getExtends() : newType.getImplements());
+            List<ClassOrInterfaceType> existingInterfaces = nullToEmpty(existingType.isInterface()
+                    ? existingType.getExtends() : existingType.getImplements());
+
+            Set<String> interfaces = new HashSet<String>();
+            for (ClassOrInterfaceType type : newInterfaces) {
+                interfaces.add(type.toString());
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (ClassOrInterfaceType type : existingInterfaces) {
+                if (interfaces.add(type.toString())) {
+                    sb.append(sb.length() == 0 && newInterfaces.isEmpty()
+                            ? (newType.isInterface() ? " extends " : " implements ") //$NON-NLS-1$ //$NON-NLS-2$
+                            : ", "); //$NON-NLS-1$
+                    sb.append(type.toString());
+                }
+            }
+
+            if (sb.length() == 0) {
+                return;
+            }
+
+            if (!newInterfaces.isEmpty()) {
+                Node last = newInterfaces.get(newInterfaces.size() - 1);
+                insert(newSource.offset(last.getEndLine(), last.getEndColumn()) + 1,
+                        sb.toString());
+            } else {
+                int offset = bodyStart(newType);
+                if (offset != -1) {
+                    // keep the space before the opening brace
+                    while (offset > 0 && newSource.text.charAt(offset - 1) == ' ') {
+                        offset--;
+                    }
+                    insert(offset, sb.toString());
+                }
+            }
+        }
+
+        /**
+         * Returns the offset of the opening brace of a type body in the new
+         * source, or -1 if it cannot be found.
+         */
+        private int bodyStart(TypeDeclaration type) {
+            List<BodyDeclaration> members = nullToEmpty(type.getMembers());
+            int offset;
+            if (members.isEmpty()) {
+                offset = closingBrace(type);
+            } else {
+                offset = newSource.lineStart(startLine(members.get(0)));
+            }
+
+            return offset == -1 ? -1 : newSource.text.lastIndexOf('{', offset - 1);
+        }
+
+        private void insertBeforeClosingBrace(TypeDeclaration type, String text) {
+            int offset = closingBrace(type);
+            if (offset == -1) {
+                return;
+            }
+
+            int lineStart = newSource.lineStart(type.getEndLine());
+            if (newSource.text.substring(lineStart, offset).trim().length() == 0) {
+                insert(lineStart, text);
+            } else {
+                insert(offset, newSource.lineSeparator + text);
+            }
+        }
+
+        /**
+         * Returns the offset of the closing brace of a type in the new source,
+         * or -1 if it cannot be found.
+         */
+        private int closingBrace(TypeDeclaration type) {
+            int offset = newSource.offset(type.getEndLine(), type.getEndColumn());
+            if (offset < newSource.text.length() && newSource.text.charAt(offset) == '}') {
+                return offset;
+            }
+
+            // columns are counted differently when the line has tabs
+            return newSource.text.lastIndexOf('}', newSource.lineEnd(type.getEndLine()) - 1);
+        }
+
+        /**
+         * Deletes a member, with its comment and the blank line before it, from
+         * the new source.
+         */
+        private void deleteMember(BodyDeclaration member) {
+            int startLine = startLine(member);
+            if (startLine > 1 && newSource.isBlank(startLine - 1)) {
+                startLine--;
+            }
+            edits.add(new Edit(newSource.lineStart(startLine),
+                    newSource.lineEnd(member.getEndLine()), "", edits.size())); //$NON-NLS-1$
+        }
+
+        /**
+         * Returns the source of an existing member. The lines of the member,
+         * its comment and any comments between it and the previous member are
+         * copied as they are. If the member shares a line with other code, it
+         * is printed by JavaParser instead.
+         */
+        private String memberSource(TypeDeclaration type, List<BodyDeclaration> members,
+                int index) {
+            BodyDeclaration member = members.get(index);
+            int startLine = startLine(member);
+            int endLine = member.getEndLine();
+            int previousEndLine = index == 0 ? type.getBeginLine()
+                    : members.get(index - 1).getEndLine();
+            int nextStartLine = index == members.size() - 1 ? type.getEndLine()
+                    : startLine(members.get(index + 1));
+
+            if (startLine <= previousEndLine || endLine >= nextStartLine) {
+                StringBuilder sb = new StringBuilder();
+                for (String line : member.toString().split("\r\n|\r|\n")) { //$NON-NLS-1$
+                    if (line.length() > 0) {
+                        sb.append("    "); //$NON-NLS-1$
+                        sb.append(line);
+                    }
+                    sb.append(newSource.lineSeparator);
+                }
+                return sb.toString();
+            }
+
+            // take the comments before the member with it, but not the
+            // blank lines
+            if (index > 0) {
+                while (startLine - 1 > previousEndLine
+                        && !existingSource.isBlank(startLine - 1)) {
+                    startLine--;
+                }
+            }
+
+            String source = existingSource.text.substring(
+                    existingSource.lineStart(startLine), existingSource.lineEnd(endLine));
+            if (!source.endsWith("\n") && !source.endsWith("\r")) { //$NON-NLS-1$ //$NON-NLS-2$
+                source += newSource.lineSeparator;
+            }
+            return source;
+        }
+
+        private boolean isGenerated(String comment) {
+            if (comment != null) {
+                for (String tag : javadocTags) {
+                    if (comment.contains(tag)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private void insert(int offset, String text) {
+            edits.add(new Edit(offset, offset, text, edits.size()));
+        }
+
+        /**
+         * Applies the edits from the end of the new source to the start, so
+         * that the offsets of the remaining edits stay valid.
+         */
+        String apply() {
+            Collections.sort(edits, new Comparator<Edit>() {
+                @Override
+                public int compare(Edit e1, Edit e2) {
+                    if (e1.start != e2.start) {
+                        return e2.start - e1.start;
+                    }
+                    // of two insertions at the same offset, the first one
+                    // stays first
+                    return e2.index - e1.index;
+                }
+            });
+
+            StringBuilder sb = new StringBuilder(newSource.text);
+            for (Edit edit : edits) {
+                sb.replace(edit.start, edit.end, edit.text);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static int startLine(BodyDeclaration member) {
+        if (member.getComment() != null) {
+            return Math.min(member.getComment().getBeginLine(), member.getBeginLine());
+        }
+
+        return member.getBeginLine();
+    }
+
+    /**
+     * Returns the keys that identify a member in its type - the signature of
+     * a method or constructor, the names of the variables of a field, or the
+     * name of an inner type.
+     */
+    private static List<String> memberKeys(BodyDeclaration member) {
+        List<String> keys = new ArrayList<String>();
+        if (member instanceof MethodDeclaration) {
+            MethodDeclaration method = (MethodDeclaration) member;
+            keys.add(signature("method " + method.getName(), method.getParameters())); //$NON-NLS-1$
+        } else if (member instanceof ConstructorDeclaration) {
+            ConstructorDeclaration constructor = (ConstructorDeclaration) member;
+            keys.add(signature("constructor", constructor.getParameters())); //$NON-NLS-1$
+        } else if (member instanceof FieldDeclaration) {
+            for (VariableDeclarator variable
+                    : nullToEmpty(((FieldDeclaration) member).getVariables())) {
+                keys.add("field " + variable.getId().getName()); //$NON-NLS-1$
+            }
+        } else if (member instanceof TypeDeclaration) {
+            keys.add("type " + ((TypeDeclaration) member).getName()); //$NON-NLS-1$
+        }
+
+        return keys;
+    }
+
+    private static String signature(String name, List<Parameter> parameters) {
+        StringBuilder sb = new StringBuilder(name);
+        sb.append('(');
+        boolean comma = false;
+        for (Parameter parameter : nullToEmpty(parameters)) {
+            if (comma) {
+                sb.append(',');
+            } else {
+                comma = true;
+            }
+            sb.append(parameter.getType().toString());
+            if (parameter.isVarArgs()) {
+                sb.append("..."); //$NON-NLS-1$
+            }
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+    private static String importString(ImportDeclaration importDeclaration) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("import "); //$NON-NLS-1$
+        if (importDeclaration.isStatic()) {
+            sb.append("static "); //$NON-NLS-1$
+        }
+        sb.append(importDeclaration.getName().toString());
+        if (importDeclaration.isAsterisk()) {
+            sb.append(".*"); //$NON-NLS-1$
+        }
+        sb.append(';');
+        return sb.toString();
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        if (list == null) {
+            return Collections.emptyList();
+        }
+
+        return list;
+    }
+
+    /**
+     * A replacement of the text between two offsets of the new source.
+     */
+    private static class Edit {
+        private int start;
+        private int end;
+        private String text;
+        private int index;
+
+        Edit(int start, int end, String text, int index) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+            this.index = index;
+        }
+    }
+
+    /**
+     * A source with the offsets of its lines. Lines and columns are 1-based,
+     * as reported by JavaParser.
+     */
+    private static class Source {
+        private String text;
+        private List<Integer> lineStarts = new ArrayList<Integer>();
+        private String lineSeparator;
+
+        Source(String text) {
+            this.text = text;
+            lineStarts.add(0);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\n' || (c == '\r'
+                        && (i + 1 == text.length() || text.charAt(i + 1) != '\n'))) {
+                    lineStarts.add(i + 1);
+                }
+            }
+
+            int index = text.indexOf('\n');
+            if (index == -1) {
+                lineSeparator = System.getProperty("line.separator"); //$NON-NLS-1$
+            } else if (index > 0 && text.charAt(index - 1) == '\r') {
+                lineSeparator = "\r\n"; //$NON-NLS-1$
+            } else {
+                lineSeparator = "\n"; //$NON-NLS-1$
+            }
+        }
+
+        int lineStart(int line) {
+            return lineStarts.get(Math.min(line, lineStarts.size()) - 1);
+        }
+
+        /**
+         * Returns the offset after the line separator of a line.
+         */
+        int lineEnd(int line) {
+            return line < lineStarts.size() ? lineStarts.get(line) : text.length();
+        }
+
+        int offset(int line, int column) {
+            return Math.min(lineStart(line) + column - 1, text.length());
+        }
+
+        boolean isBlank(int line) {
+            return text.substring(lineStart(line), lineEnd(line)).trim().length() == 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import org.mybatis.generator.exception.ShellException;
+
+/**
+ * A shell callback that merges existing Java files with
+ * {@link JavaFileMergerJavaParser} instead of overwriting them. Generated
+ * members of the existing file are replaced, and hand-written members are
+ * kept.
+ * 
+ * <p>This callback requires javaparser-core in the runtime classpath.
+ */
+public class JavaParserShellCallback extends DefaultShellCallback {
+
+    private JavaFileMergerJavaParser javaFileMerger;
+
+    /**
+     * Instantiates a new JavaParser shell callback.
+     *
+     * @param overwrite
+     *            the overwrite setting for files that are not merged
+     */
+    public JavaParserShellCallback(boolean overwrite) {
+        super(overwrite);
+        javaFileMerger = new JavaFileMergerJavaParser();
+    }
+
+    @Override
+    public boolean isMergeSupported() {
+        return true;
+    }
+
+    @Override
+    public String mergeJavaFile(String newFileSource, File existingFile,
+            String[] javadocTags, String fileEncoding) throws ShellException {
+        String existingFileSource;
+        try {
+            Charset charset = fileEncoding == null ? Charset.defaultCharset()
+                    : Charset.forName(fileEncoding);
+            existingFileSource = new String(Files.readAllBytes(existingFile.toPath()), charset);
+        } catch (IOException e) {
+            throw new ShellException(getString("Warning.34", //$NON-NLS-1$
+                    existingFile.getName(), e.getMessage()), e);
+        }
+
+        return javaFileMerger.getMergedSource(newFileSource, existingFileSource,
+                javadocTags, existingFile.getName());
+    }
+}
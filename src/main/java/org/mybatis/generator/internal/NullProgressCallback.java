@@ -48,6 +48,10 @@ public class NullProgressCallback implements ProgressCallback {
     public void startTask(String taskName) {
     }
 
+    @Override
+    public void saveCompleted(int writtenFiles, int skippedFiles) {
+    }
+
     @Override
     public void checkCancel() throws InterruptedException {
     }
@@ -16,7 +16,10 @@
 package org.mybatis.generator.internal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.mybatis.generator.api.GeneratedJavaFile;
@@ -24,6 +27,7 @@ import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.Plugin;
+import org.mybatis.generator.api.PluginAdapter;
 import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.Interface;
 import org.mybatis.generator.api.dom.java.Method;
@@ -45,14 +49,54 @@ import org.mybatis.generator.config.Context;
  * 
  */
 public final class PluginAggregator implements Plugin {
-    private List<Plugin> plugins;
+    private static final Plugin[] NO_PLUGINS = new Plugin[0];
+
+    /**
+     * The plugins that override each method of Plugin, by method name. Most
+     * plugins extend PluginAdapter and override a few methods, so a method is
+     * only called on the plugins that override it.
+     */
+    private Map<String, Plugin[]> plugins;
 
     public PluginAggregator() {
-        plugins = new ArrayList<Plugin>();
+        plugins = new HashMap<String, Plugin[]>();
     }
 
     public void addPlugin(Plugin plugin) {
-        plugins.add(plugin);
+        Class<?> pluginClass = TimedPlugin.unwrap(SynchronizedPlugin.unwrap(plugin)).getClass();
+        for (java.lang.reflect.Method method : Plugin.class.getMethods()) {
+            if (!overrides(pluginClass, method)) {
+                continue;
+            }
+
+            // overloaded methods share an entry
+            Plugin[] methodPlugins = getPlugins(method.getName());
+            if (methodPlugins.length == 0
+                    || methodPlugins[methodPlugins.length - 1] != plugin) {
+                methodPlugins = Arrays.copyOf(methodPlugins, methodPlugins.length + 1);
+                methodPlugins[methodPlugins.length - 1] = plugin;
+                plugins.put(method.getName(), methodPlugins);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the plugin class has its own implementation of a method,
+     * rather than the one of PluginAdapter - which does nothing, and does not
+     * change the result of the other plugins.
+     */
+    private static boolean overrides(Class<?> pluginClass, java.lang.reflect.Method method) {
+        try {
+            return pluginClass.getMethod(method.getName(), method.getParameterTypes())
+                    .getDeclaringClass() != PluginAdapter.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private Plugin[] getPlugins(String methodName) {
+        Plugin[] answer = plugins.get(methodName);
+        return answer == null ? NO_PLUGINS : answer;
     }
 
     @Override
@@ -75,7 +119,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("modelBaseRecordClassGenerated")) {
             if (!plugin.modelBaseRecordClassGenerated(tlc, introspectedTable)) {
                 rc = false;
                 break;
@@ -90,7 +134,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("modelRecordWithBLOBsClassGenerated")) {
             if (!plugin.modelRecordWithBLOBsClassGenerated(tlc,
                     introspectedTable)) {
                 rc = false;
@@ -106,7 +150,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable table) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapCountByExampleElementGenerated")) {
             if (!plugin.sqlMapCountByExampleElementGenerated(element, table)) {
                 rc = false;
                 break;
@@ -121,7 +165,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable table) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapDeleteByExampleElementGenerated")) {
             if (!plugin.sqlMapDeleteByExampleElementGenerated(element, table)) {
                 rc = false;
                 break;
@@ -136,7 +180,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable table) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapDeleteByPrimaryKeyElementGenerated")) {
             if (!plugin
                     .sqlMapDeleteByPrimaryKeyElementGenerated(element, table)) {
                 rc = false;
@@ -152,7 +196,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("modelExampleClassGenerated")) {
             if (!plugin.modelExampleClassGenerated(tlc, introspectedTable)) {
                 rc = false;
                 break;
@@ -166,7 +210,7 @@ public final class PluginAggregator implements Plugin {
     public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(
             IntrospectedTable introspectedTable, List<TopLevelClass> modelClasses) {
         List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("contextGenerateAdditionalJavaFiles")) {
             List<GeneratedJavaFile> temp = plugin
                     .contextGenerateAdditionalJavaFiles(introspectedTable, modelClasses);
             if (temp != null) {
@@ -179,7 +223,7 @@ public final class PluginAggregator implements Plugin {
     @Override
     public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles() {
         List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("contextGenerateAdditionalJavaFiles")) {
             List<GeneratedJavaFile> temp = plugin
                     .contextGenerateAdditionalJavaFiles();
             if (temp != null) {
@@ -193,7 +237,7 @@ public final class PluginAggregator implements Plugin {
     public List<GeneratedXmlFile> contextGenerateAdditionalXmlFiles(
             IntrospectedTable introspectedTable) {
         List<GeneratedXmlFile> answer = new ArrayList<GeneratedXmlFile>();
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("contextGenerateAdditionalXmlFiles")) {
             List<GeneratedXmlFile> temp = plugin
                     .contextGenerateAdditionalXmlFiles(introspectedTable);
             if (temp != null) {
@@ -206,7 +250,7 @@ public final class PluginAggregator implements Plugin {
     @Override
     public List<GeneratedXmlFile> contextGenerateAdditionalXmlFiles() {
         List<GeneratedXmlFile> answer = new ArrayList<GeneratedXmlFile>();
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("contextGenerateAdditionalXmlFiles")) {
             List<GeneratedXmlFile> temp = plugin
                     .contextGenerateAdditionalXmlFiles();
             if (temp != null) {
@@ -221,7 +265,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("modelPrimaryKeyClassGenerated")) {
             if (!plugin.modelPrimaryKeyClassGenerated(tlc, introspectedTable)) {
                 rc = false;
                 break;
@@ -236,7 +280,7 @@ public final class PluginAggregator implements Plugin {
             XmlElement element, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapResultMapWithoutBLOBsElementGenerated")) {
             if (!plugin.sqlMapResultMapWithoutBLOBsElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -252,7 +296,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapExampleWhereClauseElementGenerated")) {
             if (!plugin.sqlMapExampleWhereClauseElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -268,7 +312,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapInsertElementGenerated")) {
             if (!plugin
                     .sqlMapInsertElementGenerated(element, introspectedTable)) {
                 rc = false;
@@ -284,7 +328,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapResultMapWithBLOBsElementGenerated")) {
             if (!plugin.sqlMapResultMapWithBLOBsElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -300,7 +344,7 @@ public final class PluginAggregator implements Plugin {
             XmlElement element, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapSelectByExampleWithoutBLOBsElementGenerated")) {
             if (!plugin.sqlMapSelectByExampleWithoutBLOBsElementGenerated(
                     element, introspectedTable)) {
                 rc = false;
@@ -316,7 +360,7 @@ public final class PluginAggregator implements Plugin {
             XmlElement element, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapSelectByExampleWithBLOBsElementGenerated")) {
             if (!plugin.sqlMapSelectByExampleWithBLOBsElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -332,7 +376,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapSelectByPrimaryKeyElementGenerated")) {
             if (!plugin.sqlMapSelectByPrimaryKeyElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -348,7 +392,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapGenerated")) {
             if (!plugin.sqlMapGenerated(sqlMap, introspectedTable)) {
                 rc = false;
                 break;
@@ -363,7 +407,7 @@ public final class PluginAggregator implements Plugin {
             XmlElement element, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapUpdateByExampleSelectiveElementGenerated")) {
             if (!plugin.sqlMapUpdateByExampleSelectiveElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -379,7 +423,7 @@ public final class PluginAggregator implements Plugin {
             XmlElement element, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapUpdateByExampleWithBLOBsElementGenerated")) {
             if (!plugin.sqlMapUpdateByExampleWithBLOBsElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -395,7 +439,7 @@ public final class PluginAggregator implements Plugin {
             XmlElement element, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapUpdateByExampleWithoutBLOBsElementGenerated")) {
             if (!plugin.sqlMapUpdateByExampleWithoutBLOBsElementGenerated(
                     element, introspectedTable)) {
                 rc = false;
@@ -411,7 +455,7 @@ public final class PluginAggregator implements Plugin {
             XmlElement element, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapUpdateByPrimaryKeySelectiveElementGenerated")) {
             if (!plugin.sqlMapUpdateByPrimaryKeySelectiveElementGenerated(
                     element, introspectedTable)) {
                 rc = false;
@@ -427,7 +471,7 @@ public final class PluginAggregator implements Plugin {
             XmlElement element, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapUpdateByPrimaryKeyWithBLOBsElementGenerated")) {
             if (!plugin.sqlMapUpdateByPrimaryKeyWithBLOBsElementGenerated(
                     element, introspectedTable)) {
                 rc = false;
@@ -443,7 +487,7 @@ public final class PluginAggregator implements Plugin {
             XmlElement element, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapUpdateByPrimaryKeyWithoutBLOBsElementGenerated")) {
             if (!plugin.sqlMapUpdateByPrimaryKeyWithoutBLOBsElementGenerated(
                     element, introspectedTable)) {
                 rc = false;
@@ -459,7 +503,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientCountByExampleMethodGenerated")) {
             if (!plugin.clientCountByExampleMethodGenerated(method, interfaze,
                     introspectedTable)) {
                 rc = false;
@@ -475,7 +519,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientCountByExampleMethodGenerated")) {
             if (!plugin.clientCountByExampleMethodGenerated(method, topLevelClass,
                     introspectedTable)) {
                 rc = false;
@@ -491,7 +535,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientDeleteByExampleMethodGenerated")) {
             if (!plugin.clientDeleteByExampleMethodGenerated(method, interfaze,
                     introspectedTable)) {
                 rc = false;
@@ -507,7 +551,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientDeleteByExampleMethodGenerated")) {
             if (!plugin.clientDeleteByExampleMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -523,7 +567,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientDeleteByPrimaryKeyMethodGenerated")) {
             if (!plugin.clientDeleteByPrimaryKeyMethodGenerated(method, interfaze,
                     introspectedTable)) {
                 rc = false;
@@ -539,7 +583,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientDeleteByPrimaryKeyMethodGenerated")) {
             if (!plugin.clientDeleteByPrimaryKeyMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -555,7 +599,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientInsertMethodGenerated")) {
             if (!plugin.clientInsertMethodGenerated(method, interfaze,
                     introspectedTable)) {
                 rc = false;
@@ -571,7 +615,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientInsertMethodGenerated")) {
             if (!plugin.clientInsertMethodGenerated(method, topLevelClass,
                     introspectedTable)) {
                 rc = false;
@@ -588,7 +632,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientGenerated")) {
             if (!plugin.clientGenerated(interfaze, topLevelClass, introspectedTable)) {
                 rc = false;
                 break;
@@ -603,7 +647,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientSelectAllMethodGenerated")) {
             if (!plugin.clientSelectAllMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -619,7 +663,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientSelectAllMethodGenerated")) {
             if (!plugin.clientSelectAllMethodGenerated(method,
                     interfaze, introspectedTable)) {
                 rc = false;
@@ -635,7 +679,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientSelectByExampleWithBLOBsMethodGenerated")) {
             if (!plugin.clientSelectByExampleWithBLOBsMethodGenerated(method,
                     interfaze, introspectedTable)) {
                 rc = false;
@@ -651,7 +695,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientSelectByExampleWithBLOBsMethodGenerated")) {
             if (!plugin.clientSelectByExampleWithBLOBsMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -667,7 +711,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientSelectByExampleWithoutBLOBsMethodGenerated")) {
             if (!plugin.clientSelectByExampleWithoutBLOBsMethodGenerated(method,
                     interfaze, introspectedTable)) {
                 rc = false;
@@ -683,7 +727,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientSelectByExampleWithoutBLOBsMethodGenerated")) {
             if (!plugin.clientSelectByExampleWithoutBLOBsMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -699,7 +743,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientSelectByPrimaryKeyMethodGenerated")) {
             if (!plugin.clientSelectByPrimaryKeyMethodGenerated(method, interfaze,
                     introspectedTable)) {
                 rc = false;
@@ -715,7 +759,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientSelectByPrimaryKeyMethodGenerated")) {
             if (!plugin.clientSelectByPrimaryKeyMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -731,7 +775,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByExampleSelectiveMethodGenerated")) {
             if (!plugin.clientUpdateByExampleSelectiveMethodGenerated(method,
                     interfaze, introspectedTable)) {
                 rc = false;
@@ -747,7 +791,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByExampleSelectiveMethodGenerated")) {
             if (!plugin.clientUpdateByExampleSelectiveMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -763,7 +807,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByExampleWithBLOBsMethodGenerated")) {
             if (!plugin.clientUpdateByExampleWithBLOBsMethodGenerated(method,
                     interfaze, introspectedTable)) {
                 rc = false;
@@ -779,7 +823,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByExampleWithBLOBsMethodGenerated")) {
             if (!plugin.clientUpdateByExampleWithBLOBsMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -795,7 +839,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByExampleWithoutBLOBsMethodGenerated")) {
             if (!plugin.clientUpdateByExampleWithoutBLOBsMethodGenerated(method,
                     interfaze, introspectedTable)) {
                 rc = false;
@@ -811,7 +855,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByExampleWithoutBLOBsMethodGenerated")) {
             if (!plugin.clientUpdateByExampleWithoutBLOBsMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -827,7 +871,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByPrimaryKeySelectiveMethodGenerated")) {
             if (!plugin.clientUpdateByPrimaryKeySelectiveMethodGenerated(method,
                     interfaze, introspectedTable)) {
                 rc = false;
@@ -843,7 +887,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByPrimaryKeySelectiveMethodGenerated")) {
             if (!plugin.clientUpdateByPrimaryKeySelectiveMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -859,7 +903,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByPrimaryKeyWithBLOBsMethodGenerated")) {
             if (!plugin.clientUpdateByPrimaryKeyWithBLOBsMethodGenerated(method,
                     interfaze, introspectedTable)) {
                 rc = false;
@@ -875,7 +919,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByPrimaryKeyWithBLOBsMethodGenerated")) {
             if (!plugin.clientUpdateByPrimaryKeyWithBLOBsMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -892,7 +936,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByPrimaryKeyWithoutBLOBsMethodGenerated")) {
             if (!plugin.clientUpdateByPrimaryKeyWithoutBLOBsMethodGenerated(
                     method, interfaze, introspectedTable)) {
                 rc = false;
@@ -909,7 +953,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientUpdateByPrimaryKeyWithoutBLOBsMethodGenerated")) {
             if (!plugin.clientUpdateByPrimaryKeyWithoutBLOBsMethodGenerated(
                     method, topLevelClass, introspectedTable)) {
                 rc = false;
@@ -925,7 +969,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapDocumentGenerated")) {
             if (!plugin.sqlMapDocumentGenerated(document, introspectedTable)) {
                 rc = false;
                 break;
@@ -942,7 +986,7 @@ public final class PluginAggregator implements Plugin {
             Plugin.ModelClassType modelClassType) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("modelFieldGenerated")) {
             if (!plugin.modelFieldGenerated(field, topLevelClass,
                     introspectedColumn, introspectedTable, modelClassType)) {
                 rc = false;
@@ -960,7 +1004,7 @@ public final class PluginAggregator implements Plugin {
             Plugin.ModelClassType modelClassType) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("modelGetterMethodGenerated")) {
             if (!plugin.modelGetterMethodGenerated(method, topLevelClass,
                     introspectedColumn, introspectedTable, modelClassType)) {
                 rc = false;
@@ -978,7 +1022,7 @@ public final class PluginAggregator implements Plugin {
             Plugin.ModelClassType modelClassType) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("modelSetterMethodGenerated")) {
             if (!plugin.modelSetterMethodGenerated(method, topLevelClass,
                     introspectedColumn, introspectedTable, modelClassType)) {
                 rc = false;
@@ -994,7 +1038,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapInsertSelectiveElementGenerated")) {
             if (!plugin.sqlMapInsertSelectiveElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -1010,7 +1054,7 @@ public final class PluginAggregator implements Plugin {
             Interface interfaze, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientInsertSelectiveMethodGenerated")) {
             if (!plugin.clientInsertSelectiveMethodGenerated(method, interfaze,
                     introspectedTable)) {
                 rc = false;
@@ -1026,7 +1070,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("clientInsertSelectiveMethodGenerated")) {
             if (!plugin.clientInsertSelectiveMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1039,7 +1083,7 @@ public final class PluginAggregator implements Plugin {
 
     @Override
     public void initialized(IntrospectedTable introspectedTable) {
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("initialized")) {
             plugin.initialized(introspectedTable);
         }
     }
@@ -1049,7 +1093,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapBaseColumnListElementGenerated")) {
             if (!plugin.sqlMapBaseColumnListElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -1065,7 +1109,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapBlobColumnListElementGenerated")) {
             if (!plugin.sqlMapBlobColumnListElementGenerated(element,
                     introspectedTable)) {
                 rc = false;
@@ -1081,7 +1125,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerGenerated")) {
             if (!plugin.providerGenerated(topLevelClass, introspectedTable)) {
                 rc = false;
                 break;
@@ -1096,7 +1140,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerApplyWhereMethodGenerated")) {
             if (!plugin.providerApplyWhereMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1112,7 +1156,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerCountByExampleMethodGenerated")) {
             if (!plugin.providerCountByExampleMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1128,7 +1172,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerDeleteByExampleMethodGenerated")) {
             if (!plugin.providerDeleteByExampleMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1144,7 +1188,7 @@ public final class PluginAggregator implements Plugin {
             TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerInsertSelectiveMethodGenerated")) {
             if (!plugin.providerInsertSelectiveMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1161,7 +1205,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerSelectByExampleWithBLOBsMethodGenerated")) {
             if (!plugin.providerSelectByExampleWithBLOBsMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1178,7 +1222,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerSelectByExampleWithoutBLOBsMethodGenerated")) {
             if (!plugin.providerSelectByExampleWithoutBLOBsMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1195,7 +1239,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerUpdateByExampleSelectiveMethodGenerated")) {
             if (!plugin.providerUpdateByExampleSelectiveMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1212,7 +1256,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerUpdateByExampleWithBLOBsMethodGenerated")) {
             if (!plugin.providerUpdateByExampleWithBLOBsMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1229,7 +1273,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerUpdateByExampleWithoutBLOBsMethodGenerated")) {
             if (!plugin.providerUpdateByExampleWithoutBLOBsMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1246,7 +1290,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("providerUpdateByPrimaryKeySelectiveMethodGenerated")) {
             if (!plugin.providerUpdateByPrimaryKeySelectiveMethodGenerated(method,
                     topLevelClass, introspectedTable)) {
                 rc = false;
@@ -1262,7 +1306,7 @@ public final class PluginAggregator implements Plugin {
             IntrospectedTable introspectedTable) {
         boolean rc = true;
 
-        for (Plugin plugin : plugins) {
+        for (Plugin plugin : getPlugins("sqlMapSelectAllElementGenerated")) {
             if (!plugin.sqlMapSelectAllElementGenerated(element, introspectedTable)) {
                 rc = false;
                 break;
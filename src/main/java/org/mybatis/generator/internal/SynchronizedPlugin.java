@@ -0,0 +1,85 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.mybatis.generator.api.Plugin;
+
+/**
+ * This class wraps a plugin so that its methods are called by one thread at a
+ * time. It is used for plugins that do not implement ThreadSafePlugin when the
+ * tables of a context are generated concurrently.
+ */
+public class SynchronizedPlugin implements InvocationHandler {
+
+    private Plugin plugin;
+
+    private Object lock;
+
+    private SynchronizedPlugin(Plugin plugin, Object lock) {
+        super();
+        this.plugin = plugin;
+        this.lock = lock;
+    }
+
+    /**
+     * Returns a plugin that calls the methods of the specified plugin while holding the lock. All plugins that
+     * are wrapped with the same lock are called one at a time, so plugins that call each other cannot deadlock.
+     *
+     * @param plugin
+     *            the plugin
+     * @param lock
+     *            the lock
+     * @return the synchronized plugin
+     */
+    public static Plugin wrap(Plugin plugin, Object lock) {
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(),
+                new Class<?>[] { Plugin.class }, new SynchronizedPlugin(plugin, lock));
+    }
+
+    /**
+     * Returns the plugin wrapped by a synchronized plugin, or the plugin itself if it is not wrapped.
+     *
+     * @param plugin
+     *            the plugin
+     * @return the wrapped plugin
+     */
+    public static Plugin unwrap(Plugin plugin) {
+        if (Proxy.isProxyClass(plugin.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(plugin);
+            if (handler instanceof SynchronizedPlugin) {
+                return ((SynchronizedPlugin) handler).plugin;
+            }
+        }
+
+        return plugin;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        synchronized (lock) {
+            try {
+                return method.invoke(plugin, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
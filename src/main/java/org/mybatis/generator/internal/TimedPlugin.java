@@ -0,0 +1,97 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.mybatis.generator.api.GenerationStatistics;
+import org.mybatis.generator.api.Plugin;
+import org.mybatis.generator.api.ThreadSafePlugin;
+
+/**
+ * This class wraps a plugin so that the number of calls and the time spent in
+ * each of its methods are added to the generation statistics.
+ */
+public class TimedPlugin implements InvocationHandler {
+
+    private Plugin plugin;
+
+    private String pluginName;
+
+    private GenerationStatistics statistics;
+
+    private TimedPlugin(Plugin plugin, GenerationStatistics statistics) {
+        super();
+        this.plugin = plugin;
+        this.pluginName = plugin.getClass().getName();
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns a plugin that records the calls to the methods of the specified plugin.
+     * The returned plugin is a {@link ThreadSafePlugin} if the specified plugin is one,
+     * so that timing does not serialize the generation.
+     *
+     * @param plugin
+     *            the plugin
+     * @param statistics
+     *            the statistics the calls are added to
+     * @return the timed plugin
+     */
+    public static Plugin wrap(Plugin plugin, GenerationStatistics statistics) {
+        Class<?>[] interfaces;
+        if (plugin instanceof ThreadSafePlugin) {
+            interfaces = new Class<?>[] { Plugin.class, ThreadSafePlugin.class };
+        } else {
+            interfaces = new Class<?>[] { Plugin.class };
+        }
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(),
+                interfaces, new TimedPlugin(plugin, statistics));
+    }
+
+    /**
+     * Returns the plugin wrapped by a timed plugin, or the plugin itself if it is not wrapped.
+     *
+     * @param plugin
+     *            the plugin
+     * @return the wrapped plugin
+     */
+    public static Plugin unwrap(Plugin plugin) {
+        if (Proxy.isProxyClass(plugin.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(plugin);
+            if (handler instanceof TimedPlugin) {
+                return ((TimedPlugin) handler).plugin;
+            }
+        }
+
+        return plugin;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return method.invoke(plugin, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            statistics.addPluginCall(pluginName, method.getName(), System.nanoTime() - start);
+        }
+    }
+}
@@ -21,17 +21,19 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.config.MergeConstants;
 import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.util.XmlParserPool;
 import org.w3c.dom.Comment;
 import org.w3c.dom.Document;
 import org.w3c.dom.DocumentType;
@@ -46,6 +48,8 @@ import org.xml.sax.SAXException;
 
 /**
  * This class handles the task of merging changes into an existing XML file.
+ * Files are merged with the streaming {@link XmlFileMergerStax} when possible,
+ * and with DOM trees otherwise.
  * 
  * @author Jeff Butler
  */
@@ -76,8 +80,14 @@ public class XmlFileMergerJaxp {
     public static String getMergedSource(GeneratedXmlFile generatedXmlFile,
             File existingFile) throws ShellException {
 
+        String newSource = generatedXmlFile.getFormattedContent();
         try {
-            return getMergedSource(new InputSource(new StringReader(generatedXmlFile.getFormattedContent())),
+            String mergedSource = getStreamingMergedSource(newSource, existingFile);
+            if (mergedSource != null) {
+                return mergedSource;
+            }
+
+            return getMergedSource(new InputSource(new StringReader(newSource)),
                 new InputSource(new InputStreamReader(new FileInputStream(existingFile), "UTF-8")), //$NON-NLS-1$
                 existingFile.getName());
         } catch (IOException e) {
@@ -92,14 +102,31 @@ public class XmlFileMergerJaxp {
         }
     }
     
+    /**
+     * Merges with {@link XmlFileMergerStax}. Returns null if the files must
+     * be merged with the DOM based merge - either because they use features
+     * the streaming merge does not reproduce, or because they cannot be
+     * parsed, in which case the DOM based merge reports the error.
+     */
+    private static String getStreamingMergedSource(String newSource,
+            File existingFile) throws IOException, ShellException {
+        Reader existingReader = new InputStreamReader(
+                new FileInputStream(existingFile), "UTF-8"); //$NON-NLS-1$
+        try {
+            return XmlFileMergerStax.getMergedSource(new StringReader(newSource),
+                    existingReader, existingFile.getName());
+        } catch (XMLStreamException e) {
+            return null;
+        } finally {
+            existingReader.close();
+        }
+    }
+
     public static String getMergedSource(InputSource newFile,
             InputSource existingFile, String existingFileName) throws IOException, SAXException,
             ParserConfigurationException, ShellException {
 
-        DocumentBuilderFactory factory = DocumentBuilderFactory
-                .newInstance();
-        factory.setExpandEntityReferences(false);
-        DocumentBuilder builder = factory.newDocumentBuilder();
+        DocumentBuilder builder = XmlParserPool.getDocumentBuilder();
         builder.setEntityResolver(new NullEntityResolver());
 
         Document existingDocument = builder.parse(existingFile);
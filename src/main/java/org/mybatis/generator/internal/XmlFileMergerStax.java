@@ -0,0 +1,583 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.exception.ShellException;
+
+/**
+ * This class merges changes into an existing XML file with a StAX reader,
+ * without building DOM trees for the generated and the existing file.
+ * Elements that were not generated are copied through as they are read, and
+ * the output is the same as the output of the DOM based merge in
+ * {@link XmlFileMergerJaxp}.
+ * 
+ * <p>Documents using features the streaming merge does not reproduce (an
+ * internal DTD subset, entity references, XML 1.1, or a StAX implementation
+ * that does not report CDATA sections) are not merged here - the caller
+ * should use the DOM based merge for them.
+ */
+public class XmlFileMergerStax {
+
+    /** Reports CDATA sections as CDATA events in the JDK StAX implementation. */
+    private static final String REPORT_CDATA_EVENT =
+            "http://java.sun.com/xml/stream/properties/report-cdata-event"; //$NON-NLS-1$
+
+    private static final Pattern DOCTYPE_PATTERN = Pattern.compile(
+            "<!DOCTYPE\\s+([^\\s>\\[]+)" //$NON-NLS-1$
+            + "(?:\\s+PUBLIC\\s+(\"[^\"]*\"|'[^']*')\\s+(\"[^\"]*\"|'[^']*')" //$NON-NLS-1$
+            + "|\\s+SYSTEM\\s+(\"[^\"]*\"|'[^']*'))?\\s*>"); //$NON-NLS-1$
+
+    /**
+     * Input factories are expensive to look up, so each thread keeps its own.
+     * A thread whose factory is null can't use the streaming merge.
+     */
+    private static final ThreadLocal<XMLInputFactory> inputFactories =
+            new ThreadLocal<XMLInputFactory>() {
+                @Override
+                protected XMLInputFactory initialValue() {
+                    return newInputFactory();
+                }
+            };
+
+    /**
+     * Utility class - no instances allowed
+     */
+    private XmlFileMergerStax() {
+        super();
+    }
+
+    /**
+     * Merges the generated elements of a new file into an existing file.
+     *
+     * @param newFile
+     *            the newly generated file
+     * @param existingFile
+     *            the existing file
+     * @param existingFileName
+     *            the name of the existing file, used in messages
+     * @return the merged source, or null if the files must be merged with
+     *         the DOM based merge
+     * @throws XMLStreamException
+     *             if one of the files cannot be parsed
+     * @throws ShellException
+     *             if the files are not the same format
+     */
+    public static String getMergedSource(Reader newFile, Reader existingFile,
+            String existingFileName) throws XMLStreamException, ShellException {
+        XMLInputFactory factory = inputFactories.get();
+        if (factory == null) {
+            return null;
+        }
+
+        XMLStreamReader existingReader = factory.createXMLStreamReader(existingFile);
+        try {
+            XMLStreamReader newReader = factory.createXMLStreamReader(newFile);
+            try {
+                return merge(newReader, existingReader, existingFileName);
+            } finally {
+                newReader.close();
+            }
+        } finally {
+            existingReader.close();
+        }
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        if (!factory.isPropertySupported(REPORT_CDATA_EVENT)) {
+            return null;
+        }
+
+        factory.setProperty(REPORT_CDATA_EVENT, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        // the DTD is not needed for the merge, and reading it can cause
+        // problems on systems that aren't Internet connected
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    private static String merge(XMLStreamReader newReader,
+            XMLStreamReader existingReader, String existingFileName)
+            throws XMLStreamException, ShellException {
+        Matcher existingDocType = readProlog(existingReader);
+        Matcher newDocType = readProlog(newReader);
+        if (existingDocType == null || newDocType == null) {
+            return null;
+        }
+
+        if (!newDocType.group(1).equals(existingDocType.group(1))) {
+            throw new ShellException(getString("Warning.12", //$NON-NLS-1$
+                    existingFileName));
+        }
+
+        MergeWriter writer = new MergeWriter();
+        writer.writeXmlDeclaration();
+        writer.writeDocType(existingDocType);
+
+        // take all attributes of the root element from the new file
+        writer.writeStartTag(newReader);
+
+        // the generated elements go first, without the trailing white space
+        if (!copyNewElements(newReader, writer)) {
+            return null;
+        }
+
+        // then everything that is not an old generated element
+        if (!copyExistingElements(existingReader, writer)) {
+            return null;
+        }
+
+        writer.writeEndTag(elementName(existingReader));
+        return writer.toString();
+    }
+
+    /**
+     * Reads up to the root element, and returns the parsed DOCTYPE
+     * declaration. Returns null if the document cannot be merged here.
+     */
+    private static Matcher readProlog(XMLStreamReader reader) throws XMLStreamException {
+        if ("1.1".equals(reader.getVersion())) { //$NON-NLS-1$
+            return null;
+        }
+
+        Matcher docType = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.DTD) {
+                docType = DOCTYPE_PATTERN.matcher(reader.getText().trim());
+                if (!docType.matches()) {
+                    return null;
+                }
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                return docType;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean copyNewElements(XMLStreamReader reader, MergeWriter writer)
+            throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (isText(event)) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                // don't add the last node if it is only white space
+                if (!isWhiteSpace(text)) {
+                    writer.writeText(text);
+                }
+                return true;
+            } else {
+                writer.writeText(text);
+                text.setLength(0);
+                if (!copyNode(reader, event, writer)) {
+                    return false;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean copyExistingElements(XMLStreamReader reader, MergeWriter writer)
+            throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (isText(event)) {
+                text.append(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                writer.writeText(text);
+                return true;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                if (!copyExistingElement(reader, text, writer)) {
+                    return false;
+                }
+                text.setLength(0);
+            } else {
+                writer.writeText(text);
+                text.setLength(0);
+                if (!copyNode(reader, event, writer)) {
+                    return false;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Copies a child element of the existing root element unless it is an old
+     * generated element. White space before an old generated element is
+     * removed with it.
+     */
+    private static boolean copyExistingElement(XMLStreamReader reader,
+            StringBuilder precedingText, MergeWriter writer) throws XMLStreamException {
+        if (hasGeneratedId(reader)) {
+            if (!isWhiteSpace(precedingText)) {
+                writer.writeText(precedingText);
+            }
+            skipElement(reader);
+            return true;
+        }
+
+        // the start tag is held until the leading white space and comments
+        // of the element have been read - one of the comments may mark it as
+        // generated
+        String[] startTag = readStartTag(reader);
+        List<String> leadingNodes = new ArrayList<String>();
+        boolean generated = false;
+        StringBuilder text = new StringBuilder();
+        int event = reader.next();
+        while (true) {
+            if (isText(event)) {
+                text.append(reader.getText());
+            } else if (text.length() > 0 && !isWhiteSpace(text)) {
+                break;
+            } else if (event == XMLStreamConstants.COMMENT) {
+                addLeadingText(leadingNodes, text);
+                leadingNodes.add(reader.getText());
+                generated |= hasGeneratedTag(reader.getText());
+            } else {
+                break;
+            }
+            event = reader.next();
+        }
+
+        if (generated) {
+            if (!isWhiteSpace(precedingText)) {
+                writer.writeText(precedingText);
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                skipElement(reader);
+            }
+            if (event != XMLStreamConstants.END_ELEMENT) {
+                skipElement(reader);
+            }
+            return true;
+        }
+
+        writer.writeText(precedingText);
+        writer.writeStartTag(startTag);
+        addLeadingText(leadingNodes, text);
+        for (int i = 0; i < leadingNodes.size(); i += 2) {
+            writer.writeText(leadingNodes.get(i));
+            if (i + 1 < leadingNodes.size()) {
+                writer.writeComment(leadingNodes.get(i + 1));
+            }
+        }
+        if (event == XMLStreamConstants.END_ELEMENT) {
+            writer.writeEndTag(startTag[0]);
+            return true;
+        }
+
+        return copyNode(reader, event, writer) && copyContent(reader, writer, startTag[0]);
+    }
+
+    /**
+     * Leading nodes alternate between text and comments, text first.
+     */
+    private static void addLeadingText(List<String> leadingNodes, StringBuilder text) {
+        leadingNodes.add(text.toString());
+        text.setLength(0);
+    }
+
+    /**
+     * Copies the node of the current event. An element is copied with all its
+     * content.
+     */
+    private static boolean copyNode(XMLStreamReader reader, int event, MergeWriter writer)
+            throws XMLStreamException {
+        switch (event) {
+        case XMLStreamConstants.START_ELEMENT:
+            writer.writeStartTag(reader);
+            return copyContent(reader, writer, elementName(reader));
+
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.SPACE:
+            writer.writeText(reader.getText());
+            return true;
+
+        case XMLStreamConstants.CDATA:
+            writer.writeCData(reader.getText());
+            return true;
+
+        case XMLStreamConstants.COMMENT:
+            writer.writeComment(reader.getText());
+            return true;
+
+        case XMLStreamConstants.PROCESSING_INSTRUCTION:
+            writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+            return true;
+
+        default:
+            // entity references and anything else is left to the DOM merge
+            return false;
+        }
+    }
+
+    /**
+     * Copies the content of the current element, up to and including its end
+     * tag.
+     */
+    private static boolean copyContent(XMLStreamReader reader, MergeWriter writer,
+            String elementName) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                writer.writeEndTag(elementName);
+                return true;
+            } else if (!copyNode(reader, event, writer)) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static boolean hasGeneratedId(XMLStreamReader reader) {
+        String id = reader.getAttributeValue(null, "id"); //$NON-NLS-1$
+        if (id != null) {
+            for (String prefix : MergeConstants.OLD_XML_ELEMENT_PREFIXES) {
+                if (id.startsWith(prefix)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean hasGeneratedTag(String comment) {
+        for (String tag : MergeConstants.OLD_ELEMENT_TAGS) {
+            if (comment.contains(tag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isText(int event) {
+        return event == XMLStreamConstants.CHARACTERS
+                || event == XMLStreamConstants.SPACE;
+    }
+
+    private static boolean isWhiteSpace(CharSequence text) {
+        return text.toString().trim().length() == 0;
+    }
+
+    private static String elementName(XMLStreamReader reader) {
+        return qualifiedName(reader.getPrefix(), reader.getLocalName());
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        if (prefix == null || prefix.length() == 0) {
+            return localName;
+        }
+
+        return prefix + ':' + localName;
+    }
+
+    /**
+     * Returns the element name followed by the attribute names and values,
+     * with the attributes sorted by name.
+     */
+    private static String[] readStartTag(XMLStreamReader reader) {
+        int attributeCount = reader.getAttributeCount();
+        String[][] attributes = new String[attributeCount][];
+        for (int i = 0; i < attributeCount; i++) {
+            attributes[i] = new String[] {
+                    qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                    reader.getAttributeValue(i) };
+        }
+        Arrays.sort(attributes, new Comparator<String[]>() {
+            @Override
+            public int compare(String[] a1, String[] a2) {
+                return a1[0].compareTo(a2[0]);
+            }
+        });
+
+        String[] startTag = new String[attributeCount * 2 + 1];
+        startTag[0] = elementName(reader);
+        for (int i = 0; i < attributeCount; i++) {
+            startTag[i * 2 + 1] = attributes[i][0];
+            startTag[i * 2 + 2] = attributes[i][1];
+        }
+        return startTag;
+    }
+
+    /**
+     * Writes the merged document in the same format as {@link DomWriter}. The
+     * start tag of an element is left open until its first child is written,
+     * so that empty elements are written as &lt;element /&gt;.
+     */
+    private static class MergeWriter extends DomWriter {
+
+        private StringWriter stringWriter;
+
+        private boolean startTagOpen;
+
+        MergeWriter() {
+            super();
+            stringWriter = new StringWriter();
+            printWriter = new PrintWriter(stringWriter);
+        }
+
+        void writeXmlDeclaration() {
+            printWriter.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
+        }
+
+        void writeDocType(Matcher docType) {
+            printWriter.print("<!DOCTYPE "); //$NON-NLS-1$
+            printWriter.print(docType.group(1));
+            if (docType.group(2) != null) {
+                printWriter.print(" PUBLIC \""); //$NON-NLS-1$
+                printWriter.print(unquote(docType.group(2)));
+                printWriter.print("\" \""); //$NON-NLS-1$
+                printWriter.print(unquote(docType.group(3)));
+                printWriter.print('\"');
+            } else if (docType.group(4) != null) {
+                printWriter.print(" SYSTEM \""); //$NON-NLS-1$
+                printWriter.print(unquote(docType.group(4)));
+                printWriter.print('"');
+            }
+            printWriter.println('>');
+        }
+
+        void writeStartTag(XMLStreamReader reader) {
+            writeStartTag(readStartTag(reader));
+        }
+
+        void writeStartTag(String[] startTag) {
+            closeStartTag();
+            printWriter.print('<');
+            printWriter.print(startTag[0]);
+            for (int i = 1; i < startTag.length; i += 2) {
+                printWriter.print(' ');
+                printWriter.print(startTag[i]);
+                printWriter.print("=\""); //$NON-NLS-1$
+                normalizeAndPrint(startTag[i + 1], true);
+                printWriter.print('"');
+            }
+            startTagOpen = true;
+        }
+
+        void writeEndTag(String elementName) {
+            if (startTagOpen) {
+                printWriter.print(" />"); //$NON-NLS-1$
+                startTagOpen = false;
+            } else {
+                printWriter.print("</"); //$NON-NLS-1$
+                printWriter.print(elementName);
+                printWriter.print('>');
+            }
+        }
+
+        void writeText(CharSequence text) {
+            if (text.length() > 0) {
+                closeStartTag();
+                normalizeAndPrint(text.toString(), false);
+            }
+        }
+
+        void writeCData(String data) {
+            closeStartTag();
+            printWriter.print("<![CDATA["); //$NON-NLS-1$
+            // XML parsers normalize line endings to '\n'.  We should write
+            // it out as it was in the original to avoid whitespace commits
+            // on some version control systems
+            for (int i = 0; i < data.length(); i++) {
+                char c = data.charAt(i);
+                if (c == '\n') {
+                    printWriter.print(System.getProperty("line.separator")); //$NON-NLS-1$
+                } else {
+                    printWriter.print(c);
+                }
+            }
+            printWriter.print("]]>"); //$NON-NLS-1$
+        }
+
+        void writeComment(String comment) {
+            closeStartTag();
+            printWriter.print("<!--"); //$NON-NLS-1$
+            normalizeAndPrint(comment, false);
+            printWriter.print("-->"); //$NON-NLS-1$
+        }
+
+        void writeProcessingInstruction(String target, String data) {
+            closeStartTag();
+            printWriter.print("<?"); //$NON-NLS-1$
+            printWriter.print(target);
+            if (data != null && data.length() > 0) {
+                printWriter.print(' ');
+                printWriter.print(data);
+            }
+            printWriter.print("?>"); //$NON-NLS-1$
+        }
+
+        private void closeStartTag() {
+            if (startTagOpen) {
+                printWriter.print('>');
+                startTagOpen = false;
+            }
+        }
+
+        private static String unquote(String s) {
+            return s.substring(1, s.length() - 1);
+        }
+
+        @Override
+        public String toString() {
+            printWriter.flush();
+            return stringWriter.toString();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * This class holds the raw information about a single column as it is returned
+ * from <code>DatabaseMetaData.getColumns</code>. It is independent of any table
+ * configuration, so the same instance can be used to build the introspected
+ * columns of several table configurations.
+ */
+public class ColumnMetadata {
+
+    private String columnName;
+
+    private int jdbcType;
+
+    private int length;
+
+    private int scale;
+
+    private boolean nullable;
+
+    private String remarks;
+
+    private String defaultValue;
+
+    /** null if the driver does not report the IS_AUTOINCREMENT column. */
+    private Boolean autoIncrement;
+
+    /** null if the driver does not report the IS_GENERATEDCOLUMN column. */
+    private Boolean generatedColumn;
+
+    public ColumnMetadata() {
+        super();
+    }
+
+    /**
+     * Reads the current row of a result set returned from <code>DatabaseMetaData.getColumns</code>.
+     *
+     * @param rs
+     *            the result set, positioned on a row
+     * @param supportsIsAutoIncrement
+     *            true if the result set has an IS_AUTOINCREMENT column
+     * @param supportsIsGeneratedColumn
+     *            true if the result set has an IS_GENERATEDCOLUMN column
+     * @return the column metadata
+     * @throws SQLException
+     *             if the row cannot be read
+     */
+    public static ColumnMetadata read(ResultSet rs,
+            boolean supportsIsAutoIncrement, boolean supportsIsGeneratedColumn)
+            throws SQLException {
+        ColumnMetadata answer = new ColumnMetadata();
+        answer.jdbcType = rs.getInt("DATA_TYPE"); //$NON-NLS-1$
+        answer.length = rs.getInt("COLUMN_SIZE"); //$NON-NLS-1$
+        answer.columnName = rs.getString("COLUMN_NAME"); //$NON-NLS-1$
+        answer.nullable = rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable; //$NON-NLS-1$
+        answer.scale = rs.getInt("DECIMAL_DIGITS"); //$NON-NLS-1$
+        answer.remarks = rs.getString("REMARKS"); //$NON-NLS-1$
+        answer.defaultValue = rs.getString("COLUMN_DEF"); //$NON-NLS-1$
+
+        if (supportsIsAutoIncrement) {
+            answer.autoIncrement = "YES".equals(rs.getString("IS_AUTOINCREMENT")); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        if (supportsIsGeneratedColumn) {
+            answer.generatedColumn = "YES".equals(rs.getString("IS_GENERATEDCOLUMN")); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        return answer;
+    }
+
+    /**
+     * Returns true if the result set returned from <code>DatabaseMetaData.getColumns</code> has a column with the
+     * specified name. Not every driver returns the JDBC 4.1 columns.
+     *
+     * @param rs
+     *            the result set
+     * @param columnName
+     *            the column name
+     * @return true if the column exists
+     * @throws SQLException
+     *             if the result set metadata cannot be read
+     */
+    public static boolean hasColumn(ResultSet rs, String columnName) throws SQLException {
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int colCount = rsmd.getColumnCount();
+        for (int i = 1; i <= colCount; i++) {
+            if (columnName.equals(rsmd.getColumnName(i))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public void setColumnName(String columnName) {
+        this.columnName = columnName;
+    }
+
+    public int getJdbcType() {
+        return jdbcType;
+    }
+
+    public void setJdbcType(int jdbcType) {
+        this.jdbcType = jdbcType;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        this.length = length;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public void setScale(int scale) {
+        this.scale = scale;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public void setNullable(boolean nullable) {
+        this.nullable = nullable;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    public void setDefaultValue(String defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    public Boolean getAutoIncrement() {
+        return autoIncrement;
+    }
+
+    public void setAutoIncrement(Boolean autoIncrement) {
+        this.autoIncrement = autoIncrement;
+    }
+
+    public Boolean getGeneratedColumn() {
+        return generatedColumn;
+    }
+
+    public void setGeneratedColumn(Boolean generatedColumn) {
+        this.generatedColumn = generatedColumn;
+    }
+}
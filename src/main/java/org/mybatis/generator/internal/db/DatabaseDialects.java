@@ -28,6 +28,7 @@ public enum DatabaseDialects {
     CLOUDSCAPE("VALUES IDENTITY_VAL_LOCAL()"), //$NON-NLS-1$
     DERBY("VALUES IDENTITY_VAL_LOCAL()"), //$NON-NLS-1$
     HSQLDB("CALL IDENTITY()"), //$NON-NLS-1$
+    POSTGRESQL("SELECT LASTVAL()"), //$NON-NLS-1$
     SYBASE("SELECT @@IDENTITY"), //$NON-NLS-1$
     DB2_MF("SELECT IDENTITY_VAL_LOCAL() FROM SYSIBM.SYSDUMMY1"), //$NON-NLS-1$
     INFORMIX("select dbinfo('sqlca.sqlerrd1') from systables where tabid=1"); //$NON-NLS-1$
@@ -65,6 +66,8 @@ public enum DatabaseDialects {
             returnValue = DERBY;
         } else if ("HSQLDB".equalsIgnoreCase(database)) { //$NON-NLS-1$
             returnValue = HSQLDB;
+        } else if ("PostgreSQL".equalsIgnoreCase(database)) { //$NON-NLS-1$
+            returnValue = POSTGRESQL;
         } else if ("SYBASE".equalsIgnoreCase(database)) { //$NON-NLS-1$
             returnValue = SYBASE;
         } else if ("DB2_MF".equalsIgnoreCase(database)) { //$NON-NLS-1$
@@ -26,17 +26,14 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
-import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.mybatis.generator.api.FullyQualifiedTable;
 import org.mybatis.generator.api.IntrospectedColumn;
@@ -45,11 +42,13 @@ import org.mybatis.generator.api.JavaTypeResolver;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.JavaReservedWords;
 import org.mybatis.generator.config.ColumnOverride;
+import org.mybatis.generator.config.ColumnRenamingRule;
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.GeneratedKey;
 import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.config.TableConfiguration;
 import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.util.RenamingRule;
 import org.mybatis.generator.logging.Log;
 import org.mybatis.generator.logging.LogFactory;
 
@@ -66,21 +65,94 @@ public class DatabaseIntrospector {
 
     private Context context;
 
+    private SchemaMetadataCache schemaMetadataCache;
+
+    private TableMetadataProvider tableMetadataProvider;
+
+    private IntrospectionSnapshot introspectionSnapshot;
+
     private Log logger;
 
     public DatabaseIntrospector(Context context,
             DatabaseMetaData databaseMetaData,
             JavaTypeResolver javaTypeResolver, List<String> warnings) {
+        this(context, databaseMetaData, javaTypeResolver, warnings, null);
+    }
+
+    /**
+     * Constructs an introspector that reads the metadata of whole schemas through the specified cache instead of
+     * asking the database for every table configuration.
+     *
+     * @param context
+     *            the context
+     * @param databaseMetaData
+     *            the database metadata
+     * @param javaTypeResolver
+     *            the java type resolver
+     * @param warnings
+     *            warnings are added to this list
+     * @param schemaMetadataCache
+     *            the cache, or null to introspect one table at a time
+     */
+    public DatabaseIntrospector(Context context,
+            DatabaseMetaData databaseMetaData,
+            JavaTypeResolver javaTypeResolver, List<String> warnings,
+            SchemaMetadataCache schemaMetadataCache) {
         super();
         this.context = context;
         this.databaseMetaData = databaseMetaData;
         this.javaTypeResolver = javaTypeResolver;
         this.warnings = warnings;
+        this.schemaMetadataCache = schemaMetadataCache;
         logger = LogFactory.getLog(getClass());
     }
 
+    /**
+     * Constructs an introspector that does not use a database connection. The raw metadata of the tables is obtained
+     * from the provider, and is then processed exactly like metadata read from the database.
+     *
+     * @param context
+     *            the context
+     * @param tableMetadataProvider
+     *            the provider of the table metadata
+     * @param javaTypeResolver
+     *            the java type resolver
+     * @param warnings
+     *            warnings are added to this list
+     */
+    public DatabaseIntrospector(Context context,
+            TableMetadataProvider tableMetadataProvider,
+            JavaTypeResolver javaTypeResolver, List<String> warnings) {
+        this(context, (DatabaseMetaData) null, javaTypeResolver, warnings, null);
+        this.tableMetadataProvider = tableMetadataProvider;
+    }
+
+    /**
+     * Sets a snapshot that records the raw metadata of every introspected table configuration, so that it can be
+     * saved and reused by later runs.
+     *
+     * @param introspectionSnapshot
+     *            the snapshot to record into
+     */
+    public void setIntrospectionSnapshot(IntrospectionSnapshot introspectionSnapshot) {
+        this.introspectionSnapshot = introspectionSnapshot;
+    }
+
     private void calculatePrimaryKey(FullyQualifiedTable table,
-            IntrospectedTable introspectedTable) {
+            TableMetadata tableMetadata, IntrospectedTable introspectedTable) {
+        synchronized (tableMetadata) {
+            if (!tableMetadata.isPrimaryKeyLoaded() && databaseMetaData != null) {
+                loadPrimaryKey(table, tableMetadata);
+            }
+        }
+
+        for (String columnName : tableMetadata.getPrimaryKeyColumns().values()) {
+            introspectedTable.addPrimaryKeyColumn(columnName);
+        }
+    }
+
+    private void loadPrimaryKey(FullyQualifiedTable table,
+            TableMetadata tableMetadata) {
         ResultSet rs = null;
 
         try {
@@ -96,21 +168,19 @@ public class DatabaseIntrospector {
 
         try {
             // keep primary columns in key sequence order
-            Map<Short, String> keyColumns = new TreeMap<Short, String>();
             while (rs.next()) {
                 String columnName = rs.getString("COLUMN_NAME"); //$NON-NLS-1$
                 short keySeq = rs.getShort("KEY_SEQ"); //$NON-NLS-1$
-                keyColumns.put(keySeq, columnName);
-            }
-
-            for (String columnName : keyColumns.values()) {
-                introspectedTable.addPrimaryKeyColumn(columnName);
+                tableMetadata.addPrimaryKeyColumn(keySeq, columnName);
             }
         } catch (SQLException e) {
             // ignore the primary key if there's any error
+            tableMetadata.getPrimaryKeyColumns().clear();
         } finally {
             closeResultSet(rs);
         }
+
+        tableMetadata.setPrimaryKeyLoaded(true);
     }
 
     private void closeResultSet(ResultSet rs) {
@@ -176,7 +246,12 @@ public class DatabaseIntrospector {
             throws SQLException {
 
         // get the raw columns from the DB
-        Map<ActualTableName, List<IntrospectedColumn>> columns = getColumns(tc);
+        Map<ActualTableName, TableMetadata> tables = getTables(tc);
+        Map<ActualTableName, List<IntrospectedColumn>> columns = getColumns(tc, tables);
+
+        if (introspectionSnapshot != null) {
+            introspectionSnapshot.putTables(tc, tables);
+        }
 
         if (columns.isEmpty()) {
             warnings.add(getString("Warning.19", tc.getCatalog(), //$NON-NLS-1$
@@ -190,7 +265,7 @@ public class DatabaseIntrospector {
         calculateIdentityColumns(tc, columns);
 
         List<IntrospectedTable> introspectedTables = calculateIntrospectedTables(
-                tc, columns);
+                tc, columns, tables);
 
         // now introspectedTables has all the columns from all the
         // tables in the configuration. Do some validation...
@@ -251,36 +326,25 @@ public class DatabaseIntrospector {
     private void calculateExtraColumnInformation(TableConfiguration tc,
             Map<ActualTableName, List<IntrospectedColumn>> columns) {
         StringBuilder sb = new StringBuilder();
-        Pattern pattern = null;
-        String replaceString = null;
-        if (tc.getColumnRenamingRule() != null) {
-            pattern = Pattern.compile(tc.getColumnRenamingRule()
-                    .getSearchString());
-            replaceString = tc.getColumnRenamingRule().getReplaceString();
-            replaceString = replaceString == null ? "" : replaceString; //$NON-NLS-1$
-        }
+        ColumnRenamingRule columnRenamingRule = tc.getColumnRenamingRule();
+        RenamingRule renamingRule = columnRenamingRule == null ? context.getRenamingRule(null, null)
+                : context.getRenamingRule(columnRenamingRule.getSearchString(),
+                        columnRenamingRule.getReplaceString());
+        boolean useActualColumnNames = isTrue(tc
+                .getProperty(PropertyRegistry.TABLE_USE_ACTUAL_COLUMN_NAMES));
+        boolean useCompoundPropertyNames = isTrue(tc
+                .getProperty(PropertyRegistry.TABLE_USE_COMPOUND_PROPERTY_NAMES));
 
         for (Map.Entry<ActualTableName, List<IntrospectedColumn>> entry : columns
                 .entrySet()) {
             for (IntrospectedColumn introspectedColumn : entry.getValue()) {
-                String calculatedColumnName;
-                if (pattern == null) {
-                    calculatedColumnName = introspectedColumn
-                            .getActualColumnName();
-                } else {
-                    Matcher matcher = pattern.matcher(introspectedColumn
-                            .getActualColumnName());
-                    calculatedColumnName = matcher.replaceAll(replaceString);
-                }
-
-                if (isTrue(tc
-                        .getProperty(PropertyRegistry.TABLE_USE_ACTUAL_COLUMN_NAMES))) {
+                String actualColumnName = introspectedColumn.getActualColumnName();
+                if (useActualColumnNames) {
                     introspectedColumn.setJavaProperty(
-                            getValidPropertyName(calculatedColumnName));
-                } else if (isTrue(tc
-                                .getProperty(PropertyRegistry.TABLE_USE_COMPOUND_PROPERTY_NAMES))) {
+                            renamingRule.getValidProperty(actualColumnName));
+                } else if (useCompoundPropertyNames) {
                     sb.setLength(0);
-                    sb.append(calculatedColumnName);
+                    sb.append(renamingRule.rename(actualColumnName));
                     sb.append('_');
                     sb.append(getCamelCaseString(
                             introspectedColumn.getRemarks(), true));
@@ -288,7 +352,7 @@ public class DatabaseIntrospector {
                             getValidPropertyName(sb.toString()));
                 } else {
                     introspectedColumn.setJavaProperty(
-                            getCamelCaseString(calculatedColumnName, false));
+                            renamingRule.getCamelCaseProperty(actualColumnName));
                 }
 
                 FullyQualifiedJavaType fullyQualifiedJavaType = javaTypeResolver
@@ -401,7 +465,7 @@ public class DatabaseIntrospector {
                     if (stringHasValue(columnOverride
                             .getJavaType())) {
                         introspectedColumn
-                                .setFullyQualifiedJavaType(new FullyQualifiedJavaType(
+                                .setFullyQualifiedJavaType(FullyQualifiedJavaType.of(
                                         columnOverride.getJavaType()));
                     }
 
@@ -431,8 +495,18 @@ public class DatabaseIntrospector {
         }
     }
 
-    private Map<ActualTableName, List<IntrospectedColumn>> getColumns(
+    private Map<ActualTableName, TableMetadata> getTables(
             TableConfiguration tc) throws SQLException {
+        if (tableMetadataProvider != null) {
+            Map<ActualTableName, TableMetadata> answer = tableMetadataProvider.getTables(tc);
+            if (answer.size() > 1
+                    && !stringContainsSQLWildcard(tc.getSchema())
+                    && !stringContainsSQLWildcard(tc.getTableName())) {
+                reportMultipleTables(tc, answer);
+            }
+            return answer;
+        }
+
         String localCatalog;
         String localSchema;
         String localTableName;
@@ -497,108 +571,137 @@ public class DatabaseIntrospector {
             localTableName = sb.toString();
         }
 
-        Map<ActualTableName, List<IntrospectedColumn>> answer =
-                new HashMap<ActualTableName, List<IntrospectedColumn>>();
-
         if (logger.isDebugEnabled()) {
             String fullTableName = composeFullyQualifiedTableName(localCatalog, localSchema,
                             localTableName, '.');
             logger.debug(getString("Tracing.1", fullTableName)); //$NON-NLS-1$
         }
 
-        ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
-                localTableName, "%"); //$NON-NLS-1$
-        
-        boolean supportsIsAutoIncrement = false;
-        boolean supportsIsGeneratedColumn = false;
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int colCount = rsmd.getColumnCount();
-        for (int i = 1; i <= colCount; i++) {
-            if ("IS_AUTOINCREMENT".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsAutoIncrement = true;
-            }
-            if ("IS_GENERATEDCOLUMN".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsGeneratedColumn = true;
+        Map<ActualTableName, TableMetadata> answer;
+        if (schemaMetadataCache != null) {
+            answer = schemaMetadataCache.getTables(databaseMetaData,
+                    localCatalog, localSchema, localTableName);
+        } else {
+            answer = new LinkedHashMap<ActualTableName, TableMetadata>();
+            ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
+                    localTableName, "%"); //$NON-NLS-1$
+
+            try {
+                boolean supportsIsAutoIncrement = ColumnMetadata.hasColumn(rs,
+                        "IS_AUTOINCREMENT"); //$NON-NLS-1$
+                boolean supportsIsGeneratedColumn = ColumnMetadata.hasColumn(rs,
+                        "IS_GENERATEDCOLUMN"); //$NON-NLS-1$
+
+                while (rs.next()) {
+                    ActualTableName atn = new ActualTableName(
+                            rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                            rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                            rs.getString("TABLE_NAME")); //$NON-NLS-1$
+
+                    TableMetadata tableMetadata = answer.get(atn);
+                    if (tableMetadata == null) {
+                        tableMetadata = new TableMetadata(atn);
+                        answer.put(atn, tableMetadata);
+                    }
+
+                    tableMetadata.addColumn(ColumnMetadata.read(rs,
+                            supportsIsAutoIncrement, supportsIsGeneratedColumn));
+                }
+            } finally {
+                closeResultSet(rs);
             }
         }
 
-        while (rs.next()) {
-            IntrospectedColumn introspectedColumn = ObjectFactory
-                    .createIntrospectedColumn(context);
+        if (answer.size() > 1
+                && !stringContainsSQLWildcard(localSchema)
+                && !stringContainsSQLWildcard(localTableName)) {
+            // issue a warning if there is more than one table and
+            // no wildcards were used
+            reportMultipleTables(tc, answer);
+        }
 
-            introspectedColumn.setTableAlias(tc.getAlias());
-            introspectedColumn.setJdbcType(rs.getInt("DATA_TYPE")); //$NON-NLS-1$
-            introspectedColumn.setLength(rs.getInt("COLUMN_SIZE")); //$NON-NLS-1$
-            introspectedColumn.setActualColumnName(rs.getString("COLUMN_NAME")); //$NON-NLS-1$
-            introspectedColumn
-                    .setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable); //$NON-NLS-1$
-            introspectedColumn.setScale(rs.getInt("DECIMAL_DIGITS")); //$NON-NLS-1$
-            introspectedColumn.setRemarks(rs.getString("REMARKS")); //$NON-NLS-1$
-            introspectedColumn.setDefaultValue(rs.getString("COLUMN_DEF")); //$NON-NLS-1$
+        return answer;
+    }
 
-            if (supportsIsAutoIncrement) {
-                introspectedColumn.setAutoIncrement(
-                        "YES".equals(rs.getString("IS_AUTOINCREMENT"))); //$NON-NLS-1$ //$NON-NLS-2$
-            }
+    private void reportMultipleTables(TableConfiguration tc,
+            Map<ActualTableName, TableMetadata> tables) {
+        ActualTableName inputAtn = new ActualTableName(tc.getCatalog(), tc
+                .getSchema(), tc.getTableName());
 
-            if (supportsIsGeneratedColumn) {
-                introspectedColumn.setGeneratedColumn(
-                        "YES".equals(rs.getString("IS_GENERATEDCOLUMN"))); //$NON-NLS-1$ //$NON-NLS-2$
+        StringBuilder sb = new StringBuilder();
+        boolean comma = false;
+        for (ActualTableName atn : tables.keySet()) {
+            if (comma) {
+                sb.append(',');
+            } else {
+                comma = true;
             }
+            sb.append(atn.toString());
+        }
 
-            ActualTableName atn = new ActualTableName(
-                    rs.getString("TABLE_CAT"), //$NON-NLS-1$
-                    rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
-                    rs.getString("TABLE_NAME")); //$NON-NLS-1$
-
-            List<IntrospectedColumn> columns = answer.get(atn);
-            if (columns == null) {
-                columns = new ArrayList<IntrospectedColumn>();
-                answer.put(atn, columns);
-            }
+        warnings.add(getString("Warning.25", //$NON-NLS-1$
+                inputAtn.toString(), sb.toString()));
+    }
 
-            columns.add(introspectedColumn);
+    private Map<ActualTableName, List<IntrospectedColumn>> getColumns(
+            TableConfiguration tc, Map<ActualTableName, TableMetadata> tables) {
+        Map<ActualTableName, List<IntrospectedColumn>> answer =
+                new HashMap<ActualTableName, List<IntrospectedColumn>>();
 
-            if (logger.isDebugEnabled()) {
-                logger.debug(getString(
-                        "Tracing.2", //$NON-NLS-1$
-                        introspectedColumn.getActualColumnName(), Integer
-                                .toString(introspectedColumn.getJdbcType()),
-                        atn.toString()));
+        for (TableMetadata tableMetadata : tables.values()) {
+            for (ColumnMetadata columnMetadata : tableMetadata.getColumns()) {
+                addIntrospectedColumn(tc, tableMetadata.getActualTableName(),
+                        columnMetadata, answer);
             }
         }
 
-        closeResultSet(rs);
+        return answer;
+    }
 
-        if (answer.size() > 1
-                && !stringContainsSQLWildcard(localSchema)
-                && !stringContainsSQLWildcard(localTableName)) {
-            // issue a warning if there is more than one table and
-            // no wildcards were used
-            ActualTableName inputAtn = new ActualTableName(tc.getCatalog(), tc
-                    .getSchema(), tc.getTableName());
+    private void addIntrospectedColumn(TableConfiguration tc,
+            ActualTableName atn, ColumnMetadata columnMetadata,
+            Map<ActualTableName, List<IntrospectedColumn>> answer) {
+        IntrospectedColumn introspectedColumn = ObjectFactory
+                .createIntrospectedColumn(context);
+
+        introspectedColumn.setTableAlias(tc.getAlias());
+        introspectedColumn.setJdbcType(columnMetadata.getJdbcType());
+        introspectedColumn.setLength(columnMetadata.getLength());
+        introspectedColumn.setActualColumnName(columnMetadata.getColumnName());
+        introspectedColumn.setNullable(columnMetadata.isNullable());
+        introspectedColumn.setScale(columnMetadata.getScale());
+        introspectedColumn.setRemarks(columnMetadata.getRemarks());
+        introspectedColumn.setDefaultValue(columnMetadata.getDefaultValue());
+
+        if (columnMetadata.getAutoIncrement() != null) {
+            introspectedColumn.setAutoIncrement(columnMetadata.getAutoIncrement());
+        }
 
-            StringBuilder sb = new StringBuilder();
-            boolean comma = false;
-            for (ActualTableName atn : answer.keySet()) {
-                if (comma) {
-                    sb.append(',');
-                } else {
-                    comma = true;
-                }
-                sb.append(atn.toString());
-            }
+        if (columnMetadata.getGeneratedColumn() != null) {
+            introspectedColumn.setGeneratedColumn(columnMetadata.getGeneratedColumn());
+        }
 
-            warnings.add(getString("Warning.25", //$NON-NLS-1$
-                    inputAtn.toString(), sb.toString()));
+        List<IntrospectedColumn> columns = answer.get(atn);
+        if (columns == null) {
+            columns = new ArrayList<IntrospectedColumn>();
+            answer.put(atn, columns);
         }
 
-        return answer;
+        columns.add(introspectedColumn);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug(getString(
+                    "Tracing.2", //$NON-NLS-1$
+                    introspectedColumn.getActualColumnName(), Integer
+                            .toString(introspectedColumn.getJdbcType()),
+                    atn.toString()));
+        }
     }
 
     private List<IntrospectedTable> calculateIntrospectedTables(
             TableConfiguration tc,
-            Map<ActualTableName, List<IntrospectedColumn>> columns) {
+            Map<ActualTableName, List<IntrospectedColumn>> columns,
+            Map<ActualTableName, TableMetadata> tables) {
         boolean delimitIdentifiers = tc.isDelimitIdentifiers()
                 || stringContainsSpace(tc.getCatalog())
                 || stringContainsSpace(tc.getSchema())
@@ -638,9 +741,11 @@ public class DatabaseIntrospector {
                 introspectedTable.addColumn(introspectedColumn);
             }
 
-            calculatePrimaryKey(table, introspectedTable);
+            TableMetadata tableMetadata = tables.get(atn);
+
+            calculatePrimaryKey(table, tableMetadata, introspectedTable);
 
-            enhanceIntrospectedTable(introspectedTable);
+            enhanceIntrospectedTable(introspectedTable, tableMetadata);
 
             answer.add(introspectedTable);
         }
@@ -655,20 +760,32 @@ public class DatabaseIntrospector {
      * <p>If there is any error, we just add a warning and continue.
      * 
      * @param introspectedTable the introspected table to enhance
+     * @param tableMetadata the raw metadata of the table
      */
-    private void enhanceIntrospectedTable(IntrospectedTable introspectedTable) {
-        try {
-            FullyQualifiedTable fqt = introspectedTable.getFullyQualifiedTable();
+    private void enhanceIntrospectedTable(IntrospectedTable introspectedTable,
+            TableMetadata tableMetadata) {
+        synchronized (tableMetadata) {
+            if (!tableMetadata.isTableInfoLoaded() && databaseMetaData != null) {
+                loadTableInfo(introspectedTable.getFullyQualifiedTable(), tableMetadata);
+            }
+        }
+
+        if (tableMetadata.isTableInfoLoaded()) {
+            introspectedTable.setRemarks(tableMetadata.getRemarks());
+            introspectedTable.setTableType(tableMetadata.getTableType());
+        }
+    }
 
+    private void loadTableInfo(FullyQualifiedTable fqt, TableMetadata tableMetadata) {
+        try {
             ResultSet rs = databaseMetaData.getTables(fqt.getIntrospectedCatalog(), fqt.getIntrospectedSchema(),
                     fqt.getIntrospectedTableName(), null);
             if (rs.next()) {
-                String remarks = rs.getString("REMARKS"); //$NON-NLS-1$
-                String tableType = rs.getString("TABLE_TYPE"); //$NON-NLS-1$
-                introspectedTable.setRemarks(remarks);
-                introspectedTable.setTableType(tableType);
+                tableMetadata.setRemarks(rs.getString("REMARKS")); //$NON-NLS-1$
+                tableMetadata.setTableType(rs.getString("TABLE_TYPE")); //$NON-NLS-1$
             }
             closeResultSet(rs);
+            tableMetadata.setTableInfoLoaded(true);
         } catch (SQLException e) {
             warnings.add(getString("Warning.27", e.getMessage())); //$NON-NLS-1$
         }
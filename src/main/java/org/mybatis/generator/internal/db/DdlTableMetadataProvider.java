@@ -0,0 +1,849 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringContainsSQLWildcard;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mybatis.generator.config.TableConfiguration;
+
+/**
+ * This class reads table metadata from DDL scripts instead of a database. It
+ * understands the CREATE TABLE statements, COMMENT ON statements and
+ * ALTER TABLE ... ADD PRIMARY KEY statements of the common databases, including
+ * MySQL column and table comments and the usual identity column syntaxes. All
+ * other statements are ignored.
+ * 
+ * <p>Unquoted identifiers are kept as they are written in the script, and table
+ * configurations are matched against them ignoring case unless the table
+ * configuration delimits identifiers.
+ */
+public class DdlTableMetadataProvider implements TableMetadataProvider {
+
+    private static final Map<String, DataType> DATA_TYPES = new HashMap<String, DataType>();
+
+    /** type names that consist of more than one word. */
+    private static final Set<String> MULTI_WORD_TYPES = new HashSet<String>();
+
+    private static final int MAX_TYPE_WORDS = 4;
+
+    private static final Set<String> CREATE_TABLE_MODIFIERS = new HashSet<String>(
+            Arrays.asList("OR", "REPLACE", "GLOBAL", "LOCAL", "TEMPORARY", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+                    "TEMP", "MEMORY", "CACHED", "TEXT", "UNLOGGED")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+    private static final Set<String> TABLE_CONSTRAINTS = new HashSet<String>(
+            Arrays.asList("UNIQUE", "KEY", "INDEX", "FOREIGN", "CHECK", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+                    "FULLTEXT", "SPATIAL", "EXCLUDE", "PERIOD", "LIKE")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+    static {
+        addDataType(Types.BIT, 1, "BIT"); //$NON-NLS-1$
+        addDataType(Types.BOOLEAN, 1, "BOOLEAN", "BOOL"); //$NON-NLS-1$ //$NON-NLS-2$
+        addDataType(Types.TINYINT, 3, "TINYINT"); //$NON-NLS-1$
+        addDataType(Types.SMALLINT, 5, "SMALLINT", "INT2"); //$NON-NLS-1$ //$NON-NLS-2$
+        addDataType(Types.INTEGER, 10, "INTEGER", "INT", "INT4", "MEDIUMINT"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        addDataType(Types.BIGINT, 19, "BIGINT", "INT8"); //$NON-NLS-1$ //$NON-NLS-2$
+        DATA_TYPES.put("SMALLSERIAL", new DataType(Types.SMALLINT, 5, true)); //$NON-NLS-1$
+        DATA_TYPES.put("SERIAL", new DataType(Types.INTEGER, 10, true)); //$NON-NLS-1$
+        DATA_TYPES.put("BIGSERIAL", new DataType(Types.BIGINT, 19, true)); //$NON-NLS-1$
+        addDataType(Types.REAL, 7, "REAL", "FLOAT4"); //$NON-NLS-1$ //$NON-NLS-2$
+        addDataType(Types.FLOAT, 15, "FLOAT"); //$NON-NLS-1$
+        addDataType(Types.DOUBLE, 15, "DOUBLE", "DOUBLE PRECISION", "FLOAT8"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        // without a precision the number may not fit into a long
+        addDataType(Types.DECIMAL, 38, "DECIMAL", "DEC", "NUMBER", "MONEY"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        addDataType(Types.NUMERIC, 38, "NUMERIC"); //$NON-NLS-1$
+        addDataType(Types.CHAR, 1, "CHAR", "CHARACTER", "ENUM", "SET"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        addDataType(Types.NCHAR, 1, "NCHAR", "NATIONAL CHAR", "NATIONAL CHARACTER"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        addDataType(Types.VARCHAR, Integer.MAX_VALUE, "VARCHAR", "VARCHAR2", "CHARACTER VARYING", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                "CHAR VARYING", "VARCHAR_IGNORECASE", "UUID"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        addDataType(Types.NVARCHAR, Integer.MAX_VALUE, "NVARCHAR", "NVARCHAR2", "NCHAR VARYING", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                "NATIONAL CHAR VARYING", "NATIONAL CHARACTER VARYING"); //$NON-NLS-1$ //$NON-NLS-2$
+        addDataType(Types.LONGVARCHAR, Integer.MAX_VALUE, "LONGVARCHAR", "LONG VARCHAR", "LONG", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                "TEXT", "TINYTEXT", "MEDIUMTEXT", "LONGTEXT", "JSON", "JSONB", "XML"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+        addDataType(Types.CLOB, Integer.MAX_VALUE, "CLOB", "CHARACTER LARGE OBJECT", "CHAR LARGE OBJECT"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        addDataType(Types.NCLOB, Integer.MAX_VALUE, "NCLOB", "NATIONAL CHARACTER LARGE OBJECT"); //$NON-NLS-1$ //$NON-NLS-2$
+        addDataType(Types.BINARY, 1, "BINARY"); //$NON-NLS-1$
+        addDataType(Types.VARBINARY, Integer.MAX_VALUE, "VARBINARY", "BINARY VARYING", "RAW", "BYTEA"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        addDataType(Types.LONGVARBINARY, Integer.MAX_VALUE, "LONGVARBINARY", "LONG VARBINARY", "LONG RAW", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                "TINYBLOB", "MEDIUMBLOB", "LONGBLOB", "IMAGE"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        addDataType(Types.BLOB, Integer.MAX_VALUE, "BLOB", "BINARY LARGE OBJECT"); //$NON-NLS-1$ //$NON-NLS-2$
+        addDataType(Types.DATE, 10, "DATE", "YEAR"); //$NON-NLS-1$ //$NON-NLS-2$
+        addDataType(Types.TIME, 8, "TIME", "TIME WITH TIME ZONE", "TIME WITHOUT TIME ZONE", "TIMETZ"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        addDataType(Types.TIMESTAMP, 19, "TIMESTAMP", "DATETIME", "DATETIME2", "SMALLDATETIME", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+                "TIMESTAMP WITH TIME ZONE", "TIMESTAMP WITHOUT TIME ZONE", //$NON-NLS-1$ //$NON-NLS-2$
+                "TIMESTAMP WITH LOCAL TIME ZONE", "TIMESTAMPTZ"); //$NON-NLS-1$ //$NON-NLS-2$
+        addDataType(Types.ARRAY, 0, "ARRAY"); //$NON-NLS-1$
+    }
+
+    private static void addDataType(int jdbcType, int length, String... names) {
+        for (String name : names) {
+            DATA_TYPES.put(name, new DataType(jdbcType, length, false));
+            if (name.indexOf(' ') != -1) {
+                MULTI_WORD_TYPES.add(name);
+            }
+        }
+    }
+
+    /** the tables keyed by their upper case qualified name, in the order of the script. */
+    private Map<String, TableMetadata> tables;
+
+    public DdlTableMetadataProvider() {
+        super();
+        tables = new LinkedHashMap<String, TableMetadata>();
+    }
+
+    /**
+     * Reads the tables of a DDL script. Tables that were read before are replaced if the script creates them again.
+     *
+     * @param reader
+     *            the script
+     * @throws IOException
+     *             if the script cannot be read
+     */
+    public void parse(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[8192];
+        int count;
+        while ((count = reader.read(buffer)) != -1) {
+            sb.append(buffer, 0, count);
+        }
+
+        parse(sb.toString());
+    }
+
+    /**
+     * Reads the tables of a DDL script. Tables that were read before are replaced if the script creates them again.
+     *
+     * @param script
+     *            the script
+     */
+    public void parse(String script) {
+        List<Token> statement = new ArrayList<Token>();
+        for (Token token : tokenize(script)) {
+            if (token.isSymbol(';')) {
+                parseStatement(new TokenStream(statement));
+                statement = new ArrayList<Token>();
+            } else {
+                statement.add(token);
+            }
+        }
+
+        parseStatement(new TokenStream(statement));
+    }
+
+    @Override
+    public Map<ActualTableName, TableMetadata> getTables(TableConfiguration tc) {
+        Map<ActualTableName, TableMetadata> answer = new LinkedHashMap<ActualTableName, TableMetadata>();
+        for (TableMetadata tableMetadata : tables.values()) {
+            ActualTableName atn = tableMetadata.getActualTableName();
+            if (matches(tc, tc.getCatalog(), atn.getCatalog())
+                    && matches(tc, tc.getSchema(), atn.getSchema())
+                    && matches(tc, tc.getTableName(), atn.getTableName())) {
+                answer.put(atn, tableMetadata);
+            }
+        }
+
+        return answer;
+    }
+
+    /**
+     * Returns the names of the tables that were read, in the order of the script.
+     * 
+     * @return the table names
+     */
+    public List<ActualTableName> getTableNames() {
+        List<ActualTableName> answer = new ArrayList<ActualTableName>();
+        for (TableMetadata tableMetadata : tables.values()) {
+            answer.add(tableMetadata.getActualTableName());
+        }
+
+        return Collections.unmodifiableList(answer);
+    }
+
+    /**
+     * A name that is not configured matches everything, and a catalog or schema that is not written in the script
+     * matches every configured catalog or schema.
+     */
+    private boolean matches(TableConfiguration tc, String configuredName, String actualName) {
+        if (configuredName == null || actualName == null) {
+            return true;
+        }
+
+        boolean caseSensitive = tc.isDelimitIdentifiers();
+        if (tc.isWildcardEscapingEnabled() || !stringContainsSQLWildcard(configuredName)) {
+            return caseSensitive ? configuredName.equals(actualName)
+                    : configuredName.equalsIgnoreCase(actualName);
+        }
+
+        return SchemaMetadataCache.toRegex(configuredName, null, caseSensitive)
+                .matcher(actualName).matches();
+    }
+
+    private void parseStatement(TokenStream ts) {
+        if (ts.acceptWord("CREATE")) { //$NON-NLS-1$
+            while (ts.peek() != null && ts.peek().isWord()
+                    && CREATE_TABLE_MODIFIERS.contains(ts.peek().getText().toUpperCase())) {
+                ts.next();
+            }
+
+            if (ts.acceptWord("TABLE")) { //$NON-NLS-1$
+                parseCreateTable(ts);
+            }
+        } else if (ts.acceptWord("COMMENT")) { //$NON-NLS-1$
+            if (ts.acceptWord("ON")) { //$NON-NLS-1$
+                parseCommentOn(ts);
+            }
+        } else if (ts.acceptWord("ALTER")) { //$NON-NLS-1$
+            if (ts.acceptWord("TABLE")) { //$NON-NLS-1$
+                parseAlterTable(ts);
+            }
+        }
+    }
+
+    private void parseCreateTable(TokenStream ts) {
+        if (ts.acceptWord("IF")) { //$NON-NLS-1$
+            ts.acceptWord("NOT"); //$NON-NLS-1$
+            ts.acceptWord("EXISTS"); //$NON-NLS-1$
+        }
+
+        List<String> name = parseQualifiedName(ts);
+        // CREATE TABLE ... AS SELECT and the like have no column definitions
+        if (name == null || !ts.acceptSymbol('(')) {
+            return;
+        }
+
+        TableMetadata table = new TableMetadata(toActualTableName(name));
+        List<String> primaryKey = new ArrayList<String>();
+        do {
+            parseTableElement(ts, table, primaryKey);
+        } while (ts.acceptSymbol(','));
+
+        if (!ts.acceptSymbol(')')) {
+            return;
+        }
+
+        while (ts.peek() != null) {
+            if (ts.acceptWord("COMMENT")) { //$NON-NLS-1$
+                ts.acceptSymbol('=');
+                if (ts.peek() != null && ts.peek().getType() == TokenType.STRING) {
+                    table.setRemarks(ts.next().getText());
+                }
+            } else {
+                ts.next();
+            }
+        }
+
+        setPrimaryKey(table, primaryKey);
+        table.setTableType("TABLE"); //$NON-NLS-1$
+        table.setTableInfoLoaded(true);
+        tables.put(getKey(name), table);
+    }
+
+    private void parseTableElement(TokenStream ts, TableMetadata table, List<String> primaryKey) {
+        if (ts.acceptWord("CONSTRAINT")) { //$NON-NLS-1$
+            parseIdentifier(ts);
+        }
+
+        if (ts.acceptWord("PRIMARY")) { //$NON-NLS-1$
+            ts.acceptWord("KEY"); //$NON-NLS-1$
+            List<String> columns = parseColumnList(ts);
+            if (columns != null) {
+                primaryKey.clear();
+                primaryKey.addAll(columns);
+            }
+            skipElement(ts);
+            return;
+        }
+
+        Token token = ts.peek();
+        if (token == null || token.isWord()
+                && TABLE_CONSTRAINTS.contains(token.getText().toUpperCase())) {
+            skipElement(ts);
+            return;
+        }
+
+        String columnName = parseIdentifier(ts);
+        if (columnName == null) {
+            skipElement(ts);
+            return;
+        }
+
+        table.addColumn(parseColumn(ts, columnName, primaryKey));
+    }
+
+    private ColumnMetadata parseColumn(TokenStream ts, String columnName, List<String> primaryKey) {
+        ColumnMetadata column = new ColumnMetadata();
+        column.setColumnName(columnName);
+        column.setNullable(true);
+        column.setAutoIncrement(Boolean.FALSE);
+        column.setGeneratedColumn(Boolean.FALSE);
+
+        parseDataType(ts, column);
+
+        while (ts.peek() != null && !ts.peek().isSymbol(',') && !ts.peek().isSymbol(')')) {
+            if (ts.peek().isSymbol('(')) {
+                ts.skipGroup();
+            } else if (ts.acceptWord("NOT")) { //$NON-NLS-1$
+                if (ts.acceptWord("NULL")) { //$NON-NLS-1$
+                    column.setNullable(false);
+                }
+            } else if (ts.acceptWord("NULL")) { //$NON-NLS-1$
+                column.setNullable(true);
+            } else if (ts.acceptWord("DEFAULT")) { //$NON-NLS-1$
+                column.setDefaultValue(parseDefaultValue(ts));
+            } else if (ts.acceptWord("PRIMARY")) { //$NON-NLS-1$
+                ts.acceptWord("KEY"); //$NON-NLS-1$
+                primaryKey.clear();
+                primaryKey.add(columnName);
+            } else if (ts.acceptWord("AUTO_INCREMENT") //$NON-NLS-1$
+                    || ts.acceptWord("AUTOINCREMENT") //$NON-NLS-1$
+                    || ts.acceptWord("IDENTITY")) { //$NON-NLS-1$
+                column.setAutoIncrement(Boolean.TRUE);
+            } else if (ts.acceptWord("GENERATED")) { //$NON-NLS-1$
+                parseGenerated(ts, column);
+            } else if (ts.acceptWord("AS")) { //$NON-NLS-1$
+                // MySQL shorthand for GENERATED ALWAYS AS (expression)
+                column.setGeneratedColumn(Boolean.TRUE);
+            } else if (ts.acceptWord("COMMENT")) { //$NON-NLS-1$
+                if (ts.peek() != null && ts.peek().getType() == TokenType.STRING) {
+                    column.setRemarks(ts.next().getText());
+                }
+            } else {
+                ts.next();
+            }
+        }
+
+        return column;
+    }
+
+    private void parseDataType(TokenStream ts, ColumnMetadata column) {
+        String typeName = null;
+        for (int words = MAX_TYPE_WORDS; words > 1 && typeName == null; words--) {
+            String candidate = ts.peekWords(words);
+            if (candidate != null && MULTI_WORD_TYPES.contains(candidate)) {
+                ts.skip(words);
+                typeName = candidate;
+            }
+        }
+
+        if (typeName == null && ts.peek() != null && ts.peek().isWord()) {
+            typeName = ts.next().getText().toUpperCase();
+        }
+
+        List<String> arguments = new ArrayList<String>();
+        if (ts.acceptSymbol('(')) {
+            while (ts.peek() != null && !ts.acceptSymbol(')')) {
+                Token token = ts.next();
+                if (!token.isSymbol(',')) {
+                    arguments.add(token.getText());
+                }
+            }
+        }
+
+        // TIMESTAMP(6) WITH TIME ZONE
+        if (typeName != null && (ts.peekWord("WITH") || ts.peekWord("WITHOUT"))) { //$NON-NLS-1$ //$NON-NLS-2$
+            for (int words = MAX_TYPE_WORDS; words > 2; words--) {
+                String candidate = ts.peekWords(words);
+                if (candidate != null && MULTI_WORD_TYPES.contains(typeName + ' ' + candidate)) {
+                    ts.skip(words);
+                    typeName = typeName + ' ' + candidate;
+                    break;
+                }
+            }
+        }
+
+        DataType dataType = typeName == null ? null : DATA_TYPES.get(typeName);
+        if (ts.acceptSymbol('[') && ts.acceptSymbol(']') || ts.acceptWord("ARRAY")) { //$NON-NLS-1$
+            dataType = DATA_TYPES.get("ARRAY"); //$NON-NLS-1$
+        }
+
+        if (dataType == null) {
+            column.setJdbcType(Types.OTHER);
+            return;
+        }
+
+        column.setJdbcType(dataType.jdbcType);
+        column.setLength(dataType.length);
+        if (dataType.autoIncrement) {
+            column.setAutoIncrement(Boolean.TRUE);
+            column.setNullable(false);
+        }
+
+        if ("ENUM".equals(typeName) || "SET".equals(typeName)) { //$NON-NLS-1$ //$NON-NLS-2$
+            int length = 0;
+            for (String argument : arguments) {
+                length = Math.max(length, argument.length());
+            }
+            column.setLength(length);
+        } else if (arguments.size() > 0 && (dataType.jdbcType == Types.TIME
+                || dataType.jdbcType == Types.TIMESTAMP)) {
+            // the fractional seconds precision
+            column.setScale(parseInt(arguments.get(0), 0));
+        } else if (arguments.size() > 0) {
+            column.setLength(parseInt(arguments.get(0), dataType.length));
+            if (arguments.size() > 1) {
+                column.setScale(parseInt(arguments.get(1), 0));
+            }
+        }
+    }
+
+    private void parseGenerated(TokenStream ts, ColumnMetadata column) {
+        if (!ts.acceptWord("ALWAYS") && ts.acceptWord("BY")) { //$NON-NLS-1$ //$NON-NLS-2$
+            ts.acceptWord("DEFAULT"); //$NON-NLS-1$
+            if (ts.acceptWord("ON")) { //$NON-NLS-1$
+                ts.acceptWord("NULL"); //$NON-NLS-1$
+            }
+        }
+
+        ts.acceptWord("AS"); //$NON-NLS-1$
+        if (ts.acceptWord("IDENTITY")) { //$NON-NLS-1$
+            column.setAutoIncrement(Boolean.TRUE);
+        } else {
+            column.setGeneratedColumn(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Returns the default value as it is written in the script, like most drivers report it.
+     */
+    private String parseDefaultValue(TokenStream ts) {
+        if (ts.acceptWord("NULL")) { //$NON-NLS-1$
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        if (ts.peek() != null && (ts.peek().isSymbol('-') || ts.peek().isSymbol('+'))) {
+            sb.append(ts.next().getSource());
+        }
+
+        if (ts.peek() == null) {
+            return null;
+        }
+
+        if (ts.peek().isSymbol('(')) {
+            sb.append(ts.skipGroup());
+        } else {
+            sb.append(ts.next().getSource());
+            // function calls like now()
+            if (ts.peek() != null && ts.peek().isSymbol('(')) {
+                sb.append(ts.skipGroup());
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private void parseCommentOn(TokenStream ts) {
+        boolean onTable = ts.acceptWord("TABLE"); //$NON-NLS-1$
+        if (!onTable && !ts.acceptWord("COLUMN")) { //$NON-NLS-1$
+            return;
+        }
+
+        List<String> name = parseQualifiedName(ts);
+        if (name == null || !ts.acceptWord("IS") //$NON-NLS-1$
+                || ts.peek() == null || ts.peek().getType() != TokenType.STRING) {
+            return;
+        }
+
+        String remarks = ts.next().getText();
+        if (onTable) {
+            TableMetadata table = findTable(name);
+            if (table != null) {
+                table.setRemarks(remarks);
+            }
+        } else if (name.size() > 1) {
+            TableMetadata table = findTable(name.subList(0, name.size() - 1));
+            ColumnMetadata column = table == null ? null
+                    : findColumn(table, name.get(name.size() - 1));
+            if (column != null) {
+                column.setRemarks(remarks);
+            }
+        }
+    }
+
+    private void parseAlterTable(TokenStream ts) {
+        if (ts.acceptWord("IF")) { //$NON-NLS-1$
+            ts.acceptWord("EXISTS"); //$NON-NLS-1$
+        }
+        ts.acceptWord("ONLY"); //$NON-NLS-1$
+
+        List<String> name = parseQualifiedName(ts);
+        TableMetadata table = name == null ? null : findTable(name);
+        if (table == null) {
+            return;
+        }
+
+        do {
+            if (ts.acceptWord("ADD")) { //$NON-NLS-1$
+                if (ts.acceptWord("CONSTRAINT")) { //$NON-NLS-1$
+                    parseIdentifier(ts);
+                }
+
+                if (ts.acceptWord("PRIMARY") && ts.acceptWord("KEY")) { //$NON-NLS-1$ //$NON-NLS-2$
+                    List<String> columns = parseColumnList(ts);
+                    if (columns != null) {
+                        setPrimaryKey(table, columns);
+                    }
+                }
+            }
+            skipElement(ts);
+        } while (ts.acceptSymbol(','));
+    }
+
+    private void setPrimaryKey(TableMetadata table, List<String> columnNames) {
+        table.getPrimaryKeyColumns().clear();
+        short keySeq = 1;
+        for (String columnName : columnNames) {
+            ColumnMetadata column = findColumn(table, columnName);
+            if (column != null) {
+                column.setNullable(false);
+                table.addPrimaryKeyColumn(keySeq++, column.getColumnName());
+            }
+        }
+
+        table.setPrimaryKeyLoaded(true);
+    }
+
+    private List<String> parseColumnList(TokenStream ts) {
+        // CLUSTERED, USING BTREE and the like
+        while (ts.peek() != null && ts.peek().isWord()) {
+            ts.next();
+        }
+
+        if (!ts.acceptSymbol('(')) {
+            return null;
+        }
+
+        List<String> answer = new ArrayList<String>();
+        while (ts.peek() != null && !ts.acceptSymbol(')')) {
+            String columnName = parseIdentifier(ts);
+            if (columnName != null) {
+                answer.add(columnName);
+            }
+            // ASC, DESC and MySQL prefix lengths
+            skipElement(ts);
+            ts.acceptSymbol(',');
+        }
+
+        return answer;
+    }
+
+    /**
+     * Skips the rest of a table element, up to the comma or closing parenthesis that ends it.
+     */
+    private void skipElement(TokenStream ts) {
+        while (ts.peek() != null && !ts.peek().isSymbol(',') && !ts.peek().isSymbol(')')) {
+            if (ts.peek().isSymbol('(')) {
+                ts.skipGroup();
+            } else {
+                ts.next();
+            }
+        }
+    }
+
+    private String parseIdentifier(TokenStream ts) {
+        Token token = ts.peek();
+        if (token != null && (token.isWord() || token.getType() == TokenType.QUOTED_IDENTIFIER)) {
+            return ts.next().getText();
+        }
+
+        return null;
+    }
+
+    private List<String> parseQualifiedName(TokenStream ts) {
+        List<String> answer = new ArrayList<String>();
+        do {
+            String part = parseIdentifier(ts);
+            if (part == null) {
+                return null;
+            }
+            answer.add(part);
+        } while (ts.acceptSymbol('.'));
+
+        return answer;
+    }
+
+    private ActualTableName toActualTableName(List<String> name) {
+        int size = name.size();
+        return new ActualTableName(size > 2 ? name.get(size - 3) : null,
+                size > 1 ? name.get(size - 2) : null, name.get(size - 1));
+    }
+
+    private String getKey(List<String> name) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : name) {
+            if (sb.length() > 0) {
+                sb.append('.');
+            }
+            sb.append(part.toUpperCase());
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Finds a table by its name as written in the script, falling back to the table name alone if the script does
+     * not qualify the table in the same way everywhere.
+     */
+    private TableMetadata findTable(List<String> name) {
+        TableMetadata answer = tables.get(getKey(name));
+        if (answer != null) {
+            return answer;
+        }
+
+        String tableName = name.get(name.size() - 1);
+        for (TableMetadata table : tables.values()) {
+            if (table.getActualTableName().getTableName().equalsIgnoreCase(tableName)) {
+                return table;
+            }
+        }
+
+        return null;
+    }
+
+    private ColumnMetadata findColumn(TableMetadata table, String columnName) {
+        for (ColumnMetadata column : table.getColumns()) {
+            if (column.getColumnName().equalsIgnoreCase(columnName)) {
+                return column;
+            }
+        }
+
+        return null;
+    }
+
+    private int parseInt(String s, int defaultValue) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            // MAX, * and the like
+            return defaultValue;
+        }
+    }
+
+    private static List<Token> tokenize(String script) {
+        List<Token> answer = new ArrayList<Token>();
+        int length = script.length();
+        int i = 0;
+        while (i < length) {
+            char c = script.charAt(i);
+            int start = i;
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && script.startsWith("--", i) || c == '#') { //$NON-NLS-1$
+                while (i < length && script.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && script.startsWith("/*", i)) { //$NON-NLS-1$
+                int end = script.indexOf("*/", i + 2); //$NON-NLS-1$
+                i = end == -1 ? length : end + 2;
+            } else if (c == '\'' || c == '"' || c == '`'
+                    || c == '[' && i + 1 < length && script.charAt(i + 1) != ']') {
+                char close = c == '[' ? ']' : c;
+                StringBuilder sb = new StringBuilder();
+                i++;
+                while (i < length) {
+                    char ch = script.charAt(i++);
+                    if (ch == close) {
+                        // a doubled quote stands for the quote itself
+                        if (i < length && script.charAt(i) == close && close != ']') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    sb.append(ch);
+                }
+                answer.add(new Token(c == '\'' ? TokenType.STRING : TokenType.QUOTED_IDENTIFIER,
+                        sb.toString(), script.substring(start, i)));
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '$') {
+                boolean number = Character.isDigit(c);
+                while (i < length && (Character.isLetterOrDigit(script.charAt(i))
+                        || script.charAt(i) == '_' || script.charAt(i) == '$'
+                        || number && script.charAt(i) == '.')) {
+                    i++;
+                }
+                String text = script.substring(start, i);
+                answer.add(new Token(number ? TokenType.NUMBER : TokenType.WORD, text, text));
+            } else {
+                i++;
+                String text = String.valueOf(c);
+                answer.add(new Token(TokenType.SYMBOL, text, text));
+            }
+        }
+
+        return answer;
+    }
+
+    private static class DataType {
+        private int jdbcType;
+
+        private int length;
+
+        private boolean autoIncrement;
+
+        DataType(int jdbcType, int length, boolean autoIncrement) {
+            this.jdbcType = jdbcType;
+            this.length = length;
+            this.autoIncrement = autoIncrement;
+        }
+    }
+
+    private enum TokenType {
+        WORD, QUOTED_IDENTIFIER, STRING, NUMBER, SYMBOL
+    }
+
+    private static class Token {
+        private TokenType type;
+
+        /** the identifier or string without quotes. */
+        private String text;
+
+        /** the token as it is written in the script. */
+        private String source;
+
+        Token(TokenType type, String text, String source) {
+            this.type = type;
+            this.text = text;
+            this.source = source;
+        }
+
+        TokenType getType() {
+            return type;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        String getSource() {
+            return source;
+        }
+
+        boolean isWord() {
+            return type == TokenType.WORD;
+        }
+
+        boolean isWord(String word) {
+            return type == TokenType.WORD && text.equalsIgnoreCase(word);
+        }
+
+        boolean isSymbol(char symbol) {
+            return type == TokenType.SYMBOL && text.charAt(0) == symbol;
+        }
+    }
+
+    private static class TokenStream {
+        private List<Token> tokens;
+
+        private int position;
+
+        TokenStream(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        Token peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        boolean peekWord(String word) {
+            return peek() != null && peek().isWord(word);
+        }
+
+        /**
+         * Returns the next words joined by single spaces in upper case, or null if there are not that many words.
+         */
+        String peekWords(int count) {
+            if (position + count > tokens.size()) {
+                return null;
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (Token token : tokens.subList(position, position + count)) {
+                if (!token.isWord()) {
+                    return null;
+                }
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(token.getText().toUpperCase());
+            }
+
+            return sb.toString();
+        }
+
+        Token next() {
+            return tokens.get(position++);
+        }
+
+        void skip(int count) {
+            position = Math.min(position + count, tokens.size());
+        }
+
+        boolean acceptWord(String word) {
+            if (peekWord(word)) {
+                position++;
+                return true;
+            }
+
+            return false;
+        }
+
+        boolean acceptSymbol(char symbol) {
+            if (peek() != null && peek().isSymbol(symbol)) {
+                position++;
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Skips a parenthesized group, including any nested groups, and returns it as it is written in the script.
+         */
+        String skipGroup() {
+            StringBuilder sb = new StringBuilder();
+            int depth = 0;
+            Token previous = null;
+            do {
+                Token token = next();
+                if (token.isSymbol('(')) {
+                    depth++;
+                } else if (token.isSymbol(')')) {
+                    depth--;
+                }
+                if (previous != null && previous.getType() != TokenType.SYMBOL
+                        && token.getType() != TokenType.SYMBOL) {
+                    sb.append(' ');
+                }
+                sb.append(token.getSource());
+                previous = token;
+            } while (depth > 0 && peek() != null);
+
+            return sb.toString();
+        }
+    }
+}
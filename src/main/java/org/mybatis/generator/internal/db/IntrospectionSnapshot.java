@@ -0,0 +1,372 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.StringUtility.composeFullyQualifiedTableName;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.mybatis.generator.config.TableConfiguration;
+
+/**
+ * This class holds the raw metadata of the tables introspected for a context,
+ * keyed by table configuration, together with a fingerprint of the database
+ * schema it was read from. A snapshot is saved to a compact binary file at the
+ * end of a run, and a later run whose fingerprint matches introspects the
+ * tables from the snapshot instead of from the database.
+ * 
+ * <p>Only the raw metadata is stored. Column overrides, ignored columns,
+ * renaming rules and type resolution are applied on every run, so changing
+ * the configuration of a table does not require a new snapshot.
+ */
+public class IntrospectionSnapshot implements TableMetadataProvider {
+
+    private static final int MAGIC = 0x4D424753; // "MBGS"
+
+    private static final int VERSION = 1;
+
+    /** Guards against allocating huge arrays while reading a corrupt file. */
+    private static final int MAX_STRING_LENGTH = 1 << 20;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+    private String fingerprint;
+
+    private Map<String, Map<ActualTableName, TableMetadata>> tables;
+
+    public IntrospectionSnapshot(String fingerprint) {
+        super();
+        this.fingerprint = fingerprint;
+        tables = new LinkedHashMap<String, Map<ActualTableName, TableMetadata>>();
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public synchronized boolean containsTables(TableConfiguration tc) {
+        return tables.containsKey(getKey(tc));
+    }
+
+    @Override
+    public synchronized Map<ActualTableName, TableMetadata> getTables(TableConfiguration tc) {
+        Map<ActualTableName, TableMetadata> answer = tables.get(getKey(tc));
+        if (answer == null) {
+            return Collections.emptyMap();
+        }
+
+        return answer;
+    }
+
+    public synchronized void putTables(TableConfiguration tc,
+            Map<ActualTableName, TableMetadata> tableMetadata) {
+        tables.put(getKey(tc), tableMetadata);
+    }
+
+    /**
+     * Copies every table of another snapshot that is not present in this snapshot.
+     *
+     * @param other
+     *            the other snapshot
+     */
+    public synchronized void putAbsent(IntrospectionSnapshot other) {
+        for (Map.Entry<String, Map<ActualTableName, TableMetadata>> entry : other.tables.entrySet()) {
+            if (!tables.containsKey(entry.getKey())) {
+                tables.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * The key of a table configuration. It includes everything that influences which tables the configuration
+     * resolves to.
+     */
+    private String getKey(TableConfiguration tc) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(composeFullyQualifiedTableName(tc.getCatalog(), tc.getSchema(), tc.getTableName(), '.'));
+        sb.append(tc.isDelimitIdentifiers() ? "|D" : "|d"); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append(tc.isWildcardEscapingEnabled() ? "|E" : "|e"); //$NON-NLS-1$ //$NON-NLS-2$
+        return sb.toString();
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param file
+     *            the file
+     * @return the snapshot, or null if the file does not exist or was written by an incompatible version
+     * @throws IOException
+     *             if the file cannot be read or is corrupt
+     */
+    public static IntrospectionSnapshot read(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+
+            IntrospectionSnapshot answer = new IntrospectionSnapshot(readString(in));
+            int configurationCount = in.readInt();
+            for (int i = 0; i < configurationCount; i++) {
+                String key = readString(in);
+                int tableCount = in.readInt();
+                Map<ActualTableName, TableMetadata> tableMetadata =
+                        new LinkedHashMap<ActualTableName, TableMetadata>();
+                for (int j = 0; j < tableCount; j++) {
+                    TableMetadata table = readTable(in);
+                    tableMetadata.put(table.getActualTableName(), table);
+                }
+                answer.tables.put(key, tableMetadata);
+            }
+
+            return answer;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static TableMetadata readTable(DataInputStream in) throws IOException {
+        TableMetadata table = new TableMetadata(new ActualTableName(
+                readString(in), readString(in), readString(in)));
+        table.setTableInfoLoaded(in.readBoolean());
+        table.setRemarks(readString(in));
+        table.setTableType(readString(in));
+
+        table.setPrimaryKeyLoaded(in.readBoolean());
+        int keyCount = in.readInt();
+        for (int i = 0; i < keyCount; i++) {
+            table.addPrimaryKeyColumn(in.readShort(), readString(in));
+        }
+
+        int columnCount = in.readInt();
+        for (int i = 0; i < columnCount; i++) {
+            ColumnMetadata column = new ColumnMetadata();
+            column.setColumnName(readString(in));
+            column.setJdbcType(in.readInt());
+            column.setLength(in.readInt());
+            column.setScale(in.readInt());
+            column.setNullable(in.readBoolean());
+            column.setRemarks(readString(in));
+            column.setDefaultValue(readString(in));
+            column.setAutoIncrement(readBoolean(in));
+            column.setGeneratedColumn(readBoolean(in));
+            table.addColumn(column);
+        }
+
+        return table;
+    }
+
+    /**
+     * Writes this snapshot. The file is replaced atomically where the file system supports it, so a concurrent
+     * reader never sees a partially written snapshot.
+     *
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public synchronized void write(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(directory.getAbsolutePath());
+        }
+
+        File tempFile = File.createTempFile(file.getName(), ".tmp", directory); //$NON-NLS-1$
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new FileOutputStream(tempFile))));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, fingerprint);
+                out.writeInt(tables.size());
+                for (Map.Entry<String, Map<ActualTableName, TableMetadata>> entry : tables.entrySet()) {
+                    writeString(out, entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (TableMetadata table : entry.getValue().values()) {
+                        writeTable(out, table);
+                    }
+                }
+            } finally {
+                out.close();
+            }
+
+            try {
+                Files.move(tempFile.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private static void writeTable(DataOutputStream out, TableMetadata table) throws IOException {
+        synchronized (table) {
+            ActualTableName atn = table.getActualTableName();
+            writeString(out, atn.getCatalog());
+            writeString(out, atn.getSchema());
+            writeString(out, atn.getTableName());
+            out.writeBoolean(table.isTableInfoLoaded());
+            writeString(out, table.getRemarks());
+            writeString(out, table.getTableType());
+
+            out.writeBoolean(table.isPrimaryKeyLoaded());
+            out.writeInt(table.getPrimaryKeyColumns().size());
+            for (Map.Entry<Short, String> entry : table.getPrimaryKeyColumns().entrySet()) {
+                out.writeShort(entry.getKey());
+                writeString(out, entry.getValue());
+            }
+
+            out.writeInt(table.getColumns().size());
+            for (ColumnMetadata column : table.getColumns()) {
+                writeString(out, column.getColumnName());
+                out.writeInt(column.getJdbcType());
+                out.writeInt(column.getLength());
+                out.writeInt(column.getScale());
+                out.writeBoolean(column.isNullable());
+                writeString(out, column.getRemarks());
+                writeString(out, column.getDefaultValue());
+                writeBoolean(out, column.getAutoIncrement());
+                writeBoolean(out, column.getGeneratedColumn());
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(UTF8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_LENGTH) {
+            throw new IOException("Corrupt snapshot, string length " + length); //$NON-NLS-1$
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean b) throws IOException {
+        out.writeByte(b == null ? -1 : (b.booleanValue() ? 1 : 0));
+    }
+
+    private static Boolean readBoolean(DataInputStream in) throws IOException {
+        byte b = in.readByte();
+        return b < 0 ? null : Boolean.valueOf(b == 1);
+    }
+
+    /**
+     * Calculates the fingerprint of a database schema. The fingerprint is a hash over the source (typically the
+     * connection URL) and over every value returned by the query. The query should be cheap
+     * and should return something that changes whenever the schema changes - for example the column count and the
+     * latest table creation time from information_schema.
+     *
+     * @param source
+     *            identifies the database, may be null
+     * @param connection
+     *            the connection used to run the query, may be null if there is no query
+     * @param query
+     *            the fingerprint query, may be null
+     * @return the fingerprint
+     * @throws SQLException
+     *             if the query fails
+     */
+    public static String calculateFingerprint(String source, Connection connection,
+            String query) throws SQLException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+
+        update(digest, source);
+
+        if (query != null) {
+            Statement statement = connection.createStatement();
+            try {
+                ResultSet rs = statement.executeQuery(query);
+                int columnCount = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    for (int i = 1; i <= columnCount; i++) {
+                        update(digest, rs.getString(i));
+                    }
+                }
+                rs.close();
+            } finally {
+                statement.close();
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return sb.toString();
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        if (s == null) {
+            digest.update((byte) 0);
+        } else {
+            digest.update((byte) 1);
+            digest.update(s.getBytes(UTF8));
+            digest.update((byte) 0);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * This class reads the metadata of a whole schema with one call to each of
+ * <code>DatabaseMetaData.getColumns</code>, <code>getPrimaryKeys</code> and
+ * <code>getTables</code>, and then serves every table configuration of the
+ * context from memory. This replaces three round trips per table with three
+ * round trips per schema.
+ * 
+ * <p>Not every driver supports retrieving the primary keys of all tables at
+ * once (the JDBC specification requires a table name). If a bulk call for
+ * primary keys or table information fails, the tables are marked so that the
+ * information is retrieved one table at a time. Some drivers, like Oracle's,
+ * return no rows instead of failing, so an empty bulk result for primary keys
+ * is treated like a failure as well.
+ * 
+ * <p>This class is thread safe, so a single instance can be shared by
+ * introspectors running concurrently.
+ */
+public class SchemaMetadataCache {
+
+    /** Loaded schemas, keyed by catalog and schema pattern. */
+    private Map<List<String>, Map<ActualTableName, TableMetadata>> schemas;
+
+    public SchemaMetadataCache() {
+        super();
+        schemas = new HashMap<List<String>, Map<ActualTableName, TableMetadata>>();
+    }
+
+    /**
+     * Returns the tables matching the arguments. The arguments have the same meaning as the arguments of
+     * <code>DatabaseMetaData.getColumns</code>. The first call for a catalog and schema pattern reads the whole schema.
+     *
+     * @param databaseMetaData
+     *            the database metadata used if the schema is not loaded yet
+     * @param catalog
+     *            the catalog
+     * @param schemaPattern
+     *            the schema pattern
+     * @param tableNamePattern
+     *            the table name pattern
+     * @return the matching tables, in the order returned by the database
+     * @throws SQLException
+     *             if the columns of the schema cannot be read
+     */
+    public synchronized Map<ActualTableName, TableMetadata> getTables(
+            DatabaseMetaData databaseMetaData, String catalog,
+            String schemaPattern, String tableNamePattern)
+            throws SQLException {
+        List<String> key = Arrays.asList(catalog, schemaPattern);
+        Map<ActualTableName, TableMetadata> schema = schemas.get(key);
+        if (schema == null) {
+            schema = loadSchema(databaseMetaData, catalog, schemaPattern);
+            schemas.put(key, schema);
+        }
+
+        Map<ActualTableName, TableMetadata> answer = new LinkedHashMap<ActualTableName, TableMetadata>();
+        if (tableNamePattern == null
+                || (tableNamePattern.indexOf('%') == -1 && tableNamePattern.indexOf('_') == -1)) {
+            for (TableMetadata tableMetadata : schema.values()) {
+                if (tableNamePattern == null
+                        || tableNamePattern.equals(tableMetadata.getActualTableName().getTableName())) {
+                    answer.put(tableMetadata.getActualTableName(), tableMetadata);
+                }
+            }
+        } else {
+            Pattern pattern = toRegex(tableNamePattern, databaseMetaData.getSearchStringEscape(), true);
+            for (TableMetadata tableMetadata : schema.values()) {
+                if (pattern.matcher(tableMetadata.getActualTableName().getTableName()).matches()) {
+                    answer.put(tableMetadata.getActualTableName(), tableMetadata);
+                }
+            }
+        }
+
+        return answer;
+    }
+
+    private Map<ActualTableName, TableMetadata> loadSchema(
+            DatabaseMetaData databaseMetaData, String catalog,
+            String schemaPattern) throws SQLException {
+        Map<ActualTableName, TableMetadata> answer = new LinkedHashMap<ActualTableName, TableMetadata>();
+
+        ResultSet rs = databaseMetaData.getColumns(catalog, schemaPattern, "%", "%"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            boolean supportsIsAutoIncrement = ColumnMetadata.hasColumn(rs, "IS_AUTOINCREMENT"); //$NON-NLS-1$
+            boolean supportsIsGeneratedColumn = ColumnMetadata.hasColumn(rs, "IS_GENERATEDCOLUMN"); //$NON-NLS-1$
+            while (rs.next()) {
+                ActualTableName atn = new ActualTableName(
+                        rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                        rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                        rs.getString("TABLE_NAME")); //$NON-NLS-1$
+
+                TableMetadata tableMetadata = answer.get(atn);
+                if (tableMetadata == null) {
+                    tableMetadata = new TableMetadata(atn);
+                    answer.put(atn, tableMetadata);
+                }
+
+                tableMetadata.addColumn(ColumnMetadata.read(rs,
+                        supportsIsAutoIncrement, supportsIsGeneratedColumn));
+            }
+        } finally {
+            closeResultSet(rs);
+        }
+
+        loadPrimaryKeys(databaseMetaData, catalog, schemaPattern, answer);
+        loadTableInfo(databaseMetaData, catalog, schemaPattern, answer);
+
+        return answer;
+    }
+
+    private void loadPrimaryKeys(DatabaseMetaData databaseMetaData,
+            String catalog, String schemaPattern,
+            Map<ActualTableName, TableMetadata> schema) {
+        // getPrimaryKeys does not accept patterns, so read every schema of the
+        // catalog if the schema is not an exact name
+        String schemaName = schemaPattern;
+        if (schemaName != null
+                && (schemaName.indexOf('%') != -1 || schemaName.indexOf('_') != -1)) {
+            schemaName = null;
+        }
+
+        ResultSet rs = null;
+        boolean hasRows = false;
+        try {
+            rs = databaseMetaData.getPrimaryKeys(catalog, schemaName, null);
+            while (rs.next()) {
+                hasRows = true;
+                ActualTableName atn = new ActualTableName(
+                        rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                        rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                        rs.getString("TABLE_NAME")); //$NON-NLS-1$
+                TableMetadata tableMetadata = schema.get(atn);
+                if (tableMetadata != null) {
+                    tableMetadata.addPrimaryKeyColumn(rs.getShort("KEY_SEQ"), //$NON-NLS-1$
+                            rs.getString("COLUMN_NAME")); //$NON-NLS-1$
+                }
+            }
+        } catch (SQLException e) {
+            // the driver requires a table name - the primary keys
+            // will be retrieved one table at a time
+            for (TableMetadata tableMetadata : schema.values()) {
+                tableMetadata.getPrimaryKeyColumns().clear();
+            }
+            return;
+        } finally {
+            closeResultSet(rs);
+        }
+
+        // an empty result cannot be told apart from a driver that ignores a
+        // missing table name, so the primary keys will be retrieved one
+        // table at a time
+        if (!hasRows) {
+            return;
+        }
+
+        for (TableMetadata tableMetadata : schema.values()) {
+            tableMetadata.setPrimaryKeyLoaded(true);
+        }
+    }
+
+    private void loadTableInfo(DatabaseMetaData databaseMetaData,
+            String catalog, String schemaPattern,
+            Map<ActualTableName, TableMetadata> schema) {
+        ResultSet rs = null;
+        try {
+            rs = databaseMetaData.getTables(catalog, schemaPattern, "%", null); //$NON-NLS-1$
+            while (rs.next()) {
+                ActualTableName atn = new ActualTableName(
+                        rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                        rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                        rs.getString("TABLE_NAME")); //$NON-NLS-1$
+                TableMetadata tableMetadata = schema.get(atn);
+                if (tableMetadata != null) {
+                    tableMetadata.setRemarks(rs.getString("REMARKS")); //$NON-NLS-1$
+                    tableMetadata.setTableType(rs.getString("TABLE_TYPE")); //$NON-NLS-1$
+                }
+            }
+        } catch (SQLException e) {
+            // the table information will be retrieved one table at a time
+            return;
+        } finally {
+            closeResultSet(rs);
+        }
+
+        // tables missing from the result are treated like a table without
+        // remarks, which is what the single table lookup does as well
+        for (TableMetadata tableMetadata : schema.values()) {
+            tableMetadata.setTableInfoLoaded(true);
+        }
+    }
+
+    /**
+     * Converts a JDBC search pattern to a regular expression.
+     */
+    static Pattern toRegex(String searchPattern, String escapeString, boolean caseSensitive) {
+        boolean hasEscape = escapeString != null && escapeString.length() > 0;
+        StringBuilder sb = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < searchPattern.length()) {
+            if (hasEscape && searchPattern.startsWith(escapeString, i)
+                    && i + escapeString.length() < searchPattern.length()) {
+                i += escapeString.length();
+                literal.append(searchPattern.charAt(i));
+            } else {
+                char c = searchPattern.charAt(i);
+                if (c == '%' || c == '_') {
+                    if (literal.length() > 0) {
+                        sb.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    sb.append(c == '%' ? ".*" : "."); //$NON-NLS-1$ //$NON-NLS-2$
+                } else {
+                    literal.append(c);
+                }
+            }
+            i++;
+        }
+
+        if (literal.length() > 0) {
+            sb.append(Pattern.quote(literal.toString()));
+        }
+
+        return Pattern.compile(sb.toString(),
+                caseSensitive ? Pattern.DOTALL : Pattern.DOTALL | Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    private void closeResultSet(ResultSet rs) {
+        if (rs != null) {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -15,8 +15,7 @@
  */
 package org.mybatis.generator.internal.db;
 
-import java.util.HashSet;
-import java.util.Set;
+import org.mybatis.generator.internal.util.WordSet;
 
 /**
  * This class contains a somewhat comprehensive list of SQL reserved words.
@@ -32,7 +31,7 @@ import java.util.Set;
  */
 public class SqlReservedWords {
 
-    private static Set<String> RESERVED_WORDS;
+    private static WordSet RESERVED_WORDS;
 
     static {
         String[] words = { "A", //$NON-NLS-1$
@@ -950,11 +949,7 @@ public class SqlReservedWords {
                 "ZONE" //$NON-NLS-1$
         };
 
-        RESERVED_WORDS = new HashSet<String>(words.length);
-
-        for (String word : words) {
-            RESERVED_WORDS.add(word);
-        }
+        RESERVED_WORDS = new WordSet(true, words);
     }
 
     public static boolean containsWord(String word) {
@@ -963,7 +958,7 @@ public class SqlReservedWords {
         if (word == null) {
             rc = false;
         } else {
-            rc = RESERVED_WORDS.contains(word.toUpperCase());
+            rc = RESERVED_WORDS.contains(word);
         }
 
         return rc;
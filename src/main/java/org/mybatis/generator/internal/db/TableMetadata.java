@@ -0,0 +1,119 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class holds the raw metadata of a single table: its columns in ordinal
+ * order, its primary key columns in key sequence order, and the remarks and
+ * type of the table.
+ */
+public class TableMetadata {
+
+    private ActualTableName actualTableName;
+
+    private List<ColumnMetadata> columns;
+
+    private Map<Short, String> primaryKeyColumns;
+
+    private boolean primaryKeyLoaded;
+
+    private String remarks;
+
+    private String tableType;
+
+    private boolean tableInfoLoaded;
+
+    public TableMetadata(ActualTableName actualTableName) {
+        super();
+        this.actualTableName = actualTableName;
+        columns = new ArrayList<ColumnMetadata>();
+        primaryKeyColumns = new TreeMap<Short, String>();
+    }
+
+    public ActualTableName getActualTableName() {
+        return actualTableName;
+    }
+
+    public List<ColumnMetadata> getColumns() {
+        return columns;
+    }
+
+    public void addColumn(ColumnMetadata column) {
+        columns.add(column);
+    }
+
+    /**
+     * Returns the primary key columns keyed by their KEY_SEQ, so iterating the values returns the columns in key
+     * sequence order.
+     *
+     * @return the primary key columns
+     */
+    public Map<Short, String> getPrimaryKeyColumns() {
+        return primaryKeyColumns;
+    }
+
+    public void addPrimaryKeyColumn(short keySeq, String columnName) {
+        primaryKeyColumns.put(keySeq, columnName);
+    }
+
+    /**
+     * Returns true if primary key information was loaded for this table. If false, the primary key must be looked
+     * up separately - an empty key is not proof that the table has no primary key.
+     *
+     * @return true if primary key information was loaded
+     */
+    public boolean isPrimaryKeyLoaded() {
+        return primaryKeyLoaded;
+    }
+
+    public void setPrimaryKeyLoaded(boolean primaryKeyLoaded) {
+        this.primaryKeyLoaded = primaryKeyLoaded;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+
+    public String getTableType() {
+        return tableType;
+    }
+
+    public void setTableType(String tableType) {
+        this.tableType = tableType;
+    }
+
+    /**
+     * Returns true if the remarks and type of this table were loaded.
+     *
+     * @return true if the table information was loaded
+     */
+    public boolean isTableInfoLoaded() {
+        return tableInfoLoaded;
+    }
+
+    public void setTableInfoLoaded(boolean tableInfoLoaded) {
+        this.tableInfoLoaded = tableInfoLoaded;
+    }
+}
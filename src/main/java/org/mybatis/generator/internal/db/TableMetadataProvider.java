@@ -0,0 +1,39 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.mybatis.generator.config.TableConfiguration;
+
+/**
+ * A source of raw table metadata that is used by the DatabaseIntrospector
+ * instead of a database connection.
+ */
+public interface TableMetadataProvider {
+
+    /**
+     * Returns the tables that match the specified table configuration.
+     *
+     * @param tc
+     *            the table configuration
+     * @return the matching tables, or an empty map if no table matches
+     * @throws SQLException
+     *             if the metadata cannot be obtained
+     */
+    Map<ActualTableName, TableMetadata> getTables(TableConfiguration tc) throws SQLException;
+}
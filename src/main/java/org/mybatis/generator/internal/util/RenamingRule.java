@@ -0,0 +1,140 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getCamelCaseString;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getValidPropertyName;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * The compiled form of a column or domain object renaming rule. A rule is
+ * compiled once per context and shared by every table that is configured
+ * with the same search and replace strings, so it also remembers the names it
+ * has renamed and the Java properties it has calculated. The memory lives as
+ * long as the context, so rules are never shared between contexts.
+ *
+ * <p>The common rule that only strips a literal prefix, such as
+ * <code>^CUST_</code>, is applied without a regular expression.
+ */
+public class RenamingRule {
+
+    private static final String REGEX_METACHARACTERS = "\\[](){}.*+?^$|"; //$NON-NLS-1$
+
+    private final Pattern pattern;
+
+    private final String prefix;
+
+    private final String replaceString;
+
+    private final ConcurrentMap<String, String> renamedNames = new ConcurrentHashMap<String, String>();
+
+    private final ConcurrentMap<String, String> camelCaseProperties = new ConcurrentHashMap<String, String>();
+
+    private final ConcurrentMap<String, String> validProperties = new ConcurrentHashMap<String, String>();
+
+    private RenamingRule(Pattern pattern, String prefix, String replaceString) {
+        super();
+        this.pattern = pattern;
+        this.prefix = prefix;
+        this.replaceString = replaceString;
+    }
+
+    /**
+     * Compiles a renaming rule. The rule replaces all the matches of the
+     * search string, like <code>Matcher.replaceAll</code>.
+     *
+     * @param searchString
+     *            the regular expression, or <code>null</code> for the rule
+     *            that does not rename
+     * @param replaceString
+     *            the replacement, <code>null</code> is the same as an empty
+     *            string
+     * @return the compiled rule
+     */
+    public static RenamingRule compile(String searchString, String replaceString) {
+        if (searchString == null) {
+            return new RenamingRule(null, null, null);
+        }
+
+        String replacement = replaceString == null ? "" : replaceString; //$NON-NLS-1$
+        if (searchString.startsWith("^") //$NON-NLS-1$
+                && isLiteral(searchString.substring(1))
+                && replacement.indexOf('\\') == -1 && replacement.indexOf('$') == -1) {
+            return new RenamingRule(null, searchString.substring(1), replacement);
+        }
+
+        return new RenamingRule(Pattern.compile(searchString), null, replacement);
+    }
+
+    private static boolean isLiteral(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(s.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String rename(String name) {
+        if (prefix != null) {
+            return name.startsWith(prefix) ? replaceString + name.substring(prefix.length()) : name;
+        } else if (pattern == null) {
+            return name;
+        }
+
+        String answer = renamedNames.get(name);
+        if (answer == null) {
+            answer = pattern.matcher(name).replaceAll(replaceString);
+            renamedNames.put(name, answer);
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the camel case Java property of a column.
+     *
+     * @param columnName
+     *            the actual column name
+     * @return the property name
+     */
+    public String getCamelCaseProperty(String columnName) {
+        String answer = camelCaseProperties.get(columnName);
+        if (answer == null) {
+            answer = getCamelCaseString(rename(columnName), false);
+            camelCaseProperties.put(columnName, answer);
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the Java property of a column that keeps the renamed column name.
+     *
+     * @param columnName
+     *            the actual column name
+     * @return the property name
+     */
+    public String getValidProperty(String columnName) {
+        String answer = validProperties.get(columnName);
+        if (answer == null) {
+            answer = getValidPropertyName(rename(columnName));
+            validProperties.put(columnName, answer);
+        }
+        return answer;
+    }
+}
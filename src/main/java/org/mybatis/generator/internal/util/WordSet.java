@@ -0,0 +1,121 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+/**
+ * An immutable set of words that can be searched without allocating. The
+ * words are stored in an open addressing hash table that is at most half
+ * full, so a lookup hashes the characters of the word once and compares
+ * them with one or two entries. If the set ignores case, then the words are
+ * stored in upper case and the characters of the searched word are converted
+ * one at a time while hashing and comparing.
+ */
+public class WordSet {
+
+    private final char[][] table;
+
+    private final int mask;
+
+    private final int maxLength;
+
+    private final boolean ignoreCase;
+
+    /**
+     * Creates a set of the words.
+     *
+     * @param ignoreCase
+     *            if true, then a word is found whatever its case
+     * @param words
+     *            the words
+     */
+    public WordSet(boolean ignoreCase, String... words) {
+        this.ignoreCase = ignoreCase;
+
+        int size = 2;
+        while (size < words.length * 2) {
+            size <<= 1;
+        }
+        table = new char[size][];
+        mask = size - 1;
+
+        int max = 0;
+        for (String word : words) {
+            char[] chars = new char[word.length()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = fold(word.charAt(i));
+            }
+
+            int index = hash(word) & mask;
+            while (table[index] != null && !matches(table[index], word)) {
+                index = (index + 1) & mask;
+            }
+            table[index] = chars;
+            max = Math.max(max, chars.length);
+        }
+        maxLength = max;
+    }
+
+    public boolean contains(String word) {
+        if (word == null || word.length() > maxLength) {
+            return false;
+        }
+
+        int index = hash(word) & mask;
+        char[] entry;
+        while ((entry = table[index]) != null) {
+            if (matches(entry, word)) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    private int hash(String word) {
+        int h = 0;
+        for (int i = 0; i < word.length(); i++) {
+            h = 31 * h + fold(word.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private boolean matches(char[] entry, String word) {
+        if (entry.length != word.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < entry.length; i++) {
+            if (entry[i] != fold(word.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private char fold(char c) {
+        if (!ignoreCase) {
+            return c;
+        } else if (c >= 'a' && c <= 'z') {
+            return (char) (c - ('a' - 'A'));
+        } else if (c < 128) {
+            return c;
+        } else {
+            return Character.toUpperCase(c);
+        }
+    }
+}
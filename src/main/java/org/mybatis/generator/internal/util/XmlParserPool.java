@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * This class holds the DOM parsers used for configuration parsing and for XML
+ * file merging. Looking up a DocumentBuilderFactory through the service
+ * loader is expensive, so the factories are created once and each thread
+ * keeps its own DocumentBuilder, which is reset before it is handed out
+ * again.
+ * 
+ * <p>A DocumentBuilder is not thread safe, so the parsers returned here must
+ * not be shared with other threads. They can be used from any number of
+ * threads at once - for example in a parallel write stage - because every
+ * thread has its own parsers.
+ */
+public class XmlParserPool {
+
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY =
+            newDocumentBuilderFactory(false);
+
+    private static final DocumentBuilderFactory VALIDATING_DOCUMENT_BUILDER_FACTORY =
+            newDocumentBuilderFactory(true);
+
+    private static final ThreadLocal<DocumentBuilder> documentBuilders =
+            new ThreadLocal<DocumentBuilder>();
+
+    private static final ThreadLocal<DocumentBuilder> validatingDocumentBuilders =
+            new ThreadLocal<DocumentBuilder>();
+
+    /**
+     * Utility Class - No Instances
+     */
+    private XmlParserPool() {
+    }
+
+    /**
+     * Returns the DocumentBuilder of the current thread that does not
+     * validate and does not expand entity references. The builder is reset,
+     * so an entity resolver and an error handler must be set again if they
+     * are needed.
+     *
+     * @return the document builder
+     * @throws ParserConfigurationException
+     *             if the builder cannot be created
+     */
+    public static DocumentBuilder getDocumentBuilder()
+            throws ParserConfigurationException {
+        return getDocumentBuilder(documentBuilders, DOCUMENT_BUILDER_FACTORY);
+    }
+
+    /**
+     * Returns the validating DocumentBuilder of the current thread. The
+     * builder is reset, so an entity resolver and an error handler must be
+     * set again if they are needed.
+     *
+     * @return the document builder
+     * @throws ParserConfigurationException
+     *             if the builder cannot be created
+     */
+    public static DocumentBuilder getValidatingDocumentBuilder()
+            throws ParserConfigurationException {
+        return getDocumentBuilder(validatingDocumentBuilders,
+                VALIDATING_DOCUMENT_BUILDER_FACTORY);
+    }
+
+    private static DocumentBuilder getDocumentBuilder(
+            ThreadLocal<DocumentBuilder> builders,
+            DocumentBuilderFactory factory) throws ParserConfigurationException {
+        DocumentBuilder builder = builders.get();
+        if (builder == null) {
+            // a factory is not guaranteed to be thread safe
+            synchronized (factory) {
+                builder = factory.newDocumentBuilder();
+            }
+            builders.set(builder);
+        } else {
+            builder.reset();
+        }
+
+        return builder;
+    }
+
+    private static DocumentBuilderFactory newDocumentBuilderFactory(
+            boolean validating) {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        if (validating) {
+            factory.setValidating(true);
+        } else {
+            factory.setExpandEntityReferences(false);
+        }
+
+        return factory;
+    }
+}
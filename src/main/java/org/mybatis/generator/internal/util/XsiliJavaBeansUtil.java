@@ -46,7 +46,7 @@ public class XsiliJavaBeansUtil extends JavaBeansUtil {
         super();
     }
 
-    private static FullyQualifiedJavaType jsonXmlUtilType = new FullyQualifiedJavaType("org.mybatis.generator.xsili.outputdependence.BenmaJsonXmlUtil");
+    private static FullyQualifiedJavaType jsonXmlUtilType = FullyQualifiedJavaType.of("org.mybatis.generator.xsili.outputdependence.BenmaJsonXmlUtil");
 
     private static final Pattern ENUM_PATTERN = Pattern.compile("\\{\\s*?enum:(.*)\\}");
     private static final Pattern ENUM_ITEM_PATTERN = Pattern.compile("(.*?)\\((.*?)\\)");
@@ -127,7 +127,7 @@ public class XsiliJavaBeansUtil extends JavaBeansUtil {
                                        + tableName // 枚举类添加表名前缀, 避免Enum重名
                                        + PluginUtils.upperCaseFirstLetter(introspectedColumn.getJavaProperty())
                                        + ENUM_CLASS_SUFFIX;
-                FullyQualifiedJavaType enumClassType = new FullyQualifiedJavaType(enumClassName);
+                FullyQualifiedJavaType enumClassType = FullyQualifiedJavaType.of(enumClassName);
                 TopLevelEnumeration topLevelEnumeration = new TopLevelEnumeration(enumClassType);
                 topLevelEnumeration.setVisibility(JavaVisibility.PUBLIC);
                 
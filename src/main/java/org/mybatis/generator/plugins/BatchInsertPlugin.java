@@ -0,0 +1,323 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.ThreadSafePlugin;
+import org.mybatis.generator.api.dom.OutputUtilities;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+
+/**
+ * This plugin adds an <code>insertBatch</code> method to the generated
+ * mappers that inserts a list of records with one multi-row INSERT
+ * statement. With an XML mapper the statement is a <code>foreach</code> in
+ * the XML mapper, with an annotated mapper the statement is built by the SQL
+ * provider.
+ *
+ * <p>If the property <code>maxRowsPerStatement</code> is set, then the mapper
+ * also gets a default method <code>insertInBatches</code> that splits a list
+ * into chunks of at most that many records and calls <code>insertBatch</code>
+ * for each chunk. Default methods in mappers require Java 8 and MyBatis 3.4.2
+ * or later.
+ *
+ * <p>Identity and generated always columns are not inserted, and generated
+ * keys are not returned. An empty list of records inserts nothing. This
+ * plugin is only valid for MyBatis3, and the database must support multi-row
+ * VALUES lists.
+ */
+public class BatchInsertPlugin extends MapperStatementPluginAdapter implements ThreadSafePlugin {
+
+    public static final String INSERT_BATCH = "insertBatch"; //$NON-NLS-1$
+
+    public static final String INSERT_IN_BATCHES = "insertInBatches"; //$NON-NLS-1$
+
+    private int maxRowsPerStatement;
+
+    public BatchInsertPlugin() {
+        super();
+    }
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        String value = properties.getProperty("maxRowsPerStatement"); //$NON-NLS-1$
+        if (stringHasValue(value)) {
+            try {
+                maxRowsPerStatement = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                maxRowsPerStatement = -1;
+            }
+
+            if (maxRowsPerStatement <= 0) {
+                warnings.add(getString("ValidationError.29", //$NON-NLS-1$
+                        "BatchInsertPlugin", "maxRowsPerStatement", value)); //$NON-NLS-1$ //$NON-NLS-2$
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable)) {
+            return true;
+        }
+
+        FullyQualifiedJavaType recordType = introspectedTable.getRules().calculateAllFieldsClass();
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+
+        Method method = new Method(INSERT_BATCH);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(listType, "records", "@Param(\"records\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        interfaze.addImportedType(FullyQualifiedJavaType.of("org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        if (isAnnotatedClient()) {
+            method.addAnnotation(String.format("@InsertProvider(type=%s.class, method=\"%s\")", //$NON-NLS-1$
+                    FullyQualifiedJavaType.of(introspectedTable.getMyBatis3SqlProviderType()).getShortName(),
+                    INSERT_BATCH));
+            interfaze.addImportedType(
+                    FullyQualifiedJavaType.of("org.apache.ibatis.annotations.InsertProvider")); //$NON-NLS-1$
+        }
+
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        interfaze.addImportedType(recordType);
+        interfaze.addMethod(method);
+
+        if (maxRowsPerStatement > 0) {
+            interfaze.addMethod(createInsertInBatchesMethod(listType, introspectedTable));
+        }
+
+        return true;
+    }
+
+    private Method createInsertInBatchesMethod(FullyQualifiedJavaType listType,
+            IntrospectedTable introspectedTable) {
+        Method method = new Method(INSERT_IN_BATCHES);
+        method.setDefault(true);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(listType, "records")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+
+        method.addBodyLine("int rows = 0;"); //$NON-NLS-1$
+        method.addBodyLine(String.format("for (int i = 0; i < records.size(); i += %d) {", //$NON-NLS-1$
+                maxRowsPerStatement));
+        method.addBodyLine(String.format(
+                "rows += %s(records.subList(i, Math.min(i + %d, records.size())));", //$NON-NLS-1$
+                INSERT_BATCH, maxRowsPerStatement));
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return rows;"); //$NON-NLS-1$
+
+        return method;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable) || isAnnotatedClient()) {
+            return true;
+        }
+
+        XmlElement answer = new XmlElement("insert"); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("id", INSERT_BATCH)); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", "map")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addComment(answer);
+
+        List<IntrospectedColumn> columns = ListUtilities.removeIdentityAndGeneratedAlwaysColumns(
+                introspectedTable.getAllColumns());
+
+        StringBuilder insertClause = new StringBuilder();
+        insertClause.append("insert into "); //$NON-NLS-1$
+        insertClause.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        insertClause.append(" ("); //$NON-NLS-1$
+        addColumnList(answer, insertClause, columns);
+        insertClause.append(')');
+        answer.addElement(new TextElement(insertClause.toString()));
+
+        // an empty VALUES list is a syntax error, so an empty list inserts
+        // the rows of a query that returns nothing
+        XmlElement choose = new XmlElement("choose"); //$NON-NLS-1$
+        XmlElement when = new XmlElement("when"); //$NON-NLS-1$
+        when.addAttribute(new Attribute("test", "records != null and !records.isEmpty()")); //$NON-NLS-1$ //$NON-NLS-2$
+        when.addElement(new TextElement("values")); //$NON-NLS-1$
+        choose.addElement(when);
+        XmlElement otherwise = new XmlElement("otherwise"); //$NON-NLS-1$
+        StringBuilder selectClause = new StringBuilder();
+        selectClause.append("select "); //$NON-NLS-1$
+        addColumnList(otherwise, selectClause, columns);
+        otherwise.addElement(new TextElement(selectClause.toString()));
+        otherwise.addElement(new TextElement("from " //$NON-NLS-1$
+                + introspectedTable.getFullyQualifiedTableNameAtRuntime() + " where 1 = 0")); //$NON-NLS-1$
+        choose.addElement(otherwise);
+        answer.addElement(choose);
+
+        XmlElement foreach = new XmlElement("foreach"); //$NON-NLS-1$
+        foreach.addAttribute(new Attribute("collection", "records")); //$NON-NLS-1$ //$NON-NLS-2$
+        foreach.addAttribute(new Attribute("item", "record")); //$NON-NLS-1$ //$NON-NLS-2$
+        foreach.addAttribute(new Attribute("separator", ",")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        StringBuilder valuesClause = new StringBuilder();
+        valuesClause.append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            valuesClause.append(getParameterClause(columns.get(i), "record.")); //$NON-NLS-1$
+            if (i + 1 < columns.size()) {
+                valuesClause.append(", "); //$NON-NLS-1$
+            }
+
+            if (valuesClause.length() > 80) {
+                foreach.addElement(new TextElement(valuesClause.toString()));
+                valuesClause.setLength(0);
+                OutputUtilities.xmlIndent(valuesClause, 1);
+            }
+        }
+        valuesClause.append(')');
+        foreach.addElement(new TextElement(valuesClause.toString()));
+        when.addElement(foreach);
+
+        document.getRootElement().addElement(answer);
+
+        return true;
+    }
+
+    @Override
+    public boolean providerGenerated(TopLevelClass topLevelClass,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable) || !isAnnotatedClient()) {
+            return true;
+        }
+
+        FullyQualifiedJavaType recordType = introspectedTable.getRules().calculateAllFieldsClass();
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+        FullyQualifiedJavaType mapType = FullyQualifiedJavaType.of("java.util.Map<java.lang.String, java.lang.Object>"); //$NON-NLS-1$
+
+        Method method = new Method(INSERT_BATCH);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addParameter(new Parameter(mapType, "parameter")); //$NON-NLS-1$
+        method.addAnnotation("@SuppressWarnings(\"unchecked\")"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+
+        List<IntrospectedColumn> columns = ListUtilities.removeIdentityAndGeneratedAlwaysColumns(
+                introspectedTable.getAllColumns());
+
+        method.addBodyLine(String.format("%s records = (%s) parameter.get(\"records\");", //$NON-NLS-1$
+                listType.getShortName(), listType.getShortName()));
+
+        StringBuilder columnList = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            columnList.append(getEscapedColumnName(columns.get(i)));
+            if (i + 1 < columns.size()) {
+                columnList.append(", "); //$NON-NLS-1$
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("insert into "); //$NON-NLS-1$
+        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        sb.append(" ("); //$NON-NLS-1$
+        sb.append(columnList);
+        sb.append(") "); //$NON-NLS-1$
+
+        // an empty VALUES list is a syntax error, so an empty list inserts
+        // the rows of a query that returns nothing
+        method.addBodyLine("if (records == null || records.isEmpty()) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("return \"%sselect %s from %s where 1 = 0\";", //$NON-NLS-1$
+                escapeStringForJava(sb.toString()), escapeStringForJava(columnList.toString()),
+                escapeStringForJava(introspectedTable.getFullyQualifiedTableNameAtRuntime())));
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("StringBuilder sql = new StringBuilder();"); //$NON-NLS-1$
+        sb.append("values "); //$NON-NLS-1$
+        method.addBodyLine(String.format("sql.append(\"%s\");", escapeStringForJava(sb.toString()))); //$NON-NLS-1$
+
+        method.addBodyLine("for (int i = 0; i < records.size(); i++) {"); //$NON-NLS-1$
+        method.addBodyLine("if (i > 0) {"); //$NON-NLS-1$
+        method.addBodyLine("sql.append(\", \");"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("String record = \"records[\" + i + \"].\";"); //$NON-NLS-1$
+        for (int i = 0; i < columns.size(); i++) {
+            IntrospectedColumn column = columns.get(i);
+            String parameterClause = getParameterClause(column);
+            // #{property,jdbcType=...} - the property is prefixed with the record
+            method.addBodyLine(String.format("sql.append(\"%s#{\").append(record).append(\"%s%s\");", //$NON-NLS-1$
+                    i == 0 ? "(" : ", ", //$NON-NLS-1$ //$NON-NLS-2$
+                    escapeStringForJava(parameterClause.substring(2)),
+                    i + 1 == columns.size() ? ")" : "")); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
+
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewMapInstance());
+        topLevelClass.addImportedType(recordType);
+        topLevelClass.addMethod(method);
+
+        return true;
+    }
+
+    /**
+     * Appends the escaped names of the columns to the buffer, and moves the
+     * text to a new line of the element when the buffer gets long.
+     */
+    private static void addColumnList(XmlElement element, StringBuilder sb,
+            List<IntrospectedColumn> columns) {
+        for (int i = 0; i < columns.size(); i++) {
+            sb.append(getEscapedColumnName(columns.get(i)));
+            if (i + 1 < columns.size()) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+
+            if (sb.length() > 80) {
+                element.addElement(new TextElement(sb.toString()));
+                sb.setLength(0);
+                OutputUtilities.xmlIndent(sb, 1);
+            }
+        }
+    }
+
+    /**
+     * An annotated mapper builds the multi-row INSERT in its SQL provider, so
+     * <code>insertBatch</code> is skipped for tables whose mapper has no provider.
+     */
+    private boolean isSupported(IntrospectedTable introspectedTable) {
+        return introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3
+                && (!isAnnotatedClient() || isSqlProviderGenerated(introspectedTable));
+    }
+}
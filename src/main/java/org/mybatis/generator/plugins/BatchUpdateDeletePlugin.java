@@ -0,0 +1,496 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.ThreadSafePlugin;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.PropertyRegistry;
+
+/**
+ * This plugin adds a <code>deleteByPrimaryKeys</code> method to the generated
+ * mappers that deletes a list of records by primary key with one DELETE
+ * statement. A single column key is matched with an IN list. A composite key
+ * is matched with OR groups, or with a row value IN list if the property
+ * <code>useRowValues</code> is true. An empty list of keys deletes nothing.
+ *
+ * <p>If the property <code>serviceTargetPackage</code> is set, then the
+ * plugin also generates a <code>&lt;DomainObject&gt;BatchService</code> class
+ * for every table. Its <code>updateByPrimaryKeyBatch</code> method calls the
+ * update by primary key method of the mapper for every record with the BATCH
+ * executor, and sends the updates to the database as JDBC batches of at most
+ * <code>flushSize</code> statements (1000 by default). By default the method
+ * opens and commits a session of its own, outside of any Spring transaction.
+ * If the property <code>useSqlSessionTemplate</code> is true, then it uses a
+ * MyBatis-Spring <code>SqlSessionTemplate</code> with the BATCH executor
+ * instead, and must be called in a Spring transaction.
+ *
+ * <p>This plugin is only valid for MyBatis3, and only for tables with a
+ * primary key.
+ */
+public class BatchUpdateDeletePlugin extends MapperStatementPluginAdapter implements ThreadSafePlugin {
+
+    public static final String DELETE_BY_PRIMARY_KEYS = "deleteByPrimaryKeys"; //$NON-NLS-1$
+
+    public static final String UPDATE_BY_PRIMARY_KEY_BATCH = "updateByPrimaryKeyBatch"; //$NON-NLS-1$
+
+    private boolean useRowValues;
+
+    private boolean useSqlSessionTemplate;
+
+    private int flushSize = 1000;
+
+    public BatchUpdateDeletePlugin() {
+        super();
+    }
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        boolean valid = true;
+
+        useRowValues = isTrue(properties.getProperty("useRowValues")); //$NON-NLS-1$
+        useSqlSessionTemplate = isTrue(properties.getProperty("useSqlSessionTemplate")); //$NON-NLS-1$
+
+        if (stringHasValue(properties.getProperty("serviceTargetPackage")) //$NON-NLS-1$
+                && !stringHasValue(properties.getProperty("serviceTargetProject"))) { //$NON-NLS-1$
+            warnings.add(getString("ValidationError.18", //$NON-NLS-1$
+                    "BatchUpdateDeletePlugin", "serviceTargetProject")); //$NON-NLS-1$ //$NON-NLS-2$
+            valid = false;
+        }
+
+        String value = properties.getProperty("flushSize"); //$NON-NLS-1$
+        if (stringHasValue(value)) {
+            try {
+                flushSize = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                flushSize = -1;
+            }
+
+            if (flushSize <= 0) {
+                warnings.add(getString("ValidationError.29", //$NON-NLS-1$
+                        "BatchUpdateDeletePlugin", "flushSize", value)); //$NON-NLS-1$ //$NON-NLS-2$
+                valid = false;
+            }
+        }
+
+        return valid;
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable)) {
+            return true;
+        }
+
+        FullyQualifiedJavaType keyType = calculateKeyType(introspectedTable);
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(keyType);
+
+        Method method = new Method(DELETE_BY_PRIMARY_KEYS);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(listType, "keys", "@Param(\"keys\")")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        interfaze.addImportedType(FullyQualifiedJavaType.of("org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+
+        if (isAnnotatedClient()) {
+            method.addAnnotation(String.format("@DeleteProvider(type=%s.class, method=\"%s\")", //$NON-NLS-1$
+                    FullyQualifiedJavaType.of(introspectedTable.getMyBatis3SqlProviderType()).getShortName(),
+                    DELETE_BY_PRIMARY_KEYS));
+            interfaze.addImportedType(
+                    FullyQualifiedJavaType.of("org.apache.ibatis.annotations.DeleteProvider")); //$NON-NLS-1$
+        }
+
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        interfaze.addImportedType(keyType);
+        interfaze.addMethod(method);
+
+        return true;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable) || isAnnotatedClient()) {
+            return true;
+        }
+
+        XmlElement answer = new XmlElement("delete"); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("id", DELETE_BY_PRIMARY_KEYS)); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", "map")); //$NON-NLS-1$ //$NON-NLS-2$
+        context.getCommentGenerator().addComment(answer);
+
+        List<IntrospectedColumn> columns = introspectedTable.getPrimaryKeyColumns();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("delete from "); //$NON-NLS-1$
+        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        answer.addElement(new TextElement(sb.toString()));
+
+        // an empty IN list is a syntax error, and an empty OR list would delete everything
+        XmlElement choose = new XmlElement("choose"); //$NON-NLS-1$
+        XmlElement when = new XmlElement("when"); //$NON-NLS-1$
+        when.addAttribute(new Attribute("test", "keys != null and !keys.isEmpty()")); //$NON-NLS-1$ //$NON-NLS-2$
+        choose.addElement(when);
+        XmlElement otherwise = new XmlElement("otherwise"); //$NON-NLS-1$
+        otherwise.addElement(new TextElement("where 1 = 0")); //$NON-NLS-1$
+        choose.addElement(otherwise);
+        answer.addElement(choose);
+
+        XmlElement foreach = new XmlElement("foreach"); //$NON-NLS-1$
+        foreach.addAttribute(new Attribute("collection", "keys")); //$NON-NLS-1$ //$NON-NLS-2$
+        foreach.addAttribute(new Attribute("item", "key")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        sb.setLength(0);
+        if (columns.size() == 1) {
+            IntrospectedColumn column = columns.get(0);
+            when.addElement(new TextElement("where " + getEscapedColumnName(column) + " in")); //$NON-NLS-1$ //$NON-NLS-2$
+            addListAttributes(foreach);
+            sb.append("#{key"); //$NON-NLS-1$
+            sb.append(getParameterOptions(column));
+        } else if (useRowValues) {
+            when.addElement(new TextElement("where " + getRowValue(columns) + " in")); //$NON-NLS-1$ //$NON-NLS-2$
+            addListAttributes(foreach);
+            sb.append('(');
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(", "); //$NON-NLS-1$
+                }
+                sb.append(getParameterClause(columns.get(i), "key.")); //$NON-NLS-1$
+            }
+            sb.append(')');
+        } else {
+            when.addElement(new TextElement("where")); //$NON-NLS-1$
+            foreach.addAttribute(new Attribute("separator", "or")); //$NON-NLS-1$ //$NON-NLS-2$
+            sb.append('(');
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(" and "); //$NON-NLS-1$
+                }
+                sb.append(getEscapedColumnName(columns.get(i)));
+                sb.append(" = "); //$NON-NLS-1$
+                sb.append(getParameterClause(columns.get(i), "key.")); //$NON-NLS-1$
+            }
+            sb.append(')');
+        }
+        foreach.addElement(new TextElement(sb.toString()));
+        when.addElement(foreach);
+
+        document.getRootElement().addElement(answer);
+
+        return true;
+    }
+
+    private void addListAttributes(XmlElement foreach) {
+        foreach.addAttribute(new Attribute("open", "(")); //$NON-NLS-1$ //$NON-NLS-2$
+        foreach.addAttribute(new Attribute("separator", ",")); //$NON-NLS-1$ //$NON-NLS-2$
+        foreach.addAttribute(new Attribute("close", ")")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @Override
+    public boolean providerGenerated(TopLevelClass topLevelClass,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable) || !isAnnotatedClient()) {
+            return true;
+        }
+
+        FullyQualifiedJavaType keyType = calculateKeyType(introspectedTable);
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(keyType);
+        FullyQualifiedJavaType mapType = FullyQualifiedJavaType.of("java.util.Map<java.lang.String, java.lang.Object>"); //$NON-NLS-1$
+
+        Method method = new Method(DELETE_BY_PRIMARY_KEYS);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addParameter(new Parameter(mapType, "parameter")); //$NON-NLS-1$
+        method.addAnnotation("@SuppressWarnings(\"unchecked\")"); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+
+        List<IntrospectedColumn> columns = introspectedTable.getPrimaryKeyColumns();
+        boolean inList = columns.size() == 1 || useRowValues;
+
+        method.addBodyLine(String.format("%s keys = (%s) parameter.get(\"keys\");", //$NON-NLS-1$
+                listType.getShortName(), listType.getShortName()));
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("delete from "); //$NON-NLS-1$
+        sb.append(introspectedTable.getFullyQualifiedTableNameAtRuntime());
+        sb.append(" where "); //$NON-NLS-1$
+        method.addBodyLine("if (keys == null || keys.isEmpty()) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("return \"%s1 = 0\";", escapeStringForJava(sb.toString()))); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("StringBuilder sql = new StringBuilder();"); //$NON-NLS-1$
+
+        if (columns.size() == 1) {
+            sb.append(getEscapedColumnName(columns.get(0)));
+            sb.append(" in ("); //$NON-NLS-1$
+        } else if (useRowValues) {
+            sb.append(getRowValue(columns));
+            sb.append(" in ("); //$NON-NLS-1$
+        }
+        method.addBodyLine(String.format("sql.append(\"%s\");", escapeStringForJava(sb.toString()))); //$NON-NLS-1$
+
+        method.addBodyLine("for (int i = 0; i < keys.size(); i++) {"); //$NON-NLS-1$
+        method.addBodyLine("if (i > 0) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("sql.append(\"%s\");", inList ? ", " : " or ")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        if (columns.size() == 1) {
+            method.addBodyLine(String.format("sql.append(\"#{keys[\").append(i).append(\"]%s\");", //$NON-NLS-1$
+                    escapeStringForJava(getParameterOptions(columns.get(0)))));
+        } else {
+            method.addBodyLine("String key = \"keys[\" + i + \"].\";"); //$NON-NLS-1$
+            for (int i = 0; i < columns.size(); i++) {
+                IntrospectedColumn column = columns.get(i);
+                sb.setLength(0);
+                if (i == 0) {
+                    sb.append('(');
+                } else {
+                    sb.append(useRowValues ? ", " : " and "); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                if (!useRowValues) {
+                    sb.append(getEscapedColumnName(column));
+                    sb.append(" = "); //$NON-NLS-1$
+                }
+                // #{property,jdbcType=...} - the property is prefixed with the key
+                method.addBodyLine(String.format("sql.append(\"%s#{\").append(key).append(\"%s%s\");", //$NON-NLS-1$
+                        escapeStringForJava(sb.toString()),
+                        escapeStringForJava(getParameterClause(column).substring(2)),
+                        i + 1 == columns.size() ? ")" : "")); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+        method.addBodyLine("}"); //$NON-NLS-1$
+        if (inList) {
+            method.addBodyLine("sql.append(\")\");"); //$NON-NLS-1$
+        }
+        method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
+
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewMapInstance());
+        topLevelClass.addImportedType(keyType);
+        topLevelClass.addMethod(method);
+
+        return true;
+    }
+
+    @Override
+    public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(
+            IntrospectedTable introspectedTable, List<TopLevelClass> modelClasses) {
+        String targetPackage = properties.getProperty("serviceTargetPackage"); //$NON-NLS-1$
+        if (!stringHasValue(targetPackage) || !isSupported(introspectedTable)) {
+            return null;
+        }
+
+        String updateMethodName;
+        FullyQualifiedJavaType recordType;
+        if (introspectedTable.getRules().generateUpdateByPrimaryKeyWithBLOBs()) {
+            updateMethodName = introspectedTable.getUpdateByPrimaryKeyWithBLOBsStatementId();
+            recordType = introspectedTable.getRules().calculateAllFieldsClass();
+        } else if (introspectedTable.getRules().generateUpdateByPrimaryKeyWithoutBLOBs()) {
+            updateMethodName = introspectedTable.getUpdateByPrimaryKeyStatementId();
+            recordType = FullyQualifiedJavaType.of(introspectedTable.getBaseRecordType());
+        } else {
+            return null;
+        }
+
+        FullyQualifiedJavaType mapperType = FullyQualifiedJavaType.of(introspectedTable.getMyBatis3JavaMapperType());
+        FullyQualifiedJavaType sqlSessionFactoryType = FullyQualifiedJavaType.of("org.apache.ibatis.session.SqlSessionFactory"); //$NON-NLS-1$
+        FullyQualifiedJavaType sqlSessionType = useSqlSessionTemplate
+                ? FullyQualifiedJavaType.of("org.mybatis.spring.SqlSessionTemplate") //$NON-NLS-1$
+                : FullyQualifiedJavaType.of("org.apache.ibatis.session.SqlSession"); //$NON-NLS-1$
+        FullyQualifiedJavaType batchResultType = FullyQualifiedJavaType.of("org.apache.ibatis.executor.BatchResult"); //$NON-NLS-1$
+        FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+        listType.addTypeArgument(recordType);
+        FullyQualifiedJavaType resultListType = FullyQualifiedJavaType.getNewListInstance();
+        resultListType.addTypeArgument(batchResultType);
+
+        TopLevelClass topLevelClass = new TopLevelClass(targetPackage + '.'
+                + introspectedTable.getFullyQualifiedTable().getDomainObjectName() + "BatchService"); //$NON-NLS-1$
+        topLevelClass.setVisibility(JavaVisibility.PUBLIC);
+        context.getCommentGenerator().addJavaFileComment(topLevelClass);
+        topLevelClass.addImportedType(mapperType);
+        topLevelClass.addImportedType(recordType);
+        topLevelClass.addImportedType(sqlSessionFactoryType);
+        topLevelClass.addImportedType(sqlSessionType);
+        topLevelClass.addImportedType(batchResultType);
+        topLevelClass.addImportedType(FullyQualifiedJavaType.of("org.apache.ibatis.session.ExecutorType")); //$NON-NLS-1$
+        topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+
+        Field field = useSqlSessionTemplate
+                ? new Field("sqlSessionTemplate", sqlSessionType) //$NON-NLS-1$
+                : new Field("sqlSessionFactory", sqlSessionFactoryType); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        context.getCommentGenerator().addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+
+        Method method = new Method(topLevelClass.getType().getShortName());
+        method.setConstructor(true);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addParameter(new Parameter(sqlSessionFactoryType, "sqlSessionFactory")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        if (useSqlSessionTemplate) {
+            method.addBodyLine("this.sqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("this.sqlSessionFactory = sqlSessionFactory;"); //$NON-NLS-1$
+        }
+        topLevelClass.addMethod(method);
+
+        method = new Method(UPDATE_BY_PRIMARY_KEY_BATCH);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(listType, "records")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        if (useSqlSessionTemplate) {
+            // without a transaction every mapper call would run and commit in its own session
+            FullyQualifiedJavaType synchronizationManagerType = FullyQualifiedJavaType.of(
+                    "org.springframework.transaction.support.TransactionSynchronizationManager"); //$NON-NLS-1$
+            topLevelClass.addImportedType(synchronizationManagerType);
+            method.addBodyLine("if (!TransactionSynchronizationManager.isSynchronizationActive()) {"); //$NON-NLS-1$
+            method.addBodyLine(String.format(
+                    "throw new IllegalStateException(\"%s must be called in a Spring transaction\");", //$NON-NLS-1$
+                    UPDATE_BY_PRIMARY_KEY_BATCH));
+            method.addBodyLine("}"); //$NON-NLS-1$
+            addUpdateBodyLines(method, "sqlSessionTemplate", mapperType, updateMethodName); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);"); //$NON-NLS-1$
+            method.addBodyLine("try {"); //$NON-NLS-1$
+            addUpdateBodyLines(method, "sqlSession", mapperType, updateMethodName); //$NON-NLS-1$
+            method.addBodyLine("} finally {"); //$NON-NLS-1$
+            method.addBodyLine("sqlSession.close();"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
+        topLevelClass.addMethod(method);
+
+        // drivers that report Statement.SUCCESS_NO_INFO do not add to the count
+        method = new Method("countRows"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(resultListType, "results")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        method.addBodyLine("int rows = 0;"); //$NON-NLS-1$
+        method.addBodyLine("for (BatchResult result : results) {"); //$NON-NLS-1$
+        method.addBodyLine("for (int count : result.getUpdateCounts()) {"); //$NON-NLS-1$
+        method.addBodyLine("if (count > 0) {"); //$NON-NLS-1$
+        method.addBodyLine("rows += count;"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return rows;"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+        answer.add(new GeneratedJavaFile(topLevelClass,
+                properties.getProperty("serviceTargetProject"), //$NON-NLS-1$
+                context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING),
+                context.getJavaFormatter()));
+        return answer;
+    }
+
+    /**
+     * Adds the update loop of the batch service. A session of our own is
+     * committed here, while the SqlSessionTemplate session belongs to the
+     * Spring transaction and is committed with it.
+     */
+    private void addUpdateBodyLines(Method method, String sessionName, FullyQualifiedJavaType mapperType,
+            String updateMethodName) {
+        method.addBodyLine(String.format("%s mapper = %s.getMapper(%s.class);", //$NON-NLS-1$
+                mapperType.getShortName(), sessionName, mapperType.getShortName()));
+        method.addBodyLine("int rows = 0;"); //$NON-NLS-1$
+        method.addBodyLine("for (int i = 0; i < records.size(); i++) {"); //$NON-NLS-1$
+        method.addBodyLine(String.format("mapper.%s(records.get(i));", updateMethodName)); //$NON-NLS-1$
+        method.addBodyLine(String.format("if ((i + 1) %% %d == 0) {", flushSize)); //$NON-NLS-1$
+        method.addBodyLine(String.format("rows += countRows(%s.flushStatements());", sessionName)); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine(String.format("rows += countRows(%s.flushStatements());", sessionName)); //$NON-NLS-1$
+        if (!useSqlSessionTemplate) {
+            method.addBodyLine(String.format("%s.commit();", sessionName)); //$NON-NLS-1$
+        }
+        method.addBodyLine("return rows;"); //$NON-NLS-1$
+    }
+
+    /**
+     * A single column key is passed as its Java type. A composite key is
+     * passed as the primary key class if there is one, else as the record.
+     */
+    private FullyQualifiedJavaType calculateKeyType(IntrospectedTable introspectedTable) {
+        List<IntrospectedColumn> columns = introspectedTable.getPrimaryKeyColumns();
+        if (columns.size() == 1) {
+            return columns.get(0).getFullyQualifiedJavaType();
+        } else if (introspectedTable.getRules().generatePrimaryKeyClass()) {
+            return FullyQualifiedJavaType.of(introspectedTable.getPrimaryKeyType());
+        } else {
+            return FullyQualifiedJavaType.of(introspectedTable.getBaseRecordType());
+        }
+    }
+
+    private String getRowValue(List<IntrospectedColumn> columns) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append(getEscapedColumnName(columns.get(i)));
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+    /**
+     * Returns the part of the parameter clause after the property, for
+     * example <code>,jdbcType=INTEGER}</code>.
+     */
+    private String getParameterOptions(IntrospectedColumn column) {
+        String parameterClause = getParameterClause(column);
+        return parameterClause.substring(parameterClause.indexOf(','));
+    }
+
+    /**
+     * Deleting by keys needs a primary key. With an annotated mapper the IN
+     * list is rendered by the SQL provider, which must therefore exist.
+     */
+    private boolean isSupported(IntrospectedTable introspectedTable) {
+        return introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3
+                && introspectedTable.hasPrimaryKeyColumns()
+                && (!isAnnotatedClient() || isSqlProviderGenerated(introspectedTable));
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Properties;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafePlugin;
 import org.mybatis.generator.api.dom.OutputUtilities;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
@@ -47,7 +48,7 @@ import org.mybatis.generator.api.dom.java.TopLevelClass;
  * @author Jeff Butler
  * 
  */
-public class EqualsHashCodePlugin extends PluginAdapter {
+public class EqualsHashCodePlugin extends PluginAdapter implements ThreadSafePlugin {
 
     private boolean useEqualsHashCodeFromRoot;
 
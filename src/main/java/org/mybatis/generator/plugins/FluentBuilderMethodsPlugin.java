@@ -20,6 +20,7 @@ import java.util.List;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafePlugin;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
@@ -36,7 +37,7 @@ import org.mybatis.generator.api.dom.java.TopLevelClass;
  *
  * @author Stefan Lack
  */
-public class FluentBuilderMethodsPlugin extends PluginAdapter {
+public class FluentBuilderMethodsPlugin extends PluginAdapter implements ThreadSafePlugin {
 
     @Override
     public boolean validate(List<String> warnings) {
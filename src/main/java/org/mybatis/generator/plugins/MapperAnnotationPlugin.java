@@ -21,6 +21,7 @@ import java.util.Properties;
 import org.apache.commons.lang3.StringUtils;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafePlugin;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Interface;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
@@ -31,7 +32,7 @@ import org.mybatis.generator.api.dom.java.TopLevelClass;
  * @author 叶鹏
  * @date 2017年8月29日
  */
-public class MapperAnnotationPlugin extends PluginAdapter {
+public class MapperAnnotationPlugin extends PluginAdapter implements ThreadSafePlugin {
 
 	private static final String DEFAULT_ANNOTATION_CLASS = "org.apache.ibatis.annotations.Mapper";
 	private static final String DEFAULT_ANNOTATION_NAME = "@Mapper";
@@ -63,7 +64,7 @@ public class MapperAnnotationPlugin extends PluginAdapter {
     @Override
     public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass,
             IntrospectedTable introspectedTable) {
-        interfaze.addImportedType(new FullyQualifiedJavaType(annotationClass)); //$NON-NLS-1$
+        interfaze.addImportedType(FullyQualifiedJavaType.of(annotationClass)); //$NON-NLS-1$
         interfaze.addAnnotation(annotationName); //$NON-NLS-1$
         return true;
     }
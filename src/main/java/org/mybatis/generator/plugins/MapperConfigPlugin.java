@@ -21,10 +21,13 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafePlugin;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.api.dom.xml.TextElement;
@@ -54,12 +57,16 @@ import org.mybatis.generator.codegen.XmlConstants;
  * @author Jeff Butler
  * 
  */
-public class MapperConfigPlugin extends PluginAdapter {
+public class MapperConfigPlugin extends PluginAdapter implements ThreadSafePlugin {
 
-    private List<String> mapperFiles;
+    /**
+     * The files are kept per table, so they can be listed in table order even
+     * if the tables are generated concurrently.
+     */
+    private Map<IntrospectedTable, List<String>> mapperFiles;
 
     public MapperConfigPlugin() {
-        mapperFiles = new ArrayList<String>();
+        mapperFiles = new ConcurrentHashMap<IntrospectedTable, List<String>>();
     }
 
     @Override
@@ -114,10 +121,19 @@ public class MapperConfigPlugin extends PluginAdapter {
         root.addElement(mappers);
 
         XmlElement mapper;
-        for (String mapperFile : mapperFiles) {
-            mapper = new XmlElement("mapper"); //$NON-NLS-1$
-            mapper.addAttribute(new Attribute("resource", mapperFile)); //$NON-NLS-1$
-            mappers.addElement(mapper);
+        if (context.getIntrospectedTables() != null) {
+            for (IntrospectedTable introspectedTable : context.getIntrospectedTables()) {
+                List<String> files = mapperFiles.get(introspectedTable);
+                if (files == null) {
+                    continue;
+                }
+
+                for (String mapperFile : files) {
+                    mapper = new XmlElement("mapper"); //$NON-NLS-1$
+                    mapper.addAttribute(new Attribute("resource", mapperFile)); //$NON-NLS-1$
+                    mappers.addElement(mapper);
+                }
+            }
         }
 
         GeneratedXmlFile gxf = new GeneratedXmlFile(document, properties
@@ -146,7 +162,12 @@ public class MapperConfigPlugin extends PluginAdapter {
         sb.setLength(0);
         sb.append(temp.replace('.', '/'));
         sb.append(sqlMap.getFileName());
-        mapperFiles.add(sb.toString());
+        List<String> files = mapperFiles.get(introspectedTable);
+        if (files == null) {
+            files = new ArrayList<String>();
+            mapperFiles.put(introspectedTable, files);
+        }
+        files.add(sb.toString());
 
         return true;
     }
@@ -0,0 +1,68 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.internal.rules.Rules;
+
+/**
+ * Base class for plugins that add statements to the generated mappers. The
+ * statement of a method goes to the XML mapper, or to the SQL provider if the
+ * mapper is an annotated mapper.
+ */
+public abstract class MapperStatementPluginAdapter extends PluginAdapter {
+
+    public MapperStatementPluginAdapter() {
+        super();
+    }
+
+    /**
+     * Returns true if the context generates annotated mappers, whose
+     * statements are built by a SQL provider instead of an XML mapper. Mixed
+     * mappers have an XML mapper.
+     *
+     * @return true if the client is an annotated mapper
+     */
+    protected boolean isAnnotatedClient() {
+        return context.getJavaClientGeneratorConfiguration() != null
+                && "ANNOTATEDMAPPER".equalsIgnoreCase( //$NON-NLS-1$
+                        context.getJavaClientGeneratorConfiguration().getConfigurationType());
+    }
+
+    /**
+     * Returns true if a SQL provider is generated for the table. MyBatis
+     * Generator only generates the provider if at least one of its own
+     * methods is enabled, so a plugin cannot add a provider method to a table
+     * without one.
+     *
+     * @param introspectedTable
+     *            the table
+     * @return true if the provider is generated
+     */
+    protected boolean isSqlProviderGenerated(IntrospectedTable introspectedTable) {
+        Rules rules = introspectedTable.getRules();
+        return rules.generateCountByExample()
+                || rules.generateDeleteByExample()
+                || rules.generateInsertSelective()
+                || rules.generateSelectByExampleWithBLOBs()
+                || rules.generateSelectByExampleWithoutBLOBs()
+                || rules.generateUpdateByExampleSelective()
+                || rules.generateUpdateByExampleWithBLOBs()
+                || rules.generateUpdateByExampleWithoutBLOBs()
+                || rules.generateUpdateByPrimaryKeySelective();
+    }
+}
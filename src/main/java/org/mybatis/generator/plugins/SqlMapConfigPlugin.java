@@ -21,10 +21,13 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafePlugin;
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.api.dom.xml.TextElement;
@@ -54,12 +57,16 @@ import org.mybatis.generator.codegen.XmlConstants;
  * @author Jeff Butler
  * 
  */
-public class SqlMapConfigPlugin extends PluginAdapter {
+public class SqlMapConfigPlugin extends PluginAdapter implements ThreadSafePlugin {
 
-    private List<String> sqlMapFiles;
+    /**
+     * The files are kept per table, so they can be listed in table order even
+     * if the tables are generated concurrently.
+     */
+    private Map<IntrospectedTable, List<String>> sqlMapFiles;
 
     public SqlMapConfigPlugin() {
-        sqlMapFiles = new ArrayList<String>();
+        sqlMapFiles = new ConcurrentHashMap<IntrospectedTable, List<String>>();
     }
 
     @Override
@@ -115,10 +122,19 @@ public class SqlMapConfigPlugin extends PluginAdapter {
         root.addElement(settings);
 
         XmlElement sqlMap;
-        for (String sqlMapFile : sqlMapFiles) {
-            sqlMap = new XmlElement("sqlMap"); //$NON-NLS-1$
-            sqlMap.addAttribute(new Attribute("resource", sqlMapFile)); //$NON-NLS-1$
-            root.addElement(sqlMap);
+        if (context.getIntrospectedTables() != null) {
+            for (IntrospectedTable introspectedTable : context.getIntrospectedTables()) {
+                List<String> files = sqlMapFiles.get(introspectedTable);
+                if (files == null) {
+                    continue;
+                }
+
+                for (String sqlMapFile : files) {
+                    sqlMap = new XmlElement("sqlMap"); //$NON-NLS-1$
+                    sqlMap.addAttribute(new Attribute("resource", sqlMapFile)); //$NON-NLS-1$
+                    root.addElement(sqlMap);
+                }
+            }
         }
 
         GeneratedXmlFile gxf = new GeneratedXmlFile(document, properties
@@ -147,7 +163,12 @@ public class SqlMapConfigPlugin extends PluginAdapter {
         sb.setLength(0);
         sb.append(temp.replace('.', '/'));
         sb.append(sqlMap.getFileName());
-        sqlMapFiles.add(sb.toString());
+        List<String> files = sqlMapFiles.get(introspectedTable);
+        if (files == null) {
+            files = new ArrayList<String>();
+            sqlMapFiles.put(introspectedTable, files);
+        }
+        files.add(sb.toString());
 
         return true;
     }
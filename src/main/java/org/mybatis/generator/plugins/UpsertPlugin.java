@@ -0,0 +1,651 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getEscapedColumnName;
+import static org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities.getParameterClause;
+import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
+import org.mybatis.generator.api.ThreadSafePlugin;
+import org.mybatis.generator.api.dom.OutputUtilities;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.internal.db.DatabaseDialects;
+
+/**
+ * This plugin adds <code>upsert</code> and <code>upsertSelective</code>
+ * methods to the generated mappers. The methods insert a record, or update
+ * the record with the same primary key if there is one, with a single
+ * statement. The statement depends on the <code>dialect</code> property:
+ *
+ * <ul>
+ * <li>MySQL - <code>INSERT ... ON DUPLICATE KEY UPDATE</code></li>
+ * <li>PostgreSQL - <code>INSERT ... ON CONFLICT (key) DO UPDATE</code></li>
+ * <li>HSQLDB - <code>MERGE INTO ... USING (VALUES ...)</code></li>
+ * </ul>
+ *
+ * <p>If the property <code>enableUpsertBatch</code> is true, then the mapper
+ * also gets an <code>upsertBatch</code> method that upserts a list of records
+ * with one multi-row statement.
+ *
+ * <p>This plugin is only valid for MyBatis3, and only for tables with a
+ * primary key and at least one other column.
+ */
+public class UpsertPlugin extends MapperStatementPluginAdapter implements ThreadSafePlugin {
+
+    public static final String UPSERT = "upsert"; //$NON-NLS-1$
+
+    public static final String UPSERT_SELECTIVE = "upsertSelective"; //$NON-NLS-1$
+
+    public static final String UPSERT_BATCH = "upsertBatch"; //$NON-NLS-1$
+
+    /**
+     * The column lists of an upsert statement.
+     */
+    private enum Part {
+        /** The names of the inserted columns. */
+        COLUMNS,
+        /** The parameters of the inserted columns, in parentheses. */
+        ROW,
+        /** The assignments of the updated columns. */
+        UPDATES,
+        /** The inserted columns of the MERGE source. */
+        MERGE_VALUES
+    }
+
+    /**
+     * A piece of an upsert statement - either literal text or a column list.
+     * Literal text that starts with a space begins a new line.
+     */
+    private static class Segment {
+        private final String literal;
+        private final Part part;
+
+        Segment(String literal, Part part) {
+            this.literal = literal;
+            this.part = part;
+        }
+    }
+
+    private DatabaseDialects dialect;
+
+    private boolean enableUpsertBatch;
+
+    public UpsertPlugin() {
+        super();
+    }
+
+    @Override
+    public boolean validate(List<String> warnings) {
+        String value = properties.getProperty("dialect"); //$NON-NLS-1$
+        if (!stringHasValue(value)) {
+            warnings.add(getString("ValidationError.18", //$NON-NLS-1$
+                    "UpsertPlugin", "dialect")); //$NON-NLS-1$ //$NON-NLS-2$
+            return false;
+        }
+
+        dialect = DatabaseDialects.getDatabaseDialect(value.trim());
+        if (dialect != DatabaseDialects.MYSQL
+                && dialect != DatabaseDialects.POSTGRESQL
+                && dialect != DatabaseDialects.HSQLDB) {
+            warnings.add(getString("ValidationError.30", //$NON-NLS-1$
+                    "UpsertPlugin", value)); //$NON-NLS-1$
+            return false;
+        }
+
+        enableUpsertBatch = isTrue(properties.getProperty("enableUpsertBatch")); //$NON-NLS-1$
+
+        return true;
+    }
+
+    @Override
+    public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable)) {
+            return true;
+        }
+
+        FullyQualifiedJavaType recordType = introspectedTable.getRules().calculateAllFieldsClass();
+        interfaze.addImportedType(recordType);
+
+        interfaze.addMethod(createClientMethod(UPSERT, new Parameter(recordType, "record"), //$NON-NLS-1$
+                interfaze, introspectedTable));
+        interfaze.addMethod(createClientMethod(UPSERT_SELECTIVE, new Parameter(recordType, "record"), //$NON-NLS-1$
+                interfaze, introspectedTable));
+
+        if (enableUpsertBatch) {
+            FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+            listType.addTypeArgument(recordType);
+            interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+            interfaze.addImportedType(FullyQualifiedJavaType.of("org.apache.ibatis.annotations.Param")); //$NON-NLS-1$
+            interfaze.addMethod(createClientMethod(UPSERT_BATCH,
+                    new Parameter(listType, "records", "@Param(\"records\")"), //$NON-NLS-1$ //$NON-NLS-2$
+                    interfaze, introspectedTable));
+        }
+
+        return true;
+    }
+
+    private Method createClientMethod(String name, Parameter parameter, Interface interfaze,
+            IntrospectedTable introspectedTable) {
+        Method method = new Method(name);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(parameter);
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+
+        if (isAnnotatedClient()) {
+            method.addAnnotation(String.format("@InsertProvider(type=%s.class, method=\"%s\")", //$NON-NLS-1$
+                    FullyQualifiedJavaType.of(introspectedTable.getMyBatis3SqlProviderType()).getShortName(),
+                    name));
+            interfaze.addImportedType(
+                    FullyQualifiedJavaType.of("org.apache.ibatis.annotations.InsertProvider")); //$NON-NLS-1$
+        }
+
+        return method;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable) || isAnnotatedClient()) {
+            return true;
+        }
+
+        String recordType = introspectedTable.getRules().calculateAllFieldsClass()
+                .getFullyQualifiedName();
+
+        XmlElement answer = createStatementElement(UPSERT, recordType);
+        for (String line : getStatementLines(introspectedTable)) {
+            answer.addElement(new TextElement(line));
+        }
+        document.getRootElement().addElement(answer);
+
+        answer = createStatementElement(UPSERT_SELECTIVE, recordType);
+        addDynamicElements(answer, introspectedTable, false);
+        document.getRootElement().addElement(answer);
+
+        if (enableUpsertBatch) {
+            answer = createStatementElement(UPSERT_BATCH, "map"); //$NON-NLS-1$
+            addDynamicElements(answer, introspectedTable, true);
+            document.getRootElement().addElement(answer);
+        }
+
+        return true;
+    }
+
+    private XmlElement createStatementElement(String id, String parameterType) {
+        XmlElement answer = new XmlElement("insert"); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("id", id)); //$NON-NLS-1$
+        answer.addAttribute(new Attribute("parameterType", parameterType)); //$NON-NLS-1$
+        context.getCommentGenerator().addComment(answer);
+        return answer;
+    }
+
+    /**
+     * Adds the upsertSelective statement, or the upsertBatch statement, to an
+     * XML element. The selective statement wraps the column lists in
+     * <code>trim</code> elements that skip null properties, the batch
+     * statement wraps the parameters in a <code>foreach</code> element.
+     */
+    private void addDynamicElements(XmlElement answer, IntrospectedTable introspectedTable,
+            boolean batch) {
+        StringBuilder sb = new StringBuilder();
+        for (Segment segment : getSegments(introspectedTable)) {
+            if (segment.literal != null) {
+                appendLiteral(answer, sb, segment.literal);
+            } else if (batch && segment.part != Part.ROW) {
+                appendItems(answer, sb, introspectedTable, segment.part);
+            } else {
+                flush(answer, sb);
+                if (batch) {
+                    XmlElement foreach = new XmlElement("foreach"); //$NON-NLS-1$
+                    foreach.addAttribute(new Attribute("collection", "records")); //$NON-NLS-1$ //$NON-NLS-2$
+                    foreach.addAttribute(new Attribute("item", "record")); //$NON-NLS-1$ //$NON-NLS-2$
+                    foreach.addAttribute(new Attribute("separator", ",")); //$NON-NLS-1$ //$NON-NLS-2$
+                    StringBuilder row = new StringBuilder();
+                    row.append('(');
+                    List<IntrospectedColumn> columns = getColumns(introspectedTable, Part.ROW);
+                    for (int i = 0; i < columns.size(); i++) {
+                        row.append(getItem(introspectedTable, Part.ROW, columns.get(i), "record.")); //$NON-NLS-1$
+                        if (i + 1 < columns.size()) {
+                            row.append(", "); //$NON-NLS-1$
+                        }
+                        if (row.length() > 80) {
+                            foreach.addElement(new TextElement(row.toString()));
+                            row.setLength(0);
+                            OutputUtilities.xmlIndent(row, 1);
+                        }
+                    }
+                    row.append(')');
+                    foreach.addElement(new TextElement(row.toString()));
+                    answer.addElement(foreach);
+                } else {
+                    answer.addElement(createSelectiveElement(introspectedTable, segment.part));
+                }
+            }
+        }
+        flush(answer, sb);
+    }
+
+    private XmlElement createSelectiveElement(IntrospectedTable introspectedTable, Part part) {
+        XmlElement trim = new XmlElement("trim"); //$NON-NLS-1$
+        if (part == Part.ROW) {
+            trim.addAttribute(new Attribute("prefix", "(")); //$NON-NLS-1$ //$NON-NLS-2$
+            trim.addAttribute(new Attribute("suffix", ")")); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        trim.addAttribute(new Attribute("suffixOverrides", ",")); //$NON-NLS-1$ //$NON-NLS-2$
+
+        List<IntrospectedColumn> columns = getColumns(introspectedTable, part);
+        if (part == Part.UPDATES) {
+            // a record without non-null properties updates a key column to its own value
+            StringBuilder sb = new StringBuilder();
+            for (IntrospectedColumn column : columns) {
+                if (sb.length() > 0) {
+                    sb.append(" and "); //$NON-NLS-1$
+                }
+                sb.append(column.getJavaProperty());
+                sb.append(" == null"); //$NON-NLS-1$
+            }
+            XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+            ifElement.addAttribute(new Attribute("test", sb.toString())); //$NON-NLS-1$
+            ifElement.addElement(new TextElement(getNoOpUpdate(introspectedTable) + ','));
+            trim.addElement(ifElement);
+        }
+
+        for (IntrospectedColumn column : columns) {
+            String item = getItem(introspectedTable, part, column, null) + ',';
+            if (introspectedTable.getPrimaryKeyColumns().contains(column)) {
+                // the key is always needed to find the existing record
+                trim.addElement(new TextElement(item));
+            } else {
+                XmlElement ifElement = new XmlElement("if"); //$NON-NLS-1$
+                ifElement.addAttribute(new Attribute("test", column.getJavaProperty() + " != null")); //$NON-NLS-1$ //$NON-NLS-2$
+                ifElement.addElement(new TextElement(item));
+                trim.addElement(ifElement);
+            }
+        }
+
+        return trim;
+    }
+
+    @Override
+    public boolean providerGenerated(TopLevelClass topLevelClass,
+            IntrospectedTable introspectedTable) {
+        if (!isSupported(introspectedTable) || !isAnnotatedClient()) {
+            return true;
+        }
+
+        FullyQualifiedJavaType recordType = introspectedTable.getRules().calculateAllFieldsClass();
+        topLevelClass.addImportedType(recordType);
+
+        Method method = createProviderMethod(UPSERT, new Parameter(recordType, "record"), //$NON-NLS-1$
+                introspectedTable);
+        List<String> lines = getStatementLines(introspectedTable);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            method.addBodyLine(String.format("sql.append(\"%s\");", //$NON-NLS-1$
+                    escapeStringForJava(i + 1 < lines.size() ? line + ' ' : line)));
+        }
+        method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
+        topLevelClass.addMethod(method);
+
+        method = createProviderMethod(UPSERT_SELECTIVE, new Parameter(recordType, "record"), //$NON-NLS-1$
+                introspectedTable);
+        addProviderBodyLines(method, introspectedTable, false);
+        topLevelClass.addMethod(method);
+
+        if (enableUpsertBatch) {
+            FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+            listType.addTypeArgument(recordType);
+            FullyQualifiedJavaType mapType = FullyQualifiedJavaType.of("java.util.Map<java.lang.String, java.lang.Object>"); //$NON-NLS-1$
+
+            method = createProviderMethod(UPSERT_BATCH, new Parameter(mapType, "parameter"), //$NON-NLS-1$
+                    introspectedTable);
+            method.addAnnotation("@SuppressWarnings(\"unchecked\")"); //$NON-NLS-1$
+            method.addBodyLine(0, String.format("%s records = (%s) parameter.get(\"records\");", //$NON-NLS-1$
+                    listType.getShortName(), listType.getShortName()));
+            addProviderBodyLines(method, introspectedTable, true);
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+            topLevelClass.addImportedType(FullyQualifiedJavaType.getNewMapInstance());
+            topLevelClass.addMethod(method);
+        }
+
+        return true;
+    }
+
+    private Method createProviderMethod(String name, Parameter parameter,
+            IntrospectedTable introspectedTable) {
+        Method method = new Method(name);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addParameter(parameter);
+        context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+        method.addBodyLine("StringBuilder sql = new StringBuilder();"); //$NON-NLS-1$
+        return method;
+    }
+
+    /**
+     * Adds the body of the upsertSelective provider method, or the
+     * upsertBatch provider method. Every item of a selective column list is
+     * followed by a separator, and the last separator is removed after the
+     * list.
+     */
+    private void addProviderBodyLines(Method method, IntrospectedTable introspectedTable,
+            boolean batch) {
+        for (Segment segment : getSegments(introspectedTable)) {
+            if (segment.literal != null) {
+                method.addBodyLine(String.format("sql.append(\"%s\");", //$NON-NLS-1$
+                        escapeStringForJava(segment.literal)));
+                continue;
+            }
+
+            List<IntrospectedColumn> columns = getColumns(introspectedTable, segment.part);
+            if (batch && segment.part == Part.ROW) {
+                method.addBodyLine("for (int i = 0; i < records.size(); i++) {"); //$NON-NLS-1$
+                method.addBodyLine("if (i > 0) {"); //$NON-NLS-1$
+                method.addBodyLine("sql.append(\", \");"); //$NON-NLS-1$
+                method.addBodyLine("}"); //$NON-NLS-1$
+                method.addBodyLine("String record = \"records[\" + i + \"].\";"); //$NON-NLS-1$
+                for (int i = 0; i < columns.size(); i++) {
+                    // #{property,jdbcType=...} - the property is prefixed with the record
+                    String parameterClause = getItem(introspectedTable, Part.ROW, columns.get(i), null);
+                    int property = parameterClause.indexOf("#{") + 2; //$NON-NLS-1$
+                    method.addBodyLine(String.format("sql.append(\"%s%s\").append(record).append(\"%s%s\");", //$NON-NLS-1$
+                            i == 0 ? "(" : ", ", //$NON-NLS-1$ //$NON-NLS-2$
+                            escapeStringForJava(parameterClause.substring(0, property)),
+                            escapeStringForJava(parameterClause.substring(property)),
+                            i + 1 == columns.size() ? ")" : "")); //$NON-NLS-1$ //$NON-NLS-2$
+                }
+                method.addBodyLine("}"); //$NON-NLS-1$
+            } else if (batch) {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        sb.append(", "); //$NON-NLS-1$
+                    }
+                    sb.append(getItem(introspectedTable, segment.part, columns.get(i), null));
+                }
+                method.addBodyLine(String.format("sql.append(\"%s\");", //$NON-NLS-1$
+                        escapeStringForJava(sb.toString())));
+            } else {
+                if (segment.part == Part.ROW) {
+                    method.addBodyLine("sql.append(\"(\");"); //$NON-NLS-1$
+                } else if (segment.part == Part.UPDATES) {
+                    method.addBodyLine("int updates = sql.length();"); //$NON-NLS-1$
+                }
+                for (IntrospectedColumn column : columns) {
+                    String line = String.format("sql.append(\"%s, \");", //$NON-NLS-1$
+                            escapeStringForJava(getItem(introspectedTable, segment.part, column, null)));
+                    if (introspectedTable.getPrimaryKeyColumns().contains(column)) {
+                        method.addBodyLine(line);
+                    } else {
+                        method.addBodyLine(String.format("if (record.%s() != null) {", //$NON-NLS-1$
+                                getGetterMethodName(column.getJavaProperty(), column.getFullyQualifiedJavaType())));
+                        method.addBodyLine(line);
+                        method.addBodyLine("}"); //$NON-NLS-1$
+                    }
+                }
+                if (segment.part == Part.UPDATES) {
+                    // a record without non-null properties updates a key column to its own value
+                    method.addBodyLine("if (sql.length() == updates) {"); //$NON-NLS-1$
+                    method.addBodyLine(String.format("sql.append(\"%s, \");", //$NON-NLS-1$
+                            escapeStringForJava(getNoOpUpdate(introspectedTable))));
+                    method.addBodyLine("}"); //$NON-NLS-1$
+                }
+                method.addBodyLine("sql.setLength(sql.length() - 2);"); //$NON-NLS-1$
+                if (segment.part == Part.ROW) {
+                    method.addBodyLine("sql.append(\")\");"); //$NON-NLS-1$
+                }
+            }
+        }
+        method.addBodyLine("return sql.toString();"); //$NON-NLS-1$
+    }
+
+    /**
+     * Returns the upsert statement with all columns, split into lines.
+     */
+    private List<String> getStatementLines(IntrospectedTable introspectedTable) {
+        XmlElement element = new XmlElement("insert"); //$NON-NLS-1$
+        StringBuilder sb = new StringBuilder();
+        for (Segment segment : getSegments(introspectedTable)) {
+            if (segment.literal != null) {
+                appendLiteral(element, sb, segment.literal);
+            } else {
+                appendItems(element, sb, introspectedTable, segment.part);
+            }
+        }
+        flush(element, sb);
+
+        List<String> answer = new ArrayList<String>();
+        for (int i = 0; i < element.getElements().size(); i++) {
+            answer.add(((TextElement) element.getElements().get(i)).getContent());
+        }
+        return answer;
+    }
+
+    private void appendLiteral(XmlElement element, StringBuilder sb, String literal) {
+        if (literal.startsWith(" ")) { //$NON-NLS-1$
+            flush(element, sb);
+            sb.append(literal.substring(1));
+        } else {
+            sb.append(literal);
+        }
+    }
+
+    private void appendItems(XmlElement element, StringBuilder sb, IntrospectedTable introspectedTable,
+            Part part) {
+        List<IntrospectedColumn> columns = getColumns(introspectedTable, part);
+        if (part == Part.ROW) {
+            sb.append('(');
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            sb.append(getItem(introspectedTable, part, columns.get(i), null));
+            if (i + 1 < columns.size()) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+
+            if (sb.length() > 80) {
+                element.addElement(new TextElement(sb.toString()));
+                sb.setLength(0);
+                OutputUtilities.xmlIndent(sb, 1);
+            }
+        }
+        if (part == Part.ROW) {
+            sb.append(')');
+        }
+    }
+
+    private void flush(XmlElement element, StringBuilder sb) {
+        int length = sb.length();
+        while (length > 0 && sb.charAt(length - 1) == ' ') {
+            length--;
+        }
+        sb.setLength(length);
+        if (stringHasValue(sb.toString().trim())) {
+            element.addElement(new TextElement(sb.toString()));
+        }
+        sb.setLength(0);
+    }
+
+    private List<Segment> getSegments(IntrospectedTable introspectedTable) {
+        String tableName = introspectedTable.getFullyQualifiedTableNameAtRuntime();
+        List<Segment> answer = new ArrayList<Segment>();
+
+        StringBuilder sb = new StringBuilder();
+        if (dialect == DatabaseDialects.HSQLDB) {
+            addLiteral(answer, "merge into " + tableName + " using (values "); //$NON-NLS-1$ //$NON-NLS-2$
+            addPart(answer, Part.ROW);
+            addLiteral(answer, ") as vals ("); //$NON-NLS-1$
+            addPart(answer, Part.COLUMNS);
+            sb.append(") on "); //$NON-NLS-1$
+            List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+            for (int i = 0; i < keyColumns.size(); i++) {
+                IntrospectedColumn column = keyColumns.get(i);
+                if (i > 0) {
+                    sb.append(" and "); //$NON-NLS-1$
+                }
+                sb.append(tableName);
+                sb.append('.');
+                sb.append(getEscapedColumnName(column));
+                sb.append(" = vals."); //$NON-NLS-1$
+                sb.append(getEscapedColumnName(column));
+            }
+            addLiteral(answer, sb.toString());
+            addLiteral(answer, " when matched then update set "); //$NON-NLS-1$
+            addPart(answer, Part.UPDATES);
+            addLiteral(answer, " when not matched then insert ("); //$NON-NLS-1$
+            addPart(answer, Part.COLUMNS);
+            addLiteral(answer, ") values ("); //$NON-NLS-1$
+            addPart(answer, Part.MERGE_VALUES);
+            addLiteral(answer, ")"); //$NON-NLS-1$
+        } else {
+            addLiteral(answer, "insert into " + tableName + " ("); //$NON-NLS-1$ //$NON-NLS-2$
+            addPart(answer, Part.COLUMNS);
+            addLiteral(answer, ") values "); //$NON-NLS-1$
+            addPart(answer, Part.ROW);
+            if (dialect == DatabaseDialects.MYSQL) {
+                addLiteral(answer, " on duplicate key update "); //$NON-NLS-1$
+            } else {
+                sb.append(" on conflict ("); //$NON-NLS-1$
+                List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+                for (int i = 0; i < keyColumns.size(); i++) {
+                    if (i > 0) {
+                        sb.append(", "); //$NON-NLS-1$
+                    }
+                    sb.append(getEscapedColumnName(keyColumns.get(i)));
+                }
+                sb.append(") do update set "); //$NON-NLS-1$
+                addLiteral(answer, sb.toString());
+            }
+            addPart(answer, Part.UPDATES);
+        }
+
+        return answer;
+    }
+
+    private void addLiteral(List<Segment> segments, String literal) {
+        segments.add(new Segment(literal, null));
+    }
+
+    private void addPart(List<Segment> segments, Part part) {
+        segments.add(new Segment(null, part));
+    }
+
+    /**
+     * All columns but the generated always columns are inserted, and all of
+     * them but the key columns are updated.
+     */
+    private List<IntrospectedColumn> getColumns(IntrospectedTable introspectedTable, Part part) {
+        if (part == Part.UPDATES) {
+            return ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns());
+        } else {
+            return ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getAllColumns());
+        }
+    }
+
+    private String getItem(IntrospectedTable introspectedTable, Part part, IntrospectedColumn column,
+            String prefix) {
+        String columnName = getEscapedColumnName(column);
+        switch (part) {
+        case ROW:
+            if (dialect == DatabaseDialects.HSQLDB) {
+                // the parameters of a VALUES list have no type of their own
+                return "cast(" + getParameterClause(column, prefix) //$NON-NLS-1$
+                        + " as " + getSqlType(column) + ')'; //$NON-NLS-1$
+            }
+            return getParameterClause(column, prefix);
+        case MERGE_VALUES:
+            return "vals." + columnName; //$NON-NLS-1$
+        case UPDATES:
+            if (dialect == DatabaseDialects.MYSQL) {
+                return columnName + " = values(" + columnName + ')'; //$NON-NLS-1$
+            } else if (dialect == DatabaseDialects.POSTGRESQL) {
+                return columnName + " = excluded." + columnName; //$NON-NLS-1$
+            } else {
+                return introspectedTable.getFullyQualifiedTableNameAtRuntime() + '.' + columnName
+                        + " = vals." + columnName; //$NON-NLS-1$
+            }
+        default:
+            return columnName;
+        }
+    }
+
+    /**
+     * Returns the assignment of an upsertSelective statement whose record has
+     * no non-null properties. The statement still needs an update clause, so
+     * the first key column is set to the value it already has.
+     */
+    private String getNoOpUpdate(IntrospectedTable introspectedTable) {
+        return getItem(introspectedTable, Part.UPDATES, introspectedTable.getPrimaryKeyColumns().get(0), null);
+    }
+
+    /**
+     * Returns the SQL type of a column for a CAST, with the length of
+     * character and binary columns and the precision of decimal columns.
+     */
+    private String getSqlType(IntrospectedColumn column) {
+        String typeName = column.getJdbcTypeName();
+        switch (column.getJdbcType()) {
+        case Types.CHAR:
+        case Types.VARCHAR:
+        case Types.NCHAR:
+        case Types.NVARCHAR:
+        case Types.BINARY:
+        case Types.VARBINARY:
+            return column.getLength() > 0 ? typeName + '(' + column.getLength() + ')' : typeName;
+        case Types.DECIMAL:
+        case Types.NUMERIC:
+            return column.getLength() > 0
+                    ? typeName + '(' + column.getLength() + ", " + column.getScale() + ')' //$NON-NLS-1$
+                    : typeName;
+        default:
+            return typeName;
+        }
+    }
+
+    /**
+     * The conflict target of an upsert is the primary key, and a table whose
+     * columns are all key columns has nothing to update. Annotated mappers
+     * get their upserts from the SQL provider, so the provider must exist.
+     */
+    private boolean isSupported(IntrospectedTable introspectedTable) {
+        return introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3
+                && introspectedTable.hasPrimaryKeyColumns()
+                && !getColumns(introspectedTable, Part.UPDATES).isEmpty()
+                && (!isAnnotatedClient() || isSqlProviderGenerated(introspectedTable));
+    }
+}
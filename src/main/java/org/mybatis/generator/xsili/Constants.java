@@ -16,6 +16,17 @@ public class Constants {
     public static final String KEY_LOGIC_DELETED_FIELD = "logicDeletedField";
     /** 标识当前记录所有者的字段 */
     public static final String KEY_OWNER_FIELD = "ownerField";
+    /** 开启游标(keyset)分页 */
+    public static final String KEY_KEYSET_PAGINATION = "keysetPagination";
+    /** 游标分页的排序字段, 必须唯一且非空, 默认为单列主键. 可以在table上覆盖 */
+    public static final String KEY_KEYSET_FIELD = "keysetField";
+    /** 列表分页的总数统计方式: exact(默认, COUNT), none(不统计, 多查一条判断是否有下一页), approximate(读取表统计信息). 可以在table上覆盖 */
+    public static final String KEY_PAGINATION_COUNT_MODE = "paginationCountMode";
+    public static final String COUNT_MODE_EXACT = "exact";
+    public static final String COUNT_MODE_NONE = "none";
+    public static final String COUNT_MODE_APPROXIMATE = "approximate";
+    /** 数据库类型, approximate统计方式必填: MySQL, PostgreSQL */
+    public static final String KEY_DATABASE_DIALECT = "databaseDialect";
     
     public static final String KEY_BUSINESS_EXCEPTION_QUALIFIED_NAME = "businessExceptionQualifiedName";
     
@@ -4,11 +4,17 @@
  */
 package org.mybatis.generator.xsili;
 
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.IntrospectedTable.TargetRuntime;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.xsili.plugins.MybatisPaginationPlugin;
 import org.mybatis.generator.xsili.plugins.util.PluginUtils;
 
 /**
@@ -69,6 +75,86 @@ public class GenHelper {
         return null;
     }
 
+    /**
+     * 获取游标分页的排序列
+     * 
+     * @param introspectedTable
+     * @return 未开启游标分页, 不支持分页语句, 或者复合主键且没有配置keysetField时返回null
+     */
+    public static IntrospectedColumn getKeysetColumn(IntrospectedTable introspectedTable) {
+        if (!Boolean.parseBoolean(introspectedTable.getContext().getProperty(Constants.KEY_KEYSET_PAGINATION))
+            || !isPaginationStatementSupported(introspectedTable)) {
+            return null;
+        }
+
+        String fieldName = introspectedTable.getTableConfigurationProperty(Constants.KEY_KEYSET_FIELD);
+        if (StringUtils.isBlank(fieldName)) {
+            fieldName = introspectedTable.getContext().getProperty(Constants.KEY_KEYSET_FIELD);
+        }
+        if (StringUtils.isNotBlank(fieldName)) {
+            return getFieldByName(introspectedTable, fieldName);
+        }
+
+        List<IntrospectedColumn> primaryKeyColumns = introspectedTable.getPrimaryKeyColumns();
+        return primaryKeyColumns.size() == 1 ? primaryKeyColumns.get(0) : null;
+    }
+
+    /**
+     * 获取列表分页的总数统计方式
+     * 
+     * @param introspectedTable
+     * @return Constants.COUNT_MODE_*, 不支持分页语句时返回exact
+     */
+    public static String getPaginationCountMode(IntrospectedTable introspectedTable) {
+        String countMode = introspectedTable.getTableConfigurationProperty(Constants.KEY_PAGINATION_COUNT_MODE);
+        if (StringUtils.isBlank(countMode)) {
+            countMode = introspectedTable.getContext().getProperty(Constants.KEY_PAGINATION_COUNT_MODE);
+        }
+        if (StringUtils.isBlank(countMode) || Constants.COUNT_MODE_EXACT.equals(countMode)) {
+            return Constants.COUNT_MODE_EXACT;
+        }
+        if (!Constants.COUNT_MODE_NONE.equals(countMode) && !Constants.COUNT_MODE_APPROXIMATE.equals(countMode)) {
+            throw new RuntimeException("property " + Constants.KEY_PAGINATION_COUNT_MODE + " is invalid: " + countMode);
+        }
+        return isPaginationStatementSupported(introspectedTable) ? countMode : Constants.COUNT_MODE_EXACT;
+    }
+
+    /**
+     * 分页插件追加的mapper语句只支持配置了分页插件, 并且生成了mapper.xml和Example的MyBatis3
+     * 
+     * @param introspectedTable
+     * @return
+     */
+    public static boolean isPaginationStatementSupported(IntrospectedTable introspectedTable) {
+        Context context = introspectedTable.getContext();
+        return isPaginationPluginConfigured(context)
+               && introspectedTable.getTargetRuntime() == TargetRuntime.MYBATIS3
+               && introspectedTable.getRules().generateExampleClass()
+               && context.getSqlMapGeneratorConfiguration() != null
+               && context.getJavaClientGeneratorConfiguration() != null
+               && !"ANNOTATEDMAPPER".equalsIgnoreCase(context.getJavaClientGeneratorConfiguration().getConfigurationType());
+    }
+
+    /**
+     * context是否配置了分页插件(或其子类), 没有分页插件时mapper没有分页插件追加的语句
+     * 
+     * @param context
+     * @return
+     */
+    public static boolean isPaginationPluginConfigured(Context context) {
+        for (PluginConfiguration pluginConfiguration : context.getPluginConfigurations()) {
+            String type = pluginConfiguration.getConfigurationType();
+            try {
+                if (type != null && MybatisPaginationPlugin.class.isAssignableFrom(ObjectFactory.internalClassForName(type))) {
+                    return true;
+                }
+            } catch (ClassNotFoundException e) {
+                // 插件类加载失败时生成本身会失败
+            }
+        }
+        return false;
+    }
+
     public static String getLogicDeletedField(IntrospectedTable introspectedTable) {
     	return PluginUtils.getPropertyNotNull(introspectedTable.getContext(), Constants.KEY_LOGIC_DELETED_FIELD);
     }
@@ -89,9 +175,9 @@ public class GenHelper {
     public static FullyQualifiedJavaType getBusinessExceptionType(Context context) {
         String businessExceptionName = context.getProperty(Constants.KEY_BUSINESS_EXCEPTION_QUALIFIED_NAME);
         if (StringUtils.isNotBlank(businessExceptionName)) {
-            return new FullyQualifiedJavaType(businessExceptionName);
+            return FullyQualifiedJavaType.of(businessExceptionName);
         } else {
-            return new FullyQualifiedJavaType("java.lang.RuntimeException");
+            return FullyQualifiedJavaType.of("java.lang.RuntimeException");
         }
     }
     
@@ -103,7 +189,7 @@ public class GenHelper {
     public static FullyQualifiedJavaType getBaseEntityType(Context context) {
         String baseEntityName = context.getProperty(Constants.key_base_entity_qualified_name);
         if (StringUtils.isNotBlank(baseEntityName)) {
-            return new FullyQualifiedJavaType(baseEntityName);
+            return FullyQualifiedJavaType.of(baseEntityName);
         } else {
             return null;
         }
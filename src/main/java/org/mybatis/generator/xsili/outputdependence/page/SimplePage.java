@@ -6,10 +6,15 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class SimplePage<T> implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** 未统计总数时的totalCount, totalPage */
+    public static final int UNKNOWN_TOTAL = -1;
+
     /** 数据集合 */
     private List<T> rows;
 
@@ -22,9 +27,13 @@ public class SimplePage<T> implements Serializable {
     /** 总页数 */
     private int totalPage;
 
-    /** 总记录数 */
+    /** 总记录数, 未统计时为UNKNOWN_TOTAL */
     private long totalCount;
 
+    /** 是否有下一页, 不统计总数时通过多查一条记录得到. 精确统计时为null, 不输出 */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasNext;
+
     private SimplePage() {
     }
 
@@ -71,6 +80,14 @@ public class SimplePage<T> implements Serializable {
         this.totalCount = totalCount;
     }
 
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
     /**
      * jpa分页查询转换
      * 
@@ -111,6 +128,43 @@ public class SimplePage<T> implements Serializable {
         return simplePage;
     }
 
+    /**
+     * 不统计总数的分页, totalCount和totalPage为UNKNOWN_TOTAL
+     * 
+     * @param rows 查询pageSize + 1条记录的结果, 多出的一条只用于判断是否有下一页
+     * @param pageNum 当前页码
+     * @param pageSize 限制记录条数
+     * @return
+     */
+    public static <T> SimplePage<T> buildNextPage(List<T> rows, int pageNum, int pageSize) {
+        SimplePage<T> simplePage = new SimplePage<T>();
+        simplePage.setHasNext(rows.size() > pageSize);
+        simplePage.setRows(rows.size() > pageSize ? new ArrayList<T>(rows.subList(0, pageSize)) : rows);
+        simplePage.setPageNum(pageNum);
+        simplePage.setPageSize(pageSize);
+        simplePage.setTotalCount(UNKNOWN_TOTAL);
+        simplePage.setTotalPage(UNKNOWN_TOTAL);
+        return simplePage;
+    }
+
+    /**
+     * 总数为估算值的分页, 估算值小于已查到的记录数时以已查到的为准
+     * 
+     * @param rows 查询pageSize + 1条记录的结果, 多出的一条只用于判断是否有下一页
+     * @param pageNum 当前页码, 从1开始
+     * @param pageSize 限制记录条数
+     * @param approximateCount 表统计信息中的记录数
+     * @return
+     */
+    public static <T> SimplePage<T> buildApproximatePage(List<T> rows, int pageNum, int pageSize, long approximateCount) {
+        SimplePage<T> simplePage = buildNextPage(rows, pageNum, pageSize);
+        long knownCount = (long) (pageNum - 1) * pageSize + rows.size();
+        long totalCount = Math.max(approximateCount, knownCount);
+        simplePage.setTotalCount(totalCount);
+        simplePage.setTotalPage(getTotalPage(totalCount, pageSize));
+        return simplePage;
+    }
+
     /**
      * 默认pageSize 10
      * 
@@ -167,6 +221,9 @@ public class SimplePage<T> implements Serializable {
 	 * @return
 	 */
 	public boolean getIsLast() {
+		if (hasNext != null) {
+			return !hasNext;
+		}
 		return pageNum >= totalPage - 1;
 	}
     
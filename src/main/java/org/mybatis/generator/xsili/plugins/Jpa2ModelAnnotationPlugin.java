@@ -21,6 +21,7 @@ import java.util.Properties;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafePlugin;
 import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.PrimitiveTypeWrapper;
@@ -34,18 +35,18 @@ import org.mybatis.generator.xsili.plugins.util.PluginUtils;
  * @author 叶鹏
  * @date 2017年12月12日
  */
-public class Jpa2ModelAnnotationPlugin extends PluginAdapter {
+public class Jpa2ModelAnnotationPlugin extends PluginAdapter implements ThreadSafePlugin {
 
-    private static final FullyQualifiedJavaType ANNOTATION_CLASS_ENTITY = new FullyQualifiedJavaType("javax.persistence.Entity");
-    private static final FullyQualifiedJavaType ANNOTATION_CLASS_TABLE = new FullyQualifiedJavaType("javax.persistence.Table");
-    private static final FullyQualifiedJavaType ANNOTATION_CLASS_COLUMN = new FullyQualifiedJavaType("javax.persistence.Column");
-    private static final FullyQualifiedJavaType ANNOTATION_CLASS_ID = new FullyQualifiedJavaType("javax.persistence.Id");
+    private static final FullyQualifiedJavaType ANNOTATION_CLASS_ENTITY = FullyQualifiedJavaType.of("javax.persistence.Entity");
+    private static final FullyQualifiedJavaType ANNOTATION_CLASS_TABLE = FullyQualifiedJavaType.of("javax.persistence.Table");
+    private static final FullyQualifiedJavaType ANNOTATION_CLASS_COLUMN = FullyQualifiedJavaType.of("javax.persistence.Column");
+    private static final FullyQualifiedJavaType ANNOTATION_CLASS_ID = FullyQualifiedJavaType.of("javax.persistence.Id");
 
-    private static final FullyQualifiedJavaType ANNOTATION_CLASS_GENERATED_VALUE = new FullyQualifiedJavaType("javax.persistence.GeneratedValue");
-    private static final FullyQualifiedJavaType CLASS_GENERATION_TYPE = new FullyQualifiedJavaType("javax.persistence.GenerationType");
+    private static final FullyQualifiedJavaType ANNOTATION_CLASS_GENERATED_VALUE = FullyQualifiedJavaType.of("javax.persistence.GeneratedValue");
+    private static final FullyQualifiedJavaType CLASS_GENERATION_TYPE = FullyQualifiedJavaType.of("javax.persistence.GenerationType");
 
-    private static final FullyQualifiedJavaType ANNOTATION_CLASS_ENUMERATED = new FullyQualifiedJavaType("javax.persistence.Enumerated");
-    private static final FullyQualifiedJavaType CLASS_ENUM_TYPE = new FullyQualifiedJavaType("javax.persistence.EnumType");
+    private static final FullyQualifiedJavaType ANNOTATION_CLASS_ENUMERATED = FullyQualifiedJavaType.of("javax.persistence.Enumerated");
+    private static final FullyQualifiedJavaType CLASS_ENUM_TYPE = FullyQualifiedJavaType.of("javax.persistence.EnumType");
 
     @Override
     public void setProperties(Properties properties) {
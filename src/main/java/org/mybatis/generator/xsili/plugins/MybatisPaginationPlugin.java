@@ -3,21 +3,44 @@ package org.mybatis.generator.xsili.plugins;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafePlugin;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
 import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.codegen.mybatis3.xmlmapper.elements.ExampleWhereClauseElementGenerator;
+import org.mybatis.generator.xsili.Constants;
+import org.mybatis.generator.xsili.GenHelper;
 
 /**
  * 分页插件,<br>
- * 添加生成代码到 Criteria 和 mapper.xml
+ * 添加生成代码到 Criteria 和 mapper.xml<br>
+ * 开启游标分页(context属性keysetPagination)时, mapper添加 selectByExampleAfter(example, lastKey, limit),
+ * 按游标列升序查询游标之后的limit条记录, 不需要扫描并丢弃前面的记录<br>
+ * 总数统计方式(context属性paginationCountMode)为none或approximate时, mapper添加 selectByExampleLimit(example, offset, limit),
+ * 不经过分页拦截器, 不执行COUNT; approximate时另外添加 countApproximately(), 从表统计信息读取估算的记录数
  * 
  * @since 2.0.0
  * @author 叶鹏
  * @date 2017年8月25日
  */
-public class MybatisPaginationPlugin extends PluginAdapter {
+public class MybatisPaginationPlugin extends PluginAdapter implements ThreadSafePlugin {
+
+    public static final String SELECT_BY_EXAMPLE_AFTER = "selectByExampleAfter";
+    public static final String SELECT_BY_EXAMPLE_LIMIT = "selectByExampleLimit";
+    public static final String COUNT_APPROXIMATELY = "countApproximately";
 
     private FullyQualifiedJavaType queryParamType;
 
@@ -26,7 +49,7 @@ public class MybatisPaginationPlugin extends PluginAdapter {
         if (StringUtils.isBlank(queryParam)) {
             throw new RuntimeException("property queryParam is null");
         } else {
-            queryParamType = new FullyQualifiedJavaType(queryParam);
+            queryParamType = FullyQualifiedJavaType.of(queryParam);
         }
 
         return true;
@@ -59,4 +82,227 @@ public class MybatisPaginationPlugin extends PluginAdapter {
         return super.sqlMapUpdateByExampleWithoutBLOBsElementGenerated(element, introspectedTable);
     }
 
+    @Override
+    public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+        IntrospectedColumn keysetColumn = GenHelper.getKeysetColumn(introspectedTable);
+        if (keysetColumn != null) {
+            Method method = newSelectMethod(interfaze, introspectedTable, SELECT_BY_EXAMPLE_AFTER);
+            method.addParameter(new Parameter(keysetColumn.getFullyQualifiedJavaType(), "lastKey", "@Param(\"lastKey\")"));
+            method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "limit", "@Param(\"limit\")"));
+            context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+            interfaze.addImportedType(keysetColumn.getFullyQualifiedJavaType());
+            interfaze.addMethod(method);
+        }
+
+        String countMode = GenHelper.getPaginationCountMode(introspectedTable);
+        if (!Constants.COUNT_MODE_EXACT.equals(countMode)) {
+            Method method = newSelectMethod(interfaze, introspectedTable, SELECT_BY_EXAMPLE_LIMIT);
+            method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "offset", "@Param(\"offset\")"));
+            method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "limit", "@Param(\"limit\")"));
+            context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+            interfaze.addMethod(method);
+        }
+        if (Constants.COUNT_MODE_APPROXIMATE.equals(countMode)) {
+            Method method = new Method(COUNT_APPROXIMATELY);
+            method.setVisibility(JavaVisibility.PUBLIC);
+            method.setReturnType(FullyQualifiedJavaType.of("long"));
+            context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+            interfaze.addMethod(method);
+        }
+
+        return true;
+    }
+
+    /**
+     * List&lt;Record&gt; method(@Param("example") Example example, ...), 其余参数由调用方添加
+     */
+    private Method newSelectMethod(Interface interfaze, IntrospectedTable introspectedTable, String methodName) {
+        FullyQualifiedJavaType recordType = getRecordType(introspectedTable);
+        FullyQualifiedJavaType exampleType = FullyQualifiedJavaType.of(introspectedTable.getExampleType());
+        FullyQualifiedJavaType returnType = FullyQualifiedJavaType.getNewListInstance();
+        returnType.addTypeArgument(recordType);
+
+        Method method = new Method(methodName);
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(returnType);
+        method.addParameter(new Parameter(exampleType, "example", "@Param(\"example\")"));
+
+        interfaze.addImportedType(FullyQualifiedJavaType.of("org.apache.ibatis.annotations.Param"));
+        interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+        interfaze.addImportedType(recordType);
+        interfaze.addImportedType(exampleType);
+        return method;
+    }
+
+    @Override
+    public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+        IntrospectedColumn keysetColumn = GenHelper.getKeysetColumn(introspectedTable);
+        if (keysetColumn != null) {
+            document.getRootElement().addElement(getSelectByExampleAfterElement(introspectedTable, keysetColumn));
+        }
+
+        String countMode = GenHelper.getPaginationCountMode(introspectedTable);
+        if (!Constants.COUNT_MODE_EXACT.equals(countMode)) {
+            document.getRootElement().addElement(getSelectByExampleLimitElement(introspectedTable));
+        }
+        if (Constants.COUNT_MODE_APPROXIMATE.equals(countMode)) {
+            document.getRootElement().addElement(getCountApproximatelyElement(introspectedTable));
+        }
+        return true;
+    }
+
+    private XmlElement getSelectByExampleAfterElement(IntrospectedTable introspectedTable, IntrospectedColumn keysetColumn) {
+        XmlElement answer = newSelectElement(introspectedTable, SELECT_BY_EXAMPLE_AFTER);
+
+        // where 游标条件 and (example条件)
+        String columnName = MyBatis3FormattingUtilities.getAliasedEscapedColumnName(keysetColumn);
+        String parameterClause = MyBatis3FormattingUtilities.getParameterClause(keysetColumn);
+        XmlElement whereElement = new XmlElement("where");
+        XmlElement lastKeyElement = new XmlElement("if");
+        lastKeyElement.addAttribute(new Attribute("test", "lastKey != null"));
+        lastKeyElement.addElement(new TextElement(columnName + " &gt; #{lastKey" + parameterClause.substring(parameterClause.indexOf(','))));
+        whereElement.addElement(lastKeyElement);
+
+        XmlElement criteriaElement = getOredCriteriaElement(introspectedTable);
+        if (criteriaElement != null) {
+            XmlElement exampleElement = new XmlElement("if");
+            exampleElement.addAttribute(new Attribute("test", "example != null"));
+            XmlElement trimElement = new XmlElement("trim");
+            trimElement.addAttribute(new Attribute("prefix", "and ("));
+            trimElement.addAttribute(new Attribute("suffix", ")"));
+            trimElement.addElement(criteriaElement);
+            exampleElement.addElement(trimElement);
+            whereElement.addElement(exampleElement);
+        }
+        answer.addElement(whereElement);
+
+        answer.addElement(new TextElement("order by " + columnName));
+        answer.addElement(new TextElement("limit #{limit}"));
+        return answer;
+    }
+
+    private XmlElement getSelectByExampleLimitElement(IntrospectedTable introspectedTable) {
+        XmlElement answer = newSelectElement(introspectedTable, SELECT_BY_EXAMPLE_LIMIT);
+
+        XmlElement criteriaElement = getOredCriteriaElement(introspectedTable);
+        if (criteriaElement != null) {
+            XmlElement whereElement = new XmlElement("where");
+            XmlElement exampleElement = new XmlElement("if");
+            exampleElement.addAttribute(new Attribute("test", "example != null"));
+            exampleElement.addElement(criteriaElement);
+            whereElement.addElement(exampleElement);
+            answer.addElement(whereElement);
+        }
+
+        XmlElement orderByElement = new XmlElement("if");
+        orderByElement.addAttribute(new Attribute("test", "example != null and example.orderByClause != null"));
+        orderByElement.addElement(new TextElement("order by ${example.orderByClause}"));
+        answer.addElement(orderByElement);
+        answer.addElement(new TextElement("limit #{limit} offset #{offset}"));
+        return answer;
+    }
+
+    /**
+     * 从表统计信息读取估算的记录数, InnoDB下不需要扫描索引.<br>
+     * 统计信息不存在时返回0. 表名按数据库中的实际大小写作为字符串比较, 不受标识符引号和大小写转换的影响
+     * 
+     * @param introspectedTable
+     * @return
+     */
+    private XmlElement getCountApproximatelyElement(IntrospectedTable introspectedTable) {
+        String dialect = context.getProperty(Constants.KEY_DATABASE_DIALECT);
+        FullyQualifiedTable table = introspectedTable.getFullyQualifiedTable();
+        String tableName = toSqlLiteral(table.getIntrospectedTableName());
+        String sql;
+        if ("MySQL".equalsIgnoreCase(dialect)) {
+            sql = "select table_rows from information_schema.tables where table_schema = "
+                  + (StringUtils.isBlank(table.getIntrospectedCatalog()) ? "database()" : toSqlLiteral(table.getIntrospectedCatalog()))
+                  + " and table_name = " + tableName;
+        } else if ("PostgreSQL".equalsIgnoreCase(dialect)) {
+            // reltuples在从未analyze的表上为-1
+            sql = "select greatest(c.reltuples, 0)::bigint from pg_class c join pg_namespace n on n.oid = c.relnamespace"
+                  + " where c.relname = " + tableName + " and n.nspname = "
+                  + (StringUtils.isBlank(table.getIntrospectedSchema()) ? "current_schema()" : toSqlLiteral(table.getIntrospectedSchema()));
+        } else {
+            throw new RuntimeException("property " + Constants.KEY_DATABASE_DIALECT + " must be MySQL or PostgreSQL when "
+                                       + Constants.KEY_PAGINATION_COUNT_MODE + " is " + Constants.COUNT_MODE_APPROXIMATE);
+        }
+
+        XmlElement answer = new XmlElement("select");
+        answer.addAttribute(new Attribute("id", COUNT_APPROXIMATELY));
+        answer.addAttribute(new Attribute("resultType", "java.lang.Long"));
+        context.getCommentGenerator().addComment(answer);
+        // 没有统计信息时子查询没有结果, coalesce保证总是返回一行
+        answer.addElement(new TextElement("select coalesce((" + sql + "), 0)"));
+        return answer;
+    }
+
+    private static String toSqlLiteral(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    /**
+     * select [distinct] 所有列 from 表, 参数为map, example参数名为example
+     */
+    private XmlElement newSelectElement(IntrospectedTable introspectedTable, String id) {
+        XmlElement answer = new XmlElement("select");
+        answer.addAttribute(new Attribute("id", id));
+        if (introspectedTable.getRules().generateResultMapWithBLOBs()) {
+            answer.addAttribute(new Attribute("resultMap", introspectedTable.getResultMapWithBLOBsId()));
+        } else {
+            answer.addAttribute(new Attribute("resultMap", introspectedTable.getBaseResultMapId()));
+        }
+        answer.addAttribute(new Attribute("parameterType", "map"));
+        context.getCommentGenerator().addComment(answer);
+
+        answer.addElement(new TextElement("select"));
+        XmlElement distinctElement = new XmlElement("if");
+        distinctElement.addAttribute(new Attribute("test", "example != null and example.distinct"));
+        distinctElement.addElement(new TextElement("distinct"));
+        answer.addElement(distinctElement);
+
+        XmlElement includeElement = new XmlElement("include");
+        includeElement.addAttribute(new Attribute("refid", introspectedTable.getBaseColumnListId()));
+        answer.addElement(includeElement);
+        if (introspectedTable.getRules().generateResultMapWithBLOBs()) {
+            answer.addElement(new TextElement(","));
+            includeElement = new XmlElement("include");
+            includeElement.addAttribute(new Attribute("refid", introspectedTable.getBlobColumnListId()));
+            answer.addElement(includeElement);
+        }
+        answer.addElement(new TextElement("from " + introspectedTable.getAliasedFullyQualifiedTableNameAtRuntime()));
+        return answer;
+    }
+
+    /**
+     * 复用 Update_By_Example_Where_Clause 的条件(参数前缀为example.), 返回其中的 &lt;foreach collection="example.oredCriteria"&gt;
+     * 
+     * @param introspectedTable
+     * @return maybe null
+     */
+    private XmlElement getOredCriteriaElement(IntrospectedTable introspectedTable) {
+        ExampleWhereClauseElementGenerator generator = new ExampleWhereClauseElementGenerator(true);
+        generator.setContext(context);
+        generator.setIntrospectedTable(introspectedTable);
+        XmlElement parentElement = new XmlElement("mapper");
+        generator.addElements(parentElement);
+
+        for (Element sqlElement : parentElement.getElements()) {
+            for (Element whereElement : ((XmlElement) sqlElement).getElements()) {
+                if (whereElement instanceof XmlElement && "where".equals(((XmlElement) whereElement).getName())) {
+                    return (XmlElement) ((XmlElement) whereElement).getElements().get(0);
+                }
+            }
+        }
+        return null;
+    }
+
+    private FullyQualifiedJavaType getRecordType(IntrospectedTable introspectedTable) {
+        if (introspectedTable.getRules().generateResultMapWithBLOBs()) {
+            return introspectedTable.getRules().calculateAllFieldsClass();
+        } else {
+            return FullyQualifiedJavaType.of(introspectedTable.getBaseRecordType());
+        }
+    }
+
 }
@@ -17,6 +17,7 @@ import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.xsili.Constants;
 import org.mybatis.generator.xsili.GenHelper;
 import org.mybatis.generator.xsili.plugins.testplugins.Jpa2RepositoryTestPlugin;
 import org.mybatis.generator.xsili.plugins.util.PluginUtils;
@@ -53,14 +54,14 @@ public class ServicePlugin extends PluginAdapter {
     private FullyQualifiedJavaType modelSubCriteriaType;
     private FullyQualifiedJavaType businessExceptionType;
 
-    private FullyQualifiedJavaType listType = new FullyQualifiedJavaType("java.util.List");
+    private FullyQualifiedJavaType listType = FullyQualifiedJavaType.of("java.util.List");
     
-    private FullyQualifiedJavaType slf4jLogger = new FullyQualifiedJavaType("org.slf4j.Logger");
-    private FullyQualifiedJavaType slf4jLoggerFactory = new FullyQualifiedJavaType("org.slf4j.LoggerFactory");
+    private FullyQualifiedJavaType slf4jLogger = FullyQualifiedJavaType.of("org.slf4j.Logger");
+    private FullyQualifiedJavaType slf4jLoggerFactory = FullyQualifiedJavaType.of("org.slf4j.LoggerFactory");
     
-    private FullyQualifiedJavaType annotationAutowired = new FullyQualifiedJavaType("org.springframework.beans.factory.annotation.Autowired");
-    private FullyQualifiedJavaType annotationService = new FullyQualifiedJavaType("org.springframework.stereotype.Service");
-    private FullyQualifiedJavaType annotationTransactional = new FullyQualifiedJavaType("org.springframework.transaction.annotation.Transactional");
+    private FullyQualifiedJavaType annotationAutowired = FullyQualifiedJavaType.of("org.springframework.beans.factory.annotation.Autowired");
+    private FullyQualifiedJavaType annotationService = FullyQualifiedJavaType.of("org.springframework.stereotype.Service");
+    private FullyQualifiedJavaType annotationTransactional = FullyQualifiedJavaType.of("org.springframework.transaction.annotation.Transactional");
 
     public ServicePlugin() {
         super();
@@ -72,12 +73,12 @@ public class ServicePlugin extends PluginAdapter {
         if (StringUtils.isBlank(page)) {
             throw new RuntimeException("property page is null");
         } else {
-            pageType = new FullyQualifiedJavaType(page);
+            pageType = FullyQualifiedJavaType.of(page);
         }
 
         String idGenerator = properties.getProperty("idGenerator");
         if (StringUtils.isNotBlank(idGenerator)) {
-            idGeneratorType = new FullyQualifiedJavaType(idGenerator);
+            idGeneratorType = FullyQualifiedJavaType.of(idGenerator);
         }
 
         businessExceptionType = GenHelper.getBusinessExceptionType(context);
@@ -97,11 +98,11 @@ public class ServicePlugin extends PluginAdapter {
 
 //        baseModelType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
         allFieldModelType = introspectedTable.getRules().calculateAllFieldsClass();
-        mapperType = new FullyQualifiedJavaType(introspectedTable.getMyBatis3JavaMapperType());
-        serviceInterfaceType = new FullyQualifiedJavaType(servicePackage + "." + tableName + "Service");
-        serviceType = new FullyQualifiedJavaType(serviceImplPackage + "." + tableName + "ServiceImpl");
-        modelCriteriaType = new FullyQualifiedJavaType(introspectedTable.getExampleType());
-        modelSubCriteriaType = new FullyQualifiedJavaType(introspectedTable.getExampleType() + ".Criteria");
+        mapperType = FullyQualifiedJavaType.of(introspectedTable.getMyBatis3JavaMapperType());
+        serviceInterfaceType = FullyQualifiedJavaType.of(servicePackage + "." + tableName + "Service");
+        serviceType = FullyQualifiedJavaType.of(serviceImplPackage + "." + tableName + "ServiceImpl");
+        modelCriteriaType = FullyQualifiedJavaType.of(introspectedTable.getExampleType());
+        modelSubCriteriaType = FullyQualifiedJavaType.of(introspectedTable.getExampleType() + ".Criteria");
 
         // 初始化Service父类/接口
         // 注意: 需要在allFieldModelType之后初始化
@@ -272,6 +273,19 @@ public class ServicePlugin extends PluginAdapter {
         listMethodImpl.addAnnotation("@Override");
         serviceImplClass.addMethod(listMethodImpl);
 
+        // listAfter, 游标分页
+        IntrospectedColumn keysetColumn = GenHelper.getKeysetColumn(introspectedTable);
+        if (keysetColumn != null) {
+            serviceInterface.addImportedType(listType);
+            serviceInterface.addImportedType(keysetColumn.getFullyQualifiedJavaType());
+            Method listAfterMethod = listAfterEntityMybatis(introspectedTable, serviceImplClass, keysetColumn);
+            listAfterMethod.removeBodyLines();
+            serviceInterface.addMethod(listAfterMethod);
+            Method listAfterMethodImpl = listAfterEntityMybatis(introspectedTable, serviceImplClass, keysetColumn);
+            listAfterMethodImpl.addAnnotation("@Override");
+            serviceImplClass.addMethod(listAfterMethodImpl);
+        }
+
         // 生成文件
         GeneratedJavaFile interfaceFile = new GeneratedJavaFile(serviceInterface, project, context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING), context.getJavaFormatter());
         files.add(interfaceFile);
@@ -346,10 +360,10 @@ public class ServicePlugin extends PluginAdapter {
                     method.addBodyLine(PluginUtils.generateSetterCall(modelParamName, introspectedColumn.getJavaProperty(), params, true));
                 }
             } else if (createdTimeField.equals(introspectedColumn.getJavaProperty())) {
-                serviceImplClass.addImportedType(new FullyQualifiedJavaType("java.util.Date"));
+                serviceImplClass.addImportedType(FullyQualifiedJavaType.of("java.util.Date"));
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(createdTimeField) + "(new Date());");
             } else if (updatedTimeField.equals(introspectedColumn.getJavaProperty())) {
-                serviceImplClass.addImportedType(new FullyQualifiedJavaType("java.util.Date"));
+                serviceImplClass.addImportedType(FullyQualifiedJavaType.of("java.util.Date"));
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(updatedTimeField) + "(new Date());");
             } else if (logicDeletedColumn != null && logicDeletedColumn.getJavaProperty().equals(introspectedColumn.getJavaProperty())) {
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(logicDeletedColumn.getJavaProperty()) + "(false);");
@@ -435,7 +449,7 @@ public class ServicePlugin extends PluginAdapter {
             // mysql dateTime ??
 
             if (updatedTimeField.equals(introspectedColumn.getJavaProperty())) {
-                serviceImplClass.addImportedType(new FullyQualifiedJavaType("java.util.Date"));
+                serviceImplClass.addImportedType(FullyQualifiedJavaType.of("java.util.Date"));
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(updatedTimeField) + "(new Date());");
             }
         }
@@ -491,7 +505,7 @@ public class ServicePlugin extends PluginAdapter {
         String modelParamName = "exist";
         if (introspectedTable.getTargetRuntime() == TargetRuntime.JPA2) {
             // 导入依赖类
-            serviceImplClass.addImportedType(new FullyQualifiedJavaType("java.util.Optional"));
+            serviceImplClass.addImportedType(FullyQualifiedJavaType.of("java.util.Optional"));
             method.addBodyLine("Optional<" + allFieldModelType.getShortName() + "> " + modelParamName + " = "
                                + getMapper(introspectedTable) + getMapperMethodName(introspectedTable, "get") + "(" + params + ");");
             method.addBodyLine(modelParamName + ".ifPresent((v) -> {");
@@ -623,10 +637,10 @@ public class ServicePlugin extends PluginAdapter {
     private Method listEntityMybatis(IntrospectedTable introspectedTable, TopLevelClass serviceImplClass) {
         Method method = new Method();
         method.setName("list");
-        method.setReturnType(new FullyQualifiedJavaType(pageType.getShortName() + "<" + allFieldModelType.getShortName()
+        method.setReturnType(FullyQualifiedJavaType.of(pageType.getShortName() + "<" + allFieldModelType.getShortName()
                                                         + ">"));
-        method.addParameter(new Parameter(new FullyQualifiedJavaType("int"), "pageNum"));
-        method.addParameter(new Parameter(new FullyQualifiedJavaType("int"), "pageSize"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.of("int"), "pageNum"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.of("int"), "pageSize"));
         method.setVisibility(JavaVisibility.PUBLIC);
 
         // 导入类
@@ -635,10 +649,13 @@ public class ServicePlugin extends PluginAdapter {
         serviceImplClass.addImportedType(listType);
         serviceImplClass.addImportedType(pageType);
         
+        String countMode = GenHelper.getPaginationCountMode(introspectedTable);
         method.addBodyLine(modelCriteriaType.getShortName() + " criteria = new " + modelCriteriaType.getShortName()
                            + "();");
-        method.addBodyLine("criteria.setPage(pageNum);");
-        method.addBodyLine("criteria.setLimit(pageSize);");
+        if (Constants.COUNT_MODE_EXACT.equals(countMode)) {
+            method.addBodyLine("criteria.setPage(pageNum);");
+            method.addBodyLine("criteria.setLimit(pageSize);");
+        }
         
         IntrospectedColumn logicDeletedColumn = GenHelper.getLogicDeletedColumn(introspectedTable);
         if(logicDeletedColumn == null) {// 逻辑删除
@@ -649,9 +666,58 @@ public class ServicePlugin extends PluginAdapter {
             method.addBodyLine("cri.and" + PluginUtils.upperCaseFirstLetter(logicDeletedColumn.getJavaProperty()) + "EqualTo(false);");
         }
 
+        if (Constants.COUNT_MODE_EXACT.equals(countMode)) {
+            method.addBodyLine("List<" + allFieldModelType.getShortName() + "> list = " + getMapper(introspectedTable)
+                               + "selectByExample(criteria);");
+            method.addBodyLine("return " + pageType.getShortName() + ".buildPage(list, criteria);");
+            return method;
+        }
+
+        // 不执行COUNT, 多查一条判断是否有下一页
         method.addBodyLine("List<" + allFieldModelType.getShortName() + "> list = " + getMapper(introspectedTable)
-                           + "selectByExample(criteria);");
-        method.addBodyLine("return " + pageType.getShortName() + ".buildPage(list, criteria);");
+                           + MybatisPaginationPlugin.SELECT_BY_EXAMPLE_LIMIT + "(criteria, (pageNum - 1) * pageSize, pageSize + 1);");
+        if (Constants.COUNT_MODE_APPROXIMATE.equals(countMode)) {
+            method.addBodyLine("long totalCount = " + getMapper(introspectedTable) + MybatisPaginationPlugin.COUNT_APPROXIMATELY + "();");
+            method.addBodyLine("return " + pageType.getShortName() + ".buildApproximatePage(list, pageNum, pageSize, totalCount);");
+        } else {
+            method.addBodyLine("return " + pageType.getShortName() + ".buildNextPage(list, pageNum, pageSize);");
+        }
+        return method;
+    }
+    
+
+    /**
+     * listAfter mybatis, 按游标列升序查询lastKey之后的pageSize条记录
+     * 
+     * @param introspectedTable
+     * @param serviceImplClass
+     * @param keysetColumn
+     * @return
+     */
+    private Method listAfterEntityMybatis(IntrospectedTable introspectedTable, TopLevelClass serviceImplClass, IntrospectedColumn keysetColumn) {
+        String lastKeyParamName = "last" + PluginUtils.upperCaseFirstLetter(keysetColumn.getJavaProperty());
+
+        Method method = new Method();
+        method.setName("listAfter");
+        method.setReturnType(FullyQualifiedJavaType.of("List<" + allFieldModelType.getShortName() + ">"));
+        method.addParameter(new Parameter(keysetColumn.getFullyQualifiedJavaType(), lastKeyParamName));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.of("int"), "pageSize"));
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.addJavaDocLine("/** 游标分页, " + lastKeyParamName + "为上一页最后一条记录的" + keysetColumn.getJavaProperty() + ", 第一页传null */");
+
+        // 导入类
+        serviceImplClass.addImportedType(modelCriteriaType);
+        serviceImplClass.addImportedType(listType);
+        serviceImplClass.addImportedType(keysetColumn.getFullyQualifiedJavaType());
+
+        method.addBodyLine(modelCriteriaType.getShortName() + " criteria = new " + modelCriteriaType.getShortName()
+                           + "();");
+        IntrospectedColumn logicDeletedColumn = GenHelper.getLogicDeletedColumn(introspectedTable);
+        if (logicDeletedColumn != null) {// 逻辑删除
+            method.addBodyLine("criteria.createCriteria().and" + PluginUtils.upperCaseFirstLetter(logicDeletedColumn.getJavaProperty()) + "EqualTo(false);");
+        }
+        method.addBodyLine("return " + getMapper(introspectedTable) + MybatisPaginationPlugin.SELECT_BY_EXAMPLE_AFTER
+                           + "(criteria, " + lastKeyParamName + ", pageSize);");
         return method;
     }
     
@@ -666,25 +732,25 @@ public class ServicePlugin extends PluginAdapter {
     private Method listEntityJpa2(IntrospectedTable introspectedTable, TopLevelClass serviceImplClass) {
         Method method = new Method();
         method.setName("list");
-        method.setReturnType(new FullyQualifiedJavaType(pageType.getShortName() + "<" + allFieldModelType.getShortName()
+        method.setReturnType(FullyQualifiedJavaType.of(pageType.getShortName() + "<" + allFieldModelType.getShortName()
                                                         + ">"));
-        method.addParameter(new Parameter(new FullyQualifiedJavaType("int"), "pageNum"));
-        method.addParameter(new Parameter(new FullyQualifiedJavaType("int"), "pageSize"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.of("int"), "pageNum"));
+        method.addParameter(new Parameter(FullyQualifiedJavaType.of("int"), "pageSize"));
         method.setVisibility(JavaVisibility.PUBLIC);
 
         // 导入类
         serviceImplClass.addImportedType(pageType);
-        serviceImplClass.addImportedType(new FullyQualifiedJavaType("com.querydsl.core.types.Predicate"));
-        serviceImplClass.addImportedType(new FullyQualifiedJavaType("com.querydsl.core.types.ExpressionUtils"));
-        serviceImplClass.addImportedType(new FullyQualifiedJavaType("org.springframework.data.domain.Page"));
-        serviceImplClass.addImportedType(new FullyQualifiedJavaType("org.springframework.data.domain.PageRequest"));
-        serviceImplClass.addImportedType(new FullyQualifiedJavaType("org.springframework.data.domain.Pageable"));
-        serviceImplClass.addImportedType(new FullyQualifiedJavaType("org.springframework.data.domain.Sort"));
-        serviceImplClass.addImportedType(new FullyQualifiedJavaType("org.springframework.data.domain.Sort.Direction"));
-        serviceImplClass.addImportedType(new FullyQualifiedJavaType("org.springframework.data.domain.Sort.Order"));
+        serviceImplClass.addImportedType(FullyQualifiedJavaType.of("com.querydsl.core.types.Predicate"));
+        serviceImplClass.addImportedType(FullyQualifiedJavaType.of("com.querydsl.core.types.ExpressionUtils"));
+        serviceImplClass.addImportedType(FullyQualifiedJavaType.of("org.springframework.data.domain.Page"));
+        serviceImplClass.addImportedType(FullyQualifiedJavaType.of("org.springframework.data.domain.PageRequest"));
+        serviceImplClass.addImportedType(FullyQualifiedJavaType.of("org.springframework.data.domain.Pageable"));
+        serviceImplClass.addImportedType(FullyQualifiedJavaType.of("org.springframework.data.domain.Sort"));
+        serviceImplClass.addImportedType(FullyQualifiedJavaType.of("org.springframework.data.domain.Sort.Direction"));
+        serviceImplClass.addImportedType(FullyQualifiedJavaType.of("org.springframework.data.domain.Sort.Order"));
         
         String qModelType = "Q"+allFieldModelType.getShortName();
-        serviceImplClass.addImportedType(new FullyQualifiedJavaType(allFieldModelType.getPackageName() + "." + qModelType));
+        serviceImplClass.addImportedType(FullyQualifiedJavaType.of(allFieldModelType.getPackageName() + "." + qModelType));
 
         String qModelTypeObj = "q"+allFieldModelType.getShortName();
         
@@ -716,7 +782,7 @@ public class ServicePlugin extends PluginAdapter {
         field.setVisibility(JavaVisibility.PRIVATE);
         field.setStatic(true);
         field.setFinal(true);
-        field.setType(new FullyQualifiedJavaType("Logger"));
+        field.setType(FullyQualifiedJavaType.of("Logger"));
         field.setName("LOGGER");
         // 设置值
         field.setInitializationString("LoggerFactory.getLogger(" + serviceImplClass.getType().getShortName() + ".class)");
@@ -16,6 +16,7 @@ import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.xsili.Constants;
 import org.mybatis.generator.xsili.GenHelper;
 import org.mybatis.generator.xsili.plugins.util.PluginUtils;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -99,25 +100,25 @@ public class SpringMvcControllerPlugin extends PluginAdapter {
         if (StringUtils.isBlank(abstractController)) {
             throw new RuntimeException("property abstractController is null");
         } else {
-            this.abstractControllerType = new FullyQualifiedJavaType(abstractController);
+            this.abstractControllerType = FullyQualifiedJavaType.of(abstractController);
         }
 
         String resultModel = properties.getProperty("resultModel");
         if (StringUtils.isBlank(resultModel)) {
             throw new RuntimeException("property resultModel is null");
         }
-        this.resultModelType = new FullyQualifiedJavaType(resultModel);
+        this.resultModelType = FullyQualifiedJavaType.of(resultModel);
 
         String page = properties.getProperty("page");
         if (StringUtils.isBlank(page)) {
             throw new RuntimeException("property page is null");
         } else {
-            this.pageType = new FullyQualifiedJavaType(page);
+            this.pageType = FullyQualifiedJavaType.of(page);
         }
 
         String validatorUtil = properties.getProperty("validatorUtil");
         if (StringUtils.isNotBlank(validatorUtil)) {
-            this.validatorUtilType = new FullyQualifiedJavaType(validatorUtil);
+            this.validatorUtilType = FullyQualifiedJavaType.of(validatorUtil);
         }
 
         this.targetPackage = properties.getProperty("targetPackage");
@@ -133,13 +134,13 @@ public class SpringMvcControllerPlugin extends PluginAdapter {
         this.project = properties.getProperty("targetProject");
         this.modelPackage = context.getJavaModelGeneratorConfiguration().getTargetPackage();
 
-        this.annotationAutowired = new FullyQualifiedJavaType("org.springframework.beans.factory.annotation.Autowired");
-        this.annotationController = new FullyQualifiedJavaType("org.springframework.web.bind.annotation.RestController");
-        this.annotationRequestMapping = new FullyQualifiedJavaType("org.springframework.web.bind.annotation.RequestMapping");
-        this.annotationRequestMethod = new FullyQualifiedJavaType("org.springframework.web.bind.annotation.RequestMethod");
-        this.annotationPathVariable = new FullyQualifiedJavaType("org.springframework.web.bind.annotation.PathVariable");
-        this.annotationRequestParam = new FullyQualifiedJavaType("org.springframework.web.bind.annotation.RequestParam");
-        this.annotationApiOperation = new FullyQualifiedJavaType("io.swagger.annotations.ApiOperation");
+        this.annotationAutowired = FullyQualifiedJavaType.of("org.springframework.beans.factory.annotation.Autowired");
+        this.annotationController = FullyQualifiedJavaType.of("org.springframework.web.bind.annotation.RestController");
+        this.annotationRequestMapping = FullyQualifiedJavaType.of("org.springframework.web.bind.annotation.RequestMapping");
+        this.annotationRequestMethod = FullyQualifiedJavaType.of("org.springframework.web.bind.annotation.RequestMethod");
+        this.annotationPathVariable = FullyQualifiedJavaType.of("org.springframework.web.bind.annotation.PathVariable");
+        this.annotationRequestParam = FullyQualifiedJavaType.of("org.springframework.web.bind.annotation.RequestParam");
+        this.annotationApiOperation = FullyQualifiedJavaType.of("io.swagger.annotations.ApiOperation");
 
         return true;
     }
@@ -152,10 +153,10 @@ public class SpringMvcControllerPlugin extends PluginAdapter {
         String table = introspectedTable.getBaseRecordType();
         String tableName = table.replaceAll(this.modelPackage + ".", "");
 
-        baseModelType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        baseModelType = FullyQualifiedJavaType.of(introspectedTable.getBaseRecordType());
         allFieldModelType = introspectedTable.getRules().calculateAllFieldsClass();
-        serviceType = new FullyQualifiedJavaType(targetPackageService + "." + tableName + "Service");
-        controllerType = new FullyQualifiedJavaType(targetPackage + "." + this.classNamePrefix + tableName + "Controller");
+        serviceType = FullyQualifiedJavaType.of(targetPackageService + "." + tableName + "Service");
+        controllerType = FullyQualifiedJavaType.of(targetPackage + "." + this.classNamePrefix + tableName + "Controller");
 
         TopLevelClass topLevelClass = new TopLevelClass(controllerType);
         
@@ -216,6 +217,13 @@ public class SpringMvcControllerPlugin extends PluginAdapter {
         Method listMethod = listEntitys(topLevelClass, introspectedTable);
         topLevelClass.addMethod(listMethod);
 
+        // 游标分页
+        IntrospectedColumn keysetColumn = GenHelper.getKeysetColumn(introspectedTable);
+        if (keysetColumn != null) {
+            Method listAfterMethod = listAfterEntitys(topLevelClass, keysetColumn);
+            topLevelClass.addMethod(listAfterMethod);
+        }
+
         // 生成文件
         GeneratedJavaFile file = new GeneratedJavaFile(topLevelClass, project, context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING), context.getJavaFormatter());
         files.add(file);
@@ -584,15 +592,22 @@ public class SpringMvcControllerPlugin extends PluginAdapter {
 
         // swagger
         if (enableSwaggerAnnotation) {
-            method.addAnnotation("@ApiOperation(value = \"列表\", notes = \"\", response = "
+            String notes = "";
+            String countMode = GenHelper.getPaginationCountMode(introspectedTable);
+            if (Constants.COUNT_MODE_NONE.equals(countMode)) {
+                notes = "不统计总数, totalCount为-1, 通过hasNext判断是否有下一页";
+            } else if (Constants.COUNT_MODE_APPROXIMATE.equals(countMode)) {
+                notes = "totalCount为表统计信息中的估算值, 通过hasNext判断是否有下一页";
+            }
+            method.addAnnotation("@ApiOperation(value = \"列表\", notes = \"" + notes + "\", response = "
                                  + resultModelType.getShortName() + ".class)");
         }
 
         // 添加方法分页参数
-        Parameter pageParameter = new Parameter(new FullyQualifiedJavaType("int"), "pageNum");
+        Parameter pageParameter = new Parameter(FullyQualifiedJavaType.of("int"), "pageNum");
         pageParameter.addAnnotation("@RequestParam(required = true)");
         method.addParameter(pageParameter);
-        Parameter limitParameter = new Parameter(new FullyQualifiedJavaType("int"), "pageSize");
+        Parameter limitParameter = new Parameter(FullyQualifiedJavaType.of("int"), "pageSize");
         limitParameter.addAnnotation("@RequestParam(required = true)");
         method.addParameter(limitParameter);
 
@@ -603,6 +618,50 @@ public class SpringMvcControllerPlugin extends PluginAdapter {
         return method;
     }
 
+    /**
+     * listAfter, 游标分页
+     * 
+     * @param topLevelClass
+     * @param keysetColumn
+     * @return
+     */
+    private Method listAfterEntitys(TopLevelClass topLevelClass, IntrospectedColumn keysetColumn) {
+        String lastKeyParamName = "last" + PluginUtils.upperCaseFirstLetter(keysetColumn.getJavaProperty());
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setName("listAfter");
+        method.setReturnType(resultModelType);
+        if (this.enableRestful) {
+            method.addAnnotation("@RequestMapping(value = \"/after\", method = RequestMethod.GET)");
+        } else {
+            method.addAnnotation("@RequestMapping(value = \"/listAfter\", method = RequestMethod.GET)");
+        }
+
+        // swagger
+        if (enableSwaggerAnnotation) {
+            method.addAnnotation("@ApiOperation(value = \"游标列表\", notes = \"" + lastKeyParamName + "为上一页最后一条记录的"
+                                 + keysetColumn.getJavaProperty() + ", 第一页不传\", response = "
+                                 + resultModelType.getShortName() + ".class)");
+        }
+
+        // 添加方法游标参数
+        topLevelClass.addImportedType(keysetColumn.getFullyQualifiedJavaType());
+        Parameter lastKeyParameter = new Parameter(keysetColumn.getFullyQualifiedJavaType(), lastKeyParamName);
+        lastKeyParameter.addAnnotation("@RequestParam(required = false)");
+        method.addParameter(lastKeyParameter);
+        Parameter limitParameter = new Parameter(FullyQualifiedJavaType.of("int"), "pageSize");
+        limitParameter.addAnnotation("@RequestParam(required = true)");
+        method.addParameter(limitParameter);
+
+        // 调用Service
+        topLevelClass.addImportedType(FullyQualifiedJavaType.of("java.util.List"));
+        method.addBodyLine("List<" + allFieldModelType.getShortName() + "> list = this." + getService()
+                           + "listAfter(" + lastKeyParamName + ", pageSize);");
+        method.addBodyLine("return super.success(list);");
+        return method;
+    }
+
     /**
      * 添加 Mapper依赖字段
      */
@@ -681,7 +740,7 @@ public class SpringMvcControllerPlugin extends PluginAdapter {
         String params = "";
         String keyModelParamName = PluginUtils.PRIMARY_KEY_PARAMETER_NAME;
         if (introspectedTable.getRules().generatePrimaryKeyClass()) {
-            FullyQualifiedJavaType keyModeltype = new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+            FullyQualifiedJavaType keyModeltype = FullyQualifiedJavaType.of(introspectedTable.getPrimaryKeyType());
             // 填充key参数
             caller.addBodyLine(keyModeltype.getShortName() + " " + keyModelParamName + " = new " + keyModeltype.getShortName() + "();");
             PluginUtils.generateModelSetterBodyLine(keyModelParamName, caller, keyParameters);
@@ -74,7 +74,7 @@ public class Jpa2RepositoryTestPlugin extends PluginAdapter {
         }
         String idGenerator = properties.getProperty("idGenerator");
         if (StringUtils.isNotBlank(idGenerator)) {
-            idGeneratorType = new FullyQualifiedJavaType(idGenerator);
+            idGeneratorType = FullyQualifiedJavaType.of(idGenerator);
         }
         modelPackage = context.getJavaModelGeneratorConfiguration().getTargetPackage();
         return true;
@@ -83,10 +83,10 @@ public class Jpa2RepositoryTestPlugin extends PluginAdapter {
     // 初始化
     public Jpa2RepositoryTestPlugin() {
         super();
-        junit = new FullyQualifiedJavaType("org.junit.Test");
-        assertType = new FullyQualifiedJavaType("static org.junit.Assert.assertEquals");
-        annotationAutowired = new FullyQualifiedJavaType("org.springframework.beans.factory.annotation.Autowired");
-        listType = new FullyQualifiedJavaType("java.util.List");
+        junit = FullyQualifiedJavaType.of("org.junit.Test");
+        assertType = FullyQualifiedJavaType.of("static org.junit.Assert.assertEquals");
+        annotationAutowired = FullyQualifiedJavaType.of("org.springframework.beans.factory.annotation.Autowired");
+        listType = FullyQualifiedJavaType.of("java.util.List");
     }
 
     @Override
@@ -97,8 +97,8 @@ public class Jpa2RepositoryTestPlugin extends PluginAdapter {
 
 //        baseModelType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
         allFieldModelType = introspectedTable.getRules().calculateAllFieldsClass();
-        mapperType = new FullyQualifiedJavaType(introspectedTable.getMyBatis3JavaMapperType());
-        mapperTestType = new FullyQualifiedJavaType(targetPackage + "." + tableName + "RepositoryTest");
+        mapperType = FullyQualifiedJavaType.of(introspectedTable.getMyBatis3JavaMapperType());
+        mapperTestType = FullyQualifiedJavaType.of(targetPackage + "." + tableName + "RepositoryTest");
 
         TopLevelClass topLevelClass = new TopLevelClass(mapperTestType);
         topLevelClass.setVisibility(JavaVisibility.PUBLIC);
@@ -130,7 +130,7 @@ public class Jpa2RepositoryTestPlugin extends PluginAdapter {
         Method method = new Method();
         method.addAnnotation("@Test");
         method.setVisibility(JavaVisibility.PUBLIC);
-        method.setReturnType(new FullyQualifiedJavaType("void"));
+        method.setReturnType(FullyQualifiedJavaType.of("void"));
         method.setName("crudTest");
 
         String modelParamName = PluginUtils.getTypeParamName(allFieldModelType);
@@ -165,10 +165,10 @@ public class Jpa2RepositoryTestPlugin extends PluginAdapter {
                     method.addBodyLine(PluginUtils.generateSetterCall(modelParamName, javaProperty, params, true));
                 }
             } else if (createdTimeField.equals(javaProperty)) {
-                topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Date"));
+                topLevelClass.addImportedType(FullyQualifiedJavaType.of("java.util.Date"));
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(createdTimeField) + "(new Date());");
             } else if (updatedTimeField.equals(javaProperty)) {
-                topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Date"));
+                topLevelClass.addImportedType(FullyQualifiedJavaType.of("java.util.Date"));
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(updatedTimeField) + "(new Date());");
             } else if (introspectedColumn.isStringColumn()) {
                 setStringOrEnumField(introspectedColumn, fields, topLevelClass, method, modelParamName);
@@ -186,7 +186,7 @@ public class Jpa2RepositoryTestPlugin extends PluginAdapter {
                 setStringOrEnumField(introspectedColumn, fields, topLevelClass, method, modelParamName);
             }
             if (introspectedColumn.isJDBCDateColumn() || introspectedColumn.isJDBCTimeColumn()) {
-                topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Date"));
+                topLevelClass.addImportedType(FullyQualifiedJavaType.of("java.util.Date"));
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(javaProperty) + "(new Date());");
             }
         }
@@ -213,7 +213,7 @@ public class Jpa2RepositoryTestPlugin extends PluginAdapter {
         // 构建调用方法的key参数
         String keyCallParams = "";
         if (introspectedTable.getRules().generatePrimaryKeyClass()) {
-            FullyQualifiedJavaType keyType = new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+            FullyQualifiedJavaType keyType = FullyQualifiedJavaType.of(introspectedTable.getPrimaryKeyType());
             keyCallParams = "(" + keyType.getShortName() + ") " + modelParamName;
         } else {
             List<Parameter> keyParameterList = PluginUtils.getPrimaryKeyParameters(introspectedTable);
@@ -59,7 +59,7 @@ public class MybatisMapperTestPlugin extends PluginAdapter {
         }
         String idGenerator = properties.getProperty("idGenerator");
         if (StringUtils.isNotBlank(idGenerator)) {
-            idGeneratorType = new FullyQualifiedJavaType(idGenerator);
+            idGeneratorType = FullyQualifiedJavaType.of(idGenerator);
         }
         modelPackage = context.getJavaModelGeneratorConfiguration().getTargetPackage();
         return true;
@@ -68,10 +68,10 @@ public class MybatisMapperTestPlugin extends PluginAdapter {
     // 初始化
     public MybatisMapperTestPlugin() {
         super();
-        junit = new FullyQualifiedJavaType("org.junit.Test");
-        assertType = new FullyQualifiedJavaType("static org.junit.Assert.assertEquals");
-        annotationAutowired = new FullyQualifiedJavaType("org.springframework.beans.factory.annotation.Autowired");
-        listType = new FullyQualifiedJavaType("java.util.List");
+        junit = FullyQualifiedJavaType.of("org.junit.Test");
+        assertType = FullyQualifiedJavaType.of("static org.junit.Assert.assertEquals");
+        annotationAutowired = FullyQualifiedJavaType.of("org.springframework.beans.factory.annotation.Autowired");
+        listType = FullyQualifiedJavaType.of("java.util.List");
     }
 
     @Override
@@ -80,11 +80,11 @@ public class MybatisMapperTestPlugin extends PluginAdapter {
         String table = introspectedTable.getBaseRecordType();
         String tableName = table.replaceAll(this.modelPackage + ".", "");
 
-        baseModelType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        baseModelType = FullyQualifiedJavaType.of(introspectedTable.getBaseRecordType());
         allFieldModelType = introspectedTable.getRules().calculateAllFieldsClass();
-        mapperType = new FullyQualifiedJavaType(introspectedTable.getMyBatis3JavaMapperType());
-        modelCriteriaType = new FullyQualifiedJavaType(introspectedTable.getExampleType());
-        mapperTestType = new FullyQualifiedJavaType(targetPackage + "." + tableName + "MapperTest");
+        mapperType = FullyQualifiedJavaType.of(introspectedTable.getMyBatis3JavaMapperType());
+        modelCriteriaType = FullyQualifiedJavaType.of(introspectedTable.getExampleType());
+        mapperTestType = FullyQualifiedJavaType.of(targetPackage + "." + tableName + "MapperTest");
 
         TopLevelClass topLevelClass = new TopLevelClass(mapperTestType);
         topLevelClass.setVisibility(JavaVisibility.PUBLIC);
@@ -116,14 +116,14 @@ public class MybatisMapperTestPlugin extends PluginAdapter {
         Method method = new Method();
         method.addAnnotation("@Test");
         method.setVisibility(JavaVisibility.PUBLIC);
-        method.setReturnType(new FullyQualifiedJavaType("void"));
+        method.setReturnType(FullyQualifiedJavaType.of("void"));
         method.setName("crudTest");
 
         String modelParamName = PluginUtils.getTypeParamName(allFieldModelType);
         // 构建调用方法的key参数
         String keyCallParams = "";
         if (introspectedTable.getRules().generatePrimaryKeyClass()) {
-            FullyQualifiedJavaType keyType = new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+            FullyQualifiedJavaType keyType = FullyQualifiedJavaType.of(introspectedTable.getPrimaryKeyType());
             keyCallParams = "(" + keyType.getShortName() + ") " + modelParamName;
         } else {
             List<Parameter> keyParameterList = PluginUtils.getPrimaryKeyParameters(introspectedTable);
@@ -166,10 +166,10 @@ public class MybatisMapperTestPlugin extends PluginAdapter {
                     method.addBodyLine(PluginUtils.generateSetterCall(modelParamName, javaProperty, params, true));
                 }
             } else if (createdTimeField.equals(javaProperty)) {
-                topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Date"));
+                topLevelClass.addImportedType(FullyQualifiedJavaType.of("java.util.Date"));
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(createdTimeField) + "(new Date());");
             } else if (updatedTimeField.equals(javaProperty)) {
-                topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Date"));
+                topLevelClass.addImportedType(FullyQualifiedJavaType.of("java.util.Date"));
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(updatedTimeField) + "(new Date());");
             } else if (introspectedColumn.isStringColumn()) {
                 setStringOrEnumField(introspectedColumn, fields, topLevelClass, method, modelParamName);
@@ -187,7 +187,7 @@ public class MybatisMapperTestPlugin extends PluginAdapter {
                 setStringOrEnumField(introspectedColumn, fields, topLevelClass, method, modelParamName);
             }
             if (introspectedColumn.isJDBCDateColumn() || introspectedColumn.isJDBCTimeColumn()) {
-                topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.Date"));
+                topLevelClass.addImportedType(FullyQualifiedJavaType.of("java.util.Date"));
                 method.addBodyLine(modelParamName + ".set" + PluginUtils.upperCaseFirstLetter(property) + "(new Date());");
             }
         }
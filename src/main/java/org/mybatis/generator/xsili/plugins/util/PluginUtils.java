@@ -19,7 +19,7 @@ public class PluginUtils {
     // 如果生成主键类, 该常量值会被controller引用, 出现在方法参数上
     public static final String PRIMARY_KEY_PARAMETER_NAME = "primaryKey";
     
-    public static final FullyQualifiedJavaType STRING_UTILS_TYPE = new FullyQualifiedJavaType("org.apache.commons.lang3.StringUtils");
+    public static final FullyQualifiedJavaType STRING_UTILS_TYPE = FullyQualifiedJavaType.of("org.apache.commons.lang3.StringUtils");
 
     /**
      * 
@@ -181,7 +181,7 @@ public class PluginUtils {
         checkPrimaryKey(introspectedTable);
         
         if(introspectedTable.getRules().generatePrimaryKeyClass()) {
-            return new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+            return FullyQualifiedJavaType.of(introspectedTable.getPrimaryKeyType());
         }
 
         List<IntrospectedColumn> primaryKeyColumns = introspectedTable.getPrimaryKeyColumns();
@@ -205,7 +205,7 @@ public class PluginUtils {
 
         List<Parameter> list = new ArrayList<>();
         if (introspectedTable.getRules().generatePrimaryKeyClass()) {
-            FullyQualifiedJavaType type = new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+            FullyQualifiedJavaType type = FullyQualifiedJavaType.of(introspectedTable.getPrimaryKeyType());
             list.add(new Parameter(type, PRIMARY_KEY_PARAMETER_NAME));
         } else {
             for (IntrospectedColumn introspectedColumn : introspectedTable.getPrimaryKeyColumns()) {
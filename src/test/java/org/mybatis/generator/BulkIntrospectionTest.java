@@ -0,0 +1,100 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorTestConfigurations.parseConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.NullProgressCallback;
+
+/**
+ * Introspects the test configuration with and without the bulkIntrospection
+ * property, and checks that the introspected tables are the same.
+ */
+public class BulkIntrospectionTest {
+
+    @Before
+    public void setUp() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+    }
+
+    @Test
+    public void testBulkIntrospectionMatchesSingleTableIntrospection() throws Exception {
+        List<String> singleTableWarnings = new ArrayList<String>();
+        List<String> singleTableTables = introspect(false, singleTableWarnings);
+
+        List<String> bulkWarnings = new ArrayList<String>();
+        List<String> bulkTables = introspect(true, bulkWarnings);
+
+        assertTrue(singleTableTables.size() > 20);
+        assertEquals(singleTableTables, bulkTables);
+        assertEquals(singleTableWarnings, bulkWarnings);
+    }
+
+    private static List<String> introspect(boolean bulk, List<String> warnings) throws Exception {
+        Configuration config = parseConfiguration(1, 1);
+        List<String> answer = new ArrayList<String>();
+        for (Context context : config.getContexts()) {
+            context.addProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION, String.valueOf(bulk));
+            context.introspectTables(new NullProgressCallback(), warnings, null);
+            for (IntrospectedTable introspectedTable : context.getIntrospectedTables()) {
+                answer.add(context.getId() + ' ' + describe(introspectedTable));
+            }
+        }
+        return answer;
+    }
+
+    private static String describe(IntrospectedTable introspectedTable) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(introspectedTable.getFullyQualifiedTable());
+        sb.append(" remarks=").append(introspectedTable.getRemarks());
+        sb.append(" type=").append(introspectedTable.getTableType());
+        sb.append("\nprimary key:");
+        describe(sb, introspectedTable.getPrimaryKeyColumns());
+        sb.append("\nbase:");
+        describe(sb, introspectedTable.getBaseColumns());
+        sb.append("\nblob:");
+        describe(sb, introspectedTable.getBLOBColumns());
+        return sb.toString();
+    }
+
+    private static void describe(StringBuilder sb, List<IntrospectedColumn> columns) {
+        for (IntrospectedColumn column : columns) {
+            sb.append("\n  ").append(column.getActualColumnName());
+            sb.append(' ').append(column.getJdbcTypeName());
+            sb.append(' ').append(column.getFullyQualifiedJavaType());
+            sb.append(' ').append(column.getJavaProperty());
+            sb.append(" length=").append(column.getLength());
+            sb.append(" scale=").append(column.getScale());
+            sb.append(" nullable=").append(column.isNullable());
+            sb.append(" default=").append(column.getDefaultValue());
+            sb.append(" remarks=").append(column.getRemarks());
+            sb.append(" autoIncrement=").append(column.isAutoIncrement());
+            sb.append(" generated=").append(column.isGeneratedColumn());
+        }
+    }
+}
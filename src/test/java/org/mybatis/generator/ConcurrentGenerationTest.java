@@ -0,0 +1,104 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorTestConfigurations.generate;
+import static org.mybatis.generator.GeneratorTestConfigurations.getJavaFiles;
+import static org.mybatis.generator.GeneratorTestConfigurations.getXmlFiles;
+import static org.mybatis.generator.GeneratorTestConfigurations.parseConfiguration;
+import static org.mybatis.generator.GeneratorTestConfigurations.readFiles;
+import static org.mybatis.generator.GeneratorTestConfigurations.setTargetProject;
+import static org.mybatis.generator.GeneratorTestConfigurations.write;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+
+/**
+ * Runs the generator with more than one thread, and checks that the result
+ * is the same as that of a sequential run.
+ */
+public class ConcurrentGenerationTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+        directory = GeneratorTestConfigurations.createTempDirectory();
+    }
+
+    @After
+    public void tearDown() {
+        GeneratorTestConfigurations.delete(directory);
+    }
+
+    @Test
+    public void testConcurrentIntrospectionMatchesSequential() throws Exception {
+        List<String> sequentialWarnings = new ArrayList<String>();
+        MyBatisGenerator sequential = generate(parseConfiguration(1, 1), sequentialWarnings);
+
+        List<String> concurrentWarnings = new ArrayList<String>();
+        MyBatisGenerator concurrent = generate(parseConfiguration(4, 1), concurrentWarnings);
+
+        assertTrue(sequential.getGeneratedJavaFiles().size() > 50);
+        assertEquals(getJavaFiles(sequential), getJavaFiles(concurrent));
+        assertEquals(getXmlFiles(sequential), getXmlFiles(concurrent));
+        assertEquals(sequentialWarnings, concurrentWarnings);
+    }
+
+    @Test
+    public void testConcurrentGenerationMatchesSequential() throws Exception {
+        List<String> sequentialWarnings = new ArrayList<String>();
+        MyBatisGenerator sequential = generate(parseConfiguration(1, 1), sequentialWarnings);
+
+        List<String> concurrentWarnings = new ArrayList<String>();
+        MyBatisGenerator concurrent = generate(parseConfiguration(1, 4), concurrentWarnings);
+
+        assertEquals(getJavaFiles(sequential), getJavaFiles(concurrent));
+        assertEquals(getXmlFiles(sequential), getXmlFiles(concurrent));
+        assertEquals(sequentialWarnings, concurrentWarnings);
+    }
+
+    @Test
+    public void testConcurrentWritesMatchSequential() throws Exception {
+        File sequentialDirectory = new File(directory, "sequential");
+        Configuration config = parseConfiguration(1, 1);
+        setTargetProject(config, sequentialDirectory);
+        List<String> sequentialWarnings = new ArrayList<String>();
+        write(config, sequentialWarnings, 1, null);
+
+        File concurrentDirectory = new File(directory, "concurrent");
+        config = parseConfiguration(1, 1);
+        setTargetProject(config, concurrentDirectory);
+        List<String> concurrentWarnings = new ArrayList<String>();
+        write(config, concurrentWarnings, 4, null);
+
+        Map<String, String> sequentialFiles = readFiles(sequentialDirectory);
+        assertTrue(sequentialFiles.size() > 50);
+        assertEquals(sequentialFiles, readFiles(concurrentDirectory));
+        assertEquals(sequentialWarnings, concurrentWarnings);
+    }
+}
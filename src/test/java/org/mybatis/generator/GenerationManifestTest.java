@@ -0,0 +1,296 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mybatis.generator.GeneratorTestConfigurations.parseConfiguration;
+import static org.mybatis.generator.GeneratorTestConfigurations.setTargetProject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ShellCallback;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.GenerationManifest;
+
+public class GenerationManifestTest {
+
+    private static final String FLAT_CONTEXT = "FlatJava5";
+
+    private File directory;
+
+    private File targetProject;
+
+    private File manifest;
+
+    @Before
+    public void setUp() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+        directory = GeneratorTestConfigurations.createTempDirectory();
+        targetProject = new File(directory, "project");
+        manifest = new File(directory, "manifest.properties");
+    }
+
+    @After
+    public void tearDown() {
+        GeneratorTestConfigurations.delete(directory);
+    }
+
+    @Test
+    public void testManifestContents() throws Exception {
+        write(parseConfiguration(1, 1), manifest);
+
+        // one SHA-256 hash and the target files per table, keyed by the
+        // configured and the introspected name
+        Properties properties = readProperties(manifest);
+        Set<String> tables = new HashSet<String>(Arrays.asList(
+                "FieldsOnly|FIELDSONLY",
+                "PKOnly|PKONLY",
+                "PKFields|PKFIELDS",
+                "PKBlobs|PKBLOBS",
+                "PKFieldsBlobs|PKFIELDSBLOBS",
+                "FieldsBlobs|FIELDSBLOBS",
+                "awful table|awful table",
+                "EnumTest|ENUMTEST"));
+        Set<String> keys = new HashSet<String>();
+        for (String table : tables) {
+            keys.add(table);
+            keys.add(table + "|files");
+        }
+        assertEquals(keys, properties.stringPropertyNames());
+        for (String table : tables) {
+            assertTrue(table, properties.getProperty(table).matches("[0-9a-f]{64}"));
+        }
+
+        Set<String> files = new HashSet<String>();
+        for (String path : properties.getProperty("PKFields|PKFIELDS|files").split(File.pathSeparator)) {
+            assertTrue(path, new File(path).isFile());
+            files.add(new File(path).getName());
+        }
+        assertEquals(new HashSet<String>(Arrays.asList("Pkfields.java", "PkfieldsExample.java",
+                "PkfieldsMapper.java", "PkfieldsMapper.xml")), files);
+    }
+
+    @Test
+    public void testThreadsAreNotHashed() throws Exception {
+        write(parseConfiguration(1, 1), manifest);
+
+        File concurrentManifest = new File(directory, "concurrent.properties");
+        write(parseConfiguration(4, 4), concurrentManifest);
+
+        assertEquals(readProperties(manifest), readProperties(concurrentManifest));
+    }
+
+    @Test
+    public void testUnchangedTablesAreSkipped() throws Exception {
+        write(parseConfiguration(1, 1), manifest);
+        Properties hashes = readProperties(manifest);
+
+        MyBatisGenerator generator = write(parseConfiguration(1, 1), manifest);
+        assertTrue(generator.getGeneratedJavaFiles().isEmpty());
+        assertTrue(generator.getGeneratedXmlFiles().isEmpty());
+        assertEquals(hashes, readProperties(manifest));
+    }
+
+    @Test
+    public void testChangedTableIsGenerated() throws Exception {
+        write(parseConfiguration(1, 1), manifest);
+        Properties hashes = readProperties(manifest);
+
+        MyBatisGenerator generator = write(createAliasConfiguration(), manifest);
+        assertEquals(new HashSet<String>(Arrays.asList("Pkfields.java", "PkfieldsExample.java",
+                "PkfieldsMapper.java")), getJavaFileNames(generator));
+
+        Properties changedHashes = readProperties(manifest);
+        assertEquals(hashes.stringPropertyNames(), changedHashes.stringPropertyNames());
+        for (String key : hashes.stringPropertyNames()) {
+            assertEquals(key, key.equals("PKFields|PKFIELDS"),
+                    !hashes.getProperty(key).equals(changedHashes.getProperty(key)));
+        }
+    }
+
+    @Test
+    public void testTableWithDeletedFileIsGenerated() throws Exception {
+        write(parseConfiguration(1, 1), manifest);
+        Properties properties = readProperties(manifest);
+
+        File mapper = findFile(targetProject, "PkfieldsMapper.java");
+        assertTrue(mapper.delete());
+
+        MyBatisGenerator generator = write(parseConfiguration(1, 1), manifest);
+        assertEquals(new HashSet<String>(Arrays.asList("Pkfields.java", "PkfieldsExample.java",
+                "PkfieldsMapper.java")), getJavaFileNames(generator));
+        assertTrue(mapper.isFile());
+        assertEquals(properties, readProperties(manifest));
+    }
+
+    @Test
+    public void testTableWithFailedWriteIsNotRecorded() throws Exception {
+        write(parseConfiguration(1, 1), manifest);
+        Properties hashes = readProperties(manifest);
+
+        // the mapper of the changed table cannot be merged
+        List<String> warnings = new ArrayList<String>();
+        write(createAliasConfiguration(), manifest, new FailingShellCallback("PkfieldsMapper.java"), warnings);
+        assertEquals(1, warnings.size());
+        assertEquals(hashes, readProperties(manifest));
+
+        MyBatisGenerator generator = write(createAliasConfiguration(), manifest);
+        assertEquals(new HashSet<String>(Arrays.asList("Pkfields.java", "PkfieldsExample.java",
+                "PkfieldsMapper.java")), getJavaFileNames(generator));
+    }
+
+    @Test
+    public void testPluginClassIsHashed() throws Exception {
+        Context context = parseConfiguration(1, 1).getContext(FLAT_CONTEXT);
+        PluginConfiguration pluginConfiguration = new PluginConfiguration();
+        pluginConfiguration.setConfigurationType(VersionedPlugin.class.getName());
+        context.addPluginConfiguration(pluginConfiguration);
+        String hash = GenerationManifest.calculateContextHash(context);
+        assertEquals(hash, GenerationManifest.calculateContextHash(context));
+
+        // the plugin is rebuilt
+        File classFile = new File(VersionedPlugin.class.getResource(
+                "GenerationManifestTest$VersionedPlugin.class").toURI());
+        long lastModified = classFile.lastModified();
+        assertTrue(classFile.setLastModified(lastModified + 10000L));
+        try {
+            assertFalse(hash.equals(GenerationManifest.calculateContextHash(context)));
+        } finally {
+            classFile.setLastModified(lastModified);
+        }
+    }
+
+    /**
+     * Returns the test configuration with an alias for the PKFields table.
+     */
+    private static Configuration createAliasConfiguration() throws Exception {
+        Configuration config = parseConfiguration(1, 1);
+        for (TableConfiguration tc : config.getContext(FLAT_CONTEXT).getTableConfigurations()) {
+            if (tc.getTableName().equals("PKFields")) {
+                tc.setAlias("C");
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Writes the flat context of the configuration, with the given manifest.
+     */
+    private MyBatisGenerator write(Configuration config, File manifestFile) throws Exception {
+        return write(config, manifestFile, new DefaultShellCallback(true), new ArrayList<String>());
+    }
+
+    private MyBatisGenerator write(Configuration config, File manifestFile, ShellCallback shellCallback,
+            List<String> warnings) throws Exception {
+        setTargetProject(config, targetProject);
+        Context context = config.getContext(FLAT_CONTEXT);
+        context.addProperty(PropertyRegistry.CONTEXT_GENERATION_MANIFEST, manifestFile.getPath());
+        MyBatisGenerator generator = new MyBatisGenerator(config, shellCallback, warnings);
+        generator.generate(null, Collections.singleton(FLAT_CONTEXT), null, true);
+        return generator;
+    }
+
+    private static Set<String> getJavaFileNames(MyBatisGenerator generator) {
+        Set<String> answer = new HashSet<String>();
+        for (GeneratedJavaFile gjf : generator.getGeneratedJavaFiles()) {
+            answer.add(gjf.getFileName());
+        }
+        return answer;
+    }
+
+    private static File findFile(File directory, String name) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return null;
+        }
+        for (File child : children) {
+            File answer = child.isDirectory() ? findFile(child, name)
+                    : child.getName().equals(name) ? child : null;
+            if (answer != null) {
+                return answer;
+            }
+        }
+        return null;
+    }
+
+    private static Properties readProperties(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream is = new FileInputStream(file);
+        try {
+            properties.load(is);
+        } finally {
+            is.close();
+        }
+        return properties;
+    }
+
+    public static class VersionedPlugin extends PluginAdapter {
+        @Override
+        public boolean validate(List<String> warnings) {
+            return true;
+        }
+    }
+
+    /**
+     * Fails to merge one Java file, and overwrites the others.
+     */
+    private static class FailingShellCallback extends DefaultShellCallback {
+        private final String fileName;
+
+        FailingShellCallback(String fileName) {
+            super(true);
+            this.fileName = fileName;
+        }
+
+        @Override
+        public boolean isMergeSupported() {
+            return true;
+        }
+
+        @Override
+        public String mergeJavaFile(String newFileSource, File existingFile, String[] javadocTags,
+                String fileEncoding) throws ShellException {
+            if (existingFile.getName().equals(fileName)) {
+                throw new ShellException("cannot merge " + fileName);
+            }
+            return newFileSource;
+        }
+    }
+}
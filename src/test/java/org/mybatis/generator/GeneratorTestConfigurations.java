@@ -0,0 +1,203 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.CommentGeneratorConfiguration;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.internal.DefaultShellCallback;
+
+/**
+ * Parses and runs <code>scripts/generatorConfig.xml</code> against the
+ * database of <code>scripts/CreateDB.sql</code>, so that the results of runs
+ * with different settings can be compared.
+ */
+class GeneratorTestConfigurations {
+
+    private GeneratorTestConfigurations() {
+    }
+
+    /**
+     * Parses the test configuration. The comments of the generated files have
+     * no date, so the files of two runs can be compared.
+     *
+     * @param introspectionThreads
+     *            the introspectionThreads property of every context
+     * @param generationThreads
+     *            the generationThreads property of every context
+     * @return the configuration
+     */
+    static Configuration parseConfiguration(int introspectionThreads, int generationThreads) throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        Configuration config = cp.parseConfiguration(
+                GeneratorTestConfigurations.class.getResourceAsStream("/scripts/generatorConfig.xml"));
+
+        for (Context context : config.getContexts()) {
+            CommentGeneratorConfiguration commentGeneratorConfiguration = context.getCommentGeneratorConfiguration();
+            if (commentGeneratorConfiguration == null) {
+                commentGeneratorConfiguration = new CommentGeneratorConfiguration();
+                context.setCommentGeneratorConfiguration(commentGeneratorConfiguration);
+            }
+            commentGeneratorConfiguration.addProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+
+            context.addProperty(PropertyRegistry.CONTEXT_INTROSPECTION_THREADS,
+                    String.valueOf(introspectionThreads));
+            context.addProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS, String.valueOf(generationThreads));
+        }
+
+        return config;
+    }
+
+    /**
+     * Generates the files of a configuration without writing them.
+     */
+    static MyBatisGenerator generate(Configuration config, List<String> warnings) throws Exception {
+        MyBatisGenerator generator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+        generator.generate(null, null, null, false);
+        return generator;
+    }
+
+    /**
+     * Sets the target project of every generator of the configuration, which
+     * is MAVEN in the configuration file.
+     */
+    static void setTargetProject(Configuration config, File targetProject) {
+        targetProject.mkdirs();
+        for (Context context : config.getContexts()) {
+            context.getJavaModelGeneratorConfiguration().setTargetProject(targetProject.getPath());
+            if (context.getSqlMapGeneratorConfiguration() != null) {
+                context.getSqlMapGeneratorConfiguration().setTargetProject(targetProject.getPath());
+            }
+            if (context.getJavaClientGeneratorConfiguration() != null) {
+                context.getJavaClientGeneratorConfiguration().setTargetProject(targetProject.getPath());
+            }
+        }
+    }
+
+    /**
+     * Generates and writes the files of the contexts of a configuration.
+     *
+     * @param contextIds
+     *            the contexts to run, or <code>null</code> for every context
+     */
+    static MyBatisGenerator write(Configuration config, List<String> warnings, int writeThreads,
+            Set<String> contextIds) throws Exception {
+        MyBatisGenerator generator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+        generator.setWriteThreads(writeThreads);
+        generator.generate(null, contextIds, null, true);
+        return generator;
+    }
+
+    /**
+     * Reads the files below a directory.
+     *
+     * @return the content of the files, by relative path
+     */
+    static Map<String, String> readFiles(File directory) throws IOException {
+        Map<String, String> answer = new TreeMap<String, String>();
+        readFiles(directory, "", answer);
+        return answer;
+    }
+
+    private static void readFiles(File directory, String path, Map<String, String> files) throws IOException {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                readFiles(child, path + child.getName() + '/', files);
+            } else {
+                files.put(path + child.getName(), read(child));
+            }
+        }
+    }
+
+    private static String read(File file) throws IOException {
+        InputStream is = new FileInputStream(file);
+        try {
+            byte[] content = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < content.length) {
+                int count = is.read(content, offset, content.length - offset);
+                if (count == -1) {
+                    break;
+                }
+                offset += count;
+            }
+            return new String(content, 0, offset, "UTF-8");
+        } finally {
+            is.close();
+        }
+    }
+
+    static File createTempDirectory() throws IOException {
+        File directory = File.createTempFile("mbgtest", "");
+        directory.delete();
+        directory.mkdirs();
+        return directory;
+    }
+
+    static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Returns the target package, name and content of every generated Java
+     * file, in the order in which the files were generated.
+     */
+    static List<String> getJavaFiles(MyBatisGenerator generator) {
+        List<String> answer = new ArrayList<String>();
+        for (GeneratedJavaFile gjf : generator.getGeneratedJavaFiles()) {
+            answer.add(gjf.getTargetPackage() + '.' + gjf.getFileName() + '\n' + gjf.getFormattedContent());
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the target package, name and content of every generated XML
+     * file, in the order in which the files were generated.
+     */
+    static List<String> getXmlFiles(MyBatisGenerator generator) {
+        List<String> answer = new ArrayList<String>();
+        for (GeneratedXmlFile gxf : generator.getGeneratedXmlFiles()) {
+            answer.add(gxf.getTargetPackage() + '.' + gxf.getFileName() + '\n' + gxf.getFormattedContent());
+        }
+        return answer;
+    }
+}
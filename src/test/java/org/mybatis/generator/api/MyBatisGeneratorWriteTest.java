@@ -0,0 +1,225 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.config.CommentGeneratorConfiguration;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.NullProgressCallback;
+
+public class MyBatisGeneratorWriteTest {
+
+    private File directory;
+
+    private File mapperDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = File.createTempFile("mbgwrite", "");
+        directory.delete();
+        directory.mkdirs();
+        mapperDirectory = new File(directory, "writetest/mapper");
+    }
+
+    @After
+    public void tearDown() {
+        delete(directory);
+    }
+
+    @Test
+    public void testUnchangedFilesAreSkipped() throws Exception {
+        SaveCounts counts = generate(new DefaultShellCallback(true));
+        assertEquals(0, counts.skippedFiles);
+        int files = counts.writtenFiles;
+        assertTrue(files > 0);
+
+        File mapper = new File(mapperDirectory, "PtSimpleMapper.java");
+        assertTrue(mapper.setLastModified(1000L));
+
+        counts = generate(new DefaultShellCallback(true));
+        assertEquals(0, counts.writtenFiles);
+        assertEquals(files, counts.skippedFiles);
+        assertEquals(1000L, mapper.lastModified());
+    }
+
+    @Test
+    public void testUnchangedFilesAreNotCopiedWithoutOverwrite() throws Exception {
+        int files = generate(new DefaultShellCallback(false)).writtenFiles;
+
+        SaveCounts counts = generate(new DefaultShellCallback(false));
+        assertEquals(0, counts.writtenFiles);
+        assertEquals(files, counts.skippedFiles);
+        assertTrue(counts.warnings.isEmpty());
+        assertFalse(new File(mapperDirectory, "PtSimpleMapper.java.1").exists());
+        assertFalse(new File(mapperDirectory, "PtSimpleMapper.xml.1").exists());
+
+        // a changed file gets a copy once, and the copy is reused while the
+        // generated content stays the same
+        write(new File(mapperDirectory, "PtSimpleMapper.java"), "changed");
+        counts = generate(new DefaultShellCallback(false));
+        assertEquals(1, counts.writtenFiles);
+        assertEquals(1, counts.warnings.size());
+        assertTrue(new File(mapperDirectory, "PtSimpleMapper.java.1").exists());
+
+        counts = generate(new DefaultShellCallback(false));
+        assertEquals(0, counts.writtenFiles);
+        assertEquals(files, counts.skippedFiles);
+        assertFalse(new File(mapperDirectory, "PtSimpleMapper.java.2").exists());
+    }
+
+    @Test
+    public void testFilesAreMergedConcurrently() throws Exception {
+        generate(new DefaultShellCallback(true));
+
+        // the first two merges wait for each other, which only works if
+        // different files are not merged one after the other
+        MergingShellCallback shellCallback = new MergingShellCallback();
+        SaveCounts counts = generate(shellCallback, 4);
+        assertTrue(counts.warnings.toString(), counts.warnings.isEmpty());
+        assertTrue(shellCallback.mergesOverlapped);
+        assertEquals(0, counts.writtenFiles);
+    }
+
+    private SaveCounts generate(ShellCallback shellCallback) throws Exception {
+        return generate(shellCallback, 1);
+    }
+
+    private SaveCounts generate(ShellCallback shellCallback, int writeThreads) throws Exception {
+        Context context = new Context(ModelType.FLAT);
+        context.setId("writetest");
+        context.setTargetRuntime("MyBatis3");
+        context.addProperty(PropertyRegistry.CONTEXT_DDL_SCRIPT, "scripts/CreatePluginTestDB.sql");
+
+        // the content of a file must not depend on the time it is generated
+        CommentGeneratorConfiguration commentGeneratorConfiguration = new CommentGeneratorConfiguration();
+        commentGeneratorConfiguration.addProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+        context.setCommentGeneratorConfiguration(commentGeneratorConfiguration);
+
+        JavaModelGeneratorConfiguration javaModelGeneratorConfiguration = new JavaModelGeneratorConfiguration();
+        javaModelGeneratorConfiguration.setTargetPackage("writetest.model");
+        javaModelGeneratorConfiguration.setTargetProject(directory.getPath());
+        context.setJavaModelGeneratorConfiguration(javaModelGeneratorConfiguration);
+
+        SqlMapGeneratorConfiguration sqlMapGeneratorConfiguration = new SqlMapGeneratorConfiguration();
+        sqlMapGeneratorConfiguration.setTargetPackage("writetest.mapper");
+        sqlMapGeneratorConfiguration.setTargetProject(directory.getPath());
+        context.setSqlMapGeneratorConfiguration(sqlMapGeneratorConfiguration);
+
+        JavaClientGeneratorConfiguration javaClientGeneratorConfiguration = new JavaClientGeneratorConfiguration();
+        javaClientGeneratorConfiguration.setConfigurationType("XMLMAPPER");
+        javaClientGeneratorConfiguration.setTargetPackage("writetest.mapper");
+        javaClientGeneratorConfiguration.setTargetProject(directory.getPath());
+        context.setJavaClientGeneratorConfiguration(javaClientGeneratorConfiguration);
+
+        TableConfiguration tc = new TableConfiguration(context);
+        tc.setTableName("pt_%");
+        context.addTableConfiguration(tc);
+
+        Configuration config = new Configuration();
+        config.addContext(context);
+
+        SaveCounts counts = new SaveCounts();
+        MyBatisGenerator generator = new MyBatisGenerator(config, shellCallback, counts.warnings);
+        generator.setWriteThreads(writeThreads);
+        generator.generate(counts);
+        return counts;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        OutputStream os = new FileOutputStream(file);
+        try {
+            os.write(content.getBytes("UTF-8"));
+        } finally {
+            os.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class MergingShellCallback extends DefaultShellCallback {
+        private final CyclicBarrier barrier = new CyclicBarrier(2);
+        private final AtomicInteger merges = new AtomicInteger();
+        private volatile boolean mergesOverlapped;
+
+        MergingShellCallback() {
+            super(false);
+        }
+
+        @Override
+        public boolean isMergeSupported() {
+            return true;
+        }
+
+        @Override
+        public String mergeJavaFile(String newFileSource, File existingFile, String[] javadocTags,
+                String fileEncoding) throws ShellException {
+            if (merges.incrementAndGet() <= 2) {
+                try {
+                    barrier.await(10, TimeUnit.SECONDS);
+                    mergesOverlapped = true;
+                } catch (Exception e) {
+                    throw new ShellException("merges did not overlap: " + e);
+                }
+            }
+            return newFileSource;
+        }
+    }
+
+    private static class SaveCounts extends NullProgressCallback {
+        private final List<String> warnings = new ArrayList<String>();
+        private int writtenFiles;
+        private int skippedFiles;
+
+        @Override
+        public void saveCompleted(int writtenFiles, int skippedFiles) {
+            this.writtenFiles = writtenFiles;
+            this.skippedFiles = skippedFiles;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.mybatis.generator.api.dom.java;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Set;
@@ -278,4 +279,21 @@ public class FullyQualifiedJavaTypeTest {
         assertTrue(fqjt.getImportList().contains("java.util.List"));
         assertFalse(fqjt.getImportList().contains("java.util.List[]"));
     }
+
+    @Test
+    public void testSharedInstance() {
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.of("java.util.Map<java.lang.String, com.foo.Bar>");
+        FullyQualifiedJavaType expected = new FullyQualifiedJavaType("java.util.Map<java.lang.String, com.foo.Bar>");
+
+        assertSame(fqjt, FullyQualifiedJavaType.of("java.util.Map<java.lang.String, com.foo.Bar>"));
+        assertSame(FullyQualifiedJavaType.of("com.foo.Bar"), fqjt.getTypeArguments().get(1));
+        assertEquals(expected, fqjt);
+        assertEquals(expected.getShortName(), fqjt.getShortName());
+        assertEquals(expected.getImportList(), fqjt.getImportList());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSharedInstanceCannotBeChanged() {
+        FullyQualifiedJavaType.of("java.util.List").addTypeArgument(FullyQualifiedJavaType.getStringInstance());
+    }
 }
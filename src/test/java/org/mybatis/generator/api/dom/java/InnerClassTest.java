@@ -17,6 +17,9 @@ package org.mybatis.generator.api.dom.java;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import static org.junit.Assert.*;
 
 public class InnerClassTest {
@@ -155,7 +158,7 @@ public class InnerClassTest {
     }
 
     @Test
-    public void testGetFormattedContent() {
+    public void testGetFormattedContent() throws IOException {
         InnerClass clazz = new InnerClass("com.foo.UserClass");
         clazz.addField(new Field("test", FullyQualifiedJavaType.getStringInstance()));
         clazz.setSuperClass("com.hoge.SuperClass");
@@ -184,5 +187,9 @@ public class InnerClassTest {
                 + "}";
 
         assertEquals(excepted, clazz.getFormattedContent(0, null));
+
+        StringWriter writer = new StringWriter();
+        clazz.write(writer, 0, null);
+        assertEquals(excepted, writer.toString());
     }
 }
@@ -117,4 +117,21 @@ public class JavaDomUtilsTest {
         assertEquals("Map<BigDecimal, List<?>>",
                 JavaDomUtils.calculateTypeName(interfaze, fqjt));
     }
+
+    @Test
+    public void testShortNameCollisionIsNotImported() {
+        Interface interfaze = new Interface(new FullyQualifiedJavaType("com.foo.UserMapper"));
+
+        interfaze.addImportedType(new FullyQualifiedJavaType("com.beeant.dto.User"));
+        interfaze.addImportedType(new FullyQualifiedJavaType("com.beeant.vo.User"));
+        interfaze.addImportedType(new FullyQualifiedJavaType("java.util.List<com.beeant.vo.User>"));
+
+        assertEquals("User", JavaDomUtils.calculateTypeName(interfaze,
+                new FullyQualifiedJavaType("com.beeant.dto.User")));
+        assertEquals("com.beeant.vo.User", JavaDomUtils.calculateTypeName(interfaze,
+                new FullyQualifiedJavaType("com.beeant.vo.User")));
+        assertEquals("java.util.List<com.beeant.vo.User>", JavaDomUtils.calculateTypeName(interfaze,
+                new FullyQualifiedJavaType("java.util.List<com.beeant.vo.User>")));
+        assertFalse(interfaze.getFormattedContent().contains("import com.beeant.vo.User;"));
+    }
 }
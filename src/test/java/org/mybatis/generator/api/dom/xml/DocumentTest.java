@@ -0,0 +1,66 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api.dom.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class DocumentTest {
+
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    @Test
+    public void testWriteMatchesFormattedContent() throws Exception {
+        XmlElement select = new XmlElement("select");
+        select.addAttribute(new Attribute("resultMap", "BaseResultMap"));
+        select.addAttribute(new Attribute("id", "selectByPrimaryKey"));
+        select.addElement(new TextElement("select *"));
+        XmlElement where = new XmlElement("where");
+        where.addElement(new TextElement("id = #{id}"));
+        select.addElement(where);
+        select.addElement(new XmlElement("include"));
+
+        XmlElement mapper = new XmlElement("mapper");
+        mapper.addAttribute(new Attribute("namespace", "foo.BarMapper"));
+        mapper.addElement(select);
+
+        Document document = new Document("-//mybatis.org//DTD Mapper 3.0//EN",
+                "http://mybatis.org/dtd/mybatis-3-mapper.dtd");
+        document.setRootElement(mapper);
+
+        String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + LINE_SEPARATOR
+                + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" "
+                + "\"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">" + LINE_SEPARATOR
+                + "<mapper namespace=\"foo.BarMapper\">" + LINE_SEPARATOR
+                + "  <select id=\"selectByPrimaryKey\" resultMap=\"BaseResultMap\">" + LINE_SEPARATOR
+                + "    select *" + LINE_SEPARATOR
+                + "    <where>" + LINE_SEPARATOR
+                + "      id = #{id}" + LINE_SEPARATOR
+                + "    </where>" + LINE_SEPARATOR
+                + "    <include />" + LINE_SEPARATOR
+                + "  </select>" + LINE_SEPARATOR
+                + "</mapper>";
+
+        StringWriter writer = new StringWriter();
+        document.write(writer);
+
+        assertEquals(expected, writer.toString());
+        assertEquals(expected, document.getFormattedContent());
+    }
+}
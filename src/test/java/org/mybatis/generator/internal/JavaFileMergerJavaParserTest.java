@@ -0,0 +1,154 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mybatis.generator.config.MergeConstants;
+
+public class JavaFileMergerJavaParserTest {
+
+    private static final String NEW_SOURCE = lines(
+            "package com.foo.mapper;",
+            "",
+            "import com.foo.model.User;",
+            "import java.util.List;",
+            "",
+            "public interface UserMapper {",
+            "    /**",
+            "     * @mbg.generated",
+            "     */",
+            "    int deleteByPrimaryKey(Integer id);",
+            "",
+            "    /**",
+            "     * @mbg.generated",
+            "     */",
+            "    List<User> selectAll();",
+            "",
+            "    /**",
+            "     * @mbg.generated",
+            "     */",
+            "    int countByName(String name);",
+            "}");
+
+    private static final String EXISTING_SOURCE = lines(
+            "package com.foo.mapper;",
+            "",
+            "import com.foo.model.User;",
+            "import java.util.List;",
+            "import java.util.Map;",
+            "",
+            "@Mapper",
+            "public interface UserMapper extends CustomMapper {",
+            "    /**",
+            "     * @mbg.generated",
+            "     */",
+            "    int deleteByPrimaryKey(Integer id);",
+            "",
+            "    /**",
+            "     * @mbg.generated",
+            "     */",
+            "    int deleteByName(String name);",
+            "",
+            "    /** Hand written. */",
+            "    List<User>   findByMap(Map<String, Object> map);",
+            "",
+            "    int countByName(String name);",
+            "}");
+
+    @Test
+    public void testGeneratedMembersAreReplaced() throws Exception {
+        String merged = merge(NEW_SOURCE, EXISTING_SOURCE);
+
+        assertTrue(merged.contains("List<User> selectAll();"));
+        assertTrue(merged.contains("int deleteByPrimaryKey(Integer id);"));
+        assertFalse(merged.contains("deleteByName"));
+    }
+
+    @Test
+    public void testHandWrittenCodeIsKept() throws Exception {
+        String merged = merge(NEW_SOURCE, EXISTING_SOURCE);
+
+        assertTrue(merged.contains("    /** Hand written. */"));
+        assertTrue(merged.contains("    List<User>   findByMap(Map<String, Object> map);"));
+        assertTrue(merged.contains("import java.util.Map;"));
+        assertTrue(merged.contains("@Mapper"));
+        assertTrue(merged.contains("public interface UserMapper extends CustomMapper {"));
+    }
+
+    @Test
+    public void testHandWrittenMemberReplacesGeneratedMember() throws Exception {
+        String merged = merge(NEW_SOURCE, EXISTING_SOURCE);
+
+        assertEquals(merged.indexOf("int countByName(String name);"),
+                merged.lastIndexOf("int countByName(String name);"));
+        assertFalse(merged.contains(lines(
+                "     * @mbg.generated",
+                "     */",
+                "    int countByName(String name);")));
+    }
+
+    @Test
+    public void testMergeIsRepeatable() throws Exception {
+        String merged = merge(NEW_SOURCE, EXISTING_SOURCE);
+
+        assertEquals(merged, merge(NEW_SOURCE, merged));
+    }
+
+    @Test
+    public void testNewFileIsUnchangedWithoutExistingChanges() throws Exception {
+        assertEquals(NEW_SOURCE, merge(NEW_SOURCE, NEW_SOURCE));
+    }
+
+    @Test
+    public void testParsedSourcesAreSharedByMergers() throws Exception {
+        // every run creates a new merger, the merged source of one run is the
+        // existing source of the next
+        String merged = merge(NEW_SOURCE, EXISTING_SOURCE);
+        assertTrue(JavaFileMergerJavaParser.isCached(NEW_SOURCE));
+        assertTrue(JavaFileMergerJavaParser.isCached(merged));
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        String first = NEW_SOURCE + "// 0\n";
+        merge(first, first);
+        assertTrue(JavaFileMergerJavaParser.isCached(first));
+
+        for (int i = 1; i <= 100; i++) {
+            String source = NEW_SOURCE + "// " + i + "\n";
+            merge(source, source);
+        }
+        assertFalse(JavaFileMergerJavaParser.isCached(first));
+    }
+
+    private static String merge(String newSource, String existingSource) throws Exception {
+        return new JavaFileMergerJavaParser().getMergedSource(newSource, existingSource,
+                MergeConstants.OLD_ELEMENT_TAGS, "UserMapper.java");
+    }
+
+    private static String lines(String... lines) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.api.GenerationStatistics;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.Plugin;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ThreadSafePlugin;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+
+public class PluginAggregatorTest {
+
+    @Test
+    public void testOverriddenMethodsAreCalledInOrder() {
+        List<String> calls = new ArrayList<String>();
+        PluginAggregator pluginAggregator = new PluginAggregator();
+        pluginAggregator.addPlugin(new ModelPlugin("first", true, calls));
+        pluginAggregator.addPlugin(new ModelPlugin("second", true, calls));
+
+        assertTrue(pluginAggregator.modelBaseRecordClassGenerated(null, null));
+        assertTrue(pluginAggregator.modelExampleClassGenerated(null, null));
+        assertEquals("[first, second]", calls.toString());
+    }
+
+    @Test
+    public void testFalseStopsTheOtherPlugins() {
+        List<String> calls = new ArrayList<String>();
+        PluginAggregator pluginAggregator = new PluginAggregator();
+        pluginAggregator.addPlugin(new ModelPlugin("first", false, calls));
+        pluginAggregator.addPlugin(new ModelPlugin("second", true, calls));
+
+        assertFalse(pluginAggregator.modelBaseRecordClassGenerated(null, null));
+        assertEquals("[first]", calls.toString());
+    }
+
+    @Test
+    public void testSynchronizedPluginsAreCalled() {
+        List<String> calls = new ArrayList<String>();
+        PluginAggregator pluginAggregator = new PluginAggregator();
+        pluginAggregator.addPlugin(SynchronizedPlugin.wrap(new ModelPlugin("first", true, calls), new Object()));
+
+        assertTrue(pluginAggregator.modelBaseRecordClassGenerated(null, null));
+        assertEquals("[first]", calls.toString());
+    }
+
+    @Test
+    public void testTimedPluginsAreCounted() {
+        List<String> calls = new ArrayList<String>();
+        GenerationStatistics statistics = new GenerationStatistics();
+        PluginAggregator pluginAggregator = new PluginAggregator();
+        pluginAggregator.addPlugin(SynchronizedPlugin.wrap(
+                TimedPlugin.wrap(new ModelPlugin("first", true, calls), statistics), new Object()));
+
+        assertTrue(pluginAggregator.modelBaseRecordClassGenerated(null, null));
+        assertTrue(pluginAggregator.modelBaseRecordClassGenerated(null, null));
+        assertTrue(pluginAggregator.modelExampleClassGenerated(null, null));
+        assertEquals("[first, first]", calls.toString());
+
+        List<GenerationStatistics.PluginMethodStatistics> pluginStatistics = statistics.getPluginStatistics();
+        assertEquals(1, pluginStatistics.size());
+        assertEquals(ModelPlugin.class.getName(), pluginStatistics.get(0).getPlugin());
+        assertEquals("modelBaseRecordClassGenerated", pluginStatistics.get(0).getMethod());
+        assertEquals(2, pluginStatistics.get(0).getCalls());
+    }
+
+    @Test
+    public void testTimedPluginsKeepThreadSafety() {
+        GenerationStatistics statistics = new GenerationStatistics();
+        List<String> calls = new ArrayList<String>();
+
+        Plugin threadSafePlugin = TimedPlugin.wrap(new ThreadSafeModelPlugin(calls), statistics);
+        assertTrue(threadSafePlugin instanceof ThreadSafePlugin);
+        assertTrue(threadSafePlugin.modelBaseRecordClassGenerated(null, null));
+        assertEquals("[threadSafe]", calls.toString());
+        assertEquals(1, statistics.getPluginStatistics().size());
+
+        Plugin plugin = TimedPlugin.wrap(new ModelPlugin("first", true, calls), statistics);
+        assertFalse(plugin instanceof ThreadSafePlugin);
+    }
+
+    private static class ThreadSafeModelPlugin extends ModelPlugin implements ThreadSafePlugin {
+        ThreadSafeModelPlugin(List<String> calls) {
+            super("threadSafe", true, calls);
+        }
+    }
+
+    private static class ModelPlugin extends PluginAdapter {
+        private String name;
+        private boolean rc;
+        private List<String> calls;
+
+        ModelPlugin(String name, boolean rc, List<String> calls) {
+            this.name = name;
+            this.rc = rc;
+            this.calls = calls;
+        }
+
+        @Override
+        public boolean validate(List<String> warnings) {
+            return true;
+        }
+
+        @Override
+        public boolean modelBaseRecordClassGenerated(TopLevelClass topLevelClass,
+                IntrospectedTable introspectedTable) {
+            calls.add(name);
+            return rc;
+        }
+    }
+}
@@ -16,6 +16,9 @@
 package org.mybatis.generator.internal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.StringReader;
 import java.util.Properties;
@@ -67,6 +70,50 @@ public class XmlFileMergerTest {
         assertEquals(generatedFile1.getFormattedContent(), mergedSource);
     }
 
+    @Test
+    public void testThatStreamingMergeIsTheSameAsDomMerge() throws Exception {
+        DefaultXmlFormatter xmlFormatter = new DefaultXmlFormatter();
+        Properties p = new Properties();
+        p.setProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+        CommentGenerator commentGenerator = new DefaultCommentGenerator();
+        commentGenerator.addConfigurationProperties(p);
+
+        Document document = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        document.setRootElement(getSqlMapElement(commentGenerator));
+
+        GeneratedXmlFile generatedFile = new GeneratedXmlFile(document, "TestMapper.xml", "org.mybatis.test", "src",
+                true, xmlFormatter);
+        String newSource = generatedFile.getFormattedContent();
+
+        String existingSource = newSource.replace("</mapper>",
+                "  <select id=\"ibatorgenerated_old\">select 1</select>\n"
+                + "  <select id=\"handWritten\" resultType=\"int\">\n"
+                + "    <!-- not generated -->\n"
+                + "    select count(*) from bar where foo &lt; 22 <if test=\"a != null\"><![CDATA[ and a < 1 ]]></if><e></e>\n"
+                + "  </select>\n"
+                + "</mapper>");
+
+        String domMergedSource = XmlFileMergerJaxp.getMergedSource(new InputSource(new StringReader(newSource)),
+                new InputSource(new StringReader(existingSource)), "TestMapper.xml");
+        String streamingMergedSource = XmlFileMergerStax.getMergedSource(new StringReader(newSource),
+                new StringReader(existingSource), "TestMapper.xml");
+
+        assertEquals(domMergedSource, streamingMergedSource);
+        assertTrue(streamingMergedSource.contains("handWritten"));
+        assertFalse(streamingMergedSource.contains("ibatorgenerated_old"));
+    }
+
+    @Test
+    public void testThatStreamingMergeLeavesEntityReferencesToDomMerge() throws Exception {
+        String newSource = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!DOCTYPE mapper>\n<mapper />";
+        String existingSource = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE mapper [ <!ENTITY foo \"bar\"> ]>\n<mapper>&foo;</mapper>";
+
+        assertNull(XmlFileMergerStax.getMergedSource(new StringReader(newSource),
+                new StringReader(existingSource), "TestMapper.xml"));
+    }
+
     private XmlElement getSqlMapElement(CommentGenerator commentGenerator) {
 
         XmlElement answer = new XmlElement("mapper");
@@ -0,0 +1,118 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.TableConfiguration;
+
+public class DdlTableMetadataProviderTest {
+
+    @Test
+    public void testHsqldbScript() throws Exception {
+        DdlTableMetadataProvider provider = new DdlTableMetadataProvider();
+        Reader reader = new InputStreamReader(getClass().getResourceAsStream("/xsili-hsqldb-test.sql"), "UTF-8");
+        try {
+            provider.parse(reader);
+        } finally {
+            reader.close();
+        }
+
+        TableMetadata table = getTable(provider, "T_BLOB_UNION_KEY");
+        assertEquals("t_blob_union_key", table.getActualTableName().getTableName());
+        assertEquals("测试", table.getRemarks());
+        assertEquals("[id, id2]", new ArrayList<String>(table.getPrimaryKeyColumns().values()).toString());
+        assertEquals(7, table.getColumns().size());
+
+        ColumnMetadata column = table.getColumns().get(0);
+        assertEquals("id", column.getColumnName());
+        assertEquals(Types.BIGINT, column.getJdbcType());
+        assertFalse(column.isNullable());
+        assertEquals("主键1", column.getRemarks());
+
+        column = table.getColumns().get(3);
+        assertEquals("is_deleted", column.getColumnName());
+        assertEquals(Types.BIT, column.getJdbcType());
+        assertEquals(1, column.getLength());
+        assertTrue(column.isNullable());
+
+        column = getTable(provider, "t_blob_auto_id").getColumns().get(0);
+        assertTrue(column.getAutoIncrement());
+    }
+
+    @Test
+    public void testMySqlScript() {
+        DdlTableMetadataProvider provider = new DdlTableMetadataProvider();
+        provider.parse("CREATE TABLE `user` (\n"
+                + "  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'it''s the key',\n"
+                + "  `name` varchar(64) CHARACTER SET utf8 NOT NULL DEFAULT '',\n"
+                + "  `price` decimal(10,2) DEFAULT NULL, -- the price\n"
+                + "  `full_name` varchar(130) GENERATED ALWAYS AS (concat(`name`, 'x')) VIRTUAL,\n"
+                + "  `created` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,\n"
+                + "  PRIMARY KEY (`id`),\n"
+                + "  UNIQUE KEY `uk_name` (`name`(10))\n"
+                + ") ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='users';");
+
+        TableMetadata table = getTable(provider, "user");
+        assertEquals("users", table.getRemarks());
+        assertEquals("[id]", new ArrayList<String>(table.getPrimaryKeyColumns().values()).toString());
+        assertEquals(5, table.getColumns().size());
+        assertEquals("it's the key", table.getColumns().get(0).getRemarks());
+        assertTrue(table.getColumns().get(0).getAutoIncrement());
+        assertEquals("''", table.getColumns().get(1).getDefaultValue());
+        assertFalse(table.getColumns().get(1).isNullable());
+        assertEquals(Types.DECIMAL, table.getColumns().get(2).getJdbcType());
+        assertEquals(10, table.getColumns().get(2).getLength());
+        assertEquals(2, table.getColumns().get(2).getScale());
+        assertNull(table.getColumns().get(2).getDefaultValue());
+        assertTrue(table.getColumns().get(3).getGeneratedColumn());
+        assertEquals("CURRENT_TIMESTAMP", table.getColumns().get(4).getDefaultValue());
+    }
+
+    @Test
+    public void testAlterTable() {
+        DdlTableMetadataProvider provider = new DdlTableMetadataProvider();
+        provider.parse("create table app.orders (order_id integer, line smallint, amount numeric(12));"
+                + "alter table app.orders add constraint pk_orders primary key (order_id, line);"
+                + "comment on column app.orders.amount is 'amount'");
+
+        TableMetadata table = getTable(provider, "ORDERS");
+        assertEquals("app", table.getActualTableName().getSchema());
+        assertEquals("[order_id, line]", new ArrayList<String>(table.getPrimaryKeyColumns().values()).toString());
+        assertFalse(table.getColumns().get(1).isNullable());
+        assertEquals("amount", table.getColumns().get(2).getRemarks());
+    }
+
+    private TableMetadata getTable(DdlTableMetadataProvider provider, String tableName) {
+        TableConfiguration tc = new TableConfiguration(new Context(ModelType.FLAT));
+        tc.setTableName(tableName);
+        Map<ActualTableName, TableMetadata> tables = provider.getTables(tc);
+        assertEquals(1, tables.size());
+        return tables.values().iterator().next();
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JDBCConnectionConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.NullProgressCallback;
+
+public class IntrospectionSnapshotTest {
+
+    private static final String URL = "jdbc:hsqldb:mem:snapshot";
+
+    private static final String FINGERPRINT_QUERY =
+            "select count(*) from information_schema.columns where table_name = 'SNAPSHOT_TEST'";
+
+    private File snapshotFile;
+
+    @Before
+    public void setUp() throws Exception {
+        snapshotFile = File.createTempFile("snapshot", ".bin");
+        snapshotFile.delete();
+        execute("create table snapshot_test (id integer not null primary key, name varchar(20))");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        execute("drop table snapshot_test");
+        snapshotFile.delete();
+    }
+
+    @Test
+    public void testSnapshotIsReusedWhileTheFingerprintMatches() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        assertEquals("[ID, NAME]", introspectColumns(FINGERPRINT_QUERY, warnings));
+        assertTrue(snapshotFile.isFile());
+
+        // a rename does not change the column count, so the snapshot is still used
+        execute("alter table snapshot_test alter column name rename to title");
+        assertEquals("[ID, NAME]", introspectColumns(FINGERPRINT_QUERY, warnings));
+        assertTrue(warnings.isEmpty());
+    }
+
+    @Test
+    public void testSnapshotIsNotReusedAfterASchemaChange() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        assertEquals("[ID, NAME]", introspectColumns(FINGERPRINT_QUERY, warnings));
+
+        execute("alter table snapshot_test add column title varchar(20)");
+        assertEquals("[ID, NAME, TITLE]", introspectColumns(FINGERPRINT_QUERY, warnings));
+
+        // the new snapshot replaces the stale one
+        assertEquals("[ID, NAME, TITLE]", introspectColumns(FINGERPRINT_QUERY, warnings));
+        assertTrue(warnings.isEmpty());
+    }
+
+    @Test
+    public void testCorruptSnapshotIsIgnored() throws Exception {
+        OutputStream out = new FileOutputStream(snapshotFile);
+        try {
+            out.write("not a snapshot".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+
+        List<String> warnings = new ArrayList<String>();
+        assertEquals("[ID, NAME]", introspectColumns(FINGERPRINT_QUERY, warnings));
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.get(0).contains(snapshotFile.getPath()));
+
+        // the corrupt file was replaced by a valid snapshot
+        warnings.clear();
+        assertEquals("[ID, NAME]", introspectColumns(FINGERPRINT_QUERY, warnings));
+        assertTrue(warnings.isEmpty());
+    }
+
+    @Test
+    public void testSnapshotRequiresAFingerprintQuery() throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        assertEquals("[ID, NAME]", introspectColumns(null, warnings));
+        assertEquals(1, warnings.size());
+        assertFalse(snapshotFile.exists());
+
+        execute("alter table snapshot_test alter column name rename to title");
+        assertEquals("[ID, TITLE]", introspectColumns(null, warnings));
+    }
+
+    private String introspectColumns(String fingerprintQuery, List<String> warnings) throws Exception {
+        Context context = new Context(ModelType.FLAT);
+        context.setId("snapshot");
+        context.setTargetRuntime("MyBatis3");
+        context.addProperty(PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT, snapshotFile.getPath());
+        if (fingerprintQuery != null) {
+            context.addProperty(PropertyRegistry.CONTEXT_INTROSPECTION_FINGERPRINT_QUERY, fingerprintQuery);
+        }
+
+        JDBCConnectionConfiguration jdbcConnectionConfiguration = new JDBCConnectionConfiguration();
+        jdbcConnectionConfiguration.setDriverClass("org.hsqldb.jdbcDriver");
+        jdbcConnectionConfiguration.setConnectionURL(URL);
+        jdbcConnectionConfiguration.setUserId("sa");
+        jdbcConnectionConfiguration.setPassword("");
+        context.setJdbcConnectionConfiguration(jdbcConnectionConfiguration);
+
+        JavaModelGeneratorConfiguration javaModelGeneratorConfiguration = new JavaModelGeneratorConfiguration();
+        javaModelGeneratorConfiguration.setTargetPackage("test");
+        javaModelGeneratorConfiguration.setTargetProject("test");
+        context.setJavaModelGeneratorConfiguration(javaModelGeneratorConfiguration);
+
+        TableConfiguration tc = new TableConfiguration(context);
+        tc.setTableName("SNAPSHOT_TEST");
+        context.addTableConfiguration(tc);
+
+        context.introspectTables(new NullProgressCallback(), warnings, null);
+        assertEquals(1, context.getIntrospectedTables().size());
+
+        List<String> columnNames = new ArrayList<String>();
+        for (IntrospectedColumn column : context.getIntrospectedTables().get(0).getAllColumns()) {
+            columnNames.add(column.getActualColumnName());
+        }
+        return columnNames.toString();
+    }
+
+    private static void execute(String sql) throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        Connection connection = DriverManager.getConnection(URL, "sa", "");
+        try {
+            Statement statement = connection.createStatement();
+            statement.execute(sql);
+            statement.close();
+        } finally {
+            connection.close();
+        }
+    }
+}
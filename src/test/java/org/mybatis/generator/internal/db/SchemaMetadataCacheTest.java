@@ -0,0 +1,182 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.ObjectFactory;
+
+public class SchemaMetadataCacheTest {
+
+    private static final String URL = "jdbc:hsqldb:mem:schemacache";
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        Class.forName("org.hsqldb.jdbcDriver");
+        connection = DriverManager.getConnection(URL, "sa", "");
+        execute("create table cache_pk (id integer not null, code varchar(10) not null, name varchar(20),"
+                + " primary key (code, id))");
+        execute("create table cache_nopk (name varchar(20))");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try {
+            execute("drop table cache_pk");
+            execute("drop table cache_nopk");
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testBulkPrimaryKeysAreLoaded() throws Exception {
+        DatabaseMetaData databaseMetaData = withBulkPrimaryKeys(connection, true);
+
+        Map<ActualTableName, TableMetadata> tables = new SchemaMetadataCache().getTables(
+                databaseMetaData, null, "PUBLIC", "CACHE_%");
+        assertEquals(2, tables.size());
+        for (TableMetadata tableMetadata : tables.values()) {
+            assertTrue(tableMetadata.isPrimaryKeyLoaded());
+        }
+
+        assertEquals("[CODE, ID]", introspectPrimaryKey(databaseMetaData, new SchemaMetadataCache()));
+    }
+
+    @Test
+    public void testEmptyBulkPrimaryKeysAreReadPerTable() throws Exception {
+        DatabaseMetaData databaseMetaData = withBulkPrimaryKeys(connection, false);
+
+        Map<ActualTableName, TableMetadata> tables = new SchemaMetadataCache().getTables(
+                databaseMetaData, null, "PUBLIC", "CACHE_%");
+        assertEquals(2, tables.size());
+        for (TableMetadata tableMetadata : tables.values()) {
+            assertFalse(tableMetadata.isPrimaryKeyLoaded());
+        }
+
+        assertEquals("[CODE, ID]", introspectPrimaryKey(databaseMetaData, new SchemaMetadataCache()));
+    }
+
+    @Test
+    public void testFailedBulkPrimaryKeysAreReadPerTable() throws Exception {
+        // HSQLDB requires a table name
+        DatabaseMetaData databaseMetaData = connection.getMetaData();
+
+        Map<ActualTableName, TableMetadata> tables = new SchemaMetadataCache().getTables(
+                databaseMetaData, null, "PUBLIC", "CACHE_%");
+        for (TableMetadata tableMetadata : tables.values()) {
+            assertFalse(tableMetadata.isPrimaryKeyLoaded());
+        }
+
+        assertEquals("[CODE, ID]", introspectPrimaryKey(databaseMetaData, new SchemaMetadataCache()));
+        assertEquals("[CODE, ID]", introspectPrimaryKey(databaseMetaData, null));
+    }
+
+    private static String introspectPrimaryKey(DatabaseMetaData databaseMetaData,
+            SchemaMetadataCache schemaMetadataCache) throws Exception {
+        Context context = new Context(ModelType.FLAT);
+        context.setId("schemacache");
+        context.setTargetRuntime("MyBatis3");
+
+        JavaModelGeneratorConfiguration javaModelGeneratorConfiguration = new JavaModelGeneratorConfiguration();
+        javaModelGeneratorConfiguration.setTargetPackage("test");
+        javaModelGeneratorConfiguration.setTargetProject("test");
+        context.setJavaModelGeneratorConfiguration(javaModelGeneratorConfiguration);
+
+        TableConfiguration tc = new TableConfiguration(context);
+        tc.setSchema("PUBLIC");
+        tc.setTableName("CACHE_PK");
+        context.addTableConfiguration(tc);
+
+        List<String> warnings = new ArrayList<String>();
+        DatabaseIntrospector introspector = new DatabaseIntrospector(context, databaseMetaData,
+                ObjectFactory.createJavaTypeResolver(context, warnings), warnings, schemaMetadataCache);
+        List<IntrospectedTable> introspectedTables = introspector.introspectTables(tc);
+        assertEquals(1, introspectedTables.size());
+        assertTrue(warnings.isEmpty());
+
+        List<String> columnNames = new ArrayList<String>();
+        for (IntrospectedColumn column : introspectedTables.get(0).getPrimaryKeyColumns()) {
+            columnNames.add(column.getActualColumnName());
+        }
+        return columnNames.toString();
+    }
+
+    /**
+     * Returns metadata that accepts a missing table name when reading primary
+     * keys, like many drivers do. If <code>hasRows</code> is false, then the
+     * result is empty, like the result of the Oracle driver.
+     */
+    private static DatabaseMetaData withBulkPrimaryKeys(final Connection connection, final boolean hasRows)
+            throws SQLException {
+        final DatabaseMetaData databaseMetaData = connection.getMetaData();
+        return (DatabaseMetaData) Proxy.newProxyInstance(DatabaseMetaData.class.getClassLoader(),
+                new Class<?>[] { DatabaseMetaData.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().equals("getPrimaryKeys") && args[2] == null) {
+                            PreparedStatement statement = connection.prepareStatement(
+                                    "select * from information_schema.system_primarykeys"
+                                            + " where table_schem = ? and " + (hasRows ? "1 = 1" : "1 = 0"));
+                            statement.setString(1, (String) args[1]);
+                            statement.closeOnCompletion();
+                            return statement.executeQuery();
+                        }
+                        try {
+                            return method.invoke(databaseMetaData, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    private void execute(String sql) throws Exception {
+        Statement statement = connection.createStatement();
+        try {
+            statement.execute(sql);
+        } finally {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.ModelType;
+
+public class RenamingRuleTest {
+
+    private static final String[] NAMES = { "CUST_NAME", "CUST_CUST_ID", "NAME_CUST", "CUST", "cust_name", "" };
+
+    @Test
+    public void testRulesMatchReplaceAll() {
+        String[][] rules = { { "^CUST_", null }, { "^CUST_", "C" }, { "^", "X_" }, { "^CUST_", "$0" },
+                { "CUST_", "" }, { "^CUST.", "" }, { "(?i)^cust_", "" } };
+        for (String[] rule : rules) {
+            RenamingRule renamingRule = RenamingRule.compile(rule[0], rule[1]);
+            String replaceString = rule[1] == null ? "" : rule[1];
+            for (String name : NAMES) {
+                assertEquals(rule[0] + " " + name,
+                        Pattern.compile(rule[0]).matcher(name).replaceAll(replaceString),
+                        renamingRule.rename(name));
+            }
+        }
+    }
+
+    @Test
+    public void testProperties() {
+        RenamingRule renamingRule = RenamingRule.compile("^CUST_", null);
+        assertEquals("firstName", renamingRule.getCamelCaseProperty("CUST_FIRST_NAME"));
+        assertEquals("FIRST_NAME", renamingRule.getValidProperty("CUST_FIRST_NAME"));
+        assertEquals("custId", RenamingRule.compile(null, null).getCamelCaseProperty("CUST_ID"));
+    }
+
+    @Test
+    public void testRulesAreSharedByContext() {
+        Context context = new Context(ModelType.FLAT);
+        assertSame(context.getRenamingRule("^CUST_", null), context.getRenamingRule("^CUST_", ""));
+        assertSame(context.getRenamingRule(null, null), context.getRenamingRule(null, null));
+    }
+
+    @Test
+    public void testRulesAreNotSharedBetweenContexts() {
+        Context context = new Context(ModelType.FLAT);
+        Context otherContext = new Context(ModelType.FLAT);
+        assertNotSame(context.getRenamingRule(null, null), otherContext.getRenamingRule(null, null));
+        assertNotSame(context.getRenamingRule("^CUST_", null), otherContext.getRenamingRule("^CUST_", null));
+    }
+}
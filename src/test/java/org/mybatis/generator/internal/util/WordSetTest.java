@@ -0,0 +1,55 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mybatis.generator.api.dom.java.JavaReservedWords;
+import org.mybatis.generator.internal.db.SqlReservedWords;
+
+public class WordSetTest {
+
+    @Test
+    public void testIgnoreCase() {
+        WordSet wordSet = new WordSet(true, "SELECT", "FROM", "WHERE");
+        assertTrue(wordSet.contains("SELECT"));
+        assertTrue(wordSet.contains("select"));
+        assertTrue(wordSet.contains("From"));
+        assertFalse(wordSet.contains("SELECTS"));
+        assertFalse(wordSet.contains("SELEC"));
+        assertFalse(wordSet.contains(""));
+        assertFalse(wordSet.contains(null));
+    }
+
+    @Test
+    public void testCaseSensitive() {
+        WordSet wordSet = new WordSet(false, "class", "int");
+        assertTrue(wordSet.contains("class"));
+        assertFalse(wordSet.contains("Class"));
+        assertFalse(wordSet.contains("INT"));
+    }
+
+    @Test
+    public void testReservedWords() {
+        assertTrue(SqlReservedWords.containsWord("order"));
+        assertTrue(SqlReservedWords.containsWord("Year_Month"));
+        assertFalse(SqlReservedWords.containsWord("first_name"));
+        assertTrue(JavaReservedWords.containsWord("class"));
+        assertFalse(JavaReservedWords.containsWord("Class"));
+    }
+}
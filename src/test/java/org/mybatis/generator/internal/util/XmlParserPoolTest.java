@@ -0,0 +1,132 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+public class XmlParserPoolTest {
+
+    @Test
+    public void testBuilderIsResetBetweenParses() throws Exception {
+        File dtd = File.createTempFile("mbgpool", ".dtd");
+        try {
+            OutputStream os = new FileOutputStream(dtd);
+            try {
+                os.write("<!ATTLIST root source CDATA \"file\">".getBytes("UTF-8"));
+            } finally {
+                os.close();
+            }
+            String xml = "<!DOCTYPE root SYSTEM \"" + dtd.toURI() + "\"><root/>";
+
+            final AtomicInteger resolved = new AtomicInteger();
+            DocumentBuilder builder = XmlParserPool.getDocumentBuilder();
+            builder.setEntityResolver(new EntityResolver() {
+                @Override
+                public InputSource resolveEntity(String publicId, String systemId) {
+                    resolved.incrementAndGet();
+                    return new InputSource(new StringReader("<!ATTLIST root source CDATA \"resolver\">"));
+                }
+            });
+            assertEquals("resolver", parse(builder, xml).getDocumentElement().getAttribute("source"));
+            assertEquals(1, resolved.get());
+
+            // the same builder, without the entity resolver of the first parse
+            DocumentBuilder second = XmlParserPool.getDocumentBuilder();
+            assertSame(builder, second);
+            assertEquals("file", parse(second, xml).getDocumentElement().getAttribute("source"));
+            assertEquals(1, resolved.get());
+
+            assertNotSame(builder, XmlParserPool.getValidatingDocumentBuilder());
+        } finally {
+            dtd.delete();
+        }
+    }
+
+    @Test
+    public void testConcurrentParses() throws Exception {
+        final int threads = 8;
+        final int parses = 50;
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        final Set<DocumentBuilder> builders = Collections.synchronizedSet(
+                Collections.newSetFromMap(new IdentityHashMap<DocumentBuilder, Boolean>()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < threads; i++) {
+                final int thread = i;
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        int answer = 0;
+                        for (int j = 0; j < parses; j++) {
+                            DocumentBuilder builder = XmlParserPool.getDocumentBuilder();
+                            builders.add(builder);
+                            String id = thread + "-" + j;
+                            Document document = parse(builder, "<root id=\"" + id + "\"><child>"
+                                    + id + "</child></root>");
+                            if (id.equals(document.getDocumentElement().getAttribute("id"))
+                                    && id.equals(document.getDocumentElement().getTextContent())) {
+                                answer++;
+                            }
+                        }
+                        return answer;
+                    }
+                }));
+            }
+
+            for (Future<Integer> future : futures) {
+                assertEquals(parses, future.get(30, TimeUnit.SECONDS).intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // every thread parsed with a builder of its own
+        assertEquals(threads, builders.size());
+    }
+
+    private static Document parse(DocumentBuilder builder, String xml) throws Exception {
+        return builder.parse(new InputSource(new StringReader(xml)));
+    }
+}
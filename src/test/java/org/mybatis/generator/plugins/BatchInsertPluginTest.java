@@ -0,0 +1,135 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.apache.ibatis.session.SqlSession;
+import org.junit.After;
+import org.junit.Test;
+
+public class BatchInsertPluginTest {
+
+    private GeneratedMapperTester tester;
+
+    @After
+    public void tearDown() throws Exception {
+        if (tester != null) {
+            tester.close();
+        }
+    }
+
+    @Test
+    public void testXmlMapper() throws Exception {
+        tester = GeneratedMapperTester.generate("XMLMAPPER", BatchInsertPlugin.class, new Properties());
+
+        String mapper = tester.getJavaFile("PtSimpleMapper.java");
+        assertTrue(mapper.contains("int insertBatch(@Param(\"records\") List<PtSimple> records);"));
+        assertFalse(mapper.contains("@InsertProvider"));
+        String mapperXml = tester.getXmlFile("PtSimpleMapper.xml");
+        assertTrue(mapperXml.contains("<insert id=\"insertBatch\" parameterType=\"map\">"));
+        assertTrue(mapperXml.contains("<foreach collection=\"records\" item=\"record\" separator=\",\">"));
+
+        tester.compile();
+        assertInsertBatch();
+    }
+
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        tester = GeneratedMapperTester.generate("ANNOTATEDMAPPER", BatchInsertPlugin.class, new Properties());
+
+        String mapper = tester.getJavaFile("PtSimpleMapper.java");
+        assertTrue(mapper.contains("@InsertProvider(type=PtSimpleSqlProvider.class, method=\"insertBatch\")"));
+        String provider = tester.getJavaFile("PtSimpleSqlProvider.java");
+        assertTrue(provider.contains("public String insertBatch(Map<String, Object> parameter) {"));
+        assertTrue(tester.getGenerator().getGeneratedXmlFiles().isEmpty());
+
+        tester.compile();
+        assertInsertBatch();
+    }
+
+    @Test
+    public void testMixedMapper() throws Exception {
+        tester = GeneratedMapperTester.generate("MIXEDMAPPER", BatchInsertPlugin.class, new Properties());
+
+        // the statement is in the XML mapper, the provider is not involved
+        assertFalse(tester.getJavaFile("PtSimpleMapper.java").contains("@InsertProvider"));
+        assertTrue(tester.getXmlFile("PtSimpleMapper.xml").contains("<insert id=\"insertBatch\""));
+
+        tester.compile();
+        assertInsertBatch();
+    }
+
+    @Test
+    public void testInsertInBatches() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("maxRowsPerStatement", "500");
+        tester = GeneratedMapperTester.generate("XMLMAPPER", BatchInsertPlugin.class, properties);
+
+        String mapper = tester.getJavaFile("PtSimpleMapper.java");
+        assertTrue(mapper.contains("default int insertInBatches(List<PtSimple> records) {"));
+        assertTrue(mapper.contains("for (int i = 0; i < records.size(); i += 500) {"));
+
+        tester.compile();
+    }
+
+    @Test
+    public void testInvalidMaxRowsPerStatement() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("maxRowsPerStatement", "0");
+        tester = GeneratedMapperTester.generate("XMLMAPPER", BatchInsertPlugin.class, properties);
+
+        assertFalse(tester.getJavaFile("PtSimpleMapper.java").contains("insertBatch"));
+        // the property warning, and the warning that the plugin is ignored
+        assertEquals(2, tester.getWarnings().size());
+        assertTrue(tester.getWarnings().get(0).contains("maxRowsPerStatement"));
+    }
+
+    private void assertInsertBatch() throws Exception {
+        SqlSession sqlSession = tester.getSqlSessionFactory().openSession(true);
+        try {
+            Object mapper = sqlSession.getMapper(tester.getMapperClass("PtSimple"));
+            // an empty list has no VALUES to render
+            Object rows = GeneratedMapperTester.invoke(mapper, "insertBatch", new ArrayList<Object>());
+            assertEquals(0, rows);
+
+            rows = GeneratedMapperTester.invoke(mapper, "insertBatch", Arrays.asList(
+                    tester.newRecord("PtSimple", "id", 1, "name", "a", "amount", 10),
+                    tester.newRecord("PtSimple", "id", 2, "name", null, "amount", 20),
+                    tester.newRecord("PtSimple", "id", 3, "name", "c")));
+            assertEquals(3, rows);
+
+            mapper = sqlSession.getMapper(tester.getMapperClass("PtComposite"));
+            rows = GeneratedMapperTester.invoke(mapper, "insertBatch", Arrays.asList(
+                    tester.newRecord("PtComposite", "id1", 1, "id2", 1, "name", "a"),
+                    tester.newRecord("PtComposite", "id1", 1, "id2", 2, "name", "b")));
+            assertEquals(2, rows);
+        } finally {
+            sqlSession.close();
+        }
+
+        assertEquals("[[1, a, 10], [2, null, 20], [3, c, null]]",
+                tester.query("select id, name, amount from pt_simple order by id"));
+        assertEquals("[[1, 1, a], [1, 2, b]]",
+                tester.query("select id1, id2, name from pt_composite order by id1, id2"));
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.After;
+import org.junit.Test;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class BatchUpdateDeletePluginTest {
+
+    private GeneratedMapperTester tester;
+
+    @After
+    public void tearDown() throws Exception {
+        if (tester != null) {
+            tester.close();
+        }
+    }
+
+    @Test
+    public void testXmlMapper() throws Exception {
+        tester = GeneratedMapperTester.generate("XMLMAPPER", BatchUpdateDeletePlugin.class, new Properties());
+
+        String mapper = tester.getJavaFile("PtSimpleMapper.java");
+        assertTrue(mapper.contains("int deleteByPrimaryKeys(@Param(\"keys\") List<Integer> keys);"));
+        assertFalse(mapper.contains("@DeleteProvider"));
+        assertTrue(tester.getJavaFile("PtCompositeMapper.java")
+                .contains("int deleteByPrimaryKeys(@Param(\"keys\") List<PtComposite> keys);"));
+        assertTrue(tester.getXmlFile("PtSimpleMapper.xml").contains("<delete id=\"deleteByPrimaryKeys\""));
+
+        tester.compile();
+        assertDeleteByPrimaryKeys();
+    }
+
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        tester = GeneratedMapperTester.generate("ANNOTATEDMAPPER", BatchUpdateDeletePlugin.class, new Properties());
+
+        assertTrue(tester.getJavaFile("PtSimpleMapper.java")
+                .contains("@DeleteProvider(type=PtSimpleSqlProvider.class, method=\"deleteByPrimaryKeys\")"));
+        assertTrue(tester.getJavaFile("PtSimpleSqlProvider.java")
+                .contains("public String deleteByPrimaryKeys(Map<String, Object> parameter) {"));
+
+        tester.compile();
+        assertDeleteByPrimaryKeys();
+    }
+
+    @Test
+    public void testMixedMapper() throws Exception {
+        tester = GeneratedMapperTester.generate("MIXEDMAPPER", BatchUpdateDeletePlugin.class, new Properties());
+
+        assertFalse(tester.getJavaFile("PtSimpleMapper.java").contains("@DeleteProvider"));
+        assertTrue(tester.getXmlFile("PtSimpleMapper.xml").contains("<delete id=\"deleteByPrimaryKeys\""));
+
+        tester.compile();
+        assertDeleteByPrimaryKeys();
+    }
+
+    @Test
+    public void testRowValues() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("useRowValues", "true");
+
+        tester = GeneratedMapperTester.generate("XMLMAPPER", BatchUpdateDeletePlugin.class, properties);
+        assertTrue(tester.getXmlFile("PtCompositeMapper.xml").contains("where (id1, id2) in"));
+        tester.compile();
+        assertDeleteByPrimaryKeys();
+        tester.close();
+
+        tester = GeneratedMapperTester.generate("ANNOTATEDMAPPER", BatchUpdateDeletePlugin.class, properties);
+        assertTrue(tester.getJavaFile("PtCompositeSqlProvider.java")
+                .contains("sql.append(\"delete from pt_composite where (id1, id2) in (\");"));
+        tester.compile();
+        assertDeleteByPrimaryKeys();
+    }
+
+    @Test
+    public void testBatchService() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("serviceTargetPackage", "plugintest.service");
+        properties.setProperty("serviceTargetProject", "plugintest");
+        properties.setProperty("flushSize", "2");
+        tester = GeneratedMapperTester.generate("XMLMAPPER", BatchUpdateDeletePlugin.class, properties);
+
+        String service = tester.getJavaFile("PtSimpleBatchService.java");
+        assertTrue(service.contains("if ((i + 1) % 2 == 0) {"));
+        // a table with only key columns has no update by primary key
+        assertFalse(tester.getJavaFile("PtKeysOnlyMapper.java").contains("updateByPrimaryKey("));
+
+        tester.compile();
+        insertSimpleRows();
+
+        Object batchService = tester.loadClass("plugintest.service.PtSimpleBatchService")
+                .getConstructor(SqlSessionFactory.class).newInstance(tester.getSqlSessionFactory());
+        Object rows = GeneratedMapperTester.invoke(batchService, "updateByPrimaryKeyBatch", Arrays.asList(
+                tester.newRecord("PtSimple", "id", 1, "name", "x", "amount", 1),
+                tester.newRecord("PtSimple", "id", 2, "name", "y", "amount", 2),
+                tester.newRecord("PtSimple", "id", 3, "name", "z", "amount", 3),
+                tester.newRecord("PtSimple", "id", 4, "name", "none")));
+        assertEquals(3, rows);
+        assertEquals("[[1, x, 1], [2, y, 2], [3, z, 3]]",
+                tester.query("select id, name, amount from pt_simple order by id"));
+    }
+
+    @Test
+    public void testBatchServiceWithSqlSessionTemplate() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("serviceTargetPackage", "plugintest.service");
+        properties.setProperty("serviceTargetProject", "plugintest");
+        properties.setProperty("useSqlSessionTemplate", "true");
+        tester = GeneratedMapperTester.generate("XMLMAPPER", BatchUpdateDeletePlugin.class, properties);
+
+        String service = tester.getJavaFile("PtSimpleBatchService.java");
+        assertTrue(service.contains(
+                "this.sqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);"));
+        assertFalse(service.contains("commit()"));
+
+        tester.setTransactionFactory(new SpringManagedTransactionFactory());
+        tester.compile();
+        insertSimpleRows();
+
+        final Object batchService = tester.loadClass("plugintest.service.PtSimpleBatchService")
+                .getConstructor(SqlSessionFactory.class).newInstance(tester.getSqlSessionFactory());
+        final List<Object> records = Arrays.asList(
+                tester.newRecord("PtSimple", "id", 1, "name", "x", "amount", 1),
+                tester.newRecord("PtSimple", "id", 2, "name", "y", "amount", 2));
+
+        try {
+            GeneratedMapperTester.invoke(batchService, "updateByPrimaryKeyBatch", records);
+            fail("a batch outside of a transaction must be rejected");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("Spring transaction"));
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(tester.getDataSource()));
+
+        // a rolled back transaction rolls the updates back
+        Object rows = transactionTemplate.execute(new TransactionCallback<Object>() {
+            @Override
+            public Object doInTransaction(TransactionStatus status) {
+                status.setRollbackOnly();
+                return updateByPrimaryKeyBatch(batchService, records);
+            }
+        });
+        assertEquals(2, rows);
+        assertEquals("[[1, n1], [2, n2], [3, n3]]", tester.query("select id, name from pt_simple order by id"));
+
+        rows = transactionTemplate.execute(new TransactionCallback<Object>() {
+            @Override
+            public Object doInTransaction(TransactionStatus status) {
+                return updateByPrimaryKeyBatch(batchService, records);
+            }
+        });
+        assertEquals(2, rows);
+        assertEquals("[[1, x], [2, y], [3, n3]]", tester.query("select id, name from pt_simple order by id"));
+    }
+
+    @Test
+    public void testEmptyKeys() throws Exception {
+        for (String clientType : Arrays.asList("XMLMAPPER", "ANNOTATEDMAPPER")) {
+            tester = GeneratedMapperTester.generate(clientType, BatchUpdateDeletePlugin.class, new Properties());
+            tester.compile();
+            insertSimpleRows();
+
+            SqlSession sqlSession = tester.getSqlSessionFactory().openSession(true);
+            try {
+                Object mapper = sqlSession.getMapper(tester.getMapperClass("PtSimple"));
+                assertEquals(0, GeneratedMapperTester.invoke(mapper, "deleteByPrimaryKeys",
+                        new ArrayList<Object>()));
+
+                // an empty OR list must not turn into a delete without a where clause
+                mapper = sqlSession.getMapper(tester.getMapperClass("PtComposite"));
+                assertEquals(0, GeneratedMapperTester.invoke(mapper, "deleteByPrimaryKeys",
+                        new ArrayList<Object>()));
+            } finally {
+                sqlSession.close();
+            }
+
+            assertEquals("[[3]]", tester.query("select count(*) from pt_simple"));
+            assertEquals("[[3]]", tester.query("select count(*) from pt_composite"));
+            tester.close();
+            tester = null;
+        }
+    }
+
+    private static Object updateByPrimaryKeyBatch(Object batchService, List<Object> records) {
+        try {
+            return GeneratedMapperTester.invoke(batchService, "updateByPrimaryKeyBatch", records);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void insertSimpleRows() throws Exception {
+        SqlSession sqlSession = tester.getSqlSessionFactory().openSession(true);
+        try {
+            Object mapper = sqlSession.getMapper(tester.getMapperClass("PtSimple"));
+            for (int id = 1; id <= 3; id++) {
+                GeneratedMapperTester.invoke(mapper, "insertSelective",
+                        tester.newRecord("PtSimple", "id", id, "name", "n" + id));
+            }
+
+            mapper = sqlSession.getMapper(tester.getMapperClass("PtComposite"));
+            for (int id = 1; id <= 3; id++) {
+                GeneratedMapperTester.invoke(mapper, "insertSelective",
+                        tester.newRecord("PtComposite", "id1", 1, "id2", id, "name", "n" + id));
+            }
+        } finally {
+            sqlSession.close();
+        }
+    }
+
+    private void assertDeleteByPrimaryKeys() throws Exception {
+        insertSimpleRows();
+
+        SqlSession sqlSession = tester.getSqlSessionFactory().openSession(true);
+        try {
+            Object mapper = sqlSession.getMapper(tester.getMapperClass("PtSimple"));
+            assertEquals(2, GeneratedMapperTester.invoke(mapper, "deleteByPrimaryKeys", Arrays.asList(1, 3, 5)));
+
+            mapper = sqlSession.getMapper(tester.getMapperClass("PtComposite"));
+            assertEquals(2, GeneratedMapperTester.invoke(mapper, "deleteByPrimaryKeys", Arrays.asList(
+                    tester.newRecord("PtComposite", "id1", 1, "id2", 1),
+                    tester.newRecord("PtComposite", "id1", 1, "id2", 2),
+                    tester.newRecord("PtComposite", "id1", 2, "id2", 1))));
+        } finally {
+            sqlSession.close();
+        }
+
+        assertEquals("[[2]]", tester.query("select id from pt_simple"));
+        assertEquals("[[1, 3]]", tester.query("select id1, id2 from pt_composite"));
+    }
+}
@@ -0,0 +1,452 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.TransactionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.mybatis.generator.SqlScriptRunner;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.Plugin;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.xsili.outputdependence.page.QueryParam;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Generates the tables of <code>scripts/CreatePluginTestDB.sql</code> with a
+ * plugin, compiles the generated code and runs the mappers against an in
+ * memory HSQLDB database.
+ */
+class GeneratedMapperTester {
+
+    private static final String DDL_SCRIPT = "scripts/CreatePluginTestDB.sql";
+
+    private static final String MODEL_PACKAGE = "plugintest.model";
+
+    private static final String MAPPER_PACKAGE = "plugintest.mapper";
+
+    private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+
+    private final MyBatisGenerator generator;
+
+    private final List<String> warnings;
+
+    private String url;
+
+    private UnpooledDataSource dataSource;
+
+    private TransactionFactory transactionFactory = new JdbcTransactionFactory();
+
+    private File directory;
+
+    private URLClassLoader classLoader;
+
+    private SqlSessionFactory sqlSessionFactory;
+
+    private GeneratedMapperTester(MyBatisGenerator generator, List<String> warnings) {
+        this.generator = generator;
+        this.warnings = warnings;
+        this.url = "jdbc:hsqldb:mem:plugintest" + DATABASE_COUNT.incrementAndGet();
+        this.dataSource = new UnpooledDataSource("org.hsqldb.jdbcDriver", url, "sa", "");
+    }
+
+    /**
+     * Generates all tables of the test script.
+     *
+     * @param clientType
+     *            XMLMAPPER, ANNOTATEDMAPPER or MIXEDMAPPER
+     * @param pluginType
+     *            the plugin under test
+     * @param pluginProperties
+     *            the properties of the plugin
+     * @return the tester
+     */
+    static GeneratedMapperTester generate(String clientType, Class<? extends Plugin> pluginType,
+            Properties pluginProperties) throws Exception {
+        return generate(clientType, pluginType, pluginProperties, new Properties());
+    }
+
+    /**
+     * Generates all tables of the test script, with additional context
+     * properties.
+     */
+    static GeneratedMapperTester generate(String clientType, Class<? extends Plugin> pluginType,
+            Properties pluginProperties, Properties contextProperties) throws Exception {
+        Context context = new Context(ModelType.FLAT);
+        context.setId("plugintest");
+        context.setTargetRuntime("MyBatis3");
+        context.addProperty(PropertyRegistry.CONTEXT_DDL_SCRIPT, DDL_SCRIPT);
+        for (String name : contextProperties.stringPropertyNames()) {
+            context.addProperty(name, contextProperties.getProperty(name));
+        }
+
+        PluginConfiguration pluginConfiguration = new PluginConfiguration();
+        pluginConfiguration.setConfigurationType(pluginType.getName());
+        for (String name : pluginProperties.stringPropertyNames()) {
+            pluginConfiguration.addProperty(name, pluginProperties.getProperty(name));
+        }
+        context.addPluginConfiguration(pluginConfiguration);
+
+        JavaModelGeneratorConfiguration javaModelGeneratorConfiguration = new JavaModelGeneratorConfiguration();
+        javaModelGeneratorConfiguration.setTargetPackage(MODEL_PACKAGE);
+        javaModelGeneratorConfiguration.setTargetProject("plugintest");
+        context.setJavaModelGeneratorConfiguration(javaModelGeneratorConfiguration);
+
+        // the XML mapper is next to the mapper interface, where MyBatis looks for it
+        SqlMapGeneratorConfiguration sqlMapGeneratorConfiguration = new SqlMapGeneratorConfiguration();
+        sqlMapGeneratorConfiguration.setTargetPackage(MAPPER_PACKAGE);
+        sqlMapGeneratorConfiguration.setTargetProject("plugintest");
+        context.setSqlMapGeneratorConfiguration(sqlMapGeneratorConfiguration);
+
+        JavaClientGeneratorConfiguration javaClientGeneratorConfiguration = new JavaClientGeneratorConfiguration();
+        javaClientGeneratorConfiguration.setConfigurationType(clientType);
+        javaClientGeneratorConfiguration.setTargetPackage(MAPPER_PACKAGE);
+        javaClientGeneratorConfiguration.setTargetProject("plugintest");
+        context.setJavaClientGeneratorConfiguration(javaClientGeneratorConfiguration);
+
+        TableConfiguration tc = new TableConfiguration(context);
+        tc.setTableName("pt_%");
+        context.addTableConfiguration(tc);
+
+        Configuration config = new Configuration();
+        config.addContext(context);
+
+        List<String> warnings = new ArrayList<String>();
+        MyBatisGenerator generator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+        generator.generate(null, null, null, false);
+        return new GeneratedMapperTester(generator, warnings);
+    }
+
+    MyBatisGenerator getGenerator() {
+        return generator;
+    }
+
+    List<String> getWarnings() {
+        return warnings;
+    }
+
+    String getJavaFile(String fileName) {
+        for (GeneratedJavaFile generatedJavaFile : generator.getGeneratedJavaFiles()) {
+            if (generatedJavaFile.getFileName().equals(fileName)) {
+                return generatedJavaFile.getFormattedContent();
+            }
+        }
+        throw new AssertionError(fileName + " was not generated");
+    }
+
+    String getXmlFile(String fileName) {
+        for (GeneratedXmlFile generatedXmlFile : generator.getGeneratedXmlFiles()) {
+            if (generatedXmlFile.getFileName().equals(fileName)) {
+                return generatedXmlFile.getFormattedContent();
+            }
+        }
+        throw new AssertionError(fileName + " was not generated");
+    }
+
+    /**
+     * Compiles the generated Java files against MyBatis, and fails with the
+     * compiler messages if they do not compile.
+     */
+    void compile() throws Exception {
+        directory = File.createTempFile("plugintest", "");
+        directory.delete();
+        File sourceDirectory = new File(directory, "src");
+        File classDirectory = new File(directory, "classes");
+        classDirectory.mkdirs();
+
+        List<File> sourceFiles = new ArrayList<File>();
+        for (GeneratedJavaFile generatedJavaFile : generator.getGeneratedJavaFiles()) {
+            File file = new File(new File(sourceDirectory, toPath(generatedJavaFile.getTargetPackage())),
+                    generatedJavaFile.getFileName());
+            write(file, generatedJavaFile.getFormattedContent());
+            sourceFiles.add(file);
+        }
+        for (GeneratedXmlFile generatedXmlFile : generator.getGeneratedXmlFiles()) {
+            write(new File(new File(classDirectory, toPath(generatedXmlFile.getTargetPackage())),
+                    generatedXmlFile.getFileName()), generatedXmlFile.getFormattedContent());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            List<String> options = Arrays.asList("-classpath", getCompileClasspath(),
+                    "-d", classDirectory.getPath(), "-encoding", "UTF-8");
+            boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(sourceFiles)).call();
+            if (!success) {
+                StringBuilder sb = new StringBuilder("Generated Java files do not compile:");
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                    sb.append('\n').append(diagnostic);
+                }
+                fail(sb.toString());
+            }
+        } finally {
+            fileManager.close();
+        }
+
+        classLoader = new URLClassLoader(new URL[] { classDirectory.toURI().toURL() },
+                getClass().getClassLoader());
+    }
+
+    /**
+     * Returns a session factory of the test database, with every generated
+     * mapper registered. The tables are created on the first call.
+     */
+    SqlSessionFactory getSqlSessionFactory() throws Exception {
+        if (sqlSessionFactory != null) {
+            return sqlSessionFactory;
+        }
+
+        assertTrue("compile() must be called first", classLoader != null);
+        SqlScriptRunner scriptRunner = new SqlScriptRunner(getClass().getClassLoader().getResourceAsStream(DDL_SCRIPT),
+                "org.hsqldb.jdbcDriver", url, "sa", "");
+        scriptRunner.executeScript();
+
+        org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration(
+                new Environment("test", transactionFactory, dataSource));
+
+        // MyBatis resolves the types of the XML mappers with the context class loader
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            for (GeneratedJavaFile generatedJavaFile : generator.getGeneratedJavaFiles()) {
+                if (generatedJavaFile.getCompilationUnit() instanceof Interface) {
+                    configuration.addMapper(loadClass(generatedJavaFile.getCompilationUnit()
+                            .getType().getFullyQualifiedName()));
+                }
+            }
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+        return sqlSessionFactory;
+    }
+
+    /**
+     * Adds a property to the URL of the test database, for example
+     * <code>sql.syntax_mys=true</code> for MySQL syntax. Must be called before
+     * the session factory is created.
+     */
+    void addDatabaseProperty(String property) {
+        url = url + ';' + property;
+        dataSource = new UnpooledDataSource("org.hsqldb.jdbcDriver", url, "sa", "");
+    }
+
+    /**
+     * Replaces the JDBC transactions of the mappers, for example with Spring
+     * managed transactions. Must be called before the session factory is
+     * created.
+     */
+    void setTransactionFactory(TransactionFactory transactionFactory) {
+        this.transactionFactory = transactionFactory;
+    }
+
+    DataSource getDataSource() {
+        return dataSource;
+    }
+
+    Class<?> loadClass(String className) throws ClassNotFoundException {
+        return classLoader.loadClass(className);
+    }
+
+    Class<?> getMapperClass(String tableType) throws ClassNotFoundException {
+        return loadClass(MAPPER_PACKAGE + '.' + tableType + "Mapper");
+    }
+
+    /**
+     * Creates a record of a generated model class.
+     *
+     * @param modelType
+     *            the short name of the model class
+     * @param propertyValues
+     *            property names, each followed by its value
+     * @return the record
+     */
+    Object newRecord(String modelType, Object... propertyValues) throws Exception {
+        Object record = loadClass(MODEL_PACKAGE + '.' + modelType).newInstance();
+        for (int i = 0; i < propertyValues.length; i += 2) {
+            String property = (String) propertyValues[i];
+            String setter = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+            invoke(record, setter, propertyValues[i + 1]);
+        }
+        return record;
+    }
+
+    /**
+     * Calls the public method of the target with the given name and number of
+     * arguments, and rethrows what the method throws.
+     */
+    static Object invoke(Object target, String methodName, Object... args) throws Exception {
+        for (Method method : target.getClass().getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterTypes().length == args.length) {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    }
+                    throw e;
+                }
+            }
+        }
+        throw new AssertionError(target.getClass().getName() + " has no method " + methodName);
+    }
+
+    /**
+     * Runs a query on the test database.
+     *
+     * @return the rows, like <code>[[1, a], [2, b]]</code>
+     */
+    String query(String sql) throws Exception {
+        Connection connection = DriverManager.getConnection(url, "sa", "");
+        try {
+            Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery(sql);
+            List<List<Object>> rows = new ArrayList<List<Object>>();
+            while (rs.next()) {
+                List<Object> row = new ArrayList<Object>();
+                for (int i = 1; i <= rs.getMetaData().getColumnCount(); i++) {
+                    row.add(rs.getObject(i));
+                }
+                rows.add(row);
+            }
+            rs.close();
+            statement.close();
+            return rows.toString();
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Shuts the test database down and deletes the compiled files.
+     */
+    void close() throws Exception {
+        if (sqlSessionFactory != null) {
+            Connection connection = DriverManager.getConnection(url, "sa", "");
+            try {
+                connection.createStatement().execute("shutdown");
+            } finally {
+                connection.close();
+            }
+        }
+        if (classLoader != null) {
+            classLoader.close();
+        }
+        if (directory != null) {
+            delete(directory);
+        }
+    }
+
+    /**
+     * The generated code needs MyBatis, and MyBatis-Spring with the Spring
+     * beans and transaction jars for the SqlSessionTemplate. The examples of
+     * the pagination plugin extend QueryParam, which needs the Jackson
+     * annotations. The jars are looked up from their classes, because the
+     * class path of the test JVM may be a single manifest jar.
+     */
+    private static String getCompileClasspath() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (Class<?> type : Arrays.asList(SqlSessionFactory.class, SqlSessionTemplate.class,
+                DisposableBean.class, TransactionSynchronizationManager.class, QueryParam.class,
+                JsonIgnore.class)) {
+            if (sb.length() > 0) {
+                sb.append(File.pathSeparatorChar);
+            }
+            sb.append(new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath());
+        }
+        return sb.toString();
+    }
+
+    private static String toPath(String targetPackage) {
+        return targetPackage.replace('.', File.separatorChar);
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            Writer writer = new OutputStreamWriter(out, "UTF-8");
+            writer.write(content);
+            writer.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
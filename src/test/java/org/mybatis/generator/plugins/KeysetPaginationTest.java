@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.session.SqlSession;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mybatis.generator.xsili.outputdependence.page.QueryParam;
+import org.mybatis.generator.xsili.plugins.MybatisPaginationPlugin;
+
+/**
+ * Runs the selectByExampleAfter statement of the pagination plugin against
+ * HSQLDB.
+ */
+public class KeysetPaginationTest {
+
+    private GeneratedMapperTester tester;
+
+    private SqlSession sqlSession;
+
+    private Object mapper;
+
+    @Before
+    public void setUp() throws Exception {
+        Properties pluginProperties = new Properties();
+        pluginProperties.setProperty("queryParam", QueryParam.class.getName());
+        Properties contextProperties = new Properties();
+        contextProperties.setProperty("keysetPagination", "true");
+        tester = GeneratedMapperTester.generate("XMLMAPPER", MybatisPaginationPlugin.class, pluginProperties,
+                contextProperties);
+
+        assertTrue(tester.getXmlFile("PtSimpleMapper.xml").contains("<select id=\"selectByExampleAfter\""));
+        // composite keys need a keysetField
+        assertFalse(tester.getXmlFile("PtCompositeMapper.xml").contains("selectByExampleAfter"));
+
+        tester.compile();
+        sqlSession = tester.getSqlSessionFactory().openSession(true);
+        mapper = sqlSession.getMapper(tester.getMapperClass("PtSimple"));
+        // inserted out of order, the pages are ordered by id
+        for (int id : new int[] { 4, 1, 5, 3, 2, 6 }) {
+            GeneratedMapperTester.invoke(mapper, "insertSelective", tester.newRecord("PtSimple", "id", id,
+                    "name", id % 2 == 0 ? "even" : "odd", "amount", id * 10));
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (sqlSession != null) {
+            sqlSession.close();
+        }
+        if (tester != null) {
+            tester.close();
+        }
+    }
+
+    @Test
+    public void testFirstPageWithoutLastKey() throws Exception {
+        assertEquals(Arrays.asList(1, 2, 3), selectAfter(null, null, 3));
+        assertEquals(Arrays.asList(1, 2, 3), selectAfter(newExample(), null, 3));
+    }
+
+    @Test
+    public void testNextPages() throws Exception {
+        assertEquals(Arrays.asList(4, 5, 6), selectAfter(null, 3, 3));
+        assertEquals(Arrays.asList(6), selectAfter(null, 5, 3));
+        assertEquals(Arrays.asList(), selectAfter(null, 6, 3));
+    }
+
+    @Test
+    public void testExampleCriteria() throws Exception {
+        Object example = newExample();
+        Object criteria = GeneratedMapperTester.invoke(example, "createCriteria");
+        GeneratedMapperTester.invoke(criteria, "andNameEqualTo", "even");
+
+        assertEquals(Arrays.asList(2, 4), selectAfter(example, null, 2));
+        assertEquals(Arrays.asList(4, 6), selectAfter(example, 2, 2));
+    }
+
+    @Test
+    public void testOredExampleCriteria() throws Exception {
+        // (name = 'even') or (amount < 20), the key condition applies to both
+        Object example = newExample();
+        Object criteria = GeneratedMapperTester.invoke(example, "createCriteria");
+        GeneratedMapperTester.invoke(criteria, "andNameEqualTo", "even");
+        criteria = GeneratedMapperTester.invoke(example, "or");
+        GeneratedMapperTester.invoke(criteria, "andAmountLessThan", 20);
+
+        assertEquals(Arrays.asList(1, 2, 4, 6), selectAfter(example, null, 10));
+        assertEquals(Arrays.asList(2, 4, 6), selectAfter(example, 1, 10));
+    }
+
+    private Object newExample() throws Exception {
+        return tester.loadClass("plugintest.model.PtSimpleExample").newInstance();
+    }
+
+    private List<Object> selectAfter(Object example, Integer lastKey, int limit) throws Exception {
+        List<?> records = (List<?>) GeneratedMapperTester.invoke(mapper, "selectByExampleAfter", example, lastKey,
+                limit);
+        List<Object> answer = new ArrayList<Object>();
+        for (Object record : records) {
+            answer.add(GeneratedMapperTester.invoke(record, "getId"));
+        }
+        return answer;
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ *    Copyright 2006-2017 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.session.SqlSession;
+import org.junit.After;
+import org.junit.Test;
+
+public class UpsertPluginTest {
+
+    private static final List<String> CLIENT_TYPES = Arrays.asList("XMLMAPPER", "ANNOTATEDMAPPER", "MIXEDMAPPER");
+
+    private GeneratedMapperTester tester;
+
+    @After
+    public void tearDown() throws Exception {
+        if (tester != null) {
+            tester.close();
+        }
+    }
+
+    @Test
+    public void testXmlMapper() throws Exception {
+        tester = GeneratedMapperTester.generate("XMLMAPPER", UpsertPlugin.class, getProperties("MySQL"));
+
+        String mapper = tester.getJavaFile("PtSimpleMapper.java");
+        assertTrue(mapper.contains("int upsert(PtSimple record);"));
+        assertTrue(mapper.contains("int upsertSelective(PtSimple record);"));
+        assertTrue(mapper.contains("int upsertBatch(@Param(\"records\") List<PtSimple> records);"));
+        assertFalse(mapper.contains("@InsertProvider"));
+        String mapperXml = tester.getXmlFile("PtSimpleMapper.xml");
+        assertTrue(mapperXml.contains("<insert id=\"upsert\" parameterType=\"plugintest.model.PtSimple\">"));
+        assertTrue(mapperXml.contains("<insert id=\"upsertSelective\" parameterType=\"plugintest.model.PtSimple\">"));
+        assertTrue(mapperXml.contains("<insert id=\"upsertBatch\" parameterType=\"map\">"));
+        assertTrue(mapperXml.contains("<if test=\"name == null and amount == null\">"));
+
+        // a table with only key columns has nothing to update
+        assertFalse(tester.getJavaFile("PtKeysOnlyMapper.java").contains("upsert"));
+
+        tester.compile();
+    }
+
+    @Test
+    public void testAnnotatedMapper() throws Exception {
+        tester = GeneratedMapperTester.generate("ANNOTATEDMAPPER", UpsertPlugin.class, getProperties("MySQL"));
+
+        String mapper = tester.getJavaFile("PtSimpleMapper.java");
+        assertTrue(mapper.contains("@InsertProvider(type=PtSimpleSqlProvider.class, method=\"upsert\")"));
+        assertTrue(mapper.contains("@InsertProvider(type=PtSimpleSqlProvider.class, method=\"upsertSelective\")"));
+        assertTrue(mapper.contains("@InsertProvider(type=PtSimpleSqlProvider.class, method=\"upsertBatch\")"));
+        String provider = tester.getJavaFile("PtSimpleSqlProvider.java");
+        assertTrue(provider.contains("public String upsert(PtSimple record) {"));
+        assertTrue(provider.contains("public String upsertSelective(PtSimple record) {"));
+        assertTrue(provider.contains("public String upsertBatch(Map<String, Object> parameter) {"));
+        assertTrue(provider.contains("if (sql.length() == updates) {"));
+
+        tester.compile();
+    }
+
+    @Test
+    public void testMixedMapper() throws Exception {
+        tester = GeneratedMapperTester.generate("MIXEDMAPPER", UpsertPlugin.class, getProperties("MySQL"));
+
+        assertFalse(tester.getJavaFile("PtSimpleMapper.java").contains("@InsertProvider"));
+        assertTrue(tester.getXmlFile("PtSimpleMapper.xml").contains("<insert id=\"upsert\""));
+
+        tester.compile();
+    }
+
+    @Test
+    public void testMySql() throws Exception {
+        for (String clientType : CLIENT_TYPES) {
+            tester = GeneratedMapperTester.generate(clientType, UpsertPlugin.class, getProperties("MySQL"));
+            String statements = getStatements(clientType);
+            assertTrue(clientType, statements.contains("on duplicate key update"));
+            assertTrue(clientType, statements.contains("name = values(name)"));
+            assertTrue(clientType, statements.contains("id = values(id)"));
+
+            // HSQLDB understands the MySQL statements in its MySQL syntax mode
+            tester.addDatabaseProperty("sql.syntax_mys=true");
+            tester.compile();
+            assertUpserts();
+            tester.close();
+            tester = null;
+        }
+    }
+
+    @Test
+    public void testPostgreSql() throws Exception {
+        for (String clientType : CLIENT_TYPES) {
+            tester = GeneratedMapperTester.generate(clientType, UpsertPlugin.class, getProperties("PostgreSQL"));
+            String statements = getStatements(clientType);
+            assertTrue(clientType, statements.contains("on conflict (id) do update set"));
+            assertTrue(clientType, statements.contains("name = excluded.name"));
+            assertTrue(clientType, statements.contains("id = excluded.id"));
+            String compositeStatements = clientType.equals("ANNOTATEDMAPPER")
+                    ? tester.getJavaFile("PtCompositeSqlProvider.java")
+                    : tester.getXmlFile("PtCompositeMapper.xml");
+            assertTrue(clientType, compositeStatements.contains("on conflict (id1, id2) do update set"));
+
+            tester.compile();
+            tester.close();
+            tester = null;
+        }
+    }
+
+    @Test
+    public void testHsqldb() throws Exception {
+        for (String clientType : CLIENT_TYPES) {
+            tester = GeneratedMapperTester.generate(clientType, UpsertPlugin.class, getProperties("HSQLDB"));
+            String statements = getStatements(clientType);
+            assertTrue(clientType, statements.contains("merge into pt_simple using (values"));
+            assertTrue(clientType, statements.contains("cast(#{id,jdbcType=INTEGER} as INTEGER)"));
+            assertTrue(clientType, statements.contains("as VARCHAR(20))"));
+            assertTrue(clientType, statements.contains("pt_simple.id = vals.id"));
+
+            tester.compile();
+            assertUpserts();
+            tester.close();
+            tester = null;
+        }
+    }
+
+    /**
+     * Returns the XML mapper, or the provider of an annotated mapper, of
+     * <code>pt_simple</code>.
+     */
+    private String getStatements(String clientType) {
+        return clientType.equals("ANNOTATEDMAPPER")
+                ? tester.getJavaFile("PtSimpleSqlProvider.java")
+                : tester.getXmlFile("PtSimpleMapper.xml");
+    }
+
+    private void assertUpserts() throws Exception {
+        SqlSession sqlSession = tester.getSqlSessionFactory().openSession(true);
+        try {
+            Object mapper = sqlSession.getMapper(tester.getMapperClass("PtSimple"));
+            GeneratedMapperTester.invoke(mapper, "upsert", tester.newRecord("PtSimple", "id", 1, "name", "a", "amount", 10));
+            GeneratedMapperTester.invoke(mapper, "upsert", tester.newRecord("PtSimple", "id", 1, "name", "b"));
+
+            GeneratedMapperTester.invoke(mapper, "upsertSelective",
+                    tester.newRecord("PtSimple", "id", 2, "name", "c", "amount", 20));
+            GeneratedMapperTester.invoke(mapper, "upsertSelective", tester.newRecord("PtSimple", "id", 2, "amount", 30));
+            // nothing to update
+            GeneratedMapperTester.invoke(mapper, "upsertSelective", tester.newRecord("PtSimple", "id", 2));
+            GeneratedMapperTester.invoke(mapper, "upsertSelective", tester.newRecord("PtSimple", "id", 3));
+
+            GeneratedMapperTester.invoke(mapper, "upsertBatch", Arrays.asList(
+                    tester.newRecord("PtSimple", "id", 1, "name", "x", "amount", 1),
+                    tester.newRecord("PtSimple", "id", 4, "name", "y", "amount", 4)));
+
+            mapper = sqlSession.getMapper(tester.getMapperClass("PtComposite"));
+            GeneratedMapperTester.invoke(mapper, "upsert", tester.newRecord("PtComposite", "id1", 1, "id2", 1, "name", "a"));
+            GeneratedMapperTester.invoke(mapper, "upsert", tester.newRecord("PtComposite", "id1", 1, "id2", 1, "name", "b"));
+            GeneratedMapperTester.invoke(mapper, "upsertBatch", Arrays.asList(
+                    tester.newRecord("PtComposite", "id1", 1, "id2", 1, "name", "c"),
+                    tester.newRecord("PtComposite", "id1", 1, "id2", 2, "name", "d")));
+        } finally {
+            sqlSession.close();
+        }
+
+        assertEquals("[[1, x, 1], [2, c, 30], [3, null, null], [4, y, 4]]",
+                tester.query("select id, name, amount from pt_simple order by id"));
+        assertEquals("[[1, 1, c], [1, 2, d]]",
+                tester.query("select id1, id2, name from pt_composite order by id1, id2"));
+    }
+
+    private static Properties getProperties(String dialect) {
+        Properties properties = new Properties();
+        properties.setProperty("dialect", dialect);
+        properties.setProperty("enableUpsertBatch", "true");
+        return properties;
+    }
+}
@@ -0,0 +1,217 @@
+package xsili.generator;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.xsili.plugins.MybatisPaginationPlugin;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseException;
+
+/**
+ * 分页插件各模式生成的mapper, service, controller
+ */
+public class MybatisPaginationPluginTest {
+
+    @Test
+    public void testExactCount() throws Exception {
+        MyBatisGenerator generator = generate(new Properties());
+
+        String service = getJavaFile(generator, "Table1ServiceImpl.java");
+        assertTrue(service.contains("criteria.setPage(pageNum);"));
+        assertTrue(service.contains("List<Table1> list = this.table1Mapper.selectByExample(criteria);"));
+        assertTrue(service.contains("return SimplePage.buildPage(list, criteria);"));
+
+        String mapperXml = getXmlFile(generator, "Table1Mapper.xml");
+        assertFalse(mapperXml.contains("selectByExampleLimit"));
+        assertFalse(mapperXml.contains("countApproximately"));
+        assertFalse(mapperXml.contains("selectByExampleAfter"));
+    }
+
+    @Test
+    public void testNoCount() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("paginationCountMode", "none");
+        MyBatisGenerator generator = generate(properties);
+
+        String mapper = getJavaFile(generator, "Table1Mapper.java");
+        assertTrue(mapper.contains("List<Table1> selectByExampleLimit(@Param(\"example\") Table1Criteria example, "
+                + "@Param(\"offset\") int offset, @Param(\"limit\") int limit);"));
+        assertFalse(mapper.contains("countApproximately"));
+
+        String mapperXml = getXmlFile(generator, "Table1Mapper.xml");
+        assertTrue(mapperXml.contains("<select id=\"selectByExampleLimit\" parameterType=\"map\" resultMap=\"BaseResultMap\">"));
+        assertTrue(mapperXml.contains("order by ${example.orderByClause}"));
+        assertTrue(mapperXml.contains("limit #{limit} offset #{offset}"));
+
+        String service = getJavaFile(generator, "Table1ServiceImpl.java");
+        assertFalse(service.contains("criteria.setPage(pageNum);"));
+        assertTrue(service.contains("this.table1Mapper.selectByExampleLimit(criteria, (pageNum - 1) * pageSize, pageSize + 1);"));
+        assertTrue(service.contains("return SimplePage.buildNextPage(list, pageNum, pageSize);"));
+
+        String controller = getJavaFile(generator, "Table1Controller.java");
+        assertTrue(controller.contains("通过hasNext判断是否有下一页"));
+    }
+
+    @Test
+    public void testApproximateCountMySql() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("paginationCountMode", "approximate");
+        properties.setProperty("databaseDialect", "MySQL");
+        MyBatisGenerator generator = generate(properties);
+
+        String mapper = getJavaFile(generator, "Table1Mapper.java");
+        assertTrue(mapper.contains("selectByExampleLimit("));
+        assertTrue(mapper.contains("long countApproximately();"));
+
+        String mapperXml = getXmlFile(generator, "Table1Mapper.xml");
+        assertTrue(mapperXml.contains("select coalesce((select table_rows from information_schema.tables "
+                + "where table_schema = database() and table_name = 't_table1'), 0)"));
+
+        String service = getJavaFile(generator, "Table1ServiceImpl.java");
+        assertTrue(service.contains("long totalCount = this.table1Mapper.countApproximately();"));
+        assertTrue(service.contains("return SimplePage.buildApproximatePage(list, pageNum, pageSize, totalCount);"));
+    }
+
+    @Test
+    public void testApproximateCountPostgreSql() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("paginationCountMode", "approximate");
+        properties.setProperty("databaseDialect", "PostgreSQL");
+        MyBatisGenerator generator = generate(properties);
+
+        String mapperXml = getXmlFile(generator, "Table1Mapper.xml");
+        assertTrue(mapperXml.contains("select coalesce((select greatest(c.reltuples, 0)::bigint from pg_class c "
+                + "join pg_namespace n on n.oid = c.relnamespace where c.relname = 't_table1' "
+                + "and n.nspname = current_schema()), 0)"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testApproximateCountRequiresDialect() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("paginationCountMode", "approximate");
+        generate(properties);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testInvalidCountMode() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("paginationCountMode", "estimate");
+        generate(properties);
+    }
+
+    @Test
+    public void testKeysetPagination() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("keysetPagination", "true");
+        MyBatisGenerator generator = generate(properties);
+
+        String mapper = getJavaFile(generator, "Table1Mapper.java");
+        assertTrue(mapper.contains("List<Table1> selectByExampleAfter(@Param(\"example\") Table1Criteria example, "
+                + "@Param(\"lastKey\") Long lastKey, @Param(\"limit\") int limit);"));
+
+        String mapperXml = getXmlFile(generator, "Table1Mapper.xml");
+        assertTrue(mapperXml.contains("id &gt; #{lastKey,jdbcType=BIGINT}"));
+        assertTrue(mapperXml.contains("order by id"));
+
+        String service = getJavaFile(generator, "Table1ServiceImpl.java");
+        assertTrue(service.contains("public List<Table1> listAfter(Long lastId, int pageSize) {"));
+        assertTrue(service.contains("return this.table1Mapper.selectByExampleAfter(criteria, lastId, pageSize);"));
+
+        // 复合主键没有配置keysetField, 不生成
+        assertFalse(getJavaFile(generator, "BlobUnionKeyMapper.java").contains("selectByExampleAfter"));
+        assertFalse(getJavaFile(generator, "BlobUnionKeyServiceImpl.java").contains("listAfter"));
+    }
+
+    @Test
+    public void testWithoutPaginationPlugin() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("keysetPagination", "true");
+        properties.setProperty("paginationCountMode", "approximate");
+        properties.setProperty("databaseDialect", "MySQL");
+        MyBatisGenerator generator = generate(properties, false);
+
+        // mapper没有分页插件追加的语句, service和controller不能调用
+        String service = getJavaFile(generator, "Table1ServiceImpl.java");
+        assertFalse(service.contains("selectByExampleAfter"));
+        assertFalse(service.contains("listAfter"));
+        assertFalse(service.contains("selectByExampleLimit"));
+        assertFalse(service.contains("countApproximately"));
+        assertTrue(service.contains("List<Table1> list = this.table1Mapper.selectByExample(criteria);"));
+
+        assertFalse(getJavaFile(generator, "Table1Controller.java").contains("listAfter"));
+    }
+
+    private static MyBatisGenerator generate(Properties properties) throws Exception {
+        return generate(properties, true);
+    }
+
+    private static MyBatisGenerator generate(Properties properties, boolean paginationPlugin) throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        Configuration config = cp.parseConfiguration(MybatisPaginationPluginTest.class.getClassLoader()
+                .getResourceAsStream("xsili-mybatis-generator.xml"));
+        for (Context context : config.getContexts()) {
+            // 从建表脚本读取表结构, 不需要数据库
+            context.addProperty(PropertyRegistry.CONTEXT_DDL_SCRIPT, "xsili-hsqldb-test.sql");
+            for (String name : properties.stringPropertyNames()) {
+                context.addProperty(name, properties.getProperty(name));
+            }
+            if (!paginationPlugin) {
+                Iterator<PluginConfiguration> iterator = context.getPluginConfigurations().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().getConfigurationType().equals(MybatisPaginationPlugin.class.getName())) {
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+
+        MyBatisGenerator generator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+        generator.generate(null, null, null, false);
+
+        for (GeneratedJavaFile generatedJavaFile : generator.getGeneratedJavaFiles()) {
+            try {
+                JavaParser.parse(new ByteArrayInputStream(generatedJavaFile.getFormattedContent().getBytes("UTF-8")));
+            } catch (ParseException e) {
+                fail("Generated Java File " + generatedJavaFile.getFileName() + " will not compile");
+            }
+        }
+        return generator;
+    }
+
+    private static String getJavaFile(MyBatisGenerator generator, String fileName) {
+        for (GeneratedJavaFile generatedJavaFile : generator.getGeneratedJavaFiles()) {
+            if (generatedJavaFile.getFileName().equals(fileName)) {
+                return generatedJavaFile.getFormattedContent();
+            }
+        }
+        throw new AssertionError(fileName + " was not generated");
+    }
+
+    private static String getXmlFile(MyBatisGenerator generator, String fileName) {
+        for (GeneratedXmlFile generatedXmlFile : generator.getGeneratedXmlFiles()) {
+            if (generatedXmlFile.getFileName().equals(fileName)) {
+                return generatedXmlFile.getFormattedContent();
+            }
+        }
+        throw new AssertionError(fileName + " was not generated");
+    }
+}
@@ -0,0 +1,82 @@
+package xsili.outputdependence.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.mybatis.generator.xsili.outputdependence.page.SimplePage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class SimplePageTest {
+
+    @Test
+    public void testBuildPage() {
+        SimplePage<Integer> page = SimplePage.buildPage(rows(1, 2, 3), 1, 3, 7);
+        assertEquals("[1, 2, 3]", page.getRows().toString());
+        assertEquals(7, page.getTotalCount());
+        assertEquals(3, page.getTotalPage());
+        assertNull(page.getHasNext());
+    }
+
+    @Test
+    public void testBuildNextPageWithMoreRows() {
+        SimplePage<Integer> page = SimplePage.buildNextPage(rows(1, 2, 3, 4), 1, 3);
+        assertEquals("[1, 2, 3]", page.getRows().toString());
+        assertTrue(page.getHasNext());
+        assertFalse(page.getIsLast());
+        assertEquals(SimplePage.UNKNOWN_TOTAL, page.getTotalCount());
+        assertEquals(SimplePage.UNKNOWN_TOTAL, page.getTotalPage());
+    }
+
+    @Test
+    public void testBuildNextPageWithLastRows() {
+        SimplePage<Integer> page = SimplePage.buildNextPage(rows(1, 2), 2, 3);
+        assertEquals("[1, 2]", page.getRows().toString());
+        assertFalse(page.getHasNext());
+        assertTrue(page.getIsLast());
+
+        page = SimplePage.buildNextPage(rows(1, 2, 3), 2, 3);
+        assertEquals("[1, 2, 3]", page.getRows().toString());
+        assertFalse(page.getHasNext());
+    }
+
+    @Test
+    public void testBuildApproximatePage() {
+        SimplePage<Integer> page = SimplePage.buildApproximatePage(rows(1, 2, 3, 4), 1, 3, 100);
+        assertEquals("[1, 2, 3]", page.getRows().toString());
+        assertTrue(page.getHasNext());
+        assertEquals(100, page.getTotalCount());
+        assertEquals(34, page.getTotalPage());
+    }
+
+    @Test
+    public void testBuildApproximatePageWithStaleStatistics() {
+        // 统计信息落后于实际数据时, 以已查到的记录数为准
+        SimplePage<Integer> page = SimplePage.buildApproximatePage(rows(1, 2), 3, 3, 0);
+        assertFalse(page.getHasNext());
+        assertTrue(page.getIsLast());
+        assertEquals(8, page.getTotalCount());
+        assertEquals(3, page.getTotalPage());
+    }
+
+    @Test
+    public void testHasNextIsOnlySerializedWhenKnown() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String json = objectMapper.writeValueAsString(SimplePage.buildPage(rows(1), 1, 10, 1));
+        assertFalse(json.contains("hasNext"));
+
+        json = objectMapper.writeValueAsString(SimplePage.buildNextPage(rows(1), 1, 10));
+        assertTrue(json.contains("\"hasNext\":false"));
+    }
+
+    private static List<Integer> rows(Integer... values) {
+        return new ArrayList<Integer>(Arrays.asList(values));
+    }
+}
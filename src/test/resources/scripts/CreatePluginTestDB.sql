@@ -0,0 +1,37 @@
+--
+--    Copyright 2006-2017 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+-- tables of the mapper plugin tests, read by the ddlScript property and run on HSQLDB
+
+create table pt_simple (
+  id integer not null,
+  name varchar(20),
+  amount integer,
+  primary key (id)
+);
+
+create table pt_composite (
+  id1 integer not null,
+  id2 integer not null,
+  name varchar(20),
+  primary key (id1, id2)
+);
+
+create table pt_keys_only (
+  id1 integer not null,
+  id2 integer not null,
+  primary key (id1, id2)
+);